@@ -106,6 +106,15 @@ class ActionDslLoader extends DslLoader {
         load(network, null)
     }
 
+    /**
+     * DSL extensions available to action scripts.
+     */
+    static List<Object> getExtensions() {
+        List<Object> extensions = new ArrayList<>(ContingencyDslLoader.getExtensions())
+        extensions.addAll(ServiceLoader.load(DslTaskExtension.class).toList())
+        extensions
+    }
+
     /**
      * Loads in binding the functions which create contingencies, actions, and rules,
      * binding them to the network parameter. The handler defines how created objects will be used.
@@ -200,9 +209,7 @@ class ActionDslLoader extends DslLoader {
         loadDsl(binding, network, handler, observer)
         try {
 
-            def shell = createShell(binding)
-
-            shell.evaluate(dslSrc)
+            evaluate(binding, getExtensions())
 
             observer?.end()
         } catch (CompilationFailedException e) {
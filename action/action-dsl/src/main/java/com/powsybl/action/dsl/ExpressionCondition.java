@@ -6,9 +6,13 @@
  */
 package com.powsybl.action.dsl;
 
+import com.powsybl.action.dsl.ast.*;
 import com.powsybl.dsl.ast.ExpressionNode;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -17,6 +21,10 @@ public class ExpressionCondition implements Condition {
 
     private final ExpressionNode node;
 
+    private volatile CompiledActionExpression compiledNode;
+
+    private volatile Map<String, CompiledActionExpression> compiledVariables;
+
     public ExpressionCondition(ExpressionNode node) {
         this.node = Objects.requireNonNull(node);
     }
@@ -29,4 +37,32 @@ public class ExpressionCondition implements Condition {
     public ExpressionNode getNode() {
         return node;
     }
+
+    /**
+     * Get the condition expression compiled, which is done on first call.
+     */
+    public CompiledActionExpression getCompiledNode() {
+        CompiledActionExpression result = compiledNode;
+        if (result == null) {
+            result = ActionExpressionCompiler.compile(node);
+            compiledNode = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get the variables of the condition expression, compiled and indexed by their printed expression.
+     */
+    public Map<String, CompiledActionExpression> getCompiledVariables() {
+        Map<String, CompiledActionExpression> result = compiledVariables;
+        if (result == null) {
+            Map<String, CompiledActionExpression> variables = new TreeMap<>();
+            for (NetworkNode variable : ExpressionVariableLister.list(node)) {
+                variables.putIfAbsent(ActionExpressionPrinter.toString(variable), ActionExpressionCompiler.compile(variable));
+            }
+            result = Collections.unmodifiableMap(variables);
+            compiledVariables = result;
+        }
+        return result;
+    }
 }
@@ -0,0 +1,521 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.primitives.Primitives;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.dsl.GroovyUtil;
+import com.powsybl.dsl.ast.*;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkListener;
+import groovy.lang.GroovyObject;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compile an action expression into a tree of closures, so that it can be evaluated many times without walking
+ * the AST:
+ * <ul>
+ *     <li>network components are looked up once per network, and then only checked to still be in the network
+ *     when equipments have been created or removed,</li>
+ *     <li>properties and methods of network components are resolved once per class to a Java getter or method
+ *     {@link MethodHandle}, when there is no ambiguity. Otherwise, they are resolved by Groovy as in
+ *     {@link ActionExpressionEvaluator}.</li>
+ * </ul>
+ * Compiled expressions are thread safe.
+ *
+ * @author agent <agent at local>
+ */
+public class ActionExpressionCompiler implements ActionExpressionVisitor<CompiledActionExpression, Void> {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Count the equipments created or removed in a network, so that values resolved on the network are only
+     * checked again after such a change. A single instance is registered as listener of a network.
+     */
+    private static final class NetworkStructure implements NetworkListener {
+
+        private static final Map<Network, NetworkStructure> STRUCTURES = Collections.synchronizedMap(new WeakHashMap<>());
+
+        private final AtomicLong version = new AtomicLong();
+
+        private static NetworkStructure of(Network network) {
+            return STRUCTURES.computeIfAbsent(network, n -> {
+                NetworkStructure structure = new NetworkStructure();
+                n.addListener(structure);
+                return structure;
+            });
+        }
+
+        @Override
+        public void onCreation(Identifiable identifiable) {
+            version.incrementAndGet();
+        }
+
+        @Override
+        public void onRemoval(Identifiable identifiable) {
+            version.incrementAndGet();
+        }
+
+        @Override
+        public void onUpdate(Identifiable identifiable, String attribute, Object oldValue, Object newValue) {
+            // updates do not change the equipments of the network
+        }
+    }
+
+    /**
+     * A value resolved on a network, with the version of the network structure it has been checked against.
+     */
+    private static final class Resolution<T> {
+
+        private final T value;
+
+        private final long version;
+
+        private Resolution(T value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    /**
+     * A value depending only on the network, not on its variants, resolved once per network. The value is only
+     * checked again when equipments have been created or removed in the network, and resolved again when it is not
+     * valid anymore, for instance when a network component has been removed and replaced.
+     * Networks are weakly referenced, but as values generally reference their network, a network is kept as long as
+     * the compiled expression.
+     */
+    private static final class NetworkBoundValue<T> {
+
+        private final Function<Network, T> resolver;
+
+        private final BiPredicate<Network, T> validator;
+
+        private final ConcurrentMap<Network, Resolution<T>> resolutions = new MapMaker().weakKeys().makeMap();
+
+        private NetworkBoundValue(Function<Network, T> resolver, BiPredicate<Network, T> validator) {
+            this.resolver = resolver;
+            this.validator = validator;
+        }
+
+        private T get(Network network) {
+            long version = NetworkStructure.of(network).version.get();
+            Resolution<T> resolution = resolutions.get(network);
+            if (resolution == null || resolution.version != version) {
+                T value = resolution != null && validator.test(network, resolution.value) ? resolution.value : resolver.apply(network);
+                resolution = new Resolution<>(value, version);
+                resolutions.put(network, resolution);
+            }
+            return resolution.value;
+        }
+    }
+
+    /**
+     * Resolve a property or a method call once per class of the target object.
+     */
+    private static final class CallSite {
+
+        private static final MethodHandle GROOVY = MethodHandles.constant(Object.class, null);
+
+        private final Function<Class<?>, MethodHandle> resolver;
+
+        private final Function<Object, Object> fallback;
+
+        private final Map<Class<?>, MethodHandle> handles = new ConcurrentHashMap<>();
+
+        private CallSite(Function<Class<?>, MethodHandle> resolver, Function<Object, Object> fallback) {
+            this.resolver = resolver;
+            this.fallback = fallback;
+        }
+
+        private Object call(Object target) {
+            MethodHandle handle = handles.computeIfAbsent(target.getClass(), c -> {
+                MethodHandle h = resolver.apply(c);
+                return h != null ? h : GROOVY;
+            });
+            if (handle == GROOVY) {
+                return fallback.apply(target);
+            }
+            try {
+                return (Object) handle.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new PowsyblException(t);
+            }
+        }
+    }
+
+    public static CompiledActionExpression compile(ExpressionNode node) {
+        return node.accept(new ActionExpressionCompiler(), null);
+    }
+
+    /**
+     * Find the declaration of a public method in a public class or interface, so that it can be accessed
+     * from an instance of a non public implementation class.
+     */
+    private static Method findPublicMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        Deque<Class<?>> types = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        types.add(clazz);
+        while (!types.isEmpty()) {
+            Class<?> type = types.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            if (Modifier.isPublic(type.getModifiers())) {
+                try {
+                    return type.getMethod(name, parameterTypes);
+                } catch (NoSuchMethodException e) {
+                    // public supertypes have already been searched by getMethod
+                    continue;
+                }
+            }
+            if (type.getSuperclass() != null) {
+                types.add(type.getSuperclass());
+            }
+            types.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return null;
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static MethodHandle findGetter(Class<?> clazz, String propertyName) {
+        // Groovy objects and maps have their own property resolution
+        if (propertyName.isEmpty() || GroovyObject.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+        String suffix = capitalize(propertyName);
+        Method getter = findPublicMethod(clazz, "get" + suffix);
+        if (getter == null || getter.getReturnType() == void.class) {
+            getter = findPublicMethod(clazz, "is" + suffix);
+            if (getter == null || getter.getReturnType() != boolean.class) {
+                return null;
+            }
+        }
+        MethodHandle handle = unreflect(getter);
+        return handle != null ? handle.asType(ACCESSOR_TYPE) : null;
+    }
+
+    private static boolean isApplicable(Class<?> parameterType, Object arg) {
+        if (arg == null) {
+            return !parameterType.isPrimitive();
+        }
+        return Primitives.wrap(parameterType).isInstance(arg);
+    }
+
+    static MethodHandle findMethod(Class<?> clazz, String methodName, Object[] args) {
+        if (GroovyObject.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+        List<Method> applicableMethods = Arrays.stream(clazz.getMethods())
+                .filter(m -> m.getName().equals(methodName) && m.getParameterCount() == args.length && !m.isVarArgs())
+                .filter(m -> {
+                    Class<?>[] parameterTypes = m.getParameterTypes();
+                    for (int i = 0; i < args.length; i++) {
+                        if (!isApplicable(parameterTypes[i], args[i])) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+        // let Groovy choose between overloaded methods
+        if (applicableMethods.size() != 1) {
+            return null;
+        }
+        Method method = findPublicMethod(clazz, methodName, applicableMethods.get(0).getParameterTypes());
+        if (method == null) {
+            return null;
+        }
+        MethodHandle handle = unreflect(method);
+        return handle != null ? MethodHandles.insertArguments(handle, 1, args).asType(ACCESSOR_TYPE) : null;
+    }
+
+    private static Branch getBranch(Network network, String branchId) {
+        Branch branch = network.getBranch(branchId);
+        if (branch == null) {
+            throw new PowsyblException("Branch '" + branchId + "' not found");
+        }
+        return branch;
+    }
+
+    private static List<Branch> getBranches(Network network, List<String> branchIds) {
+        return branchIds.stream().map(id -> getBranch(network, id)).collect(Collectors.toList());
+    }
+
+    private static boolean isInNetwork(Network network, Identifiable<?> identifiable) {
+        return network.getIdentifiable(identifiable.getId()) == identifiable;
+    }
+
+    private static NetworkBoundValue<List<Branch>> bindBranches(List<String> branchIds) {
+        return new NetworkBoundValue<>(network -> getBranches(network, branchIds), (network, branches) -> {
+            for (Branch branch : branches) {
+                if (!isInNetwork(network, branch)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public CompiledActionExpression visitLiteral(AbstractLiteralNode node, Void arg) {
+        Object value = node.getValue();
+        return context -> value;
+    }
+
+    @Override
+    public CompiledActionExpression visitComparisonOperator(ComparisonOperatorNode node, Void arg) {
+        CompiledActionExpression left = node.getLeft().accept(this, arg);
+        CompiledActionExpression right = node.getRight().accept(this, arg);
+        ComparisonOperator operator = node.getOperator();
+        return context -> {
+            Object result1 = left.evaluate(context);
+            Object result2 = right.evaluate(context);
+            if (!(result1 instanceof Number)) {
+                throw new PowsyblException("Left operand of comparison should return a number");
+            }
+            if (!(result2 instanceof Number)) {
+                throw new PowsyblException("Right operand of comparison should return a number");
+            }
+            double value1 = ((Number) result1).doubleValue();
+            double value2 = ((Number) result2).doubleValue();
+            switch (operator) {
+                case EQUALS:
+                    return value1 == value2;
+                case NOT_EQUALS:
+                    return value1 != value2;
+                case GREATER_THAN:
+                    return value1 > value2;
+                case LESS_THAN:
+                    return value1 < value2;
+                case GREATER_THAN_OR_EQUALS_TO:
+                    return value1 >= value2;
+                case LESS_THAN_OR_EQUALS_TO:
+                    return value1 <= value2;
+                default:
+                    throw createUnexpectedOperatorException(operator.name());
+            }
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitLogicalOperator(LogicalBinaryOperatorNode node, Void arg) {
+        CompiledActionExpression left = node.getLeft().accept(this, arg);
+        CompiledActionExpression right = node.getRight().accept(this, arg);
+        LogicalBinaryOperator operator = node.getOperator();
+        return context -> {
+            // both operands are evaluated, as in the interpreter, so that errors are reported the same way
+            Object result1 = left.evaluate(context);
+            Object result2 = right.evaluate(context);
+            if (!(result1 instanceof Boolean)) {
+                throw new PowsyblException("Left operand of comparison should return a boolean");
+            }
+            if (!(result2 instanceof Boolean)) {
+                throw new PowsyblException("Right operand of comparison should return a boolean");
+            }
+            boolean value1 = (Boolean) result1;
+            boolean value2 = (Boolean) result2;
+            switch (operator) {
+                case AND:
+                    return value1 && value2;
+                case OR:
+                    return value1 || value2;
+                default:
+                    throw createUnexpectedOperatorException(operator.name());
+            }
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitArithmeticOperator(ArithmeticBinaryOperatorNode node, Void arg) {
+        CompiledActionExpression left = node.getLeft().accept(this, arg);
+        CompiledActionExpression right = node.getRight().accept(this, arg);
+        ArithmeticBinaryOperator operator = node.getOperator();
+        return context -> {
+            Object result1 = left.evaluate(context);
+            Object result2 = right.evaluate(context);
+            if (!(result1 instanceof Number)) {
+                throw new PowsyblException("Left operand of arithmetic operation should return a number (" + result1.getClass() + ")");
+            }
+            if (!(result2 instanceof Number)) {
+                throw new PowsyblException("Right operand of arithmetic operation should return a number (" + result2.getClass() + ")");
+            }
+            double value1 = ((Number) result1).doubleValue();
+            double value2 = ((Number) result2).doubleValue();
+            switch (operator) {
+                case PLUS:
+                    return value1 + value2;
+                case MINUS:
+                    return value1 - value2;
+                case MULTIPLY:
+                    return value1 * value2;
+                case DIVIDE:
+                    return value1 / value2;
+                default:
+                    throw createUnexpectedOperatorException(operator.name());
+            }
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitNotOperator(LogicalNotOperator node, Void arg) {
+        CompiledActionExpression child = node.getChild().accept(this, arg);
+        return context -> {
+            Object result = child.evaluate(context);
+            if (!(result instanceof Boolean)) {
+                throw new PowsyblException("Operand of not operator should return a boolean");
+            }
+            return !(Boolean) result;
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitNetworkComponent(NetworkComponentNode node, Void arg) {
+        String componentId = node.getComponentId();
+        NetworkBoundValue<Identifiable> identifiable = new NetworkBoundValue<>(network -> {
+            Identifiable i = network.getIdentifiable(componentId);
+            if (i == null) {
+                throw new PowsyblException("Network component '" + componentId + "' not found");
+            }
+            return i;
+        }, ActionExpressionCompiler::isInNetwork);
+        return context -> identifiable.get(context.getNetwork());
+    }
+
+    @Override
+    public CompiledActionExpression visitNetworkProperty(NetworkPropertyNode node, Void arg) {
+        CompiledActionExpression parent = node.getParent().accept(this, arg);
+        String propertyName = node.getPropertyName();
+        CallSite callSite = new CallSite(c -> findGetter(c, propertyName), target -> GroovyUtil.callProperty(target, propertyName));
+        return context -> {
+            Object parentValue = parent.evaluate(context);
+            if (parentValue == null) {
+                throw new PowsyblException("Cannot call a property '" + propertyName + "' on a null object");
+            }
+            return callSite.call(parentValue);
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitNetworkMethod(NetworkMethodNode node, Void arg) {
+        CompiledActionExpression parent = node.getParent().accept(this, arg);
+        String methodName = node.getMethodName();
+        Object[] args = node.getArgs();
+        CallSite callSite = new CallSite(c -> findMethod(c, methodName, args), target -> GroovyUtil.callMethod(target, methodName, args));
+        return context -> {
+            Object parentValue = parent.evaluate(context);
+            if (parentValue == null) {
+                throw new PowsyblException("Cannot call a method '" + methodName + "' on a null object");
+            }
+            return callSite.call(parentValue);
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitActionTaken(ActionTakenNode node, Void arg) {
+        String actionId = node.getActionId();
+        return context -> context.isActionTaken(actionId);
+    }
+
+    @Override
+    public CompiledActionExpression visitContingencyOccurred(ContingencyOccurredNode node, Void arg) {
+        String contingencyId = node.getContingencyId();
+        return context -> context.getContingency() != null &&
+                (contingencyId == null || context.getContingency().getId().equals(contingencyId));
+    }
+
+    @Override
+    public CompiledActionExpression visitLoadingRank(LoadingRankNode node, Void arg) {
+        List<CompiledActionExpression> branchIdNodes = node.getBranchIds().stream()
+                .map(n -> n.accept(this, arg))
+                .collect(Collectors.toList());
+        CompiledActionExpression branchIdToRankNode = node.getBranchIdToRankNode().accept(this, arg);
+        return context -> {
+            List<String> branchIds = new ArrayList<>(branchIdNodes.size());
+            branchIdNodes.forEach(e -> branchIds.add((String) e.evaluate(context)));
+
+            String branchIdToRank = (String) branchIdToRankNode.evaluate(context);
+            if (!branchIds.contains(branchIdToRank)) {
+                throw new PowsyblException("Branch to rank has to be in the list");
+            }
+
+            List<String> sortedBranchIds = ActionExpressionEvaluator.sortBranchesByLoading(getBranches(context.getNetwork(), branchIds));
+            int i = sortedBranchIds.indexOf(branchIdToRank);
+            if (i == -1) {
+                throw new AssertionError();
+            }
+            return sortedBranchIds.size() - i; // just a convention
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitMostLoaded(MostLoadedNode node, Void arg) {
+        NetworkBoundValue<List<Branch>> branches = bindBranches(node.getBranchIds());
+        return context -> {
+            List<String> sortedBranchIds = ActionExpressionEvaluator.sortBranchesByLoading(branches.get(context.getNetwork()));
+            return sortedBranchIds.get(sortedBranchIds.size() - 1);
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitIsOverloaded(IsOverloadedNode node, Void arg) {
+        float limitReduction = node.getLimitReduction();
+        NetworkBoundValue<List<Branch>> branches = bindBranches(node.getBranchIds());
+        return context -> {
+            boolean overloaded = false;
+            for (Branch branch : branches.get(context.getNetwork())) {
+                overloaded |= branch.isOverloaded(limitReduction);
+            }
+            return overloaded;
+        };
+    }
+
+    @Override
+    public CompiledActionExpression visitAllOverloaded(AllOverloadedNode node, Void arg) {
+        float limitReduction = node.getLimitReduction();
+        NetworkBoundValue<List<Branch>> branches = bindBranches(node.getBranchIds());
+        return context -> {
+            boolean overloaded = true;
+            for (Branch branch : branches.get(context.getNetwork())) {
+                overloaded &= branch.isOverloaded(limitReduction);
+            }
+            return overloaded;
+        };
+    }
+
+    private static AssertionError createUnexpectedOperatorException(String operatorName) {
+        return new AssertionError("Unexpected operator: " + operatorName);
+    }
+}
@@ -170,8 +170,13 @@ public class ActionExpressionEvaluator extends ExpressionEvaluator implements Ac
     }
 
     private List<String> sortBranches(List<String> branchIds) {
-        return branchIds.stream()
+        return sortBranchesByLoading(branchIds.stream()
                 .map(this::getBranch)
+                .collect(Collectors.toList()));
+    }
+
+    static List<String> sortBranchesByLoading(List<Branch> branches) {
+        return branches.stream()
                 .map(branch -> {
                     BranchAndSide branchAndSide1 = new BranchAndSide(branch, Branch.Side.ONE);
                     BranchAndSide branchAndSide2 = new BranchAndSide(branch, Branch.Side.TWO);
@@ -0,0 +1,19 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+/**
+ * An action expression compiled by {@link ActionExpressionCompiler}.
+ * Evaluation gives the same result as {@link ActionExpressionEvaluator#evaluate}.
+ *
+ * @author agent <agent at local>
+ */
+@FunctionalInterface
+public interface CompiledActionExpression {
+
+    Object evaluate(EvaluationContext context);
+}
@@ -51,7 +51,7 @@ public class ConditionDslLoaderTest {
     private void evalAndAssert(Object expected, String script) throws IOException {
         ExpressionNode node = (ExpressionNode) new ConditionDslLoader(script).load(network);
         assertNotNull(node);
-        assertEquals(expected, ActionExpressionEvaluator.evaluate(node, new EvaluationContext() {
+        EvaluationContext context = new EvaluationContext() {
             @Override
             public Network getNetwork() {
                 return network;
@@ -66,7 +66,13 @@ public class ConditionDslLoaderTest {
             public boolean isActionTaken(String actionId) {
                 return actionId.equals("action");
             }
-        }));
+        };
+        assertEquals(expected, ActionExpressionEvaluator.evaluate(node, context));
+
+        // compiled expression has to give the same result, including when bindings are reused
+        CompiledActionExpression compiledNode = ActionExpressionCompiler.compile(node);
+        assertEquals(expected, compiledNode.evaluate(context));
+        assertEquals(expected, compiledNode.evaluate(context));
     }
 
     @Test
@@ -6,11 +6,20 @@
  */
 package com.powsybl.action.dsl;
 
+import com.powsybl.action.dsl.ast.EvaluationContext;
+import com.powsybl.action.dsl.ast.NetworkComponentNode;
+import com.powsybl.action.dsl.ast.NetworkPropertyNode;
 import com.powsybl.dsl.ast.BooleanLiteralNode;
+import com.powsybl.dsl.ast.ComparisonOperator;
+import com.powsybl.dsl.ast.ExpressionHelper;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
 import org.junit.Test;
+import org.mockito.Mockito;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertSame;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
 
 /**
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
@@ -23,6 +32,29 @@ public class ExpressionConditionTest {
 
         assertEquals(ConditionType.EXPRESSION, condition.getType());
         assertSame(BooleanLiteralNode.TRUE, condition.getNode());
+        assertSame(condition.getCompiledNode(), condition.getCompiledNode());
+        assertEquals(Boolean.TRUE, condition.getCompiledNode().evaluate(null));
+        assertTrue(condition.getCompiledVariables().isEmpty());
+    }
+
+    @Test
+    public void testCompiledVariables() {
+        Network network = EurostagTutorialExample1Factory.create();
+        NetworkPropertyNode p0 = new NetworkPropertyNode(new NetworkComponentNode("LOAD", NetworkComponentNode.ComponentType.LOAD), "p0");
+        ExpressionCondition condition = new ExpressionCondition(
+                ExpressionHelper.newComparisonOperator(p0, ExpressionHelper.newDoubleLiteral(100), ComparisonOperator.GREATER_THAN));
+        EvaluationContext context = Mockito.mock(EvaluationContext.class);
+        Mockito.when(context.getNetwork()).thenReturn(network);
+
+        assertEquals(Boolean.TRUE, condition.getCompiledNode().evaluate(context));
+        assertEquals(Collections.singleton("load('LOAD').p0"), condition.getCompiledVariables().keySet());
+        assertEquals(600.0, condition.getCompiledVariables().get("load('LOAD').p0").evaluate(context));
+
+        // the network component is bound again on another network
+        Network network2 = EurostagTutorialExample1Factory.create();
+        network2.getLoad("LOAD").setP0(50);
+        Mockito.when(context.getNetwork()).thenReturn(network2);
+        assertEquals(Boolean.FALSE, condition.getCompiledNode().evaluate(context));
     }
 
     @Test(expected = NullPointerException.class)
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.dsl.ast;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Generator;
+import com.powsybl.iidm.network.Line;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class ActionExpressionCompilerTest {
+
+    @Test
+    public void resolutionTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        Line line = network.getLine("NHV1_NHV2_1");
+
+        // getter declared in a public interface of a non public implementation class
+        assertNotNull(ActionExpressionCompiler.findGetter(line.getClass(), "terminal1"));
+        assertNotNull(ActionExpressionCompiler.findGetter(line.getClass(), "overloaded"));
+        assertNull(ActionExpressionCompiler.findGetter(line.getClass(), "unknown"));
+        assertNull(ActionExpressionCompiler.findGetter(Collections.emptyMap().getClass(), "empty"));
+
+        assertNotNull(ActionExpressionCompiler.findMethod(line.getClass(), "isOverloaded", new Object[] {1f}));
+        // arguments needing a conversion are left to Groovy
+        assertNull(ActionExpressionCompiler.findMethod(line.getClass(), "isOverloaded", new Object[] {BigDecimal.ONE}));
+        assertNull(ActionExpressionCompiler.findMethod(line.getClass(), "unknown", new Object[0]));
+    }
+
+    @Test
+    public void unknownComponentTest() {
+        EvaluationContext context = Mockito.mock(EvaluationContext.class);
+        Mockito.when(context.getNetwork()).thenReturn(EurostagTutorialExample1Factory.create());
+        CompiledActionExpression compiled = ActionExpressionCompiler.compile(new NetworkComponentNode("UNKNOWN", NetworkComponentNode.ComponentType.LINE));
+        try {
+            compiled.evaluate(context);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Network component 'UNKNOWN' not found", e.getMessage());
+        }
+    }
+
+    private static EvaluationContext createContext(Network network) {
+        EvaluationContext context = Mockito.mock(EvaluationContext.class);
+        Mockito.when(context.getNetwork()).thenReturn(network);
+        return context;
+    }
+
+    @Test
+    public void severalNetworksTest() {
+        Network network1 = EurostagTutorialExample1Factory.create();
+        Network network2 = EurostagTutorialExample1Factory.create();
+        EvaluationContext context1 = createContext(network1);
+        EvaluationContext context2 = createContext(network2);
+        CompiledActionExpression component = ActionExpressionCompiler.compile(new NetworkComponentNode("NHV1_NHV2_1", NetworkComponentNode.ComponentType.BRANCH));
+        CompiledActionExpression mostLoaded = ActionExpressionCompiler.compile(new MostLoadedNode(Arrays.asList("NHV1_NHV2_1", "NHV1_NHV2_2")));
+
+        // evaluations alternating between networks get the components of their own network
+        for (int i = 0; i < 2; i++) {
+            assertSame(network1.getLine("NHV1_NHV2_1"), component.evaluate(context1));
+            assertSame(network2.getLine("NHV1_NHV2_1"), component.evaluate(context2));
+        }
+        assertNotNull(mostLoaded.evaluate(context1));
+        assertNotNull(mostLoaded.evaluate(context2));
+
+        // a branch removed from a network is not found anymore in this network only
+        network2.getLine("NHV1_NHV2_2").remove();
+        try {
+            mostLoaded.evaluate(context2);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Branch 'NHV1_NHV2_2' not found", e.getMessage());
+        }
+        assertNotNull(mostLoaded.evaluate(context1));
+    }
+
+    @Test
+    public void removedComponentTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        EvaluationContext context = createContext(network);
+        CompiledActionExpression component = ActionExpressionCompiler.compile(new NetworkComponentNode("GEN", NetworkComponentNode.ComponentType.GENERATOR));
+        Generator generator = network.getGenerator("GEN");
+        assertSame(generator, component.evaluate(context));
+
+        // the generator is replaced by a new one with the same id
+        generator.remove();
+        Generator newGenerator = network.getVoltageLevel("VLGEN").newGenerator()
+                .setId("GEN")
+                .setBus("NGEN")
+                .setConnectableBus("NGEN")
+                .setMinP(0)
+                .setMaxP(100)
+                .setTargetP(50)
+                .setTargetV(24.5)
+                .setVoltageRegulatorOn(true)
+                .add();
+        assertSame(newGenerator, component.evaluate(context));
+
+        network.getGenerator("GEN").remove();
+        try {
+            component.evaluate(context);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Network component 'GEN' not found", e.getMessage());
+        }
+    }
+
+    @Test
+    public void validationTest() {
+        Network network = Mockito.spy(EurostagTutorialExample1Factory.create());
+        EvaluationContext context = createContext(network);
+        CompiledActionExpression component = ActionExpressionCompiler.compile(new NetworkComponentNode("GEN", NetworkComponentNode.ComponentType.GENERATOR));
+
+        // the component is only looked up again once the equipments of the network have changed
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(component.evaluate(context));
+        }
+        Mockito.verify(network, Mockito.times(1)).getIdentifiable("GEN");
+
+        network.getLoad("LOAD").remove();
+        assertNotNull(component.evaluate(context));
+        assertNotNull(component.evaluate(context));
+        Mockito.verify(network, Mockito.times(2)).getIdentifiable("GEN");
+    }
+}
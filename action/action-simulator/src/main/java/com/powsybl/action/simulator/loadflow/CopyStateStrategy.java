@@ -18,17 +18,34 @@ class CopyStateStrategy implements NetworkCopyStrategy {
     private final Network network;
     private final String stateId;
 
+    private final String preallocatedStateId;
+
     private String workingStateId;
 
     CopyStateStrategy(Network network) {
+        this(network, null);
+    }
+
+    /**
+     * Copy the working variant into an already existing variant, which is overwritten by each
+     * {@link #createState(String)} and kept by {@link #removeState()}. Unlike variant creation and
+     * removal, overwriting a variant can be done while other threads are working on other variants.
+     */
+    CopyStateStrategy(Network network, String preallocatedStateId) {
         this.network = Objects.requireNonNull(network);
         this.stateId = network.getVariantManager().getWorkingVariantId();
+        this.preallocatedStateId = preallocatedStateId;
     }
 
     @Override
     public Network createState(String id) {
-        workingStateId = id + "-" + UUID.randomUUID();
-        network.getVariantManager().cloneVariant(stateId, workingStateId);
+        if (preallocatedStateId != null) {
+            workingStateId = preallocatedStateId;
+            network.getVariantManager().cloneVariant(stateId, workingStateId, true);
+        } else {
+            workingStateId = id + "-" + UUID.randomUUID();
+            network.getVariantManager().cloneVariant(stateId, workingStateId);
+        }
         network.getVariantManager().setWorkingVariant(workingStateId);
 
         return network;
@@ -37,6 +54,8 @@ class CopyStateStrategy implements NetworkCopyStrategy {
     @Override
     public void removeState() {
         network.getVariantManager().setWorkingVariant(stateId);
-        network.getVariantManager().removeVariant(workingStateId);
+        if (preallocatedStateId == null) {
+            network.getVariantManager().removeVariant(workingStateId);
+        }
     }
 }
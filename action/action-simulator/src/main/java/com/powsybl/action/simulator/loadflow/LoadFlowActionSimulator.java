@@ -10,13 +10,17 @@ import com.powsybl.action.dsl.*;
 import com.powsybl.action.dsl.ast.*;
 import com.powsybl.action.simulator.ActionSimulator;
 import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.exceptions.UncheckedInterruptedException;
 import com.powsybl.computation.ComputationManager;
+import com.powsybl.contingency.CompiledContingencies;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.dsl.ast.ExpressionNode;
 import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManager;
 import com.powsybl.loadflow.LoadFlow;
 import com.powsybl.loadflow.LoadFlowParameters;
 import com.powsybl.loadflow.LoadFlowResult;
+import com.powsybl.loadflow.LoadFlowSession;
 import com.powsybl.security.LimitViolation;
 import com.powsybl.security.LimitViolationFilter;
 import com.powsybl.security.LimitViolationType;
@@ -25,6 +29,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +57,26 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
     private final List<LoadFlowActionSimulatorObserver> observers;
 
+    /**
+     * Preallocated variant used to test actions, when simulating a contingency on a worker thread.
+     */
+    private final String testVariantId;
+
+    /**
+     * True for the simulators running a contingency on a worker thread, which never evaluate test actions concurrently.
+     */
+    private final boolean worker;
+
+    /**
+     * Load flow session of the thread running the simulation.
+     */
+    private LoadFlowSession loadFlowSession;
+
+    /**
+     * Pool of threads evaluating test actions, created on first use and shared by all the rules of a simulation.
+     */
+    private ExecutorService testExecutor;
+
     public LoadFlowActionSimulator(Network network, ComputationManager computationManager) {
         this(network, computationManager, LoadFlowActionSimulatorConfig.load(), false, Collections.emptyList());
     }
@@ -72,12 +98,26 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
     public LoadFlowActionSimulator(Network network, ComputationManager computationManager, LoadFlowActionSimulatorConfig config,
                                    boolean applyIfSolvedViolations, LoadFlowParameters parameters, List<LoadFlowActionSimulatorObserver> observers) {
+        this(network, computationManager, config, applyIfSolvedViolations, parameters, observers, false, null, null);
+    }
+
+    private LoadFlowActionSimulator(LoadFlowActionSimulator simulator, WorkerSlot slot, LoadFlowActionSimulatorObserver observer) {
+        this(simulator.network, simulator.computationManager, simulator.config, simulator.applyIfSolvedViolations, simulator.parameters,
+                Collections.singletonList(observer), true, slot.testVariantId, slot.loadFlowSession);
+    }
+
+    private LoadFlowActionSimulator(Network network, ComputationManager computationManager, LoadFlowActionSimulatorConfig config,
+                                    boolean applyIfSolvedViolations, LoadFlowParameters parameters, List<LoadFlowActionSimulatorObserver> observers,
+                                    boolean worker, String testVariantId, LoadFlowSession loadFlowSession) {
         this.network = Objects.requireNonNull(network);
         this.computationManager = Objects.requireNonNull(computationManager);
         this.config = Objects.requireNonNull(config);
         this.observers = Objects.requireNonNull(observers);
         this.applyIfSolvedViolations = applyIfSolvedViolations;
         this.parameters = Objects.requireNonNull(parameters);
+        this.worker = worker;
+        this.testVariantId = testVariantId;
+        this.loadFlowSession = loadFlowSession;
     }
 
     @Override
@@ -110,6 +150,23 @@ public class LoadFlowActionSimulator implements ActionSimulator {
     public void start(ActionDb actionDb, List<String> contingencyIds) {
         Objects.requireNonNull(actionDb);
 
+        try (LoadFlowSession session = createLoadFlowSession()) {
+            loadFlowSession = session;
+            run(actionDb, contingencyIds);
+        } finally {
+            loadFlowSession = null;
+            if (testExecutor != null) {
+                awaitTermination(testExecutor);
+                testExecutor = null;
+            }
+        }
+    }
+
+    private LoadFlowSession createLoadFlowSession() {
+        return LoadFlow.find(config.getLoadFlowName().orElse(null)).createSession();
+    }
+
+    private void run(ActionDb actionDb, List<String> contingencyIds) {
         LOGGER.info("Starting pre-contingency analysis");
         RunningContext runningContext = new RunningContext(network);
         observers.forEach(o -> o.beforePreContingencyAnalysis(runningContext));
@@ -119,27 +176,167 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         observers.forEach(LoadFlowActionSimulatorObserver::afterPreContingencyAnalysis);
 
         NetworkCopyStrategy strategy = NetworkCopyStrategy.getInstance(config.getCopyStrategy(), runningContext.getNetwork());
+        // contingencies are resolved once and applied to each state, when states are variants of the same network
+        CompiledContingencies compiledContingencies = new CompiledContingencies(runningContext.getNetwork());
 
         if (preContingencyAnalysisOk || config.isIgnorePreContingencyViolations()) {
-            for (String contingencyId : contingencyIds) {
-                Contingency contingency = actionDb.getContingency(contingencyId);
-                Network network2 = strategy.createState(contingencyId);
-                RunningContext runningContext2 = new RunningContext(network2, contingency);
+            if (config.getParallelism() > 1 && contingencyIds.size() > 1) {
+                startParallel(actionDb, contingencyIds, strategy, compiledContingencies);
+            } else {
+                for (String contingencyId : contingencyIds) {
+                    Contingency contingency = actionDb.getContingency(contingencyId);
+                    Network network2 = strategy.createState(contingencyId);
+
+                    runPostContingencyAnalysis(actionDb, contingency, network2, compiledContingencies);
+
+                    strategy.removeState();
+                }
+            }
+        }
+
+        observers.forEach(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+    }
+
+    private void runPostContingencyAnalysis(ActionDb actionDb, Contingency contingency, Network network2, CompiledContingencies compiledContingencies) {
+        RunningContext runningContext2 = new RunningContext(network2, contingency);
+
+        observers.forEach(o -> o.beforePostContingencyAnalysis(runningContext2));
+
+        LOGGER.info("Starting post-contingency analysis '{}'", contingency.getId());
+        if (network2 == compiledContingencies.getNetwork()) {
+            compiledContingencies.apply(contingency, computationManager);
+        } else {
+            contingency.toTask().modify(network2, computationManager);
+        }
 
-                observers.forEach(o -> o.beforePostContingencyAnalysis(runningContext2));
+        observers.forEach(o -> o.postContingencyAnalysisNetworkLoaded(runningContext2));
 
-                LOGGER.info("Starting post-contingency analysis '{}'", contingency.getId());
-                contingency.toTask().modify(network2, computationManager);
+        next(actionDb, runningContext2);
+    }
+
+    /**
+     * Resources reserved for a simulation running on a worker thread: a load flow session and, with the STATE copy
+     * strategy, the variant to work on and the variant to test actions on.
+     */
+    private static final class WorkerSlot {
+
+        private final String variantId;
+
+        private final String testVariantId;
+
+        private final LoadFlowSession loadFlowSession;
+
+        private WorkerSlot(String variantId, String testVariantId, LoadFlowSession loadFlowSession) {
+            this.variantId = variantId;
+            this.testVariantId = testVariantId;
+            this.loadFlowSession = Objects.requireNonNull(loadFlowSession);
+        }
+    }
 
-                observers.forEach(o -> o.postContingencyAnalysisNetworkLoaded(runningContext2));
+    /**
+     * Result of a post-contingency simulation run on a worker thread.
+     */
+    private static final class PostContingencyRun {
+
+        private final Network network;
+
+        private final String variantId;
+
+        private final RecordingLoadFlowActionSimulatorObserver recorder;
+
+        private final WorkerSlot slot;
+
+        private PostContingencyRun(Network network, String variantId, RecordingLoadFlowActionSimulatorObserver recorder, WorkerSlot slot) {
+            this.network = network;
+            this.variantId = variantId;
+            this.recorder = recorder;
+            this.slot = slot;
+        }
+    }
 
-                next(actionDb, runningContext2);
+    /**
+     * Simulates post-contingency situations concurrently. Each situation is simulated by a worker thread, either
+     * on a copy of the network or on a pooled variant of the network, depending on the copy strategy. Variants are
+     * all created before the workers are started, and are only overwritten afterwards, as creating or removing a
+     * variant is not safe while other threads are working on the network.
+     *
+     * <p>Notifications of a worker are recorded and forwarded to the observers on the calling thread, once the
+     * simulation of the contingency is complete, and in the order of the contingencies, so that the output
+     * is the same as a sequential run. At that time, the network is in its final post-contingency state.
+     */
+    private void startParallel(ActionDb actionDb, List<String> contingencyIds, NetworkCopyStrategy strategy,
+                               CompiledContingencies compiledContingencies) {
+        int parallelism = Math.min(config.getParallelism(), contingencyIds.size());
+        // let the workers go on while the notifications of the first contingencies are being forwarded
+        int maxPendingRuns = Math.min(2 * parallelism, contingencyIds.size());
+
+        Network preContNetwork = compiledContingencies.getNetwork();
+        VariantManager variantManager = preContNetwork.getVariantManager();
+        String preContVariantId = variantManager.getWorkingVariantId();
+        boolean multiThreadAccessAllowed = variantManager.isVariantMultiThreadAccessAllowed();
+
+        List<WorkerSlot> allSlots = new ArrayList<>(maxPendingRuns);
+        List<String> variantIds = new ArrayList<>();
+        String hash = UUID.randomUUID().toString();
+        for (int i = 0; i < maxPendingRuns; i++) {
+            if (config.getCopyStrategy() == CopyStrategy.STATE) {
+                WorkerSlot slot = new WorkerSlot(hash + "_" + i, hash + "_test_" + i, createLoadFlowSession());
+                variantIds.add(slot.variantId);
+                variantIds.add(slot.testVariantId);
+                allSlots.add(slot);
+            } else {
+                allSlots.add(new WorkerSlot(null, null, createLoadFlowSession()));
+            }
+        }
+        if (!variantIds.isEmpty()) {
+            variantManager.cloneVariant(preContVariantId, variantIds);
+        }
+        Deque<WorkerSlot> slots = new ArrayDeque<>(allSlots);
+        variantManager.allowVariantMultiThreadAccess(true);
+        variantManager.setWorkingVariant(preContVariantId);
 
-                strategy.removeState();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        Deque<CompletableFuture<PostContingencyRun>> pendingRuns = new ArrayDeque<>();
+        try {
+            for (String contingencyId : contingencyIds) {
+                Contingency contingency = actionDb.getContingency(contingencyId);
+                if (pendingRuns.size() == maxPendingRuns) {
+                    notifyObservers(pendingRuns.poll(), slots);
+                }
+                WorkerSlot slot = slots.poll();
+                pendingRuns.add(CompletableFuture.supplyAsync(() -> {
+                    Network network2;
+                    if (slot.variantId != null) {
+                        variantManager.setWorkingVariant(preContVariantId);
+                        network2 = new CopyStateStrategy(preContNetwork, slot.variantId).createState(contingencyId);
+                    } else {
+                        network2 = strategy.createState(contingencyId);
+                    }
+                    RecordingLoadFlowActionSimulatorObserver recorder = new RecordingLoadFlowActionSimulatorObserver();
+                    new LoadFlowActionSimulator(this, slot, recorder)
+                            .runPostContingencyAnalysis(actionDb, contingency, network2, compiledContingencies);
+                    return new PostContingencyRun(network2, network2.getVariantManager().getWorkingVariantId(), recorder, slot);
+                }, executor));
             }
+            while (!pendingRuns.isEmpty()) {
+                notifyObservers(pendingRuns.poll(), slots);
+            }
+        } finally {
+            // wait for the remaining workers before releasing the variants, in case of failure
+            awaitTermination(executor);
+            variantManager.allowVariantMultiThreadAccess(multiThreadAccessAllowed);
+            variantManager.setWorkingVariant(preContVariantId);
+            variantIds.forEach(variantManager::removeVariant);
+            allSlots.forEach(slot -> slot.loadFlowSession.close());
         }
+    }
 
-        observers.forEach(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+    private void notifyObservers(CompletableFuture<PostContingencyRun> future, Deque<WorkerSlot> slots) {
+        PostContingencyRun run = join(future);
+        run.network.getVariantManager().setWorkingVariant(run.variantId);
+        run.recorder.replay(observers);
+        // the slot can now be reused for another contingency
+        slots.add(run.slot);
     }
 
     private static final class RuleContext {
@@ -171,7 +368,8 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         if (rule.getCondition().getType() != ConditionType.EXPRESSION) {
             throw new AssertionError("TODO");
         }
-        ExpressionNode conditionExpr = ((ExpressionCondition) rule.getCondition()).getNode();
+        ExpressionCondition condition = (ExpressionCondition) rule.getCondition();
+        ExpressionNode conditionExpr = condition.getNode();
         EvaluationContext evalContext = new EvaluationContext() {
             @Override
             public Network getNetwork() {
@@ -188,17 +386,14 @@ public class LoadFlowActionSimulator implements ActionSimulator {
                 return context.getTimeLine().actionTaken(actionId);
             }
         };
-        boolean ok = ActionExpressionEvaluator.evaluate(conditionExpr, evalContext).equals(Boolean.TRUE);
+        boolean ok = condition.getCompiledNode().evaluate(evalContext).equals(Boolean.TRUE);
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Evaluating {} to {}", ActionExpressionPrinter.toString(conditionExpr), Boolean.toString(ok));
         }
 
-        Map<String, Object> variables = ExpressionVariableLister.list(conditionExpr).stream()
-                .collect(Collectors.toMap(ActionExpressionPrinter::toString,
-                    n -> ActionExpressionEvaluator.evaluate(n, evalContext),
-                    (v1, v2) -> v1,
-                    TreeMap::new));
+        Map<String, Object> variables = new TreeMap<>();
+        condition.getCompiledVariables().forEach((name, variable) -> variables.put(name, variable.evaluate(evalContext)));
 
         LOGGER.debug("Variables values: {}", variables);
 
@@ -227,13 +422,20 @@ public class LoadFlowActionSimulator implements ActionSimulator {
             LOGGER.info("Apply action '{}'", action.getId());
             observers.forEach(o -> o.beforeAction(context, actionId));
 
-            action.run(context.getNetwork(), computationManager);
+            runAction(actionDb, action, context.getNetwork());
 
             observers.forEach(o -> o.afterAction(context, actionId));
             actionsTaken.add(actionId);
         }
     }
 
+    private void runAction(ActionDb actionDb, Action action, Network networkToModify) {
+        // script tasks of an action database share the same binding, so they cannot be run concurrently
+        synchronized (actionDb) {
+            action.run(networkToModify, computationManager);
+        }
+    }
+
     private boolean checkViolations(ActionDb actionDb, RunningContext context) {
         List<LimitViolation> violations = LIMIT_VIOLATION_FILTER.apply(Security.checkLimits(context.getNetwork(), 1), context.getNetwork());
         observers.forEach(o -> o.loadFlowConverged(context, violations));
@@ -245,7 +447,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         }
 
         if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("Violations: \n{}", Security.printLimitsViolations(violations, network, NO_FILTER));
+            LOGGER.info("Violations: \n{}", Security.printLimitsViolations(violations, context.getNetwork(), NO_FILTER));
         }
 
         if (context.getRound() + 1 == config.getMaxIterations()) {
@@ -299,8 +501,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
         LOGGER.info("Running loadflow");
         LoadFlowResult result;
         try {
-            String loadFlowName = config.getLoadFlowName().orElse(null);
-            result = LoadFlow.find(loadFlowName).run(context.getNetwork(), context.getNetwork().getVariantManager().getWorkingVariantId(), computationManager, parameters);
+            result = loadFlowSession.run(context.getNetwork(), computationManager, context.getNetwork().getVariantManager().getWorkingVariantId(), parameters).join();
         } catch (Exception e) {
             throw new PowsyblException(e);
         }
@@ -334,10 +535,7 @@ public class LoadFlowActionSimulator implements ActionSimulator {
 
         List<Rule> activedRules = actionDb.getRules().stream()
                 .filter(rule -> rule.getType().equals(RuleType.TEST))
-                .filter(rule -> {
-                    ExpressionNode conditionExpr = ((ExpressionCondition) rule.getCondition()).getNode();
-                    return ActionExpressionEvaluator.evaluate(conditionExpr, evalContext).equals(Boolean.TRUE);
-                })
+                .filter(rule -> ((ExpressionCondition) rule.getCondition()).getCompiledNode().evaluate(evalContext).equals(Boolean.TRUE))
                 .collect(Collectors.toList());
         List<String> testActionIds = activedRules.stream()
                                 .flatMap(r -> r.getActions().stream())
@@ -349,56 +547,231 @@ public class LoadFlowActionSimulator implements ActionSimulator {
             return;
         }
 
-        NetworkCopyStrategy strategy = NetworkCopyStrategy.getInstance(config.getCopyStrategy(), context.getNetwork());
+        // test variants cannot be created while contingencies are simulated concurrently
+        if (config.getTestParallelism() > 1 && testActionIds.size() > 1 && !worker) {
+            runTestsInParallel(actionDb, context, testActionIds);
+            return;
+        }
+
+        NetworkCopyStrategy strategy = testVariantId != null && config.getCopyStrategy() == CopyStrategy.STATE
+                ? new CopyStateStrategy(context.getNetwork(), testVariantId)
+                : NetworkCopyStrategy.getInstance(config.getCopyStrategy(), context.getNetwork());
 
         for (String actionId : testActionIds) {
             Action action = actionDb.getAction(actionId);
 
             Network networkForTest = strategy.createState(actionId);
 
-            LoadFlowResult testResult = runTest(context, networkForTest, action);
-            context.addTested(actionId);
-            if (testResult.isOk()) {
-                List<LimitViolation> violationsInTest =
-                        LIMIT_VIOLATION_FILTER.apply(Security.checkLimits(networkForTest, 1), networkForTest);
-                if (violationsInTest.isEmpty()) {
-                    context.addWorkedTest(action.getId());
-                    if (applyIfSolvedViolations) {
-                        LOGGER.info("Loadflow with test '{}' works already and exits simulation", action.getId());
-                        observers.forEach(o -> o.noMoreViolationsAfterTest(context, action.getId()));
-                        observers.forEach(o -> o.beforeApplyTest(context, action.getId()));
-                        action.run(context.getNetwork(), computationManager);
-                        context.getTimeLine().getActions().add(actionId);
-                        observers.forEach(o -> o.loadFlowConverged(context, violationsInTest));
-                        observers.forEach(o -> o.noMoreViolations(context));
-                        observers.forEach(o -> o.afterApplyTest(context, action.getId()));
-                        return;
-                    } else {
-                        LOGGER.info("Loadflow with test '{}' works already and continues simulation", action.getId());
-                        observers.forEach(o -> o.noMoreViolationsAfterTest(context, action.getId()));
+            LoadFlowResult testResult = runTest(actionDb, context, networkForTest, action, loadFlowSession, observers);
+            List<LimitViolation> violationsInTest = testResult.isOk() ? checkTestLimits(networkForTest) : Collections.emptyList();
+
+            strategy.removeState();
+
+            if (processTestResult(context, action, testResult.isOk(), violationsInTest)) {
+                applyTest(actionDb, context, action, violationsInTest);
+                return;
+            }
+        }
+    }
+
+    private static List<LimitViolation> checkTestLimits(Network networkForTest) {
+        return LIMIT_VIOLATION_FILTER.apply(Security.checkLimits(networkForTest, 1), networkForTest);
+    }
+
+    /**
+     * Notify the outcome of a test action.
+     *
+     * @return true if the test action solves all the violations and has to be applied
+     */
+    private boolean processTestResult(RunningContext context, Action action, boolean loadFlowOk, List<LimitViolation> violationsInTest) {
+        context.addTested(action.getId());
+        if (loadFlowOk) {
+            if (violationsInTest.isEmpty()) {
+                context.addWorkedTest(action.getId());
+                if (applyIfSolvedViolations) {
+                    return true;
+                }
+                LOGGER.info("Loadflow with test '{}' works already and continues simulation", action.getId());
+                observers.forEach(o -> o.noMoreViolationsAfterTest(context, action.getId()));
+            } else {
+                LOGGER.info("Loadflow with test '{}' exits with violations", action.getId());
+                observers.forEach(o -> o.violationsAfterTest(action.getId(), violationsInTest));
+            }
+        } else {
+            LOGGER.info("Loadflow with test '{}' diverged", action.getId());
+            observers.forEach(o -> o.divergedAfterTest(action.getId()));
+        }
+        return false;
+    }
+
+    private void applyTest(ActionDb actionDb, RunningContext context, Action action, List<LimitViolation> violationsInTest) {
+        LOGGER.info("Loadflow with test '{}' works already and exits simulation", action.getId());
+        observers.forEach(o -> o.noMoreViolationsAfterTest(context, action.getId()));
+        observers.forEach(o -> o.beforeApplyTest(context, action.getId()));
+        runAction(actionDb, action, context.getNetwork());
+        context.getTimeLine().getActions().add(action.getId());
+        observers.forEach(o -> o.loadFlowConverged(context, violationsInTest));
+        observers.forEach(o -> o.noMoreViolations(context));
+        observers.forEach(o -> o.afterApplyTest(context, action.getId()));
+    }
+
+    /**
+     * Outcome of a test action evaluated on a worker thread.
+     */
+    private static final class TestOutcome {
+
+        private final Action action;
+
+        private final boolean loadFlowOk;
+
+        private final List<LimitViolation> violations;
+
+        private final RecordingLoadFlowActionSimulatorObserver recorder;
+
+        private TestOutcome(Action action, boolean loadFlowOk, List<LimitViolation> violations, RecordingLoadFlowActionSimulatorObserver recorder) {
+            this.action = action;
+            this.loadFlowOk = loadFlowOk;
+            this.violations = violations;
+            this.recorder = recorder;
+        }
+    }
+
+    /**
+     * Evaluates test actions concurrently, each one on its own variant or copy of the network. Outcomes are then
+     * processed in the order of the test actions, so that the first action solving all the violations is the one
+     * applied, as in a sequential run. Once such an action is found and has to be applied, the following test
+     * actions that are not started yet are skipped.
+     */
+    private void runTestsInParallel(ActionDb actionDb, RunningContext context, List<String> testActionIds) {
+        int parallelism = Math.min(config.getTestParallelism(), testActionIds.size());
+
+        Network contextNetwork = context.getNetwork();
+        VariantManager variantManager = contextNetwork.getVariantManager();
+        String contextVariantId = variantManager.getWorkingVariantId();
+        boolean multiThreadAccessAllowed = variantManager.isVariantMultiThreadAccessAllowed();
+
+        NetworkCopyStrategy deepCopyStrategy = null;
+        List<WorkerSlot> allSlots = new ArrayList<>(parallelism);
+        List<String> variantIds = new ArrayList<>();
+        String hash = UUID.randomUUID().toString();
+        for (int i = 0; i < parallelism; i++) {
+            String variantId = config.getCopyStrategy() == CopyStrategy.STATE ? hash + "_test_" + i : null;
+            if (variantId != null) {
+                variantIds.add(variantId);
+            }
+            allSlots.add(new WorkerSlot(variantId, null, createLoadFlowSession()));
+        }
+        if (!variantIds.isEmpty()) {
+            variantManager.cloneVariant(contextVariantId, variantIds);
+        } else {
+            deepCopyStrategy = NetworkCopyStrategy.getInstance(config.getCopyStrategy(), contextNetwork);
+        }
+        // as many slots as threads, so that a worker always finds a free one
+        BlockingQueue<WorkerSlot> slots = new ArrayBlockingQueue<>(parallelism, false, allSlots);
+        variantManager.allowVariantMultiThreadAccess(true);
+        variantManager.setWorkingVariant(contextVariantId);
+
+        if (testExecutor == null) {
+            testExecutor = Executors.newFixedThreadPool(config.getTestParallelism());
+        }
+        ExecutorService executor = testExecutor;
+
+        // index of the first test action solving all the violations, if it has to be applied
+        AtomicInteger solvingIndex = new AtomicInteger(Integer.MAX_VALUE);
+        TestOutcome solvingOutcome = null;
+        List<CompletableFuture<TestOutcome>> futures = new ArrayList<>(testActionIds.size());
+        try {
+            for (int i = 0; i < testActionIds.size(); i++) {
+                int index = i;
+                Action action = actionDb.getAction(testActionIds.get(i));
+                NetworkCopyStrategy sharedStrategy = deepCopyStrategy;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    if (index > solvingIndex.get()) {
+                        return null;
                     }
-                } else {
-                    LOGGER.info("Loadflow with test '{}' exits with violations", action.getId());
-                    observers.forEach(o -> o.violationsAfterTest(action.getId(), violationsInTest));
+                    TestOutcome outcome = evaluateTest(actionDb, context, contextVariantId, action, slots, sharedStrategy);
+                    if (applyIfSolvedViolations && outcome.loadFlowOk && outcome.violations.isEmpty()) {
+                        solvingIndex.accumulateAndGet(index, Math::min);
+                    }
+                    return outcome;
+                }, executor));
+            }
+
+            for (CompletableFuture<TestOutcome> future : futures) {
+                TestOutcome outcome = join(future);
+                outcome.recorder.replay(observers);
+                if (processTestResult(context, outcome.action, outcome.loadFlowOk, outcome.violations)) {
+                    solvingOutcome = outcome;
+                    break;
                 }
+            }
+        } finally {
+            // wait for the remaining test actions before releasing the variants, the pool being kept for the next rules
+            futures.forEach(future -> future.handle((outcome, throwable) -> null).join());
+            variantManager.allowVariantMultiThreadAccess(multiThreadAccessAllowed);
+            variantManager.setWorkingVariant(contextVariantId);
+            variantIds.forEach(variantManager::removeVariant);
+            allSlots.forEach(slot -> slot.loadFlowSession.close());
+        }
+
+        if (solvingOutcome != null) {
+            applyTest(actionDb, context, solvingOutcome.action, solvingOutcome.violations);
+        }
+    }
+
+    private TestOutcome evaluateTest(ActionDb actionDb, RunningContext context, String contextVariantId, Action action,
+                                     BlockingQueue<WorkerSlot> slots, NetworkCopyStrategy deepCopyStrategy) {
+        RecordingLoadFlowActionSimulatorObserver recorder = new RecordingLoadFlowActionSimulatorObserver();
+        WorkerSlot slot = slots.remove();
+        try {
+            NetworkCopyStrategy strategy;
+            if (slot.variantId != null) {
+                context.getNetwork().getVariantManager().setWorkingVariant(contextVariantId);
+                strategy = new CopyStateStrategy(context.getNetwork(), slot.variantId);
             } else {
-                LOGGER.info("Loadflow with test '{}' diverged", action.getId());
-                observers.forEach(o -> o.divergedAfterTest(action.getId()));
+                strategy = deepCopyStrategy;
             }
+            Network networkForTest = strategy.createState(action.getId());
+            LoadFlowResult testResult = runTest(actionDb, context, networkForTest, action, slot.loadFlowSession, Collections.singletonList(recorder));
+            List<LimitViolation> violationsInTest = testResult.isOk() ? checkTestLimits(networkForTest) : Collections.emptyList();
             strategy.removeState();
+            return new TestOutcome(action, testResult.isOk(), violationsInTest, recorder);
+        } finally {
+            slots.add(slot);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedInterruptedException(e);
         }
     }
 
-    private LoadFlowResult runTest(RunningContext context, Network networkForTry, Action action) {
+    private LoadFlowResult runTest(ActionDb actionDb, RunningContext context, Network networkForTry, Action action,
+                                   LoadFlowSession session, List<LoadFlowActionSimulatorObserver> testObservers) {
         String actionId = action.getId();
         LOGGER.info("Test action '{}'", actionId);
-        action.run(networkForTry, computationManager);
+        runAction(actionDb, action, networkForTry);
         try {
-            observers.forEach(o -> o.beforeTest(context, actionId));
-            String loadFlowName = config.getLoadFlowName().orElse(null);
-            LoadFlowResult testResult = LoadFlow.find(loadFlowName)
-                                                .run(networkForTry, networkForTry.getVariantManager().getWorkingVariantId(), computationManager, parameters);
-            observers.forEach(o -> o.afterTest(context, actionId));
+            testObservers.forEach(o -> o.beforeTest(context, actionId));
+            LoadFlowResult testResult = session.run(networkForTry, computationManager, networkForTry.getVariantManager().getWorkingVariantId(), parameters)
+                                               .join();
+            testObservers.forEach(o -> o.afterTest(context, actionId));
             return testResult;
         } catch (Exception e) {
             throw new PowsyblException(e);
@@ -18,6 +18,8 @@ import java.util.Optional;
  */
 public class LoadFlowActionSimulatorConfig {
 
+    private static final int DEFAULT_PARALLELISM = 1;
+
     public static LoadFlowActionSimulatorConfig load() {
         return load(PlatformConfig.defaultConfig());
     }
@@ -31,7 +33,10 @@ public class LoadFlowActionSimulatorConfig {
         boolean ignorePreContingencyViolations = config.getBooleanProperty("ignore-pre-contingency-violations", false);
         boolean debug = config.getBooleanProperty("debug", false);
         CopyStrategy copyStrategy = config.getEnumProperty("copy-strategy", CopyStrategy.class, CopyStrategy.DEEP);
-        return new LoadFlowActionSimulatorConfig(loadFlowName, maxIterations, ignorePreContingencyViolations, debug, copyStrategy);
+        int parallelism = config.getIntProperty("parallelism", DEFAULT_PARALLELISM);
+        int testParallelism = config.getIntProperty("test-parallelism", DEFAULT_PARALLELISM);
+        return new LoadFlowActionSimulatorConfig(loadFlowName, maxIterations, ignorePreContingencyViolations, debug, copyStrategy,
+                                                 parallelism, testParallelism);
     }
 
     private String loadFlowName;
@@ -44,6 +49,10 @@ public class LoadFlowActionSimulatorConfig {
 
     private CopyStrategy copyStrategy;
 
+    private int parallelism;
+
+    private int testParallelism;
+
     public LoadFlowActionSimulatorConfig(String loadFlowName, int maxIterations, boolean ignorePreContingencyViolations,
                                          boolean debug) {
         this(loadFlowName, maxIterations, ignorePreContingencyViolations, debug, CopyStrategy.DEEP);
@@ -51,11 +60,30 @@ public class LoadFlowActionSimulatorConfig {
 
     public LoadFlowActionSimulatorConfig(String loadFlowName, int maxIterations, boolean ignorePreContingencyViolations,
                                          boolean debug, CopyStrategy copyStrategy) {
+        this(loadFlowName, maxIterations, ignorePreContingencyViolations, debug, copyStrategy, DEFAULT_PARALLELISM);
+    }
+
+    public LoadFlowActionSimulatorConfig(String loadFlowName, int maxIterations, boolean ignorePreContingencyViolations,
+                                         boolean debug, CopyStrategy copyStrategy, int parallelism) {
+        this(loadFlowName, maxIterations, ignorePreContingencyViolations, debug, copyStrategy, parallelism, DEFAULT_PARALLELISM);
+    }
+
+    public LoadFlowActionSimulatorConfig(String loadFlowName, int maxIterations, boolean ignorePreContingencyViolations,
+                                         boolean debug, CopyStrategy copyStrategy, int parallelism, int testParallelism) {
         this.loadFlowName = loadFlowName;
         this.maxIterations = maxIterations;
         this.ignorePreContingencyViolations = ignorePreContingencyViolations;
         this.debug = debug;
         this.copyStrategy = Objects.requireNonNull(copyStrategy);
+        this.parallelism = checkParallelism(parallelism);
+        this.testParallelism = checkParallelism(testParallelism);
+    }
+
+    private static int checkParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism value: " + parallelism);
+        }
+        return parallelism;
     }
 
     public Optional<String> getLoadFlowName() {
@@ -97,4 +125,29 @@ public class LoadFlowActionSimulatorConfig {
     public void setCopyStrategy(CopyStrategy copyStrategy) {
         this.copyStrategy = Objects.requireNonNull(copyStrategy);
     }
+
+    /**
+     * Number of contingencies simulated concurrently in the current JVM. Observers are still notified
+     * on the calling thread, in the order of the contingencies.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = checkParallelism(parallelism);
+    }
+
+    /**
+     * Number of test actions of a rule evaluated concurrently, by a pool of threads shared by all the rules of a
+     * simulation. Test actions are always evaluated sequentially when contingencies are simulated in parallel,
+     * whatever the copy strategy.
+     */
+    public int getTestParallelism() {
+        return testParallelism;
+    }
+
+    public void setTestParallelism(int testParallelism) {
+        this.testParallelism = checkParallelism(testParallelism);
+    }
 }
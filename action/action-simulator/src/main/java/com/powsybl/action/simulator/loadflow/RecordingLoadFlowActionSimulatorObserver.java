@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.action.dsl.Rule;
+import com.powsybl.security.LimitViolation;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Observer buffering the notifications of a simulation running on a worker thread, so that they can be
+ * forwarded later to the actual observers, from another thread.
+ *
+ * <p>As the running context is notified after the simulation has completed, its round is restored to the
+ * value it had when the notification was recorded.
+ *
+ * @author agent <agent at local>
+ */
+final class RecordingLoadFlowActionSimulatorObserver implements LoadFlowActionSimulatorObserver {
+
+    private static final class Event {
+
+        private final RunningContext runningContext;
+
+        private final int round;
+
+        private final Consumer<LoadFlowActionSimulatorObserver> notification;
+
+        private Event(RunningContext runningContext, Consumer<LoadFlowActionSimulatorObserver> notification) {
+            this.runningContext = runningContext;
+            this.round = runningContext != null ? runningContext.getRound() : 0;
+            this.notification = Objects.requireNonNull(notification);
+        }
+    }
+
+    private final List<Event> events = new ArrayList<>();
+
+    private void record(RunningContext runningContext, Consumer<LoadFlowActionSimulatorObserver> notification) {
+        events.add(new Event(runningContext, notification));
+    }
+
+    private void record(Consumer<LoadFlowActionSimulatorObserver> notification) {
+        record(null, notification);
+    }
+
+    /**
+     * Forward recorded notifications, in the order they have been received, to the given observers.
+     */
+    void replay(List<LoadFlowActionSimulatorObserver> observers) {
+        Objects.requireNonNull(observers);
+        Map<RunningContext, Integer> lastRounds = new IdentityHashMap<>();
+        try {
+            for (Event event : events) {
+                if (event.runningContext != null) {
+                    lastRounds.putIfAbsent(event.runningContext, event.runningContext.getRound());
+                    event.runningContext.setRound(event.round);
+                }
+                observers.forEach(event.notification);
+            }
+        } finally {
+            lastRounds.forEach(RunningContext::setRound);
+        }
+    }
+
+    @Override
+    public void beforePreContingencyAnalysis(RunningContext runningContext) {
+        record(runningContext, o -> o.beforePreContingencyAnalysis(runningContext));
+    }
+
+    @Override
+    public void afterPreContingencyAnalysis() {
+        record(LoadFlowActionSimulatorObserver::afterPreContingencyAnalysis);
+    }
+
+    @Override
+    public void beforePostContingencyAnalysis(RunningContext runningContext) {
+        record(runningContext, o -> o.beforePostContingencyAnalysis(runningContext));
+    }
+
+    @Override
+    public void postContingencyAnalysisNetworkLoaded(RunningContext runningContext) {
+        record(runningContext, o -> o.postContingencyAnalysisNetworkLoaded(runningContext));
+    }
+
+    @Override
+    public void roundBegin(RunningContext runningContext) {
+        record(runningContext, o -> o.roundBegin(runningContext));
+    }
+
+    @Override
+    public void roundEnd(RunningContext runningContext) {
+        record(runningContext, o -> o.roundEnd(runningContext));
+    }
+
+    @Override
+    public void loadFlowDiverged(RunningContext runningContext) {
+        record(runningContext, o -> o.loadFlowDiverged(runningContext));
+    }
+
+    @Override
+    public void loadFlowConverged(RunningContext runningContext, List<LimitViolation> violations) {
+        record(runningContext, o -> o.loadFlowConverged(runningContext, violations));
+    }
+
+    @Override
+    public void ruleChecked(RunningContext runningContext, Rule rule, RuleEvaluationStatus status, Map<String, Object> variables, Map<String, Boolean> actions) {
+        record(runningContext, o -> o.ruleChecked(runningContext, rule, status, variables, actions));
+    }
+
+    @Override
+    public void beforeAction(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.beforeAction(runningContext, actionId));
+    }
+
+    @Override
+    public void beforeTest(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.beforeTest(runningContext, actionId));
+    }
+
+    @Override
+    public void afterAction(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.afterAction(runningContext, actionId));
+    }
+
+    @Override
+    public void afterTest(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.afterTest(runningContext, actionId));
+    }
+
+    @Override
+    public void violationsAfterTest(String actionId, List<LimitViolation> violations) {
+        record(o -> o.violationsAfterTest(actionId, violations));
+    }
+
+    @Override
+    public void divergedAfterTest(String actionId) {
+        record(o -> o.divergedAfterTest(actionId));
+    }
+
+    @Override
+    public void noMoreViolations(RunningContext runningContext) {
+        record(runningContext, o -> o.noMoreViolations(runningContext));
+    }
+
+    @Override
+    public void noMoreViolationsAfterTest(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.noMoreViolationsAfterTest(runningContext, actionId));
+    }
+
+    @Override
+    public void beforeApplyTest(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.beforeApplyTest(runningContext, actionId));
+    }
+
+    @Override
+    public void afterApplyTest(RunningContext runningContext, String actionId) {
+        record(runningContext, o -> o.afterApplyTest(runningContext, actionId));
+    }
+
+    @Override
+    public void violationsAnymoreAndNoRulesMatch(RunningContext runningContext) {
+        record(runningContext, o -> o.violationsAnymoreAndNoRulesMatch(runningContext));
+    }
+
+    @Override
+    public void afterPostContingencyAnalysis() {
+        record(LoadFlowActionSimulatorObserver::afterPostContingencyAnalysis);
+    }
+
+    @Override
+    public void maxIterationsReached(RunningContext runningContext) {
+        record(runningContext, o -> o.maxIterationsReached(runningContext));
+    }
+}
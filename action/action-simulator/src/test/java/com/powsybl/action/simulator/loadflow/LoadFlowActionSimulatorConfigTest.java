@@ -32,6 +32,8 @@ public class LoadFlowActionSimulatorConfigTest {
             moduleConfig.setStringProperty("max-iterations", "15");
             moduleConfig.setStringProperty("ignore-pre-contingency-violations", "true");
             moduleConfig.setStringProperty("copy-strategy", CopyStrategy.DEEP.name());
+            moduleConfig.setStringProperty("parallelism", "4");
+            moduleConfig.setStringProperty("test-parallelism", "3");
 
             LoadFlowActionSimulatorConfig config = LoadFlowActionSimulatorConfig.load(platformConfig);
 
@@ -52,6 +54,12 @@ public class LoadFlowActionSimulatorConfigTest {
             assertFalse(config.isDebug());
             config.setDebug(true);
             assertTrue(config.isDebug());
+            assertEquals(4, config.getParallelism());
+            config.setParallelism(2);
+            assertEquals(2, config.getParallelism());
+            assertEquals(3, config.getTestParallelism());
+            config.setTestParallelism(1);
+            assertEquals(1, config.getTestParallelism());
         }
     }
 }
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.simulator.loadflow;
+
+import com.powsybl.action.dsl.ActionDb;
+import com.powsybl.action.dsl.ActionDslLoader;
+import com.powsybl.action.dsl.Rule;
+import com.powsybl.action.simulator.EurostagTutorialExample1WithTemporaryLimitFactory;
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.security.LimitViolation;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class LoadFlowActionSimulatorParallelismTest {
+
+    private static class EventListObserver extends DefaultLoadFlowActionSimulatorObserver {
+
+        private final List<String> events = new ArrayList<>();
+
+        private void add(RunningContext runningContext, String event) {
+            String contingencyId = runningContext.getContingency() != null ? runningContext.getContingency().getId() : "N";
+            events.add(contingencyId + " " + runningContext.getRound() + " " + event);
+        }
+
+        @Override
+        public void beforePostContingencyAnalysis(RunningContext runningContext) {
+            add(runningContext, "beforePostContingencyAnalysis");
+        }
+
+        @Override
+        public void roundBegin(RunningContext runningContext) {
+            add(runningContext, "roundBegin");
+        }
+
+        @Override
+        public void loadFlowConverged(RunningContext runningContext, List<LimitViolation> violations) {
+            add(runningContext, "loadFlowConverged " + violations.size());
+        }
+
+        @Override
+        public void ruleChecked(RunningContext runningContext, Rule rule, RuleEvaluationStatus status, Map<String, Object> variables, Map<String, Boolean> actions) {
+            add(runningContext, "ruleChecked " + rule.getId() + " " + status);
+        }
+
+        @Override
+        public void afterAction(RunningContext runningContext, String actionId) {
+            add(runningContext, "afterAction " + actionId);
+        }
+
+        @Override
+        public void afterTest(RunningContext runningContext, String actionId) {
+            add(runningContext, "afterTest " + actionId);
+        }
+
+        @Override
+        public void noMoreViolationsAfterTest(RunningContext runningContext, String actionId) {
+            add(runningContext, "noMoreViolationsAfterTest " + actionId);
+        }
+
+        @Override
+        public void afterApplyTest(RunningContext runningContext, String actionId) {
+            add(runningContext, "afterApplyTest " + actionId);
+        }
+
+        @Override
+        public void violationsAfterTest(String actionId, List<LimitViolation> violations) {
+            events.add("violationsAfterTest " + actionId + " " + violations.size());
+        }
+
+        @Override
+        public void afterPostContingencyAnalysis() {
+            events.add("afterPostContingencyAnalysis");
+        }
+    }
+
+    private static List<String> run(String dslFile, LoadFlowActionSimulatorConfig config, boolean applyIfSolved) {
+        Network network = EurostagTutorialExample1WithTemporaryLimitFactory.create();
+        network.getVoltageLevel("VLHV1").getBusBreakerView().getBus("NHV1").setV(380).setAngle(0);
+        network.getLine("NHV1_NHV2_2").getTerminal1().setP(300).setQ(100);
+
+        GroovyCodeSource src = new GroovyCodeSource(new InputStreamReader(LoadFlowActionSimulatorParallelismTest.class.getResourceAsStream(dslFile), StandardCharsets.UTF_8),
+                "test", GroovyShell.DEFAULT_CODE_BASE);
+        ActionDb actionDb = new ActionDslLoader(src).load(network);
+
+        EventListObserver observer = new EventListObserver();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bos)) {
+            LoadFlowActionSimulatorLogPrinter logPrinter = new LoadFlowActionSimulatorLogPrinter(out, out, true);
+            LoadFlowActionSimulator simulator = new LoadFlowActionSimulator(network, Mockito.mock(ComputationManager.class), config,
+                    applyIfSolved, new LoadFlowParameters(), observer, logPrinter);
+            List<String> contingencyIds = IntStream.range(0, 8).mapToObj(i -> "contingency" + i).collect(Collectors.toList());
+            simulator.start(actionDb, contingencyIds);
+        }
+
+        // pooled variants have been removed and the pre-contingency state has not been modified
+        assertEquals(Collections.singleton(VariantManagerConstants.INITIAL_VARIANT_ID), new HashSet<>(network.getVariantManager().getVariantIds()));
+        assertFalse(network.getVariantManager().isVariantMultiThreadAccessAllowed());
+        assertEquals(600.0, network.getLoad("LOAD").getP0(), 0.0);
+        assertTrue(network.getGenerator("GEN").getTerminal().isConnected());
+        assertEquals(300.0, network.getLine("NHV1_NHV2_2").getTerminal1().getP(), 0.0);
+
+        List<String> events = new ArrayList<>(observer.events);
+        events.add(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+        return events;
+    }
+
+    private static List<String> run(CopyStrategy copyStrategy, int parallelism) {
+        return run("/parallel-contingencies.groovy", new LoadFlowActionSimulatorConfig("LoadFlowMock", 3, true, false, copyStrategy, parallelism), false);
+    }
+
+    private static void assertSameAsSequential(CopyStrategy copyStrategy) {
+        List<String> expected = run(copyStrategy, 1);
+        assertTrue(expected.contains("contingency7 1 afterAction action1"));
+        assertEquals(expected, run(copyStrategy, 4));
+        assertEquals(expected, run(copyStrategy, 16));
+    }
+
+    private static List<String> runTests(CopyStrategy copyStrategy, int parallelism, int testParallelism, boolean applyIfSolved) {
+        return run("/parallel-tests.groovy", new LoadFlowActionSimulatorConfig("LoadFlowMock", 3, true, false, copyStrategy, parallelism, testParallelism), applyIfSolved);
+    }
+
+    private static void assertSameTestsAsSequential(CopyStrategy copyStrategy, boolean applyIfSolved) {
+        List<String> expected = runTests(copyStrategy, 1, 1, applyIfSolved);
+        assertEquals(expected, runTests(copyStrategy, 1, 2, applyIfSolved));
+        assertEquals(expected, runTests(copyStrategy, 1, 8, applyIfSolved));
+        assertEquals(expected, runTests(copyStrategy, 4, 4, applyIfSolved));
+    }
+
+    @Test
+    public void testStateCopy() {
+        assertSameAsSequential(CopyStrategy.STATE);
+    }
+
+    @Test
+    public void testDeepCopy() {
+        assertSameAsSequential(CopyStrategy.DEEP);
+    }
+
+    @Test
+    public void testParallelTests() {
+        List<String> events = runTests(CopyStrategy.STATE, 1, 4, true);
+        // the first action solving the violations is applied, the following ones are not tested
+        assertTrue(events.contains("violationsAfterTest action2 1"));
+        assertTrue(events.contains("contingency0 0 afterApplyTest action3"));
+        assertFalse(events.contains("contingency0 0 afterTest action4"));
+
+        events = runTests(CopyStrategy.STATE, 1, 4, false);
+        assertTrue(events.contains("contingency0 0 noMoreViolationsAfterTest action5"));
+
+        assertSameTestsAsSequential(CopyStrategy.STATE, true);
+        assertSameTestsAsSequential(CopyStrategy.STATE, false);
+        assertSameTestsAsSequential(CopyStrategy.DEEP, true);
+        assertSameTestsAsSequential(CopyStrategy.DEEP, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new LoadFlowActionSimulatorConfig("LoadFlowMock", 3, false, false, CopyStrategy.STATE, 0);
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+for (int i = 0; i < 8; i++) {
+    contingency('contingency' + i) {
+        equipments i % 2 == 0 ? 'NHV1_NHV2_1' : 'GEN'
+    }
+}
+
+rule('rule1') {
+    when contingencyOccurred()
+    life 2
+    apply 'action1'
+}
+
+rule('rule2') {
+    when contingencyOccurred()
+    test 'action2'
+}
+
+action('action1') {
+    tasks {
+        script {
+            load('LOAD').p0 += 1
+        }
+    }
+}
+
+action('action2') {
+    tasks {
+        script {
+            generator('GEN').targetP += 1
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+for (int i = 0; i < 8; i++) {
+    contingency('contingency' + i) {
+        equipments i % 2 == 0 ? 'NHV1_NHV2_1' : 'GEN'
+    }
+}
+
+rule('rule1') {
+    when contingencyOccurred()
+    test 'action1', 'action2', 'action3', 'action4', 'action5'
+}
+
+for (int i = 1; i <= 2; i++) {
+    action('action' + i) {
+        tasks {
+            script {
+                load('LOAD').p0 += 1
+            }
+        }
+    }
+}
+
+// relieve the overloaded line
+for (int i = 3; i <= 5; i++) {
+    action('action' + i) {
+        tasks {
+            script {
+                line('NHV1_NHV2_2').terminal1.p = 0
+                line('NHV1_NHV2_2').terminal1.q = 0
+            }
+        }
+    }
+}
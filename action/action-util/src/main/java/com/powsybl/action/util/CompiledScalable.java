@@ -0,0 +1,491 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.util;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import static com.powsybl.action.util.Scalable.ScalingConvention.*;
+
+/**
+ * Scalable compiled for a given network, to be used when a lot of shifts have to be done with the same scalable.
+ *
+ * <p>The scalable tree is flattened into arrays: injections are looked up only once, at compilation, and the
+ * proportional distribution and the clipping to minimum and maximum values are done on primitive arrays. The
+ * result of each operation is the same as the one of the original scalable.
+ *
+ * <p>The limits of the generators are read at compilation, so the scalable has to be compiled again if they
+ * are modified or if injections are added to or removed from the network. Target values, on the contrary, are
+ * read at each operation, so that the same compiled scalable can be used on any variant of the network. As the
+ * original proportional scalable, a compiled scalable is not thread safe.
+ *
+ * @author agent <agent at local>
+ */
+final class CompiledScalable extends AbstractScalable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledScalable.class);
+
+    // injection types
+    private static final byte GENERATOR_INJECTION = 0;
+    private static final byte LOAD_INJECTION = 1;
+    private static final byte MISSING_GENERATOR = 2;
+    private static final byte MISSING_LOAD = 3;
+    private static final byte OTHER_INJECTION = 4;
+
+    // node types
+    private static final byte LEAF = 0;
+    private static final byte STACK = 1;
+    private static final byte PROPORTIONAL = 2;
+    private static final byte ITERATIVE_PROPORTIONAL = 3;
+
+    /**
+     * Mutable arrays filled while walking the scalable tree.
+     */
+    private static final class Compiler {
+
+        private final Network network;
+
+        private final List<String> ids = new ArrayList<>();
+        private final List<Byte> injectionTypes = new ArrayList<>();
+        private final List<Injection> injections = new ArrayList<>();
+        private final List<Injection> scaledInjections = new ArrayList<>();
+        private final List<Double> minValues = new ArrayList<>();
+        private final List<Double> maxValues = new ArrayList<>();
+        private final List<Scalable> others = new ArrayList<>();
+
+        private final List<Byte> nodeTypes = new ArrayList<>();
+        private final List<Integer> nodeInjections = new ArrayList<>();
+        private final List<Integer> firstChildren = new ArrayList<>();
+        private final List<Integer> lastChildren = new ArrayList<>();
+        private final List<Integer> children = new ArrayList<>();
+        private final List<Double> percentages = new ArrayList<>();
+
+        private Compiler(Network network) {
+            this.network = network;
+        }
+
+        private int addInjection(String id, byte type, Injection scaledInjection, double minValue, double maxValue, Scalable other) {
+            Identifiable identifiable = id != null ? network.getIdentifiable(id) : null;
+            ids.add(id);
+            injectionTypes.add(type);
+            injections.add(identifiable instanceof Injection ? (Injection) identifiable : null);
+            scaledInjections.add(scaledInjection);
+            minValues.add(minValue);
+            maxValues.add(maxValue);
+            others.add(other);
+            return addNode(LEAF, ids.size() - 1, new int[0], null);
+        }
+
+        private int addNode(byte type, int injection, int[] nodeChildren, List<Float> nodePercentages) {
+            nodeTypes.add(type);
+            nodeInjections.add(injection);
+            firstChildren.add(children.size());
+            for (int i = 0; i < nodeChildren.length; i++) {
+                children.add(nodeChildren[i]);
+                // percentages are widened to double, as in the proportional scalable
+                percentages.add(nodePercentages != null ? (double) nodePercentages.get(i) : Double.NaN);
+            }
+            lastChildren.add(children.size());
+            return nodeTypes.size() - 1;
+        }
+
+        private int[] compileChildren(Iterable<Scalable> scalables) {
+            List<Integer> nodes = new ArrayList<>();
+            for (Scalable scalable : scalables) {
+                nodes.add(compile(scalable));
+            }
+            return nodes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int compile(Scalable scalable) {
+            if (scalable instanceof GeneratorScalable) {
+                GeneratorScalable generatorScalable = (GeneratorScalable) scalable;
+                Generator g = network.getGenerator(generatorScalable.id);
+                if (g != null) {
+                    return addInjection(generatorScalable.id, GENERATOR_INJECTION, g,
+                            Math.max(g.getMinP(), generatorScalable.minValue), Math.min(g.getMaxP(), generatorScalable.maxValue), null);
+                }
+                return addInjection(generatorScalable.id, MISSING_GENERATOR, null, 0, 0, null);
+            } else if (scalable instanceof LoadScalable) {
+                LoadScalable loadScalable = (LoadScalable) scalable;
+                Load l = network.getLoad(loadScalable.id);
+                if (l != null) {
+                    return addInjection(loadScalable.id, LOAD_INJECTION, l, loadScalable.minValue, loadScalable.maxValue, null);
+                }
+                return addInjection(loadScalable.id, MISSING_LOAD, null, 0, 0, null);
+            } else if (scalable instanceof ScalableAdapter) {
+                return compile(((ScalableAdapter) scalable).getScalable(network));
+            } else if (scalable instanceof StackScalable) {
+                return addNode(STACK, -1, compileChildren(((StackScalable) scalable).getScalables()), null);
+            } else if (scalable instanceof ProportionalScalable) {
+                ProportionalScalable proportionalScalable = (ProportionalScalable) scalable;
+                return addNode(proportionalScalable.isIterative() ? ITERATIVE_PROPORTIONAL : PROPORTIONAL, -1,
+                        compileChildren(proportionalScalable.getScalables()), proportionalScalable.getPercentages());
+            } else {
+                // unknown implementation, called through the object API
+                return addInjection(null, OTHER_INJECTION, null, 0, 0, scalable);
+            }
+        }
+    }
+
+    private final Network network;
+
+    private final String[] ids;
+    private final byte[] injectionTypes;
+    private final Injection[] injections;
+    private final Injection[] scaledInjections;
+    // in the natural convention of the injection: generator convention for generators, load convention for loads
+    private final double[] minValues;
+    private final double[] maxValues;
+    private final Scalable[] others;
+
+    private final byte[] nodeTypes;
+    private final int[] nodeInjections;
+    private final int[] firstChildren;
+    private final int[] lastChildren;
+    private final int[] children;
+    private final double[] percentages;
+    private final int root;
+
+    // proportional distribution state, indexed as children
+    private final double[] iterationPercentages;
+    private final boolean[] saturated;
+
+    CompiledScalable(Scalable scalable, Network network) {
+        Objects.requireNonNull(scalable);
+        this.network = Objects.requireNonNull(network);
+
+        Compiler compiler = new Compiler(network);
+        root = compiler.compile(scalable);
+
+        ids = compiler.ids.toArray(new String[0]);
+        injectionTypes = toByteArray(compiler.injectionTypes);
+        injections = compiler.injections.toArray(new Injection[0]);
+        scaledInjections = compiler.scaledInjections.toArray(new Injection[0]);
+        minValues = compiler.minValues.stream().mapToDouble(Double::doubleValue).toArray();
+        maxValues = compiler.maxValues.stream().mapToDouble(Double::doubleValue).toArray();
+        others = compiler.others.toArray(new Scalable[0]);
+
+        nodeTypes = toByteArray(compiler.nodeTypes);
+        nodeInjections = compiler.nodeInjections.stream().mapToInt(Integer::intValue).toArray();
+        firstChildren = compiler.firstChildren.stream().mapToInt(Integer::intValue).toArray();
+        lastChildren = compiler.lastChildren.stream().mapToInt(Integer::intValue).toArray();
+        children = compiler.children.stream().mapToInt(Integer::intValue).toArray();
+        percentages = compiler.percentages.stream().mapToDouble(Double::doubleValue).toArray();
+
+        iterationPercentages = new double[children.length];
+        saturated = new boolean[children.length];
+    }
+
+    private static byte[] toByteArray(List<Byte> values) {
+        byte[] array = new byte[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private void checkNetwork(Network n) {
+        Objects.requireNonNull(n);
+        if (n != network) {
+            throw new PowsyblException("Scalable has been compiled for network '" + network.getId() + "'");
+        }
+    }
+
+    private boolean isNaturalConvention(int injection, ScalingConvention scalingConvention) {
+        return injectionTypes[injection] == GENERATOR_INJECTION ? scalingConvention == GENERATOR : scalingConvention == LOAD;
+    }
+
+    @Override
+    public double initialValue(Network n) {
+        checkNetwork(n);
+        return initialValue(root);
+    }
+
+    private double initialValue(int node) {
+        if (nodeTypes[node] == LEAF) {
+            int injection = nodeInjections[node];
+            if (injectionTypes[injection] == OTHER_INJECTION) {
+                return others[injection].initialValue(network);
+            }
+            Injection i = injections[injection];
+            if (i != null) {
+                double p = i.getTerminal().getP();
+                return !Double.isNaN(p) ? p : 0;
+            }
+            return 0;
+        }
+        double value = 0;
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            value += initialValue(children[k]);
+        }
+        return value;
+    }
+
+    @Override
+    public void reset(Network n) {
+        checkNetwork(n);
+        reset(root);
+    }
+
+    private void reset(int node) {
+        if (nodeTypes[node] == LEAF) {
+            int injection = nodeInjections[node];
+            switch (injectionTypes[injection]) {
+                case GENERATOR_INJECTION:
+                    ((Generator) scaledInjections[injection]).setTargetP(0);
+                    break;
+                case LOAD_INJECTION:
+                    ((Load) scaledInjections[injection]).setP0(0);
+                    break;
+                case OTHER_INJECTION:
+                    others[injection].reset(network);
+                    break;
+                default:
+                    break;
+            }
+        } else {
+            for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+                reset(children[k]);
+            }
+        }
+    }
+
+    @Override
+    public double maximumValue(Network n, ScalingConvention scalingConvention) {
+        checkNetwork(n);
+        Objects.requireNonNull(scalingConvention);
+        return limitValue(root, scalingConvention, true);
+    }
+
+    @Override
+    public double minimumValue(Network n, ScalingConvention scalingConvention) {
+        checkNetwork(n);
+        Objects.requireNonNull(scalingConvention);
+        return limitValue(root, scalingConvention, false);
+    }
+
+    private double limitValue(int node, ScalingConvention scalingConvention, boolean maximum) {
+        if (nodeTypes[node] == LEAF) {
+            int injection = nodeInjections[node];
+            switch (injectionTypes[injection]) {
+                case GENERATOR_INJECTION:
+                case LOAD_INJECTION:
+                    if (isNaturalConvention(injection, scalingConvention)) {
+                        return maximum ? maxValues[injection] : minValues[injection];
+                    }
+                    return maximum ? -minValues[injection] : -maxValues[injection];
+                case OTHER_INJECTION:
+                    return maximum ? others[injection].maximumValue(network, scalingConvention) : others[injection].minimumValue(network, scalingConvention);
+                default:
+                    return 0;
+            }
+        }
+        double value = 0;
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            value += limitValue(children[k], scalingConvention, maximum);
+        }
+        return value;
+    }
+
+    @Override
+    public void filterInjections(Network n, List<Injection> injections, List<String> notFound) {
+        checkNetwork(n);
+        Objects.requireNonNull(injections);
+        for (int injection = 0; injection < injectionTypes.length; injection++) {
+            switch (injectionTypes[injection]) {
+                case GENERATOR_INJECTION:
+                case LOAD_INJECTION:
+                    injections.add(scaledInjections[injection]);
+                    break;
+                case OTHER_INJECTION:
+                    others[injection].filterInjections(network, injections, notFound);
+                    break;
+                default:
+                    if (notFound != null) {
+                        notFound.add(ids[injection]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public double scale(Network n, double asked, ScalingConvention scalingConvention) {
+        checkNetwork(n);
+        Objects.requireNonNull(scalingConvention);
+        return scale(root, asked, scalingConvention);
+    }
+
+    private double scale(int node, double asked, ScalingConvention scalingConvention) {
+        switch (nodeTypes[node]) {
+            case LEAF:
+                return scaleInjection(nodeInjections[node], asked, scalingConvention);
+            case STACK:
+                return scaleStack(node, asked, scalingConvention);
+            case PROPORTIONAL:
+                resetIterationPercentages(node);
+                return scaleIteration(node, asked, scalingConvention);
+            case ITERATIVE_PROPORTIONAL:
+                resetIterationPercentages(node);
+                return iterativeScale(node, asked, scalingConvention);
+            default:
+                throw new AssertionError("Unexpected node type " + nodeTypes[node]);
+        }
+    }
+
+    private double scaleStack(int node, double asked, ScalingConvention scalingConvention) {
+        double done = 0;
+        double remaining = asked;
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            if (Math.abs(remaining) > StackScalable.EPSILON) {
+                double v = scale(children[k], remaining, scalingConvention);
+                done += v;
+                remaining -= v;
+            }
+        }
+        return done;
+    }
+
+    private void resetIterationPercentages(int node) {
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            saturated[k] = false;
+            iterationPercentages[k] = percentages[k];
+        }
+    }
+
+    private boolean notSaturated(int node) {
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            if (!saturated[k]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkIterationPercentages(int node) {
+        double iterationPercentagesSum = Arrays.stream(iterationPercentages, firstChildren[node], lastChildren[node]).sum();
+        if (Math.abs(100 - iterationPercentagesSum) > ProportionalScalable.EPSILON) {
+            throw new AssertionError(String.format("Error in proportional scalable ventilation. Sum of percentages must be equals to 100 (%.2f)", iterationPercentagesSum));
+        }
+    }
+
+    private void updateIterationPercentages(int node) {
+        double unsaturatedPercentagesSum = IntStream.range(firstChildren[node], lastChildren[node])
+                .filter(k -> !saturated[k])
+                .mapToDouble(k -> iterationPercentages[k])
+                .sum();
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            iterationPercentages[k] = saturated[k] ? 0 : iterationPercentages[k] / unsaturatedPercentagesSum * 100;
+        }
+    }
+
+    private double iterativeScale(int node, double asked, ScalingConvention scalingConvention) {
+        double done = 0;
+        while (Math.abs(asked - done) > ProportionalScalable.EPSILON && notSaturated(node)) {
+            checkIterationPercentages(node);
+            done += scaleIteration(node, asked - done, scalingConvention);
+            updateIterationPercentages(node);
+        }
+        return done;
+    }
+
+    private double scaleIteration(int node, double asked, ScalingConvention scalingConvention) {
+        double done = 0;
+        for (int k = firstChildren[node]; k < lastChildren[node]; k++) {
+            double askedOnScalable = iterationPercentages[k] / 100 * asked;
+            double doneOnScalable = scale(children[k], askedOnScalable, scalingConvention);
+            if (Math.abs(doneOnScalable - askedOnScalable) > ProportionalScalable.EPSILON) {
+                saturated[k] = true;
+            }
+            done += doneOnScalable;
+        }
+        return done;
+    }
+
+    private double scaleInjection(int injection, double asked, ScalingConvention scalingConvention) {
+        switch (injectionTypes[injection]) {
+            case GENERATOR_INJECTION:
+                return scaleGenerator(injection, asked, scalingConvention);
+            case LOAD_INJECTION:
+                return scaleLoad(injection, asked, scalingConvention);
+            case MISSING_GENERATOR:
+                LOGGER.warn("Generator {} not found", ids[injection]);
+                return 0;
+            case MISSING_LOAD:
+                LOGGER.warn("Load {} not found", ids[injection]);
+                return 0;
+            default:
+                return others[injection].scale(network, asked, scalingConvention);
+        }
+    }
+
+    private double scaleGenerator(int injection, double asked, ScalingConvention scalingConvention) {
+        Generator g = (Generator) scaledInjections[injection];
+        if (!g.getTerminal().isConnected()) {
+            GeneratorUtil.connectGenerator(g);
+            LOGGER.info("Connecting {}", g.getId());
+        }
+
+        double oldTargetP = g.getTargetP();
+        boolean natural = scalingConvention == GENERATOR;
+        double done = computeDone(injection, "GeneratorScalable", oldTargetP, asked, natural);
+        g.setTargetP(natural ? oldTargetP + done : oldTargetP - done);
+
+        LOGGER.debug("Change active power setpoint of {} from {} to {} (pmax={})",
+                g.getId(), oldTargetP, g.getTargetP(), g.getMaxP());
+
+        return done;
+    }
+
+    private double scaleLoad(int injection, double asked, ScalingConvention scalingConvention) {
+        Load l = (Load) scaledInjections[injection];
+        Terminal t = l.getTerminal();
+        if (!t.isConnected()) {
+            t.connect();
+            LOGGER.info("Connecting {}", l.getId());
+        }
+
+        double oldP0 = l.getP0();
+        boolean natural = scalingConvention == LOAD;
+        double done = computeDone(injection, "LoadScalable", oldP0, asked, natural);
+        l.setP0(natural ? oldP0 + done : oldP0 - done);
+
+        LOGGER.debug("Change active power setpoint of {} from {} to {} ",
+                l.getId(), oldP0, l.getP0());
+
+        return done;
+    }
+
+    /**
+     * Clip the asked value to the available range of the injection, in the given convention.
+     */
+    private double computeDone(int injection, String scalableName, double oldValue, double asked, boolean naturalConvention) {
+        double minValue = minValues[injection];
+        double maxValue = maxValues[injection];
+        if (oldValue < minValue || oldValue > maxValue) {
+            throw new PowsyblException("Error scaling " + scalableName + " " + ids[injection] +
+                    " : Initial P is not in the range [Pmin, Pmax]");
+        }
+
+        double availableUp = maxValue - oldValue;
+        double availableDown = oldValue - minValue;
+        if (naturalConvention) {
+            return asked > 0 ? Math.min(asked, availableUp) : -Math.min(-asked, availableDown);
+        } else {
+            return asked > 0 ? Math.min(asked, availableDown) : -Math.min(-asked, availableUp);
+        }
+    }
+}
@@ -24,7 +24,7 @@ import java.util.stream.Collectors;
  * @author Sebastien Murgey {@literal <sebastien.murgey at rte-france.com>}
  */
 class ProportionalScalable extends AbstractCompoundScalable {
-    private static final double EPSILON = 1e-2;
+    static final double EPSILON = 1e-2;
 
     private final class ScalablePercentage {
         private final Scalable scalable;
@@ -89,6 +89,14 @@ class ProportionalScalable extends AbstractCompoundScalable {
         return scalablePercentageList.stream().map(ScalablePercentage::getScalable).collect(Collectors.toList());
     }
 
+    List<Float> getPercentages() {
+        return scalablePercentageList.stream().map(ScalablePercentage::getPercentage).collect(Collectors.toList());
+    }
+
+    boolean isIterative() {
+        return iterative;
+    }
+
     private static void checkPercentages(List<Float> percentages, List<Scalable> scalables) {
         Objects.requireNonNull(percentages);
         Objects.requireNonNull(scalables);
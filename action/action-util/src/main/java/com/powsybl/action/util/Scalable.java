@@ -229,6 +229,18 @@ public interface Scalable {
         return new StackScalable(scalables);
     }
 
+    /**
+     * Compile a scalable for the given network, so that a lot of shifts can be done efficiently.
+     * The returned scalable can only be used with this network.
+     *
+     * @param scalable scalable to compile
+     * @param network network the scalable is used with
+     * @return a scalable giving the same results as the original one
+     */
+    static Scalable compile(Scalable scalable, Network network) {
+        return new CompiledScalable(scalable, network);
+    }
+
     static StackScalable stack(String... ids) {
         List<Scalable> identifierScalables = Arrays.stream(ids).map(ScalableAdapter::new).collect(Collectors.toList());
         return new StackScalable(identifierScalables);
@@ -20,7 +20,7 @@ class ScalableAdapter extends AbstractScalable {
         this.id = Objects.requireNonNull(id);
     }
 
-    private Scalable getScalable(Network n) {
+    Scalable getScalable(Network n) {
         Objects.requireNonNull(n);
         Identifiable identifiable = n.getIdentifiable(id);
         if (identifiable instanceof Generator) {
@@ -0,0 +1,357 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.util;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.config.ComponentDefaultConfig;
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Bus;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.PhaseTapChanger;
+import com.powsybl.iidm.network.TwoWindingsTransformer;
+import com.powsybl.loadflow.LoadFlow;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.loadflow.LoadFlowResult;
+import com.powsybl.loadflow.LoadFlowSession;
+import com.powsybl.sensitivity.*;
+import com.powsybl.sensitivity.factors.BranchFlowPerPSTAngle;
+import com.powsybl.sensitivity.factors.functions.BranchFlow;
+import com.powsybl.sensitivity.factors.variables.PhaseTapChangerAngle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Phase shifter optimizer moving the taps of several phase shifters at once.
+ *
+ * <p>Instead of running a load flow after each tap move, the impact of the phase shifter angles on the flows of all
+ * the phase shifters is computed by a single sensitivity computation ({@link BranchFlowPerPSTAngle} factors). Taps
+ * are then moved one step at a time, choosing at each iteration the move that increases the most the sum of the
+ * flows of the phase shifters, as long as no phase shifter is expected to be overloaded. Load flows are only run to
+ * get the reference flows and to check the final taps: if a phase shifter is actually overloaded, its tap is moved
+ * back one step towards its initial position and the check is done again.
+ *
+ * <p>Current permanent limits are converted to active power limits using the ratio between the active power and the
+ * current of the reference load flow.
+ *
+ * @author agent <agent at local>
+ */
+public class SensitivityBasedPhaseShifterOptimizer implements PhaseShifterOptimizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SensitivityBasedPhaseShifterOptimizer.class);
+
+    private static final double EPSILON = 1e-6;
+
+    private final ComputationManager computationManager;
+
+    private final SensitivityComputationFactory sensitivityComputationFactory;
+
+    private final LoadFlowBasedPhaseShifterOptimizerConfig config;
+
+    /**
+     * Load flow to use, or null to find the one of the configuration.
+     */
+    private final LoadFlow.Runner loadFlowRunner;
+
+    public SensitivityBasedPhaseShifterOptimizer(ComputationManager computationManager, SensitivityComputationFactory sensitivityComputationFactory,
+                                                 LoadFlowBasedPhaseShifterOptimizerConfig config) {
+        this.computationManager = Objects.requireNonNull(computationManager);
+        this.sensitivityComputationFactory = Objects.requireNonNull(sensitivityComputationFactory);
+        this.config = Objects.requireNonNull(config);
+        this.loadFlowRunner = null;
+    }
+
+    public SensitivityBasedPhaseShifterOptimizer(ComputationManager computationManager, SensitivityComputationFactory sensitivityComputationFactory,
+                                                 LoadFlow.Runner loadFlowRunner) {
+        this.computationManager = Objects.requireNonNull(computationManager);
+        this.sensitivityComputationFactory = Objects.requireNonNull(sensitivityComputationFactory);
+        this.config = null;
+        this.loadFlowRunner = Objects.requireNonNull(loadFlowRunner);
+    }
+
+    public SensitivityBasedPhaseShifterOptimizer(ComputationManager computationManager) {
+        this(computationManager, ComponentDefaultConfig.load().newFactoryImpl(SensitivityComputationFactory.class),
+                LoadFlowBasedPhaseShifterOptimizerConfig.load());
+    }
+
+    /**
+     * Phase shifters being optimized, and the linear model of their flows.
+     */
+    private static final class Optimization {
+
+        private final TwoWindingsTransformer[] phaseShifters;
+        private final int[] initialTaps;
+        private final int[] taps;
+        private final int[] lowTaps;
+        private final double[][] alphas;
+        private final double[] flows;
+        private final double[] flowLimits;
+        private final double[][] sensitivities;
+
+        private Optimization(List<TwoWindingsTransformer> phaseShifters) {
+            int count = phaseShifters.size();
+            this.phaseShifters = phaseShifters.toArray(new TwoWindingsTransformer[count]);
+            initialTaps = new int[count];
+            taps = new int[count];
+            lowTaps = new int[count];
+            alphas = new double[count][];
+            flows = new double[count];
+            flowLimits = new double[count];
+            sensitivities = new double[count][count];
+            for (int i = 0; i < count; i++) {
+                PhaseTapChanger ptc = this.phaseShifters[i].getPhaseTapChanger();
+                initialTaps[i] = ptc.getTapPosition();
+                taps[i] = initialTaps[i];
+                lowTaps[i] = ptc.getLowTapPosition();
+                alphas[i] = new double[ptc.getStepCount()];
+                for (int k = 0; k < alphas[i].length; k++) {
+                    alphas[i][k] = ptc.getStep(lowTaps[i] + k).getAlpha();
+                }
+            }
+        }
+
+        private int size() {
+            return phaseShifters.length;
+        }
+
+        private boolean isValidTap(int i, int tap) {
+            return tap >= lowTaps[i] && tap < lowTaps[i] + alphas[i].length;
+        }
+
+        private double getAngleShift(int i, int tap) {
+            return alphas[i][tap - lowTaps[i]] - alphas[i][taps[i] - lowTaps[i]];
+        }
+
+        /**
+         * Sum of the expected flows after moving the tap of the given phase shifter, or NaN if a phase shifter is
+         * expected to be overloaded.
+         */
+        private double evaluateMove(int i, int tap) {
+            double angleShift = getAngleShift(i, tap);
+            double sum = 0;
+            for (int j = 0; j < flows.length; j++) {
+                double flow = Math.abs(flows[j] + sensitivities[j][i] * angleShift);
+                if (flow >= flowLimits[j]) {
+                    return Double.NaN;
+                }
+                sum += flow;
+            }
+            return sum;
+        }
+
+        private void move(int i, int tap) {
+            double angleShift = getAngleShift(i, tap);
+            for (int j = 0; j < flows.length; j++) {
+                flows[j] += sensitivities[j][i] * angleShift;
+            }
+            taps[i] = tap;
+        }
+
+        private void optimize() {
+            double currentSum = Arrays.stream(flows).map(Math::abs).sum();
+            while (true) {
+                int bestPhaseShifter = -1;
+                int bestTap = 0;
+                double bestSum = currentSum + EPSILON;
+                for (int i = 0; i < flows.length; i++) {
+                    for (int tap = taps[i] - 1; tap <= taps[i] + 1; tap += 2) {
+                        if (isValidTap(i, tap)) {
+                            double sum = evaluateMove(i, tap);
+                            if (sum > bestSum) {
+                                bestPhaseShifter = i;
+                                bestTap = tap;
+                                bestSum = sum;
+                            }
+                        }
+                    }
+                }
+                if (bestPhaseShifter == -1) {
+                    break;
+                }
+                move(bestPhaseShifter, bestTap);
+                currentSum = bestSum;
+            }
+        }
+
+        private void applyTaps() {
+            for (int i = 0; i < phaseShifters.length; i++) {
+                phaseShifters[i].getPhaseTapChanger().setTapPosition(taps[i]);
+            }
+        }
+
+        /**
+         * Move back one step towards its initial position the tap of each given phase shifter.
+         *
+         * @return false if all phase shifters were already at their initial position
+         */
+        private boolean moveBack(Collection<Integer> phaseShifterIndexes) {
+            boolean moved = false;
+            for (int i : phaseShifterIndexes) {
+                if (taps[i] != initialTaps[i]) {
+                    taps[i] += taps[i] < initialTaps[i] ? 1 : -1;
+                    moved = true;
+                }
+            }
+            return moved;
+        }
+    }
+
+    private static String getFunctionId(TwoWindingsTransformer phaseShifter) {
+        return phaseShifter.getId() + "_flow";
+    }
+
+    private static String getVariableId(TwoWindingsTransformer phaseShifter) {
+        return phaseShifter.getId() + "_angle";
+    }
+
+    private static TwoWindingsTransformer getPhaseShifter(Network network, String phaseShifterId) {
+        TwoWindingsTransformer phaseShifter = network.getTwoWindingsTransformer(phaseShifterId);
+        if (phaseShifter == null) {
+            throw new PowsyblException("Phase shifter '" + phaseShifterId + "' not found");
+        }
+        if (phaseShifter.getPhaseTapChanger() == null) {
+            throw new PowsyblException("Transformer '" + phaseShifterId + "' is not a phase shifter");
+        }
+        return phaseShifter;
+    }
+
+    private static double getI(TwoWindingsTransformer phaseShifter) {
+        return phaseShifter.getTerminal1().getI();
+    }
+
+    private static double getLimit(TwoWindingsTransformer phaseShifter) {
+        return phaseShifter.getCurrentLimits1().getPermanentLimit();
+    }
+
+    private static double getFlowLimit(TwoWindingsTransformer phaseShifter) {
+        double i = getI(phaseShifter);
+        double p = phaseShifter.getTerminal1().getP();
+        if (i > 0 && !Double.isNaN(p)) {
+            return getLimit(phaseShifter) * Math.abs(p) / i;
+        }
+        // no reference flow, the apparent power limit is used
+        Bus bus = phaseShifter.getTerminal1().getBusView().getBus();
+        return bus != null ? Math.sqrt(3) * bus.getV() * getLimit(phaseShifter) / 1000 : Double.MAX_VALUE;
+    }
+
+    private static void runLoadFlow(LoadFlowSession session, Network network, ComputationManager computationManager, String workingStateId) {
+        LoadFlowResult result = session.run(network, computationManager, workingStateId, LoadFlowParameters.load()).join();
+        if (!result.isOk()) {
+            throw new PowsyblException("Load flow diverged during phase shifter optimization");
+        }
+    }
+
+    private void computeSensitivities(Network network, String workingStateId, Optimization optimization) {
+        List<SensitivityFactor> factors = new ArrayList<>();
+        BranchFlowPerPSTAngle[][] factorMatrix = new BranchFlowPerPSTAngle[optimization.size()][optimization.size()];
+        for (int j = 0; j < optimization.size(); j++) {
+            TwoWindingsTransformer monitored = optimization.phaseShifters[j];
+            BranchFlow function = new BranchFlow(getFunctionId(monitored), getFunctionId(monitored), monitored.getId());
+            for (int i = 0; i < optimization.size(); i++) {
+                TwoWindingsTransformer shifted = optimization.phaseShifters[i];
+                PhaseTapChangerAngle variable = new PhaseTapChangerAngle(getVariableId(shifted), getVariableId(shifted), shifted.getId());
+                factorMatrix[j][i] = new BranchFlowPerPSTAngle(function, variable);
+                factors.add(factorMatrix[j][i]);
+            }
+        }
+
+        SensitivityComputationResults results = sensitivityComputationFactory.create(network, computationManager, 0)
+                .run(n -> factors, workingStateId, SensitivityComputationParameters.load())
+                .join();
+        if (!results.isOk()) {
+            throw new PowsyblException("Sensitivity computation failed during phase shifter optimization");
+        }
+        for (int j = 0; j < optimization.size(); j++) {
+            for (int i = 0; i < optimization.size(); i++) {
+                optimization.sensitivities[j][i] = results.getSensitivityValue(factorMatrix[j][i]).getValue();
+            }
+        }
+    }
+
+    /**
+     * Look for the taps of the given phase shifters maximizing their flows, without overloading them.
+     *
+     * @param network the network
+     * @param phaseShifterIds ids of the phase shifters to optimize
+     */
+    public void findMaximalFlowTaps(Network network, List<String> phaseShifterIds) {
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(phaseShifterIds);
+        List<TwoWindingsTransformer> phaseShifters = new ArrayList<>(phaseShifterIds.size());
+        for (String phaseShifterId : phaseShifterIds) {
+            phaseShifters.add(getPhaseShifter(network, phaseShifterId));
+        }
+        Optimization optimization = new Optimization(phaseShifters);
+
+        // temporary state used to move the phase shifter taps without changing the current state
+        String stateId = network.getVariantManager().getWorkingVariantId();
+        String tmpStateId = "phase-shifter-optim-" + UUID.randomUUID();
+        network.getVariantManager().cloneVariant(stateId, tmpStateId);
+        LoadFlow.Runner runner = loadFlowRunner != null ? loadFlowRunner : LoadFlow.find(config.getLoadFlowName().orElse(null));
+        try (LoadFlowSession session = runner.createSession()) {
+            network.getVariantManager().setWorkingVariant(tmpStateId);
+
+            runLoadFlow(session, network, computationManager, tmpStateId);
+            for (int i = 0; i < optimization.size(); i++) {
+                TwoWindingsTransformer phaseShifter = optimization.phaseShifters[i];
+                if (getI(phaseShifter) >= getLimit(phaseShifter)) {
+                    throw new PowsyblException("Phase shifter '" + phaseShifter.getId() + "' already overloaded");
+                }
+                optimization.flows[i] = phaseShifter.getTerminal1().getP();
+                optimization.flowLimits[i] = getFlowLimit(phaseShifter);
+            }
+
+            computeSensitivities(network, tmpStateId, optimization);
+            optimization.optimize();
+
+            // check the taps with a load flow, and move back the ones of overloaded phase shifters
+            while (true) {
+                optimization.applyTaps();
+                runLoadFlow(session, network, computationManager, tmpStateId);
+                List<Integer> overloaded = new ArrayList<>();
+                for (int i = 0; i < optimization.size(); i++) {
+                    if (getI(optimization.phaseShifters[i]) >= getLimit(optimization.phaseShifters[i])) {
+                        overloaded.add(i);
+                    }
+                }
+                if (overloaded.isEmpty()) {
+                    break;
+                }
+                LOGGER.debug("{} phase shifter(s) overloaded after optimization, moving back taps", overloaded.size());
+                // overloaded phase shifters may already be at their initial position, the other ones are then moved back
+                if (!optimization.moveBack(overloaded) && !optimization.moveBack(allIndexes(optimization.size()))) {
+                    throw new AssertionError("Phase shifters should not be overloaded at initial taps");
+                }
+            }
+        } finally {
+            // don't forget to remove the temporary state!
+            network.getVariantManager().removeVariant(tmpStateId);
+            network.getVariantManager().setWorkingVariant(stateId);
+        }
+
+        // set the optimal taps on the current state
+        for (int i = 0; i < optimization.size(); i++) {
+            LOGGER.debug("Optimal phase shifter '{}' tap is {} (from {})", optimization.phaseShifters[i].getId(),
+                    optimization.taps[i], optimization.initialTaps[i]);
+        }
+        optimization.applyTaps();
+    }
+
+    private static List<Integer> allIndexes(int count) {
+        List<Integer> indexes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    @Override
+    public void findMaximalFlowTap(Network network, String phaseShifterId) {
+        findMaximalFlowTaps(network, Collections.singletonList(phaseShifterId));
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.util;
+
+import com.powsybl.action.util.Scalable.ScalingConvention;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Injection;
+import com.powsybl.iidm.network.Network;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.powsybl.action.util.ScalableTestNetwork.createNetwork;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class CompiledScalableTest {
+
+    private Network network;
+    private Network compiledNetwork;
+    private List<Scalable> scalables;
+
+    @Before
+    public void setUp() {
+        network = createNetwork();
+        compiledNetwork = createNetwork();
+
+        Scalable g1 = Scalable.onGenerator("g1");
+        Scalable g2 = Scalable.onGenerator("g2");
+        Scalable g3 = Scalable.onGenerator("g3", -10, 80);
+        Scalable s = Scalable.onGenerator("s");
+        Scalable unknownGenerator = Scalable.onGenerator("unknown");
+        Scalable l1 = Scalable.onLoad("l1");
+        Scalable l2 = Scalable.onLoad("l1", 20, 80);
+        Scalable l3 = Scalable.onLoad("l1", -50, 100);
+        Scalable unknownLoad = Scalable.onLoad("unknown");
+
+        scalables = Arrays.asList(
+                g1,
+                l3,
+                Scalable.scalable("g2"),
+                Scalable.stack(g1, g2, g3),
+                Scalable.stack(s, unknownGenerator, unknownLoad),
+                Scalable.stack(g3, l3),
+                Scalable.stack("g1", "l1"),
+                Scalable.proportional(Arrays.asList(70.f, 20.f, 10.f), Arrays.asList(g1, g2, g3)),
+                Scalable.proportional(Arrays.asList(70.f, 20.f, 10.f), Arrays.asList(g1, g2, g3), true),
+                Scalable.proportional(Arrays.asList(70.f, 20.f, 10.f), Arrays.asList(g1, s, unknownGenerator), true),
+                Scalable.proportional(Arrays.asList(2.5f, 7.5f, 90.f), Arrays.asList(g1, g2, g3), true),
+                Scalable.proportional(Arrays.asList(30.f, 70.f), Arrays.asList(l1, l2)),
+                Scalable.proportional(Arrays.asList(90.f, 10.f), Arrays.asList(l3, g3), true),
+                Scalable.proportional(50.0f, g1, 25.0f, g1, 25.0f, g2),
+                Scalable.proportional(Arrays.asList(60.f, 40.f),
+                        Arrays.asList(Scalable.stack(g3, g1), Scalable.proportional(Arrays.asList(50.f, 50.f), Arrays.asList(g2, l3), true)), true));
+    }
+
+    private void reset() {
+        for (Network n : Arrays.asList(network, compiledNetwork)) {
+            n.getGeneratorStream().forEach(g -> g.setTargetP(0));
+            n.getLoad("l1").setP0(0);
+        }
+    }
+
+    private void assertSameState() {
+        network.getGeneratorStream().forEach(g -> assertEquals(g.getTargetP(), compiledNetwork.getGenerator(g.getId()).getTargetP(), 0.0));
+        assertEquals(network.getLoad("l1").getP0(), compiledNetwork.getLoad("l1").getP0(), 0.0);
+    }
+
+    private void assertSameScale(Scalable scalable, Scalable compiled, double asked, ScalingConvention convention) {
+        double done;
+        try {
+            done = scalable.scale(network, asked, convention);
+        } catch (PowsyblException e) {
+            try {
+                compiled.scale(compiledNetwork, asked, convention);
+                fail();
+            } catch (PowsyblException e2) {
+                assertEquals(e.getMessage(), e2.getMessage());
+            }
+            return;
+        }
+        assertEquals(done, compiled.scale(compiledNetwork, asked, convention), 0.0);
+    }
+
+    @Test
+    public void testSameResults() {
+        for (Scalable scalable : scalables) {
+            Scalable compiled = Scalable.compile(scalable, compiledNetwork);
+            for (ScalingConvention convention : ScalingConvention.values()) {
+                assertEquals(scalable.initialValue(network), compiled.initialValue(compiledNetwork), 0.0);
+                assertEquals(scalable.maximumValue(network, convention), compiled.maximumValue(compiledNetwork, convention), 0.0);
+                assertEquals(scalable.minimumValue(network, convention), compiled.minimumValue(compiledNetwork, convention), 0.0);
+                for (double asked : new double[] {100, -100, 270, -35.5, 0}) {
+                    reset();
+                    // several shifts in a row, to start from various states
+                    for (int i = 0; i < 3; i++) {
+                        assertSameScale(scalable, compiled, asked, convention);
+                        assertSameState();
+                    }
+                }
+            }
+            scalable.reset(network);
+            compiled.reset(compiledNetwork);
+            assertSameState();
+        }
+    }
+
+    @Test
+    public void testFilterInjections() {
+        for (Scalable scalable : scalables) {
+            List<String> notFound = new ArrayList<>();
+            List<String> compiledNotFound = new ArrayList<>();
+            List<Injection> injections = scalable.filterInjections(network, notFound);
+            List<Injection> compiledInjections = Scalable.compile(scalable, compiledNetwork).filterInjections(compiledNetwork, compiledNotFound);
+            assertEquals(injections.stream().map(Injection::getId).collect(Collectors.toList()),
+                         compiledInjections.stream().map(Injection::getId).collect(Collectors.toList()));
+            assertEquals(notFound, compiledNotFound);
+        }
+    }
+
+    @Test
+    public void testInitialPOutOfRange() {
+        Scalable compiled = Scalable.compile(Scalable.onGenerator("g3", -10, 80), compiledNetwork);
+        compiledNetwork.getGenerator("g3").setTargetP(90);
+        try {
+            compiled.scale(compiledNetwork, 10);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Error scaling GeneratorScalable g3 : Initial P is not in the range [Pmin, Pmax]", e.getMessage());
+        }
+    }
+
+    @Test(expected = PowsyblException.class)
+    public void testOtherNetwork() {
+        Scalable.compile(Scalable.onGenerator("g1"), compiledNetwork).scale(network, 10);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.util;
+
+import com.google.auto.service.AutoService;
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.TwoWindingsTransformer;
+import com.powsybl.loadflow.LoadFlowParameters;
+import com.powsybl.loadflow.LoadFlowProvider;
+import com.powsybl.loadflow.LoadFlowResult;
+import com.powsybl.loadflow.LoadFlowResultImpl;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load flow computing the active power flows of the phase shifters of {@link SensitivityBasedPhaseShifterOptimizerTest}
+ * with a linear model of the phase shifter angles, and a current in A equal to the active power in MW.
+ *
+ * @author agent <agent at local>
+ */
+@AutoService(LoadFlowProvider.class)
+public class PhaseShifterLoadFlowProviderMock implements LoadFlowProvider {
+
+    static final String[] PHASE_SHIFTER_IDS = {"PS1", "PS2"};
+
+    static final double[] BASE_FLOWS = {50, 30};
+
+    static final double[][] SENSITIVITIES = {{2, -1}, {-1, 2}};
+
+    private final AtomicInteger runCount = new AtomicInteger();
+
+    /**
+     * Quadratic term added to the flow of each phase shifter, which is not seen by the sensitivities.
+     */
+    private volatile double nonLinearity = 0;
+
+    int getRunCount() {
+        return runCount.get();
+    }
+
+    PhaseShifterLoadFlowProviderMock setNonLinearity(double nonLinearity) {
+        this.nonLinearity = nonLinearity;
+        return this;
+    }
+
+    @Override
+    public String getName() {
+        return "PhaseShifterLoadFlowMock";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public CompletableFuture<LoadFlowResult> run(Network network, ComputationManager computationManager, String workingVariantId, LoadFlowParameters parameters) {
+        runCount.incrementAndGet();
+        double[] alphas = new double[PHASE_SHIFTER_IDS.length];
+        for (int i = 0; i < PHASE_SHIFTER_IDS.length; i++) {
+            alphas[i] = network.getTwoWindingsTransformer(PHASE_SHIFTER_IDS[i]).getPhaseTapChanger().getCurrentStep().getAlpha();
+        }
+        for (int j = 0; j < PHASE_SHIFTER_IDS.length; j++) {
+            double p = BASE_FLOWS[j] + nonLinearity * alphas[j] * alphas[j];
+            for (int i = 0; i < PHASE_SHIFTER_IDS.length; i++) {
+                p += SENSITIVITIES[j][i] * alphas[i];
+            }
+            TwoWindingsTransformer phaseShifter = network.getTwoWindingsTransformer(PHASE_SHIFTER_IDS[j]);
+            phaseShifter.getTerminal1().setP(p).setQ(0);
+            // so that current in A is equal to active power in MW
+            phaseShifter.getTerminal1().getBusView().getBus().setV(1000 / Math.sqrt(3));
+        }
+        return CompletableFuture.completedFuture(new LoadFlowResultImpl(true, Collections.emptyMap(), ""));
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.action.util;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.test.PhaseShifterTestCaseFactory;
+import com.powsybl.loadflow.LoadFlow;
+import com.powsybl.sensitivity.*;
+import com.powsybl.sensitivity.factors.BranchFlowPerPSTAngle;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static com.powsybl.action.util.PhaseShifterLoadFlowProviderMock.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class SensitivityBasedPhaseShifterOptimizerTest {
+
+    private Network network;
+
+    private ComputationManager computationManager;
+
+    private int sensitivityComputationCount;
+
+    private PhaseShifterLoadFlowProviderMock loadFlowProvider;
+
+    private static int indexOf(String phaseShifterId) {
+        return Arrays.asList(PHASE_SHIFTER_IDS).indexOf(phaseShifterId);
+    }
+
+    /**
+     * Sensitivity computation giving the sensitivities of the load flow mock.
+     */
+    private final SensitivityComputationFactory sensitivityComputationFactory = (n, cm, priority) -> new SensitivityComputation() {
+        @Override
+        public CompletableFuture<SensitivityComputationResults> run(SensitivityFactorsProvider factorsProvider, String workingStateId, SensitivityComputationParameters sensiParameters) {
+            sensitivityComputationCount++;
+            List<SensitivityValue> values = factorsProvider.getFactors(n).stream()
+                    .map(factor -> {
+                        BranchFlowPerPSTAngle pstFactor = (BranchFlowPerPSTAngle) factor;
+                        int j = indexOf(pstFactor.getFunction().getBranchId());
+                        int i = indexOf(pstFactor.getVariable().getPhaseTapChangerHolderId());
+                        return new SensitivityValue(factor, SENSITIVITIES[j][i], Double.NaN, Double.NaN);
+                    })
+                    .collect(Collectors.toList());
+            return CompletableFuture.completedFuture(new SensitivityComputationResults(true, Collections.emptyMap(), "", values));
+        }
+
+        @Override
+        public String getName() {
+            return "SensitivityComputationMock";
+        }
+
+        @Override
+        public String getVersion() {
+            return "1.0";
+        }
+    };
+
+    @Before
+    public void setUp() {
+        network = PhaseShifterTestCaseFactory.create();
+        TwoWindingsTransformer ps2 = network.getSubstation("S1").newTwoWindingsTransformer()
+                .setId("PS2")
+                .setVoltageLevel1("VL1")
+                .setConnectableBus1("B1")
+                .setBus1("B1")
+                .setVoltageLevel2("VL3")
+                .setConnectableBus2("B3")
+                .setBus2("B3")
+                .setRatedU1(380.0)
+                .setRatedU2(380.0)
+                .setR(2.0)
+                .setX(100.0)
+                .setG(0.0)
+                .setB(0.0)
+                .add();
+        PhaseTapChangerAdder adder = ps2.newPhaseTapChanger()
+                .setTapPosition(2)
+                .setRegulationMode(PhaseTapChanger.RegulationMode.FIXED_TAP);
+        for (double alpha = -20; alpha <= 20; alpha += 10) {
+            adder.beginStep()
+                    .setAlpha(alpha)
+                    .setRho(1.0)
+                    .setR(0.0)
+                    .setX(0.0)
+                    .setG(0.0)
+                    .setB(0.0)
+                    .endStep();
+        }
+        adder.add();
+        network.getTwoWindingsTransformer("PS1").newCurrentLimits1().setPermanentLimit(95).add();
+        ps2.newCurrentLimits1().setPermanentLimit(75).add();
+
+        computationManager = Mockito.mock(ComputationManager.class);
+        loadFlowProvider = new PhaseShifterLoadFlowProviderMock();
+    }
+
+    private SensitivityBasedPhaseShifterOptimizer createOptimizer() {
+        return new SensitivityBasedPhaseShifterOptimizer(computationManager, sensitivityComputationFactory,
+                new LoadFlow.Runner(loadFlowProvider));
+    }
+
+    private int getTap(String phaseShifterId) {
+        return network.getTwoWindingsTransformer(phaseShifterId).getPhaseTapChanger().getTapPosition();
+    }
+
+    private void assertNotOverloaded() {
+        loadFlowProvider.run(network, computationManager, network.getVariantManager().getWorkingVariantId(), null).join();
+        for (String phaseShifterId : PHASE_SHIFTER_IDS) {
+            TwoWindingsTransformer phaseShifter = network.getTwoWindingsTransformer(phaseShifterId);
+            assertTrue(phaseShifter.getTerminal1().getI() < phaseShifter.getCurrentLimits1().getPermanentLimit());
+        }
+    }
+
+    @Test
+    public void testSeveralPhaseShifters() {
+        createOptimizer().findMaximalFlowTaps(network, Arrays.asList(PHASE_SHIFTER_IDS));
+        assertEquals(2, getTap("PS1"));
+        assertEquals(4, getTap("PS2"));
+        // one reference load flow, one sensitivity computation and one load flow to check the taps
+        assertEquals(2, loadFlowProvider.getRunCount());
+        assertEquals(1, sensitivityComputationCount);
+        assertEquals(Collections.singleton(VariantManagerConstants.INITIAL_VARIANT_ID), network.getVariantManager().getVariantIds());
+        assertNotOverloaded();
+    }
+
+    @Test
+    public void testMoveBack() {
+        // the flows increase more than expected by the sensitivities
+        loadFlowProvider.setNonLinearity(0.1);
+        createOptimizer().findMaximalFlowTaps(network, Arrays.asList(PHASE_SHIFTER_IDS));
+        assertEquals(1, getTap("PS1"));
+        assertEquals(3, getTap("PS2"));
+        assertEquals(3, loadFlowProvider.getRunCount());
+        assertNotOverloaded();
+    }
+
+    @Test
+    public void testSameAsLoadFlowBased() {
+        network.getTwoWindingsTransformer("PS2").newCurrentLimits1().setPermanentLimit(65).add();
+
+        createOptimizer().findMaximalFlowTap(network, "PS2");
+        int tap = getTap("PS2");
+        assertEquals(3, tap);
+
+        network.getTwoWindingsTransformer("PS2").getPhaseTapChanger().setTapPosition(2);
+        new LoadFlowBasedPhaseShifterOptimizer(computationManager, new LoadFlowBasedPhaseShifterOptimizerConfig(null))
+                .findMaximalFlowTap(network, "PS2");
+        assertEquals(tap, getTap("PS2"));
+    }
+
+    @Test
+    public void testAlreadyOverloaded() {
+        network.getTwoWindingsTransformer("PS1").newCurrentLimits1().setPermanentLimit(40).add();
+        try {
+            createOptimizer().findMaximalFlowTaps(network, Arrays.asList(PHASE_SHIFTER_IDS));
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Phase shifter 'PS1' already overloaded", e.getMessage());
+        }
+        assertEquals(1, getTap("PS1"));
+        assertEquals(Collections.singleton(VariantManagerConstants.INITIAL_VARIANT_ID), network.getVariantManager().getVariantIds());
+    }
+
+    @Test(expected = PowsyblException.class)
+    public void testNotAPhaseShifter() {
+        createOptimizer().findMaximalFlowTap(network, "L1");
+    }
+}
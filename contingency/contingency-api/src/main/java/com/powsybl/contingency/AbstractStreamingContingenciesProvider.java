@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.google.common.collect.MapMaker;
+import com.powsybl.computation.Partition;
+import com.powsybl.iidm.network.Network;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Base class for providers generating their contingencies lazily, as a stream.
+ *
+ * <p>Contingencies of a partition are obtained by {@link #getContingencyStream(Network, int, int)}, which by default
+ * skips the contingencies of the previous partitions, without keeping them in memory. Providers able to seek to the
+ * first contingency of a partition without generating the previous ones should override it.
+ *
+ * <p>The number of contingencies, needed to get the bounds of a partition, is only counted once per network variant,
+ * until the topology of the network changes: equipments created or removed, switches opened or closed, terminals
+ * connected or disconnected. Providers have to invalidate the counts when their configuration changes. Providers
+ * able to count their contingencies without generating them should override {@link #getContingencyCount(Network)}.
+ *
+ * @author agent <agent at local>
+ */
+public abstract class AbstractStreamingContingenciesProvider implements ContingenciesProvider {
+
+    private static final class ContingencyCounts {
+
+        private final long topologyVersion;
+
+        private final Map<String, Integer> countByVariant = new ConcurrentHashMap<>();
+
+        private ContingencyCounts(long topologyVersion) {
+            this.topologyVersion = topologyVersion;
+        }
+    }
+
+    // contingency counts by network, valid for a version of its topology
+    private final Map<Network, ContingencyCounts> contingencyCounts = new MapMaker().weakKeys().makeMap();
+
+    @Override
+    public abstract Stream<Contingency> getContingencyStream(Network network);
+
+    @Override
+    public List<Contingency> getContingencies(Network network) {
+        try (Stream<Contingency> contingencies = getContingencyStream(network)) {
+            return contingencies.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<Contingency> getContingencyStream(Network network, Partition partition) {
+        int size = getContingencyCount(network);
+        return getContingencyStream(network, partition.startIndex(size), partition.endIndex(size));
+    }
+
+    /**
+     * Stream of the contingencies from index {@code start} included to index {@code end} excluded. By default,
+     * previous contingencies are generated and skipped.
+     */
+    protected Stream<Contingency> getContingencyStream(Network network, int start, int end) {
+        return getContingencyStream(network).skip(start).limit((long) end - start);
+    }
+
+    @Override
+    public int getContingencyCount(Network network) {
+        long topologyVersion = NetworkTopologyVersion.of(network).get();
+        String variantId = network.getVariantManager().getWorkingVariantId();
+        // the version is read before counting: a count done during a topology change is never used again
+        ContingencyCounts counts = contingencyCounts.compute(network, (n, c) -> c != null && c.topologyVersion == topologyVersion ? c : new ContingencyCounts(topologyVersion));
+        return counts.countByVariant.computeIfAbsent(variantId, v -> countContingencies(network));
+    }
+
+    /**
+     * Forget the contingency counts, to be called when the contingencies generated by the provider change.
+     */
+    protected void invalidateContingencyCounts() {
+        contingencyCounts.clear();
+    }
+
+    private int countContingencies(Network network) {
+        try (Stream<Contingency> contingencies = getContingencyStream(network)) {
+            return Math.toIntExact(contingencies.count());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.contingency.tasks.AbstractTrippingTask;
+import com.powsybl.contingency.tasks.CompiledTrippingTask;
+import com.powsybl.contingency.tasks.ModificationTask;
+import com.powsybl.iidm.network.Network;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the contingencies of a network, compiled into the switches to open and the terminals to disconnect,
+ * so that they can be applied to any variant of the network without traversing the topology again.
+ * <p>
+ * A contingency is compiled on the working variant the first time it is applied. The compiled contingency is reused
+ * as long as the topology it depends on is the same in the working variant, and compiled again otherwise.
+ * Contingencies overriding {@link Contingency#toTask()} are not compiled.
+ * <p>
+ * This class is thread safe, and can be used by several threads working on different variants.
+ *
+ * @author agent <agent at local>
+ */
+public class CompiledContingencies {
+
+    private static final class CompiledContingency {
+
+        private final List<ContingencyElement> elements;
+
+        private final CompiledTrippingTask task;
+
+        private CompiledContingency(List<ContingencyElement> elements, CompiledTrippingTask task) {
+            this.elements = elements;
+            this.task = task;
+        }
+
+        private boolean isCompiledFrom(Contingency contingency) {
+            Collection<ContingencyElement> otherElements = contingency.getElements();
+            if (elements.size() != otherElements.size()) {
+                return false;
+            }
+            Iterator<ContingencyElement> it = elements.iterator();
+            for (ContingencyElement element : otherElements) {
+                if (!element.equals(it.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Network network;
+
+    private final Map<String, CompiledContingency> compiledContingencies = new ConcurrentHashMap<>();
+
+    public CompiledContingencies(Network network) {
+        this.network = Objects.requireNonNull(network);
+    }
+
+    public Network getNetwork() {
+        return network;
+    }
+
+    private static boolean isCompilable(Contingency contingency) {
+        return contingency.getClass() == Contingency.class;
+    }
+
+    private static CompiledContingency compile(Contingency contingency, Network network) {
+        List<ContingencyElement> elements = new ArrayList<>(contingency.getElements());
+        List<AbstractTrippingTask> trippings = new ArrayList<>(elements.size());
+        for (ContingencyElement element : elements) {
+            trippings.add(element.toTask());
+        }
+        return new CompiledContingency(elements, CompiledTrippingTask.compile(network, trippings));
+    }
+
+    /**
+     * Get the task applying the contingency on the working variant of the network.
+     */
+    public ModificationTask getTask(Contingency contingency) {
+        Objects.requireNonNull(contingency);
+        if (!isCompilable(contingency)) {
+            return contingency.toTask();
+        }
+        CompiledContingency compiledContingency = compiledContingencies.get(contingency.getId());
+        if (compiledContingency == null || !compiledContingency.isCompiledFrom(contingency) || !compiledContingency.task.isUpToDate()) {
+            compiledContingency = compile(contingency, network);
+            compiledContingencies.put(contingency.getId(), compiledContingency);
+        }
+        return compiledContingency.task;
+    }
+
+    /**
+     * Apply the contingency on the working variant of the network.
+     */
+    public void apply(Contingency contingency, ComputationManager computationManager) {
+        getTask(contingency).modify(network, computationManager);
+    }
+
+    /**
+     * Remove all the compiled contingencies, for instance after a structural change of the network.
+     */
+    public void clear() {
+        compiledContingencies.clear();
+    }
+}
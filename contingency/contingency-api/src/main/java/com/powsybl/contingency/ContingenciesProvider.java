@@ -6,9 +6,13 @@
  */
 package com.powsybl.contingency;
 
+import com.google.common.io.ByteSource;
+import com.powsybl.computation.Partition;
 import com.powsybl.iidm.network.Network;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -17,8 +21,41 @@ public interface ContingenciesProvider {
 
     List<Contingency> getContingencies(Network network);
 
+    /**
+     * Get the contingencies as a stream. Contingencies may be generated lazily by the provider, so that they are
+     * never all kept in memory. The stream has to be closed once consumed.
+     */
+    default Stream<Contingency> getContingencyStream(Network network) {
+        return getContingencies(network).stream();
+    }
+
+    /**
+     * Get the contingencies of a {@link Partition} as a stream. Providers able to generate only the contingencies
+     * of the partition, without generating the previous ones, should override this method.
+     */
+    default Stream<Contingency> getContingencyStream(Network network, Partition partition) {
+        List<Contingency> contingencies = getContingencies(network);
+        int size = contingencies.size();
+        return contingencies.subList(partition.startIndex(size), partition.endIndex(size)).stream();
+    }
+
+    /**
+     * Get the number of contingencies.
+     */
+    default int getContingencyCount(Network network) {
+        return getContingencies(network).size();
+    }
+
     default String asScript() {
         throw new UnsupportedOperationException("Serialization not supported for contingencies provider of type " + this.getClass().getName());
     }
 
+    /**
+     * Get the serialized contingencies, for example to be sent to a remote computation. Providers whose contingencies
+     * are not defined by a script, like binary contingency lists, should override this method.
+     */
+    default ByteSource asByteSource() {
+        return ByteSource.wrap(asScript().getBytes(StandardCharsets.UTF_8));
+    }
+
 }
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A version of the topology of a network, incremented each time an equipment is created or removed, a switch is
+ * opened or closed, or a terminal is connected or disconnected, in any variant. The contingencies generated on a
+ * network only depend on its topology, so that values computed from them can be checked before being used again.
+ * A single instance is registered as listener of a network, whatever the number of providers.
+ *
+ * @author agent <agent at local>
+ */
+final class NetworkTopologyVersion implements NetworkListener {
+
+    private static final Map<Network, NetworkTopologyVersion> VERSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong version = new AtomicLong();
+
+    private NetworkTopologyVersion() {
+    }
+
+    static NetworkTopologyVersion of(Network network) {
+        Objects.requireNonNull(network);
+        return VERSIONS.computeIfAbsent(network, n -> {
+            NetworkTopologyVersion topologyVersion = new NetworkTopologyVersion();
+            n.addListener(topologyVersion);
+            return topologyVersion;
+        });
+    }
+
+    long get() {
+        return version.get();
+    }
+
+    @Override
+    public void onCreation(Identifiable identifiable) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void onRemoval(Identifiable identifiable) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void onUpdate(Identifiable identifiable, String attribute, Object oldValue, Object newValue) {
+        // variant independent attributes do not change the topology
+    }
+
+    @Override
+    public void onUpdate(Identifiable identifiable, String attribute, String variantId, Object oldValue, Object newValue) {
+        switch (attribute) {
+            case "open":
+            case "connected":
+            case "connectableBusId":
+                version.incrementAndGet();
+                break;
+            default:
+                // state variables do not change the topology
+                break;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.google.common.primitives.Ints;
+import com.powsybl.iidm.network.*;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Contingencies provider generating all the combinations of k network elements (N-k contingencies).
+ *
+ * <p>Elements can be filtered by type and by nominal voltage, and the elements of a contingency can be required to be
+ * close to each other: the number of branches between the voltage levels of any two elements of a contingency has to
+ * be lower than or equal to the maximum distance.
+ *
+ * <p>Contingencies leading to the same topology change, i.e. opening the same switches and disconnecting the same
+ * bus/breaker terminals, are only generated once: an element with the same topology change as a previous one is
+ * ignored, and a combination is only generated if no lexicographically smaller combination leads to the same
+ * topology change. Contingencies are generated lazily: besides the network, only the topology changes which can be
+ * reached by several combinations are kept in memory, until all these combinations have been enumerated.
+ *
+ * @author agent <agent at local>
+ */
+public class NkContingenciesProvider extends AbstractStreamingContingenciesProvider {
+
+    public static final int UNLIMITED_DISTANCE = Integer.MAX_VALUE;
+
+    private final int k;
+
+    private Set<ContingencyElementType> elementTypes = EnumSet.allOf(ContingencyElementType.class);
+
+    private double minNominalV = 0;
+
+    private int maxDistance = UNLIMITED_DISTANCE;
+
+    public NkContingenciesProvider(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Invalid number of elements per contingency: " + k);
+        }
+        this.k = k;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public Set<ContingencyElementType> getElementTypes() {
+        return Collections.unmodifiableSet(elementTypes);
+    }
+
+    public NkContingenciesProvider setElementTypes(Set<ContingencyElementType> elementTypes) {
+        Objects.requireNonNull(elementTypes);
+        this.elementTypes = elementTypes.isEmpty() ? EnumSet.noneOf(ContingencyElementType.class) : EnumSet.copyOf(elementTypes);
+        invalidateContingencyCounts();
+        return this;
+    }
+
+    public double getMinNominalV() {
+        return minNominalV;
+    }
+
+    /**
+     * Only consider elements connected to at least one voltage level with a nominal voltage greater than or equal
+     * to the given one.
+     */
+    public NkContingenciesProvider setMinNominalV(double minNominalV) {
+        this.minNominalV = minNominalV;
+        invalidateContingencyCounts();
+        return this;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Maximum number of branches between the voltage levels of two elements of a contingency.
+     */
+    public NkContingenciesProvider setMaxDistance(int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Invalid maximum distance: " + maxDistance);
+        }
+        this.maxDistance = maxDistance;
+        invalidateContingencyCounts();
+        return this;
+    }
+
+    @Override
+    public Stream<Contingency> getContingencyStream(Network network) {
+        return stream(createEnumerator(network));
+    }
+
+    /**
+     * Previous contingencies are enumerated without being created.
+     */
+    @Override
+    protected Stream<Contingency> getContingencyStream(Network network, int start, int end) {
+        NkContingencyEnumerator enumerator = createEnumerator(network);
+        enumerator.skip(start);
+        return stream(enumerator).limit((long) end - start);
+    }
+
+    private static Stream<Contingency> stream(NkContingencyEnumerator enumerator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(enumerator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private NkContingencyEnumerator createEnumerator(Network network) {
+        Objects.requireNonNull(network);
+
+        Map<String, Integer> voltageLevelNums = new HashMap<>();
+        network.getVoltageLevelStream().forEach(vl -> voltageLevelNums.put(vl.getId(), voltageLevelNums.size()));
+
+        List<NkContingencyEnumerator.Element> elements = new ArrayList<>();
+        Set<List<Integer>> signatures = new HashSet<>();
+        Map<Object, Integer> topologyChangeNums = new HashMap<>();
+        for (ContingencyElementType type : elementTypes) {
+            getElements(network, type).forEach(identifiable -> {
+                List<Terminal> terminals = getTerminals(identifiable);
+                if (terminals.stream().noneMatch(t -> t.getVoltageLevel().getNominalV() >= minNominalV)) {
+                    return;
+                }
+                ContingencyElement element = createElement(identifiable, type);
+                int[] signature = getSignature(network, element, topologyChangeNums);
+                // an element already disconnected or with the same topology change as a previous one is ignored
+                if (signature.length > 0 && signatures.add(Ints.asList(signature))) {
+                    int[] voltageLevels = terminals.stream()
+                            .mapToInt(t -> voltageLevelNums.get(t.getVoltageLevel().getId()))
+                            .distinct()
+                            .toArray();
+                    elements.add(new NkContingencyEnumerator.Element(element, voltageLevels, signature));
+                }
+            });
+        }
+
+        int[][] adjacency = maxDistance != UNLIMITED_DISTANCE ? createVoltageLevelAdjacency(network, voltageLevelNums) : null;
+
+        return new NkContingencyEnumerator(elements, topologyChangeNums.size(), k, maxDistance, adjacency);
+    }
+
+    private static Stream<? extends Identifiable<?>> getElements(Network network, ContingencyElementType type) {
+        switch (type) {
+            case GENERATOR:
+                return network.getGeneratorStream();
+            case STATIC_VAR_COMPENSATOR:
+                return network.getStaticVarCompensatorStream();
+            case SHUNT_COMPENSATOR:
+                return network.getShuntCompensatorStream();
+            case BRANCH:
+                return Stream.<Identifiable<?>>concat(network.getLineStream(), network.getTwoWindingsTransformerStream());
+            case HVDC_LINE:
+                return network.getHvdcLineStream();
+            case BUSBAR_SECTION:
+                return network.getBusbarSectionStream();
+            default:
+                throw new AssertionError("Unexpected contingency element type: " + type);
+        }
+    }
+
+    private static List<Terminal> getTerminals(Identifiable<?> identifiable) {
+        if (identifiable instanceof HvdcLine) {
+            HvdcLine hvdcLine = (HvdcLine) identifiable;
+            return Arrays.asList(hvdcLine.getConverterStation1().getTerminal(), hvdcLine.getConverterStation2().getTerminal());
+        }
+        return new ArrayList<>(((Connectable<?>) identifiable).getTerminals());
+    }
+
+    private static ContingencyElement createElement(Identifiable<?> identifiable, ContingencyElementType type) {
+        switch (type) {
+            case GENERATOR:
+                return new GeneratorContingency(identifiable.getId());
+            case STATIC_VAR_COMPENSATOR:
+                return new StaticVarCompensatorContingency(identifiable.getId());
+            case SHUNT_COMPENSATOR:
+                return new ShuntCompensatorContingency(identifiable.getId());
+            case BRANCH:
+                return new BranchContingency(identifiable.getId());
+            case HVDC_LINE:
+                return new HvdcLineContingency(identifiable.getId());
+            case BUSBAR_SECTION:
+                return new BusbarSectionContingency(identifiable.getId());
+            default:
+                throw new AssertionError("Unexpected contingency element type: " + type);
+        }
+    }
+
+    /**
+     * Topology change of an element: sorted numbers of the switches to open and of the terminals to disconnect.
+     */
+    private static int[] getSignature(Network network, ContingencyElement element, Map<Object, Integer> topologyChangeNums) {
+        Set<Switch> switchesToOpen = new HashSet<>();
+        Set<Terminal> terminalsToDisconnect = new HashSet<>();
+        element.toTask().traverse(network, null, switchesToOpen, terminalsToDisconnect);
+        return Stream.concat(switchesToOpen.stream(), terminalsToDisconnect.stream())
+                .mapToInt(o -> topologyChangeNums.computeIfAbsent(o, key -> topologyChangeNums.size()))
+                .sorted()
+                .toArray();
+    }
+
+    private static int[][] createVoltageLevelAdjacency(Network network, Map<String, Integer> voltageLevelNums) {
+        List<Set<Integer>> neighbours = new ArrayList<>(voltageLevelNums.size());
+        for (int i = 0; i < voltageLevelNums.size(); i++) {
+            neighbours.add(new HashSet<>());
+        }
+        network.getBranchStream().forEach(branch -> addNeighbours(getTerminals(branch), voltageLevelNums, neighbours));
+        network.getThreeWindingsTransformerStream().forEach(twt -> addNeighbours(getTerminals(twt), voltageLevelNums, neighbours));
+        network.getHvdcLineStream().forEach(hvdcLine -> addNeighbours(getTerminals(hvdcLine), voltageLevelNums, neighbours));
+        return neighbours.stream().map(Ints::toArray).toArray(int[][]::new);
+    }
+
+    private static void addNeighbours(List<Terminal> terminals, Map<String, Integer> voltageLevelNums, List<Set<Integer>> neighbours) {
+        for (Terminal t1 : terminals) {
+            for (Terminal t2 : terminals) {
+                int num1 = voltageLevelNums.get(t1.getVoltageLevel().getId());
+                int num2 = voltageLevelNums.get(t2.getVoltageLevel().getId());
+                if (num1 != num2) {
+                    neighbours.get(num1).add(num2);
+                }
+            }
+        }
+    }
+}
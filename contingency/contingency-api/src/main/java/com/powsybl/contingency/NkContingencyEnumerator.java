@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.google.common.primitives.Ints;
+
+import java.util.*;
+
+/**
+ * Enumerates, in lexicographic order, the combinations of k elements of a {@link NkContingenciesProvider}.
+ *
+ * <p>The topology change of an element (its signature) is the sorted list of the numbers of the switches it opens
+ * and of the terminals it disconnects. A combination is only enumerated if it is the lexicographically smallest one
+ * leading to the union of its signatures. As combinations are enumerated in lexicographic order, this is the first
+ * one leading to this union: the unions which can be reached by several combinations, i.e. for which other elements
+ * have a signature included in the union, are kept until the enumeration has gone past all their combinations.
+ * These elements are found through an index of the elements by switch or terminal.
+ *
+ * @author agent <agent at local>
+ */
+final class NkContingencyEnumerator implements Iterator<Contingency> {
+
+    static final class Element {
+
+        private final ContingencyElement contingencyElement;
+
+        private final int[] voltageLevels;
+
+        private final int[] signature;
+
+        Element(ContingencyElement contingencyElement, int[] voltageLevels, int[] signature) {
+            this.contingencyElement = Objects.requireNonNull(contingencyElement);
+            this.voltageLevels = Objects.requireNonNull(voltageLevels);
+            this.signature = Objects.requireNonNull(signature);
+        }
+    }
+
+    private static final class SeenTopologyChange {
+
+        private final List<Integer> topologyChange;
+
+        /**
+         * Largest first element of the combinations leading to the topology change.
+         */
+        private final int lastFirstElement;
+
+        private SeenTopologyChange(List<Integer> topologyChange, int lastFirstElement) {
+            this.topologyChange = topologyChange;
+            this.lastFirstElement = lastFirstElement;
+        }
+    }
+
+    private final List<Element> elements;
+
+    private final int k;
+
+    private final int maxDistance;
+
+    private final int[][] adjacency;
+
+    /**
+     * Elements by switch or terminal number.
+     */
+    private final int[][] elementsByTopologyChange;
+
+    private final int[] combination;
+
+    /**
+     * Distances of the voltage levels to the elements of the current combination.
+     */
+    private final int[][] distances;
+
+    private final int[] queue;
+
+    /**
+     * Topology changes already enumerated which can be reached by other combinations.
+     */
+    private final Set<List<Integer>> seenTopologyChanges = new HashSet<>();
+
+    private final Queue<SeenTopologyChange> expirations = new PriorityQueue<>(Comparator.comparingInt(c -> c.lastFirstElement));
+
+    private int depth = -1;
+
+    private Contingency next;
+
+    private boolean done = false;
+
+    NkContingencyEnumerator(List<Element> elements, int topologyChangeCount, int k, int maxDistance, int[][] adjacency) {
+        this.elements = Objects.requireNonNull(elements);
+        this.k = k;
+        this.maxDistance = maxDistance;
+        this.adjacency = adjacency;
+        this.combination = new int[k];
+        if (adjacency != null) {
+            distances = new int[k][adjacency.length];
+            queue = new int[adjacency.length];
+        } else {
+            distances = null;
+            queue = null;
+        }
+
+        int[] counts = new int[topologyChangeCount];
+        for (Element element : elements) {
+            for (int num : element.signature) {
+                counts[num]++;
+            }
+        }
+        elementsByTopologyChange = new int[topologyChangeCount][];
+        for (int num = 0; num < topologyChangeCount; num++) {
+            elementsByTopologyChange[num] = new int[counts[num]];
+            counts[num] = 0;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            for (int num : elements.get(i).signature) {
+                elementsByTopologyChange[num][counts[num]++] = i;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            done = !advance();
+            if (!done) {
+                next = createContingency();
+            }
+        }
+        return next != null;
+    }
+
+    /**
+     * Skip the given number of contingencies, without creating them. As a combination is only enumerated if no
+     * previous combination leads to the same topology change, the previous combinations still have to be enumerated.
+     *
+     * @return the number of skipped contingencies, lower than the given one if the enumeration has ended
+     */
+    long skip(long count) {
+        long skipped = 0;
+        if (count > 0 && next != null) {
+            next = null;
+            skipped++;
+        }
+        while (skipped < count && !done) {
+            done = !advance();
+            if (!done) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public Contingency next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Contingency contingency = next;
+        next = null;
+        return contingency;
+    }
+
+    /**
+     * Move to the next combination to enumerate.
+     *
+     * @return false if all combinations have been enumerated
+     */
+    private boolean advance() {
+        int n = elements.size();
+        int position;
+        if (depth < 0) {
+            depth = 0;
+            position = 0;
+        } else {
+            depth = k - 1;
+            position = combination[k - 1] + 1;
+        }
+        while (true) {
+            // leave enough elements for the next positions of the combination
+            int last = n - (k - depth);
+            int i = position;
+            while (i <= last && !isInNeighbourhood(i, depth)) {
+                i++;
+            }
+            if (i > last) {
+                if (depth == 0) {
+                    return false;
+                }
+                depth--;
+                position = combination[depth] + 1;
+            } else {
+                combination[depth] = i;
+                if (depth == k - 1) {
+                    if (isFirstWithSameTopologyChange()) {
+                        return true;
+                    }
+                } else {
+                    if (distances != null) {
+                        computeDistances(elements.get(i), distances[depth]);
+                    }
+                    depth++;
+                }
+                position = i + 1;
+            }
+        }
+    }
+
+    private boolean isInNeighbourhood(int i, int depth) {
+        if (distances == null) {
+            return true;
+        }
+        for (int d = 0; d < depth; d++) {
+            if (getDistance(distances[d], elements.get(i)) > maxDistance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getDistance(int[] distances, Element element) {
+        int distance = Integer.MAX_VALUE;
+        for (int voltageLevel : element.voltageLevels) {
+            distance = Math.min(distance, distances[voltageLevel]);
+        }
+        return distance;
+    }
+
+    /**
+     * Breadth first search from the voltage levels of the element, up to the maximum distance.
+     */
+    private void computeDistances(Element element, int[] distances) {
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        int head = 0;
+        int tail = 0;
+        for (int voltageLevel : element.voltageLevels) {
+            distances[voltageLevel] = 0;
+            queue[tail++] = voltageLevel;
+        }
+        while (head < tail) {
+            int voltageLevel = queue[head++];
+            int distance = distances[voltageLevel] + 1;
+            if (distance > maxDistance) {
+                break;
+            }
+            for (int neighbour : adjacency[voltageLevel]) {
+                if (distances[neighbour] == Integer.MAX_VALUE) {
+                    distances[neighbour] = distance;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private boolean isFirstWithSameTopologyChange() {
+        // topology changes that cannot be reached anymore are forgotten
+        while (!expirations.isEmpty() && expirations.peek().lastFirstElement < combination[0]) {
+            seenTopologyChanges.remove(expirations.poll().topologyChange);
+        }
+
+        int[] union = getSignatureUnion(combination, k);
+
+        // elements whose topology change is included in the one of the combination
+        SortedSet<Integer> candidates = new TreeSet<>();
+        for (int num : union) {
+            for (int i : elementsByTopologyChange[num]) {
+                if (Arrays.binarySearch(combination, i) < 0 && isIncluded(elements.get(i).signature, union)) {
+                    candidates.add(i);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            // no other combination can lead to the same topology change
+            return true;
+        }
+
+        List<Integer> topologyChange = Ints.asList(union);
+        if (!seenTopologyChanges.add(topologyChange)) {
+            return false;
+        }
+        // the other combinations leading to this topology change are made of the candidates and of the elements of
+        // the combination, and start at the latest with the k-th last of these elements
+        for (int i : combination) {
+            candidates.add(i);
+        }
+        int lastFirstElement = candidates.stream().skip((long) candidates.size() - k).findFirst().orElseThrow(AssertionError::new);
+        expirations.add(new SeenTopologyChange(topologyChange, lastFirstElement));
+        return true;
+    }
+
+    private int[] getSignatureUnion(int[] indices, int count) {
+        int[] union = elements.get(indices[0]).signature;
+        for (int d = 1; d < count; d++) {
+            union = merge(union, elements.get(indices[d]).signature);
+        }
+        return union;
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        int[] merged = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            int value;
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                value = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                value = b[j++];
+            } else {
+                value = a[i++];
+                j++;
+            }
+            merged[size++] = value;
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    private static boolean isIncluded(int[] signature, int[] union) {
+        int j = 0;
+        for (int num : signature) {
+            while (j < union.length && union[j] < num) {
+                j++;
+            }
+            if (j == union.length || union[j] != num) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Contingency createContingency() {
+        List<ContingencyElement> contingencyElements = new ArrayList<>(k);
+        StringBuilder id = new StringBuilder();
+        for (int i : combination) {
+            ContingencyElement contingencyElement = elements.get(i).contingencyElement;
+            if (id.length() > 0) {
+                id.append(" + ");
+            }
+            id.append(contingencyElement.getId());
+            contingencyElements.add(contingencyElement);
+        }
+        return new Contingency(id.toString(), contingencyElements);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.binary;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.powsybl.commons.io.FileUtil;
+import com.powsybl.contingency.AbstractStreamingContingenciesProvider;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Contingencies provider reading a binary contingency list. Contingencies are read lazily each time the stream of
+ * contingencies is requested, so that a list never has to be fully loaded in memory. As the list does not depend on
+ * the network, contingencies are only counted once: the list is expected not to change while the provider is used.
+ *
+ * @author agent <agent at local>
+ */
+public class BinaryContingenciesProvider extends AbstractStreamingContingenciesProvider {
+
+    private final ByteSource source;
+
+    private volatile Integer contingencyCount;
+
+    public BinaryContingenciesProvider(Path file) {
+        this(FileUtil.asByteSource(Objects.requireNonNull(file)));
+    }
+
+    /**
+     * Creates a provider from an input stream. As the contingencies may be read several times, the content of
+     * the stream is kept in memory, in its compact binary form.
+     */
+    public BinaryContingenciesProvider(InputStream is) {
+        this(readAll(is));
+    }
+
+    public BinaryContingenciesProvider(ByteSource source) {
+        this.source = Objects.requireNonNull(source);
+    }
+
+    private static ByteSource readAll(InputStream is) {
+        Objects.requireNonNull(is);
+        try {
+            return ByteSource.wrap(ByteStreams.toByteArray(is));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Stream<Contingency> getContingencyStream(Network network) {
+        return openReader().stream();
+    }
+
+    /**
+     * Previous contingencies are read without being created.
+     */
+    @Override
+    protected Stream<Contingency> getContingencyStream(Network network, int start, int end) {
+        BinaryContingencyListReader reader = openReader();
+        try {
+            reader.skip(start);
+        } catch (RuntimeException e) {
+            try {
+                reader.close();
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+        return reader.stream().limit((long) end - start);
+    }
+
+    private BinaryContingencyListReader openReader() {
+        try {
+            return new BinaryContingencyListReader(source.openStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int getContingencyCount(Network network) {
+        Integer count = contingencyCount;
+        if (count == null) {
+            try (Stream<Contingency> contingencies = getContingencyStream(network)) {
+                count = Math.toIntExact(contingencies.count());
+            }
+            contingencyCount = count;
+        }
+        return count;
+    }
+
+    @Override
+    public ByteSource asByteSource() {
+        return source;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.binary;
+
+import com.google.auto.service.AutoService;
+import com.powsybl.commons.config.ModuleConfig;
+import com.powsybl.commons.config.PlatformConfig;
+import com.powsybl.contingency.ContingenciesProviderFactory;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * @author agent <agent at local>
+ */
+@AutoService(ContingenciesProviderFactory.class)
+public class BinaryContingenciesProviderFactory implements ContingenciesProviderFactory {
+
+    @Override
+    public BinaryContingenciesProvider create() {
+        ModuleConfig config = PlatformConfig.defaultConfig().getModuleConfig("binary-contingencies");
+        Path file = config.getPathProperty("file");
+        return new BinaryContingenciesProvider(file);
+    }
+
+    @Override
+    public BinaryContingenciesProvider create(Path contingenciesFile) {
+        return new BinaryContingenciesProvider(contingenciesFile);
+    }
+
+    @Override
+    public BinaryContingenciesProvider create(InputStream data) {
+        return new BinaryContingenciesProvider(data);
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.binary;
+
+import com.google.common.io.ByteSource;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.contingency.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads contingencies one by one from the binary contingency list format written by
+ * {@link BinaryContingencyListWriter}.
+ *
+ * @author agent <agent at local>
+ */
+public class BinaryContingencyListReader implements Iterator<Contingency>, Closeable {
+
+    private static final ContingencyElementType[] TYPES = new ContingencyElementType[ContingencyElementType.values().length];
+
+    static {
+        for (ContingencyElementType type : ContingencyElementType.values()) {
+            TYPES[BinaryContingencyListWriter.getTypeCode(type)] = type;
+        }
+    }
+
+    private final DataInputStream dis;
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private Contingency next;
+
+    private boolean ended = false;
+
+    public BinaryContingencyListReader(InputStream is) {
+        Objects.requireNonNull(is);
+        dis = new DataInputStream(new BufferedInputStream(is));
+        try {
+            int magic = dis.readInt();
+            if (magic != BinaryContingencyListWriter.MAGIC) {
+                throw new PowsyblException("Not a binary contingency list");
+            }
+            int version = dis.readUnsignedByte();
+            if (version != BinaryContingencyListWriter.VERSION) {
+                throw new PowsyblException("Unsupported binary contingency list version " + version);
+            }
+        } catch (EOFException e) {
+            throw new PowsyblException("Not a binary contingency list");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Check whether the data of the source starts with the header of a binary contingency list.
+     */
+    public static boolean isBinaryContingencyList(ByteSource source) {
+        Objects.requireNonNull(source);
+        try (DataInputStream dis = new DataInputStream(source.openStream())) {
+            return dis.readInt() == BinaryContingencyListWriter.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stream of the contingencies of the binary contingency list. The input stream is closed with the returned stream.
+     */
+    public static Stream<Contingency> stream(InputStream is) {
+        return new BinaryContingencyListReader(is).stream();
+    }
+
+    /**
+     * Stream of the remaining contingencies. The reader is closed with the returned stream.
+     */
+    public Stream<Contingency> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !ended) {
+            next = readContingency();
+            ended = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Contingency next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Contingency contingency = next;
+        next = null;
+        return contingency;
+    }
+
+    /**
+     * Skip the given number of contingencies, without creating them. Element and voltage level ids still have to be
+     * read, as they may be referenced by the next contingencies.
+     *
+     * @return the number of skipped contingencies, lower than the given one if the end of the list has been reached
+     */
+    public long skip(long count) {
+        long skipped = 0;
+        if (count > 0 && next != null) {
+            next = null;
+            skipped++;
+        }
+        try {
+            while (skipped < count && !ended) {
+                if (readRecord()) {
+                    dis.skipBytes(dis.readUnsignedShort());
+                    int elementCount = readVarInt();
+                    for (int i = 0; i < elementCount; i++) {
+                        readType();
+                        readString();
+                        readString();
+                    }
+                    skipped++;
+                } else {
+                    ended = true;
+                }
+            }
+        } catch (EOFException e) {
+            throw new PowsyblException("Unexpected end of binary contingency list");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return skipped;
+    }
+
+    /**
+     * @return false if the end record has been read
+     */
+    private boolean readRecord() throws IOException {
+        int record = dis.readUnsignedByte();
+        if (record == BinaryContingencyListWriter.END_RECORD) {
+            return false;
+        }
+        if (record != BinaryContingencyListWriter.CONTINGENCY_RECORD) {
+            throw new PowsyblException("Unexpected record " + record);
+        }
+        return true;
+    }
+
+    private Contingency readContingency() {
+        try {
+            if (!readRecord()) {
+                return null;
+            }
+            String id = dis.readUTF();
+            int elementCount = readVarInt();
+            List<ContingencyElement> elements = new ArrayList<>(elementCount);
+            for (int i = 0; i < elementCount; i++) {
+                ContingencyElementType type = readType();
+                String elementId = readString();
+                String voltageLevelId = readString();
+                elements.add(createElement(type, elementId, voltageLevelId));
+            }
+            return new Contingency(id, elements);
+        } catch (EOFException e) {
+            throw new PowsyblException("Unexpected end of binary contingency list");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ContingencyElementType readType() throws IOException {
+        int type = dis.readUnsignedByte();
+        if (type >= TYPES.length) {
+            throw new PowsyblException("Unexpected contingency element type " + type);
+        }
+        return TYPES[type];
+    }
+
+    private static ContingencyElement createElement(ContingencyElementType type, String id, String voltageLevelId) {
+        switch (type) {
+            case BRANCH:
+                return new BranchContingency(id, voltageLevelId);
+
+            case GENERATOR:
+                return new GeneratorContingency(id);
+
+            case STATIC_VAR_COMPENSATOR:
+                return new StaticVarCompensatorContingency(id);
+
+            case SHUNT_COMPENSATOR:
+                return new ShuntCompensatorContingency(id);
+
+            case HVDC_LINE:
+                return new HvdcLineContingency(id, voltageLevelId);
+
+            case BUSBAR_SECTION:
+                return new BusbarSectionContingency(id);
+
+            default:
+                throw new AssertionError("Unexpected ContingencyElementType value: " + type);
+        }
+    }
+
+    private String readString() throws IOException {
+        int ref = readVarInt();
+        if (ref == 0) {
+            return null;
+        }
+        int index = ref - 1;
+        if (index < dictionary.size()) {
+            return dictionary.get(index);
+        }
+        if (index > dictionary.size()) {
+            throw new PowsyblException("Invalid string reference " + ref);
+        }
+        String str = dis.readUTF();
+        dictionary.add(str);
+        return str;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 28) {
+                throw new PowsyblException("Invalid variable length integer");
+            }
+            b = dis.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        dis.close();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.binary;
+
+import com.powsybl.contingency.AbstractSidedContingency;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.contingency.ContingencyElement;
+import com.powsybl.contingency.ContingencyElementType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes contingencies one by one in the binary contingency list format.
+ *
+ * <p>The format starts with a header (magic number and version) followed by one record per contingency and an end
+ * marker. A record is made of the contingency id, the number of elements and, for each element, its type code and
+ * its id and voltage level id. Element and voltage level ids are dictionary encoded: a string is written the first
+ * time it appears and then referenced by its index in the dictionary. Integers are written as variable length
+ * integers. Contingency extensions are not written.
+ *
+ * @author agent <agent at local>
+ */
+public class BinaryContingencyListWriter implements Closeable {
+
+    static final int MAGIC = 0x50434C53; // "PCLS"
+
+    static final int VERSION = 1;
+
+    static final int CONTINGENCY_RECORD = 1;
+
+    static final int END_RECORD = 0;
+
+    private final DataOutputStream dos;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private boolean closed = false;
+
+    public BinaryContingencyListWriter(OutputStream os) {
+        Objects.requireNonNull(os);
+        dos = new DataOutputStream(new BufferedOutputStream(os));
+        try {
+            dos.writeInt(MAGIC);
+            dos.writeByte(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(Stream<Contingency> contingencies, Path file) {
+        Objects.requireNonNull(contingencies);
+        Objects.requireNonNull(file);
+        try (BinaryContingencyListWriter writer = new BinaryContingencyListWriter(Files.newOutputStream(file))) {
+            contingencies.forEach(writer::write);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Contingency contingency) {
+        Objects.requireNonNull(contingency);
+        try {
+            dos.writeByte(CONTINGENCY_RECORD);
+            dos.writeUTF(contingency.getId());
+            writeVarInt(contingency.getElements().size());
+            for (ContingencyElement element : contingency.getElements()) {
+                dos.writeByte(getTypeCode(element.getType()));
+                writeString(element.getId());
+                writeString(element instanceof AbstractSidedContingency ? ((AbstractSidedContingency) element).getVoltageLevelId() : null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Code of an element type in the format, independent of the declaration order of {@link ContingencyElementType}.
+     */
+    static int getTypeCode(ContingencyElementType type) {
+        switch (type) {
+            case GENERATOR:
+                return 0;
+
+            case STATIC_VAR_COMPENSATOR:
+                return 1;
+
+            case SHUNT_COMPENSATOR:
+                return 2;
+
+            case BRANCH:
+                return 3;
+
+            case HVDC_LINE:
+                return 4;
+
+            case BUSBAR_SECTION:
+                return 5;
+
+            default:
+                throw new AssertionError("Unexpected ContingencyElementType value: " + type);
+        }
+    }
+
+    /**
+     * Write a string reference: 0 for null, the index in the dictionary plus one otherwise, followed by the string
+     * itself if it is new in the dictionary.
+     */
+    private void writeString(String str) throws IOException {
+        if (str == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer index = dictionary.get(str);
+        if (index != null) {
+            writeVarInt(index + 1);
+        } else {
+            int newIndex = dictionary.size();
+            dictionary.put(str, newIndex);
+            writeVarInt(newIndex + 1);
+            dos.writeUTF(str);
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            dos.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        dos.writeByte(v);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                dos.writeByte(END_RECORD);
+            } finally {
+                dos.close();
+            }
+        }
+    }
+}
@@ -6,16 +6,16 @@
  */
 package com.powsybl.contingency.tasks;
 
-import com.powsybl.computation.ComputationManager;
 import com.powsybl.iidm.network.*;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * @author Teofil Calin BANC <teofil-calin.banc at rte-france.com>
  */
-public abstract class AbstractInjectionTripping extends AbstractTrippingTask {
+public abstract class AbstractInjectionTripping extends AbstractTerminalsTrippingTask {
 
     protected final String id;
 
@@ -24,10 +24,8 @@ public abstract class AbstractInjectionTripping extends AbstractTrippingTask {
     }
 
     @Override
-    public void traverse(Network network, ComputationManager computationManager, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
-        Objects.requireNonNull(network);
-
-        ContingencyTopologyTraverser.traverse(getInjection(network).getTerminal(), switchesToOpen, terminalsToDisconnect);
+    protected List<Terminal> getTerminals(Network network) {
+        return Collections.singletonList(getInjection(network).getTerminal());
     }
 
     protected abstract Injection getInjection(Network network);
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.tasks;
+
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Switch;
+import com.powsybl.iidm.network.Terminal;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A tripping task which propagates the fault from the {@link #getTerminals(Network) terminals} of the tripped
+ * equipment. Unlike other tripping tasks, such tasks can be compiled by {@link CompiledTrippingTask}.
+ *
+ * @author agent <agent at local>
+ */
+public abstract class AbstractTerminalsTrippingTask extends AbstractTrippingTask {
+
+    @Override
+    public void traverse(Network network, ComputationManager computationManager, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
+        traverse(network, switchesToOpen, terminalsToDisconnect, null);
+    }
+
+    /**
+     * Propagate the fault from the terminals of the tripped equipment, recording the visited topology in the snapshot
+     * if not null.
+     */
+    void traverse(Network network, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect, TopologySnapshot snapshot) {
+        Objects.requireNonNull(network);
+
+        for (Terminal terminal : getTerminals(network)) {
+            ContingencyTopologyTraverser.traverse(terminal, switchesToOpen, terminalsToDisconnect, snapshot);
+        }
+    }
+
+    /**
+     * Get the terminals of the tripped equipment, from which the fault is propagated.
+     */
+    protected abstract List<Terminal> getTerminals(Network network);
+}
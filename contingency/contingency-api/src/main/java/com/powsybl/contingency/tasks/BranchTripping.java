@@ -7,17 +7,18 @@
 package com.powsybl.contingency.tasks;
 
 import com.powsybl.commons.PowsyblException;
-import com.powsybl.computation.ComputationManager;
 import com.powsybl.iidm.network.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
  */
-public class BranchTripping extends AbstractTrippingTask {
+public class BranchTripping extends AbstractTerminalsTrippingTask {
 
     private final String branchId;
     private final String voltageLevelId;
@@ -32,24 +33,21 @@ public class BranchTripping extends AbstractTrippingTask {
     }
 
     @Override
-    public void traverse(Network network, ComputationManager computationManager, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
-        Objects.requireNonNull(network);
-
+    protected List<Terminal> getTerminals(Network network) {
         Branch branch = network.getBranch(branchId);
         if (branch == null) {
             throw new PowsyblException("Branch '" + branchId + "' not found");
         }
         if (voltageLevelId != null) {
             if (voltageLevelId.equals(branch.getTerminal1().getVoltageLevel().getId())) {
-                ContingencyTopologyTraverser.traverse(branch.getTerminal1(), switchesToOpen, terminalsToDisconnect);
+                return Collections.singletonList(branch.getTerminal1());
             } else if (voltageLevelId.equals(branch.getTerminal2().getVoltageLevel().getId())) {
-                ContingencyTopologyTraverser.traverse(branch.getTerminal2(), switchesToOpen, terminalsToDisconnect);
+                return Collections.singletonList(branch.getTerminal2());
             } else {
                 throw new PowsyblException("VoltageLevel '" + voltageLevelId + "' not connected to branch '" + branchId + "'");
             }
         } else {
-            ContingencyTopologyTraverser.traverse(branch.getTerminal1(), switchesToOpen, terminalsToDisconnect);
-            ContingencyTopologyTraverser.traverse(branch.getTerminal2(), switchesToOpen, terminalsToDisconnect);
+            return Arrays.asList(branch.getTerminal1(), branch.getTerminal2());
         }
     }
 
@@ -7,19 +7,18 @@
 package com.powsybl.contingency.tasks;
 
 import com.powsybl.commons.PowsyblException;
-import com.powsybl.computation.ComputationManager;
 import com.powsybl.iidm.network.BusbarSection;
 import com.powsybl.iidm.network.Network;
-import com.powsybl.iidm.network.Switch;
 import com.powsybl.iidm.network.Terminal;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
  */
-public class BusbarSectionTripping extends AbstractTrippingTask {
+public class BusbarSectionTripping extends AbstractTerminalsTrippingTask {
 
     private final String busbarSectionId;
 
@@ -28,14 +27,12 @@ public class BusbarSectionTripping extends AbstractTrippingTask {
     }
 
     @Override
-    public void traverse(Network network, ComputationManager computationManager, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
-        Objects.requireNonNull(network);
-
+    protected List<Terminal> getTerminals(Network network) {
         BusbarSection busbarSection = network.getBusbarSection(busbarSectionId);
         if (busbarSection == null) {
             throw new PowsyblException("Busbar section '" + busbarSectionId + "' not found");
         }
 
-        ContingencyTopologyTraverser.traverse(busbarSection.getTerminal(), switchesToOpen, terminalsToDisconnect);
+        return Collections.singletonList(busbarSection.getTerminal());
     }
 }
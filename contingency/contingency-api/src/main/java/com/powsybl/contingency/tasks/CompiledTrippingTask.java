@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.tasks;
+
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Switch;
+import com.powsybl.iidm.network.Terminal;
+
+import java.util.*;
+
+/**
+ * A set of tripping tasks resolved once, on a given network, into the switches to open and the terminals to disconnect.
+ * <p>
+ * The result of a tripping only depends on the state of the switches and of the bus/breaker terminals visited during
+ * the topology traversal, which is recorded at compilation. Applying the compiled task to a variant where this state
+ * is the same is equivalent to applying the tripping tasks one after the other, without traversing the topology again.
+ * Otherwise the tripping tasks are applied as usual. The compiled task is also not used on another network, or once an
+ * equipment has been created or removed in the network, as the recorded switches and terminals may not be valid anymore.
+ * Tripping tasks which do not extend {@link AbstractTerminalsTrippingTask} are not compiled and are always applied as
+ * usual, after the compiled ones.
+ *
+ * @author agent <agent at local>
+ */
+public final class CompiledTrippingTask implements ModificationTask {
+
+    private final Network network;
+
+    private final NetworkStructureVersion structureVersion;
+
+    private final long compiledStructureVersion;
+
+    private final List<AbstractTrippingTask> tasks;
+
+    private final List<AbstractTrippingTask> notCompiledTasks;
+
+    private final Switch[] switchesToOpen;
+
+    private final Terminal[] terminalsToDisconnect;
+
+    private final TopologySnapshot snapshot;
+
+    private CompiledTrippingTask(Network network, NetworkStructureVersion structureVersion, long compiledStructureVersion,
+                                 List<AbstractTrippingTask> tasks, List<AbstractTrippingTask> notCompiledTasks, Switch[] switchesToOpen,
+                                 Terminal[] terminalsToDisconnect, TopologySnapshot snapshot) {
+        this.network = network;
+        this.structureVersion = structureVersion;
+        this.compiledStructureVersion = compiledStructureVersion;
+        this.tasks = tasks;
+        this.notCompiledTasks = notCompiledTasks;
+        this.switchesToOpen = switchesToOpen;
+        this.terminalsToDisconnect = terminalsToDisconnect;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Compile tripping tasks, using the topology of the working variant of the network.
+     */
+    public static CompiledTrippingTask compile(Network network, List<? extends AbstractTrippingTask> tasks) {
+        Objects.requireNonNull(network);
+        Objects.requireNonNull(tasks);
+
+        NetworkStructureVersion structureVersion = NetworkStructureVersion.of(network);
+        long compiledStructureVersion = structureVersion.get();
+        Set<Switch> switchesToOpen = new LinkedHashSet<>();
+        Set<Terminal> terminalsToDisconnect = new LinkedHashSet<>();
+        TopologySnapshot snapshot = new TopologySnapshot();
+        List<AbstractTrippingTask> notCompiledTasks = new ArrayList<>();
+        // As tripping only opens breakers and disconnects bus/breaker terminals, where the traversal stops anyway,
+        // traversing all the tasks from the same initial state gives the same result as applying them in sequence.
+        for (AbstractTrippingTask task : tasks) {
+            if (task instanceof AbstractTerminalsTrippingTask) {
+                ((AbstractTerminalsTrippingTask) task).traverse(network, switchesToOpen, terminalsToDisconnect, snapshot);
+            } else {
+                notCompiledTasks.add(task);
+            }
+        }
+
+        return new CompiledTrippingTask(network, structureVersion, compiledStructureVersion, new ArrayList<>(tasks), notCompiledTasks, switchesToOpen.toArray(new Switch[0]),
+                terminalsToDisconnect.toArray(new Terminal[0]), snapshot.freeze());
+    }
+
+    public static CompiledTrippingTask compile(Network network, AbstractTrippingTask... tasks) {
+        return compile(network, Arrays.asList(tasks));
+    }
+
+    public List<Switch> getSwitchesToOpen() {
+        return Collections.unmodifiableList(Arrays.asList(switchesToOpen));
+    }
+
+    public List<Terminal> getTerminalsToDisconnect() {
+        return Collections.unmodifiableList(Arrays.asList(terminalsToDisconnect));
+    }
+
+    /**
+     * Check that no equipment has been created or removed in the network since the compilation, and that the topology
+     * of the working variant is the one the task has been compiled for.
+     */
+    public boolean isUpToDate() {
+        return structureVersion.get() == compiledStructureVersion && snapshot.matches();
+    }
+
+    @Override
+    public void modify(Network network, ComputationManager computationManager) {
+        if (network == this.network && isUpToDate()) {
+            for (Switch s : switchesToOpen) {
+                s.setOpen(true);
+            }
+            for (Terminal t : terminalsToDisconnect) {
+                t.disconnect();
+            }
+            for (AbstractTrippingTask task : notCompiledTasks) {
+                task.modify(network, computationManager);
+            }
+        } else {
+            for (AbstractTrippingTask task : tasks) {
+                task.modify(network, computationManager);
+            }
+        }
+    }
+}
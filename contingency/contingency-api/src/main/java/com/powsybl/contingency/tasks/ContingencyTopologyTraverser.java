@@ -26,6 +26,14 @@ final class ContingencyTopologyTraverser {
     }
 
     static void traverse(Terminal terminal, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
+        traverse(terminal, switchesToOpen, terminalsToDisconnect, null);
+    }
+
+    /**
+     * Same as {@link #traverse(Terminal, Set, Set)}, but also records in the given snapshot the state of every
+     * switch and bus/breaker terminal the result of the traversal depends on.
+     */
+    static void traverse(Terminal terminal, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect, TopologySnapshot snapshot) {
         Objects.requireNonNull(terminal);
         Objects.requireNonNull(switchesToOpen);
         Objects.requireNonNull(terminalsToDisconnect);
@@ -34,6 +42,9 @@ final class ContingencyTopologyTraverser {
             @Override
             public boolean traverse(Terminal terminal, boolean connected) {
                 if (terminal.getVoltageLevel().getTopologyKind() == TopologyKind.BUS_BREAKER) {
+                    if (snapshot != null) {
+                        snapshot.addTerminal(terminal, connected);
+                    }
                     // we have no idea what kind of switch it was in the initial node/breaker topology
                     // so to keep things simple we do not propagate the fault
                     if (connected) {
@@ -49,6 +60,10 @@ final class ContingencyTopologyTraverser {
             public boolean traverse(Switch aSwitch) {
                 boolean traverse = false;
 
+                if (snapshot != null) {
+                    snapshot.addSwitch(aSwitch);
+                }
+
                 if (isOpenable(aSwitch)) {
                     switchesToOpen.add(aSwitch);
                 } else if (!aSwitch.isOpen()) {
@@ -7,19 +7,19 @@
 package com.powsybl.contingency.tasks;
 
 import com.powsybl.commons.PowsyblException;
-import com.powsybl.computation.ComputationManager;
 import com.powsybl.iidm.network.HvdcLine;
 import com.powsybl.iidm.network.Network;
-import com.powsybl.iidm.network.Switch;
 import com.powsybl.iidm.network.Terminal;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
  */
-public class HvdcLineTripping extends AbstractTrippingTask {
+public class HvdcLineTripping extends AbstractTerminalsTrippingTask {
 
     private final String hvdcLineId;
 
@@ -35,12 +35,10 @@ public class HvdcLineTripping extends AbstractTrippingTask {
     }
 
     @Override
-    public void traverse(Network network, ComputationManager computationManager, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
-        Objects.requireNonNull(network);
-
+    protected List<Terminal> getTerminals(Network network) {
         HvdcLine hvdcLine = network.getHvdcLine(hvdcLineId);
         if (hvdcLine == null) {
-            throw new PowsyblException("HVDC line '" + hvdcLine + "' not found");
+            throw new PowsyblException("HVDC line '" + hvdcLineId + "' not found");
         }
 
         Terminal terminal1 = hvdcLine.getConverterStation1().getTerminal();
@@ -48,15 +46,14 @@ public class HvdcLineTripping extends AbstractTrippingTask {
 
         if (voltageLevelId != null) {
             if (voltageLevelId.equals(terminal1.getVoltageLevel().getId())) {
-                ContingencyTopologyTraverser.traverse(terminal1, switchesToOpen, terminalsToDisconnect);
+                return Collections.singletonList(terminal1);
             } else if (voltageLevelId.equals(terminal2.getVoltageLevel().getId())) {
-                ContingencyTopologyTraverser.traverse(terminal2, switchesToOpen, terminalsToDisconnect);
+                return Collections.singletonList(terminal2);
             } else {
                 throw new PowsyblException("VoltageLevel '" + voltageLevelId + "' not connected to HVDC line '" + hvdcLineId + "'");
             }
         } else {
-            ContingencyTopologyTraverser.traverse(terminal1, switchesToOpen, terminalsToDisconnect);
-            ContingencyTopologyTraverser.traverse(terminal2, switchesToOpen, terminalsToDisconnect);
+            return Arrays.asList(terminal1, terminal2);
         }
     }
 }
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.tasks;
+
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.NetworkListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A version of the structure of a network, incremented each time an equipment is created or removed, so that
+ * references to switches and terminals computed on the network can be checked before being used again.
+ * A single instance is registered as listener of a network, whatever the number of compiled tasks.
+ *
+ * @author agent <agent at local>
+ */
+final class NetworkStructureVersion implements NetworkListener {
+
+    private static final Map<Network, NetworkStructureVersion> VERSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong version = new AtomicLong();
+
+    private NetworkStructureVersion() {
+    }
+
+    static NetworkStructureVersion of(Network network) {
+        Objects.requireNonNull(network);
+        return VERSIONS.computeIfAbsent(network, n -> {
+            NetworkStructureVersion structureVersion = new NetworkStructureVersion();
+            n.addListener(structureVersion);
+            return structureVersion;
+        });
+    }
+
+    long get() {
+        return version.get();
+    }
+
+    @Override
+    public void onCreation(Identifiable identifiable) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void onRemoval(Identifiable identifiable) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void onUpdate(Identifiable identifiable, String attribute, Object oldValue, Object newValue) {
+        // attributes updates do not change the equipments of the network
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.tasks;
+
+import com.powsybl.iidm.network.Switch;
+import com.powsybl.iidm.network.Terminal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The state of the switches and terminals visited by a {@link ContingencyTopologyTraverser}, used to check
+ * that a traversal result computed on a variant is still valid on another variant.
+ *
+ * @author agent <agent at local>
+ */
+final class TopologySnapshot {
+
+    private final Map<Switch, Boolean> switches = new LinkedHashMap<>();
+
+    private final Map<Terminal, Boolean> terminals = new LinkedHashMap<>();
+
+    private Switch[] switchArray;
+
+    private boolean[] switchOpen;
+
+    private Terminal[] terminalArray;
+
+    private boolean[] terminalConnected;
+
+    void addSwitch(Switch aSwitch) {
+        switches.putIfAbsent(aSwitch, aSwitch.isOpen());
+    }
+
+    void addTerminal(Terminal terminal, boolean connected) {
+        terminals.putIfAbsent(terminal, connected);
+    }
+
+    /**
+     * Freeze the snapshot into arrays, so that checking it does not allocate.
+     */
+    TopologySnapshot freeze() {
+        switchArray = switches.keySet().toArray(new Switch[0]);
+        switchOpen = new boolean[switchArray.length];
+        for (int i = 0; i < switchArray.length; i++) {
+            switchOpen[i] = switches.get(switchArray[i]);
+        }
+        terminalArray = terminals.keySet().toArray(new Terminal[0]);
+        terminalConnected = new boolean[terminalArray.length];
+        for (int i = 0; i < terminalArray.length; i++) {
+            terminalConnected[i] = terminals.get(terminalArray[i]);
+        }
+        switches.clear();
+        terminals.clear();
+        return this;
+    }
+
+    /**
+     * Check that the switches and terminals of the snapshot are in the same state in the working variant.
+     */
+    boolean matches() {
+        for (int i = 0; i < switchArray.length; i++) {
+            if (switchArray[i].isOpen() != switchOpen[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < terminalArray.length; i++) {
+            if (terminalArray[i].isConnected() != terminalConnected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
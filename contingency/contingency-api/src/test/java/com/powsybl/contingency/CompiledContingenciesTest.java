@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.powsybl.contingency.tasks.CompiledTrippingTask;
+import com.powsybl.contingency.tasks.ModificationTask;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.iidm.network.test.FictitiousSwitchFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class CompiledContingenciesTest {
+
+    private Network network;
+
+    private CompiledContingencies compiledContingencies;
+
+    @Before
+    public void setUp() {
+        network = FictitiousSwitchFactory.create();
+        compiledContingencies = new CompiledContingencies(network);
+    }
+
+    @Test
+    public void cacheTest() {
+        Contingency contingency = new Contingency("c", new BusbarSectionContingency("D"));
+        ModificationTask task = compiledContingencies.getTask(contingency);
+        assertTrue(task instanceof CompiledTrippingTask);
+        assertSame(task, compiledContingencies.getTask(contingency));
+        assertSame(task, compiledContingencies.getTask(new Contingency("c", new BusbarSectionContingency("D"))));
+
+        // elements changed
+        contingency.addElement(new BranchContingency("CJ", "C"));
+        ModificationTask task2 = compiledContingencies.getTask(contingency);
+        assertNotSame(task, task2);
+        assertSame(task2, compiledContingencies.getTask(contingency));
+
+        // topology changed
+        network.getSwitch("BL").setOpen(true);
+        assertNotSame(task2, compiledContingencies.getTask(contingency));
+
+        compiledContingencies.clear();
+        network.getSwitch("BL").setOpen(false);
+        assertNotSame(task2, compiledContingencies.getTask(contingency));
+    }
+
+    @Test
+    public void applyTest() {
+        Contingency contingency = new Contingency("c", new BusbarSectionContingency("D"));
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "v");
+        network.getVariantManager().setWorkingVariant("v");
+        compiledContingencies.apply(contingency, null);
+        assertTrue(network.getSwitch("BD").isOpen());
+        assertTrue(network.getSwitch("BL").isOpen());
+
+        network.getVariantManager().setWorkingVariant(VariantManagerConstants.INITIAL_VARIANT_ID);
+        assertFalse(network.getSwitch("BD").isOpen());
+        assertFalse(network.getSwitch("BL").isOpen());
+        compiledContingencies.apply(contingency, null);
+        assertTrue(network.getSwitch("BD").isOpen());
+        assertTrue(network.getSwitch("BL").isOpen());
+    }
+
+    @Test
+    public void notCompiledTest() {
+        Contingency contingency = new Contingency("c", new BusbarSectionContingency("D")) {
+            @Override
+            public ModificationTask toTask() {
+                return (network, computationManager) -> network.getSwitch("BD").setOpen(true);
+            }
+        };
+        compiledContingencies.apply(contingency, null);
+        assertTrue(network.getSwitch("BD").isOpen());
+        assertFalse(network.getSwitch("BL").isOpen());
+    }
+}
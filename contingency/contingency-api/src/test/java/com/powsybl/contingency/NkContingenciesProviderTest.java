@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency;
+
+import com.google.common.collect.ImmutableList;
+import com.powsybl.computation.Partition;
+import com.powsybl.iidm.network.*;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class NkContingenciesProviderTest {
+
+    private static List<String> getIds(ContingenciesProvider provider, Network network) {
+        try (Stream<Contingency> contingencies = provider.getContingencyStream(network)) {
+            return contingencies.map(Contingency::getId).collect(Collectors.toList());
+        }
+    }
+
+    private static void createGenerator(VoltageLevel vl, String id, int node) {
+        vl.newGenerator()
+                .setId(id)
+                .setNode(node)
+                .setMinP(0)
+                .setMaxP(100)
+                .setTargetP(50)
+                .setTargetQ(0)
+                .setVoltageRegulatorOn(false)
+                .add();
+    }
+
+    private static void createBreaker(VoltageLevel vl, String id, int node1, int node2) {
+        vl.getNodeBreakerView().newBreaker()
+                .setId(id)
+                .setNode1(node1)
+                .setNode2(node2)
+                .setOpen(false)
+                .add();
+    }
+
+    /**
+     * Ring bus with three generators G1, G2 and G3 between breakers, and a generator G4 connected to G1 through a
+     * disconnector.
+     */
+    private static Network createRingNetwork() {
+        Network network = NetworkFactory.create("ring", "test");
+        Substation s = network.newSubstation()
+                .setId("S")
+                .add();
+        VoltageLevel vl = s.newVoltageLevel()
+                .setId("VL")
+                .setNominalV(400)
+                .setTopologyKind(TopologyKind.NODE_BREAKER)
+                .add();
+        createBreaker(vl, "B12", 0, 1);
+        createBreaker(vl, "B23", 1, 2);
+        createBreaker(vl, "B31", 2, 0);
+        createGenerator(vl, "G1", 0);
+        createGenerator(vl, "G2", 1);
+        createGenerator(vl, "G3", 2);
+        vl.getNodeBreakerView().newDisconnector()
+                .setId("D4")
+                .setNode1(0)
+                .setNode2(3)
+                .setOpen(false)
+                .add();
+        createGenerator(vl, "G4", 3);
+        return network;
+    }
+
+    @Test
+    public void testN1() {
+        Network network = EurostagTutorialExample1Factory.create();
+        assertEquals(ImmutableList.of("GEN", "NHV1_NHV2_1", "NHV1_NHV2_2", "NGEN_NHV1", "NHV2_NLOAD"),
+                     getIds(new NkContingenciesProvider(1), network));
+        assertEquals(ImmutableList.of("NHV1_NHV2_1", "NHV1_NHV2_2", "NGEN_NHV1", "NHV2_NLOAD"),
+                     getIds(new NkContingenciesProvider(1).setElementTypes(EnumSet.of(ContingencyElementType.GENERATOR, ContingencyElementType.BRANCH)).setMinNominalV(200), network));
+    }
+
+    @Test
+    public void testN2() {
+        Network network = EurostagTutorialExample1Factory.create();
+        NkContingenciesProvider provider = new NkContingenciesProvider(2)
+                .setElementTypes(EnumSet.of(ContingencyElementType.BRANCH));
+        assertEquals(ImmutableList.of("NHV1_NHV2_1 + NHV1_NHV2_2", "NHV1_NHV2_1 + NGEN_NHV1", "NHV1_NHV2_1 + NHV2_NLOAD",
+                                      "NHV1_NHV2_2 + NGEN_NHV1", "NHV1_NHV2_2 + NHV2_NLOAD", "NGEN_NHV1 + NHV2_NLOAD"),
+                     getIds(provider, network));
+
+        assertEquals(6, provider.getContingencyCount(network));
+
+        // transformers have no voltage level in common
+        provider.setMaxDistance(0);
+        assertEquals(ImmutableList.of("NHV1_NHV2_1 + NHV1_NHV2_2", "NHV1_NHV2_1 + NGEN_NHV1", "NHV1_NHV2_1 + NHV2_NLOAD",
+                                      "NHV1_NHV2_2 + NGEN_NHV1", "NHV1_NHV2_2 + NHV2_NLOAD"),
+                     getIds(provider, network));
+        assertEquals(5, provider.getContingencyCount(network));
+
+        Contingency contingency = provider.getContingencies(network).get(0);
+        assertEquals(2, contingency.getElements().size());
+        assertTrue(contingency.getElements().stream().allMatch(e -> e.getType() == ContingencyElementType.BRANCH));
+
+        assertEquals(ImmutableList.of("NHV1_NHV2_1 + NHV2_NLOAD", "NHV1_NHV2_2 + NGEN_NHV1", "NHV1_NHV2_2 + NHV2_NLOAD"),
+                     provider.getContingencyStream(network, new Partition(2, 2)).map(Contingency::getId).collect(Collectors.toList()));
+
+        // the generator is one branch away from the lines
+        provider.setElementTypes(EnumSet.allOf(ContingencyElementType.class));
+        assertEquals(ImmutableList.of("GEN + NGEN_NHV1", "NHV1_NHV2_1 + NHV1_NHV2_2", "NHV1_NHV2_1 + NGEN_NHV1", "NHV1_NHV2_1 + NHV2_NLOAD",
+                                      "NHV1_NHV2_2 + NGEN_NHV1", "NHV1_NHV2_2 + NHV2_NLOAD"),
+                     getIds(provider, network));
+    }
+
+    @Test
+    public void testSameTopologyChange() {
+        Network network = createRingNetwork();
+
+        // G4 opens the same breakers as G1
+        NkContingenciesProvider provider = new NkContingenciesProvider(1);
+        assertEquals(ImmutableList.of("G1", "G2", "G3"), getIds(provider, network));
+        assertEquals(3, provider.getContingencyCount(network));
+        assertEquals(ImmutableList.of("G3"), provider.getContingencyStream(network, new Partition(3, 3))
+                .map(Contingency::getId).collect(Collectors.toList()));
+
+        // any couple of generators opens the 3 breakers of the ring
+        assertEquals(ImmutableList.of("G1 + G2"), getIds(new NkContingenciesProvider(2), network));
+        assertEquals(ImmutableList.of("G1 + G2 + G3"), getIds(new NkContingenciesProvider(3), network));
+
+        // G3 is already disconnected, G2 opens the same breaker as G1
+        network.getSwitch("B23").setOpen(true);
+        network.getSwitch("B31").setOpen(true);
+        assertEquals(ImmutableList.of("G1"), getIds(provider, network));
+        assertEquals(1, provider.getContingencyCount(network));
+        assertEquals(ImmutableList.of("G1"), provider.getContingencyStream(network, new Partition(1, 1))
+                .map(Contingency::getId).collect(Collectors.toList()));
+
+        assertTrue(getIds(new NkContingenciesProvider(4), network).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidK() {
+        new NkContingenciesProvider(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxDistance() {
+        new NkContingenciesProvider(2).setMaxDistance(-1);
+    }
+}
@@ -9,13 +9,17 @@ package com.powsybl.contingency;
 import com.google.common.collect.ImmutableList;
 import com.powsybl.computation.Partition;
 import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 
@@ -58,4 +62,65 @@ public class SubContingenciesProviderTest {
         assertEquals(Collections.emptyList(), subList1);
     }
 
+    @Test
+    public void testStreaming() {
+        AtomicInteger generatedCount = new AtomicInteger();
+        ContingenciesProvider provider = new AbstractStreamingContingenciesProvider() {
+            @Override
+            public Stream<Contingency> getContingencyStream(Network network) {
+                return IntStream.range(1, 6)
+                        .peek(i -> generatedCount.incrementAndGet())
+                        .mapToObj(i -> new Contingency("contingency-" + i));
+            }
+        };
+
+        Network network = EurostagTutorialExample1Factory.create();
+
+        assertEquals(5, provider.getContingencyCount(network));
+        assertEquals(5, provider.getContingencies(network).size());
+        assertEquals(10, generatedCount.get());
+
+        // the count is reused to get the bounds of the partitions
+        SubContingenciesProvider subProvider = new SubContingenciesProvider(provider, new Partition(2, 2));
+        assertEquals(3, subProvider.getContingencyCount(network));
+        assertEquals(10, generatedCount.get());
+
+        try (Stream<Contingency> contingencies = subProvider.getContingencyStream(network)) {
+            assertEquals(ImmutableList.of("contingency-3", "contingency-4", "contingency-5"), contingencies.map(Contingency::getId).collect(Collectors.toList()));
+        }
+        assertEquals(15, generatedCount.get());
+
+        // contingencies are counted again for another variant
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "other");
+        network.getVariantManager().setWorkingVariant("other");
+        assertEquals(5, provider.getContingencyCount(network));
+        assertEquals(20, generatedCount.get());
+
+        // state variables do not change the topology, contrary to disconnections
+        network.getLine("NHV1_NHV2_1").getTerminal1().setP(100.0);
+        assertEquals(5, provider.getContingencyCount(network));
+        assertEquals(20, generatedCount.get());
+        network.getLine("NHV1_NHV2_1").getTerminal1().disconnect();
+        assertEquals(5, provider.getContingencyCount(network));
+        assertEquals(25, generatedCount.get());
+
+        List<String> subList1 = new SubContingenciesProvider(provider, new Partition(1, 2))
+                .getContingencies(network)
+                .stream().map(Contingency::getId).collect(Collectors.toList());
+        assertEquals(ImmutableList.of("contingency-1", "contingency-2"), subList1);
+    }
+
+    @Test
+    public void testListPartitionStream() {
+        ContingenciesProvider provider = n -> IntStream.range(1, 5)
+                .mapToObj(i -> new Contingency("contingency-" + i))
+                .collect(Collectors.toList());
+
+        Network network = Mockito.mock(Network.class);
+
+        assertEquals(4, provider.getContingencyCount(network));
+        assertEquals(ImmutableList.of("contingency-3", "contingency-4"), provider.getContingencyStream(network, new Partition(2, 2))
+                .map(Contingency::getId).collect(Collectors.toList()));
+        assertEquals(2, new SubContingenciesProvider(provider, new Partition(1, 2)).getContingencyCount(network));
+    }
 }
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.binary;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.computation.Partition;
+import com.powsybl.contingency.*;
+import com.powsybl.contingency.json.ContingencyJsonModule;
+import com.powsybl.iidm.network.Network;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class BinaryContingencyListTest {
+
+    private FileSystem fileSystem;
+
+    private final Network network = Mockito.mock(Network.class);
+
+    @Before
+    public void setUp() {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fileSystem.close();
+    }
+
+    private static List<Contingency> createContingencies() {
+        List<Contingency> contingencies = new ArrayList<>();
+        List<ContingencyElement> elements = new ArrayList<>();
+        elements.add(new BranchContingency("NHV1_NHV2_2", "VLHV1"));
+        elements.add(new BranchContingency("NHV1_NHV2_1"));
+        elements.add(new HvdcLineContingency("HVDC1"));
+        elements.add(new HvdcLineContingency("HVDC1", "VL1"));
+        elements.add(new GeneratorContingency("GEN"));
+        elements.add(new ShuntCompensatorContingency("SC"));
+        elements.add(new StaticVarCompensatorContingency("SVC"));
+        elements.add(new BusbarSectionContingency("BBS1"));
+        contingencies.add(new Contingency("contingency", elements));
+        contingencies.add(new Contingency("empty"));
+        for (int i = 0; i < 1000; i++) {
+            contingencies.add(new Contingency("N-2 " + i, new BranchContingency("LINE" + i), new BranchContingency("LINE" + (i + 1) % 1000, "VLHV1")));
+        }
+        return contingencies;
+    }
+
+    private static byte[] write(List<Contingency> contingencies) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (BinaryContingencyListWriter writer = new BinaryContingencyListWriter(bos)) {
+            contingencies.forEach(writer::write);
+        }
+        return bos.toByteArray();
+    }
+
+    private static void assertSameContingencies(List<Contingency> expected, List<Contingency> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            List<ContingencyElement> expectedElements = new ArrayList<>(expected.get(i).getElements());
+            List<ContingencyElement> actualElements = new ArrayList<>(actual.get(i).getElements());
+            assertEquals(expectedElements.size(), actualElements.size());
+            for (int j = 0; j < expectedElements.size(); j++) {
+                assertEquals(expectedElements.get(j), actualElements.get(j));
+                if (expectedElements.get(j) instanceof AbstractSidedContingency) {
+                    assertEquals(((AbstractSidedContingency) expectedElements.get(j)).getVoltageLevelId(),
+                                 ((AbstractSidedContingency) actualElements.get(j)).getVoltageLevelId());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Contingency> contingencies = createContingencies();
+        byte[] data = write(contingencies);
+
+        try (Stream<Contingency> stream = BinaryContingencyListReader.stream(new ByteArrayInputStream(data))) {
+            assertSameContingencies(contingencies, stream.collect(Collectors.toList()));
+        }
+
+        // much smaller than JSON
+        byte[] json = JsonUtil.createObjectMapper()
+                .registerModule(new ContingencyJsonModule())
+                .writeValueAsBytes(contingencies);
+        assertTrue(data.length * 4 < json.length);
+    }
+
+    @Test
+    public void testProvider() throws IOException {
+        List<Contingency> contingencies = createContingencies();
+        Path file = fileSystem.getPath("/contingencies.bin");
+        BinaryContingencyListWriter.write(contingencies.stream(), file);
+
+        ContingenciesProvider provider = new BinaryContingenciesProviderFactory().create(file);
+        assertEquals(1002, provider.getContingencyCount(network));
+        assertSameContingencies(contingencies, provider.getContingencies(network));
+        assertEquals(IntStream.range(499, 1000).mapToObj(i -> "N-2 " + i).collect(Collectors.toList()),
+                     provider.getContingencyStream(network, new Partition(2, 2)).map(Contingency::getId).collect(Collectors.toList()));
+
+        // contingencies from a stream can be read several times
+        try (InputStream is = Files.newInputStream(file)) {
+            ContingenciesProvider provider2 = new BinaryContingenciesProviderFactory().create(is);
+            assertSameContingencies(contingencies, provider2.getContingencies(network));
+            assertEquals(1002, provider2.getContingencyCount(network));
+        }
+    }
+
+    @Test
+    public void testSkip() throws IOException {
+        List<Contingency> contingencies = createContingencies();
+        byte[] data = write(contingencies);
+
+        // ids read while skipping are still known by the next contingencies
+        try (BinaryContingencyListReader reader = new BinaryContingencyListReader(new ByteArrayInputStream(data))) {
+            assertTrue(reader.hasNext());
+            assertEquals(500, reader.skip(500));
+            assertSameContingencies(contingencies.subList(500, 502), Arrays.asList(reader.next(), reader.next()));
+            assertEquals(500, reader.skip(1000));
+            assertFalse(reader.hasNext());
+            assertEquals(0, reader.skip(1));
+        }
+    }
+
+    @Test
+    public void testTypeCodes() {
+        // codes are part of the format: they must not change when element types are added or reordered
+        assertEquals(0, BinaryContingencyListWriter.getTypeCode(ContingencyElementType.GENERATOR));
+        assertEquals(1, BinaryContingencyListWriter.getTypeCode(ContingencyElementType.STATIC_VAR_COMPENSATOR));
+        assertEquals(2, BinaryContingencyListWriter.getTypeCode(ContingencyElementType.SHUNT_COMPENSATOR));
+        assertEquals(3, BinaryContingencyListWriter.getTypeCode(ContingencyElementType.BRANCH));
+        assertEquals(4, BinaryContingencyListWriter.getTypeCode(ContingencyElementType.HVDC_LINE));
+        assertEquals(5, BinaryContingencyListWriter.getTypeCode(ContingencyElementType.BUSBAR_SECTION));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        byte[] data = write(new ArrayList<>());
+        assertTrue(new BinaryContingenciesProvider(new ByteArrayInputStream(data)).getContingencies(network).isEmpty());
+    }
+
+    @Test
+    public void testInvalidData() throws IOException {
+        try {
+            new BinaryContingencyListReader(new ByteArrayInputStream("[ ]".getBytes()));
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Not a binary contingency list", e.getMessage());
+        }
+
+        byte[] data = write(createContingencies());
+        BinaryContingenciesProvider provider = new BinaryContingenciesProvider(new ByteArrayInputStream(data, 0, data.length / 2));
+        try {
+            provider.getContingencies(network);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Unexpected end of binary contingency list", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.contingency.tasks;
+
+import com.google.common.collect.Sets;
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.Switch;
+import com.powsybl.iidm.network.Terminal;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.iidm.network.test.FictitiousSwitchFactory;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class CompiledTrippingTaskTest {
+
+    private static List<Boolean> getSwitchStates(Network network) {
+        return network.getSwitchStream().map(Switch::isOpen).collect(Collectors.toList());
+    }
+
+    @Test
+    public void nodeBreakerTest() {
+        Network network = FictitiousSwitchFactory.create();
+        CompiledTrippingTask task = CompiledTrippingTask.compile(network, new BusbarSectionTripping("P"), new BranchTripping("CJ", "C"));
+        assertEquals(Sets.newHashSet("BJ", "BL", "BV", "BX", "BZ", "BD"),
+                task.getSwitchesToOpen().stream().map(Switch::getId).collect(Collectors.toSet()));
+        assertTrue(task.getTerminalsToDisconnect().isEmpty());
+
+        // apply the compiled task on another variant
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "compiled");
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "reference");
+        List<Boolean> initialStates = getSwitchStates(network);
+
+        network.getVariantManager().setWorkingVariant("compiled");
+        assertTrue(task.isUpToDate());
+        task.modify(network, null);
+        List<Boolean> compiledStates = getSwitchStates(network);
+
+        network.getVariantManager().setWorkingVariant("reference");
+        new BusbarSectionTripping("P").modify(network, null);
+        new BranchTripping("CJ", "C").modify(network, null);
+        assertEquals(getSwitchStates(network), compiledStates);
+
+        network.getVariantManager().setWorkingVariant(VariantManagerConstants.INITIAL_VARIANT_ID);
+        assertEquals(initialStates, getSwitchStates(network));
+    }
+
+    @Test
+    public void topologyChangeTest() {
+        Network network = FictitiousSwitchFactory.create();
+        CompiledTrippingTask task = CompiledTrippingTask.compile(network, new BusbarSectionTripping("D"));
+        assertEquals(Sets.newHashSet("BD", "BL"), task.getSwitchesToOpen().stream().map(Switch::getId).collect(Collectors.toSet()));
+
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "v");
+        network.getVariantManager().setWorkingVariant("v");
+        network.getSwitch("BL").setOpen(true);
+        network.getSwitch("BD").setOpen(true);
+        assertFalse(task.isUpToDate());
+
+        // the tripping is applied as usual when the topology is different
+        network.getSwitch("BD").setOpen(false);
+        task.modify(network, null);
+        assertTrue(network.getSwitch("BD").isOpen());
+        assertTrue(network.getSwitch("BL").isOpen());
+    }
+
+    @Test
+    public void busBreakerTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        CompiledTrippingTask task = CompiledTrippingTask.compile(network, new BranchTripping("NHV1_NHV2_1"));
+        assertTrue(task.getSwitchesToOpen().isEmpty());
+        assertEquals(2, task.getTerminalsToDisconnect().size());
+
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "v");
+        network.getVariantManager().setWorkingVariant("v");
+        task.modify(network, null);
+        assertFalse(network.getLine("NHV1_NHV2_1").getTerminal1().isConnected());
+        assertFalse(network.getLine("NHV1_NHV2_1").getTerminal2().isConnected());
+        assertFalse(task.isUpToDate());
+
+        network.getVariantManager().setWorkingVariant(VariantManagerConstants.INITIAL_VARIANT_ID);
+        assertTrue(task.getTerminalsToDisconnect().stream().allMatch(Terminal::isConnected));
+        assertTrue(task.isUpToDate());
+    }
+
+    /**
+     * A tripping task overriding traverse, as written before getTerminals was introduced.
+     */
+    private static class LegacyBranchTripping extends AbstractTrippingTask {
+
+        private final String branchId;
+
+        LegacyBranchTripping(String branchId) {
+            this.branchId = branchId;
+        }
+
+        @Override
+        public void traverse(Network network, ComputationManager computationManager, Set<Switch> switchesToOpen, Set<Terminal> terminalsToDisconnect) {
+            terminalsToDisconnect.add(network.getBranch(branchId).getTerminal1());
+            terminalsToDisconnect.add(network.getBranch(branchId).getTerminal2());
+        }
+    }
+
+    @Test
+    public void legacyTrippingTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        CompiledTrippingTask task = CompiledTrippingTask.compile(network, new BranchTripping("NHV1_NHV2_1"), new LegacyBranchTripping("NHV1_NHV2_2"));
+        // the legacy tripping is not compiled
+        assertEquals(2, task.getTerminalsToDisconnect().size());
+
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "v");
+        network.getVariantManager().setWorkingVariant("v");
+        assertTrue(task.isUpToDate());
+        task.modify(network, null);
+        assertFalse(network.getLine("NHV1_NHV2_1").getTerminal1().isConnected());
+        assertFalse(network.getLine("NHV1_NHV2_2").getTerminal1().isConnected());
+        assertFalse(network.getLine("NHV1_NHV2_2").getTerminal2().isConnected());
+    }
+
+    @Test
+    public void structureChangeTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        CompiledTrippingTask task = CompiledTrippingTask.compile(network, new BranchTripping("NHV1_NHV2_1"));
+        assertTrue(task.isUpToDate());
+
+        // the recorded terminals may not be valid anymore once the equipments of the network change
+        network.getVoltageLevel("VLLOAD").newLoad()
+                .setId("LOAD2")
+                .setBus("NLOAD")
+                .setP0(10.0)
+                .setQ0(0.0)
+                .add();
+        assertFalse(task.isUpToDate());
+        task.modify(network, null);
+        assertFalse(network.getLine("NHV1_NHV2_1").getTerminal1().isConnected());
+        assertFalse(network.getLine("NHV1_NHV2_1").getTerminal2().isConnected());
+    }
+
+    @Test
+    public void otherNetworkTest() {
+        Network network = EurostagTutorialExample1Factory.create();
+        Network otherNetwork = EurostagTutorialExample1Factory.create();
+        CompiledTrippingTask task = CompiledTrippingTask.compile(network, new BranchTripping("NHV1_NHV2_1"));
+
+        // the tripping is applied as usual on another network
+        task.modify(otherNetwork, null);
+        assertFalse(otherNetwork.getLine("NHV1_NHV2_1").getTerminal1().isConnected());
+        assertTrue(network.getLine("NHV1_NHV2_1").getTerminal1().isConnected());
+    }
+}
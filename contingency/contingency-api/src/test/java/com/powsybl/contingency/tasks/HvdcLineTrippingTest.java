@@ -15,8 +15,7 @@ import com.powsybl.iidm.network.Terminal;
 import com.powsybl.iidm.network.test.HvdcTestNetwork;
 import org.junit.Test;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
@@ -76,6 +75,18 @@ public class HvdcLineTrippingTest {
         tripping.modify(network, null);
     }
 
+    @Test
+    public void unknownHvdcLineTrippingMessageTest() {
+        Network network = HvdcTestNetwork.createLcc();
+
+        try {
+            new HvdcLineTripping("unknownHvdcLine").modify(network, null);
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("HVDC line 'unknownHvdcLine' not found", e.getMessage());
+        }
+    }
+
     @Test(expected = PowsyblException.class)
     public void unknownVoltageLevelTrippingTest() {
         Network network = HvdcTestNetwork.createLcc();
@@ -46,6 +46,13 @@ class ContingencyDslLoader extends DslLoader {
         super(script)
     }
 
+    /**
+     * DSL extensions available to contingency scripts.
+     */
+    static List<ContingencyDslExtension> getExtensions() {
+        ServiceLoader.load(ContingencyDslExtension.class).toList()
+    }
+
     static void loadDsl(Binding binding, Network network, Consumer<Contingency> consumer, ContingencyDslObserver observer) {
         // contingencies
         binding.contingency = { String id, Closure<Void> closure ->
@@ -123,9 +130,7 @@ class ContingencyDslLoader extends DslLoader {
             // set base network
             binding.setVariable("network", network)
 
-            def shell = createShell(binding)
-
-            shell.evaluate(dslSrc)
+            evaluate(binding, getExtensions())
 
             observer?.end()
 
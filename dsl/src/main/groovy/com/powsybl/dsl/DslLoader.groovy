@@ -6,10 +6,6 @@
  */
 package com.powsybl.dsl
 
-import org.codehaus.groovy.control.CompilerConfiguration
-import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer
-import org.codehaus.groovy.control.customizers.ImportCustomizer
-
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
@@ -29,14 +25,22 @@ class DslLoader {
         this(new GroovyCodeSource(script, "script", GroovyShell.DEFAULT_CODE_BASE))
     }
 
-    static GroovyShell createShell(Binding binding) {
-        def astCustomizer = new ASTTransformationCustomizer(new PowsyblDslAstTransformation())
-        def imports = new ImportCustomizer()
-        def config = new CompilerConfiguration()
-        config.addCompilationCustomizers(astCustomizer, imports)
+    /**
+     * Run the DSL script with the given binding. The compiled script is cached, so that it is only compiled once
+     * for a given content and set of DSL extensions.
+     */
+    protected Object evaluate(Binding binding, Collection<?> extensions = Collections.emptyList()) {
+        ExpressionDslLoader.prepareClosures(binding)
+        DslScriptCache.getDefault().evaluate(dslSrc, binding, extensions)
+    }
 
+    /**
+     * @deprecated Use {@link #evaluate(Binding, Collection)} instead, which caches the compiled script.
+     */
+    @Deprecated
+    static GroovyShell createShell(Binding binding) {
         ExpressionDslLoader.prepareClosures(binding)
-        new GroovyShell(binding, config)
+        new GroovyShell(binding, DslScriptCache.createCompilerConfiguration())
     }
 
 }
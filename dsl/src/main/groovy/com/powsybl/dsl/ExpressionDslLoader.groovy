@@ -206,11 +206,7 @@ class ExpressionDslLoader extends DslLoader {
         try {
             Binding binding = new Binding()
 
-            prepareClosures(binding)
-
-            def shell = createShell(binding)
-
-            def value = shell.evaluate(dslSrc)
+            def value = evaluate(binding)
             createExpressionNode(value)
         } catch (CompilationFailedException e) {
             throw new PowsyblException(e.getMessage(), e)
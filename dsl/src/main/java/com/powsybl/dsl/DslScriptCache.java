@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.dsl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.powsybl.commons.config.ModuleConfig;
+import com.powsybl.commons.config.PlatformConfig;
+import groovy.lang.Binding;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovySystem;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.codehaus.groovy.control.customizers.ImportCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.tools.GroovyClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Cache of compiled DSL scripts, so that loading several times the same script, for instance in each sub-task of a
+ * distributed computation, only compiles it once.
+ *
+ * <p>Compiled scripts are identified by a hash of the script content, of the names of the DSL extensions in use and
+ * of the Groovy version. They are kept in memory and, if a directory is configured, stored on disk so that other
+ * processes can reuse them. Stored classes are checked on loading, and compiled again if the file is corrupted:
+ * <pre>
+ * dsl-script-cache:
+ *     directory: /path/to/cache
+ *     max-size: 100
+ * </pre>
+ *
+ * @author agent <agent at local>
+ */
+public final class DslScriptCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DslScriptCache.class);
+
+    private static final int DEFAULT_MAX_SIZE = 100;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String FILE_EXTENSION = ".classes";
+
+    private static DslScriptCache defaultCache;
+
+    /**
+     * Compiled classes of a script.
+     */
+    private static final class CompiledScript {
+
+        private final String mainClassName;
+
+        private final Map<String, byte[]> classes;
+
+        private CompiledScript(String mainClassName, Map<String, byte[]> classes) {
+            this.mainClassName = Objects.requireNonNull(mainClassName);
+            this.classes = Objects.requireNonNull(classes);
+        }
+    }
+
+    /**
+     * Class loader defining the classes of a compiled script.
+     */
+    private static final class CompiledScriptClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        private CompiledScriptClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    private final Path directory;
+
+    private final Cache<String, Class<? extends Script>> scriptClasses;
+
+    public DslScriptCache() {
+        this(null, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param directory directory where compiled scripts are stored, or null to only keep them in memory
+     * @param maxSize maximum number of compiled scripts kept in memory
+     */
+    public DslScriptCache(Path directory, int maxSize) {
+        this.directory = directory;
+        this.scriptClasses = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public static synchronized DslScriptCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = load(PlatformConfig.defaultConfig());
+        }
+        return defaultCache;
+    }
+
+    public static synchronized void setDefault(DslScriptCache cache) {
+        defaultCache = Objects.requireNonNull(cache);
+    }
+
+    public static DslScriptCache load(PlatformConfig platformConfig) {
+        Objects.requireNonNull(platformConfig);
+        Optional<ModuleConfig> config = platformConfig.getOptionalModuleConfig("dsl-script-cache");
+        Path directory = config.flatMap(c -> c.getOptionalPathProperty("directory")).orElse(null);
+        int maxSize = config.map(c -> c.getIntProperty("max-size", DEFAULT_MAX_SIZE)).orElse(DEFAULT_MAX_SIZE);
+        return new DslScriptCache(directory, maxSize);
+    }
+
+    /**
+     * Compiler configuration of the DSL scripts.
+     */
+    public static CompilerConfiguration createCompilerConfiguration() {
+        CompilerConfiguration config = new CompilerConfiguration();
+        config.addCompilationCustomizers(new ASTTransformationCustomizer(new PowsyblDslAstTransformation()), new ImportCustomizer());
+        return config;
+    }
+
+    /**
+     * Run a DSL script with the given binding, compiling it only if it is not in the cache.
+     *
+     * @param source the script
+     * @param binding variables and closures available to the script
+     * @param extensions DSL extensions in use, identified by their class name
+     * @return the value returned by the script
+     */
+    public Object evaluate(GroovyCodeSource source, Binding binding, Collection<?> extensions) {
+        Objects.requireNonNull(binding);
+        Script script = InvokerHelper.createScript(getScriptClass(source, extensions), binding);
+        return script.run();
+    }
+
+    /**
+     * Get the compiled class of a DSL script, compiling it only if it is not in the cache.
+     */
+    public Class<? extends Script> getScriptClass(GroovyCodeSource source, Collection<?> extensions) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(extensions);
+        String key = hash(source.getScriptText(), extensions);
+        try {
+            return scriptClasses.get(key, () -> loadScriptClass(key, source));
+        } catch (UncheckedExecutionException | ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DslException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Number of compiled scripts kept in memory.
+     */
+    public long size() {
+        return scriptClasses.size();
+    }
+
+    public void clear() {
+        scriptClasses.invalidateAll();
+    }
+
+    private static String hash(String scriptText, Collection<?> extensions) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putInt(FORMAT_VERSION)
+                .putString(GroovySystem.getVersion(), StandardCharsets.UTF_8)
+                .putString(scriptText, StandardCharsets.UTF_8);
+        extensions.stream()
+                .map(extension -> extension instanceof Class ? ((Class<?>) extension).getName() : extension.getClass().getName())
+                .sorted()
+                .forEach(name -> hasher.putChar('\n').putString(name, StandardCharsets.UTF_8));
+        return hasher.hash().toString();
+    }
+
+    private Class<? extends Script> loadScriptClass(String key, GroovyCodeSource source) {
+        Path file = directory != null ? directory.resolve(key + FILE_EXTENSION) : null;
+        if (file != null && Files.exists(file)) {
+            try {
+                Class<? extends Script> scriptClass = defineScriptClass(read(file));
+                LOGGER.debug("Compiled DSL '{}' loaded from {}", source.getName(), file);
+                return scriptClass;
+            } catch (IOException | ClassNotFoundException | LinkageError e) {
+                // corrupted or incompatible file, compiled again and replaced below
+                LOGGER.warn("Cannot load compiled DSL from {}: {}", file, e.toString());
+            }
+        }
+
+        CompiledScript compiledScript = compile(source);
+        if (file != null) {
+            write(compiledScript.mainClassName, compiledScript.classes, file);
+        }
+        try {
+            return defineScriptClass(compiledScript);
+        } catch (ClassNotFoundException e) {
+            throw new DslException("Main class of compiled DSL '" + source.getName() + "' not found", e);
+        }
+    }
+
+    /**
+     * Define all the classes of a compiled script, so that invalid classes are detected before running the script.
+     */
+    private static Class<? extends Script> defineScriptClass(CompiledScript compiledScript) throws ClassNotFoundException {
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        if (parent == null) {
+            parent = DslScriptCache.class.getClassLoader();
+        }
+        ClassLoader classLoader = new CompiledScriptClassLoader(parent, compiledScript.classes);
+        for (String className : compiledScript.classes.keySet()) {
+            Class.forName(className, false, classLoader);
+        }
+        return Class.forName(compiledScript.mainClassName, true, classLoader).asSubclass(Script.class);
+    }
+
+    private static CompiledScript compile(GroovyCodeSource source) {
+        LOGGER.debug("Compiling DSL '{}'", source.getName());
+        long start = System.currentTimeMillis();
+
+        CompilationUnit unit = new CompilationUnit(createCompilerConfiguration());
+        unit.addSource(source.getName(), source.getScriptText());
+        unit.compile(Phases.CLASS_GENERATION);
+
+        @SuppressWarnings("unchecked")
+        List<GroovyClass> groovyClasses = unit.getClasses();
+        Map<String, byte[]> classes = groovyClasses.stream()
+                .collect(Collectors.toMap(GroovyClass::getName, GroovyClass::getBytes, (b1, b2) -> b1, LinkedHashMap::new));
+        String mainClassName = unit.getFirstClassNode().getName();
+
+        LOGGER.debug("DSL '{}' compiled in {} ms", source.getName(), System.currentTimeMillis() - start);
+        return new CompiledScript(mainClassName, classes);
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static CompiledScript read(Path file) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = dis.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version " + version);
+            }
+            String mainClassName = dis.readUTF();
+            int classCount = dis.readInt();
+            Map<String, byte[]> classes = new LinkedHashMap<>(classCount);
+            for (int i = 0; i < classCount; i++) {
+                String name = dis.readUTF();
+                byte[] bytes = new byte[dis.readInt()];
+                dis.readFully(bytes);
+                if (dis.readLong() != checksum(bytes)) {
+                    throw new IOException("Invalid checksum of class " + name);
+                }
+                classes.put(name, bytes);
+            }
+            return new CompiledScript(mainClassName, classes);
+        }
+    }
+
+    static void write(String mainClassName, Map<String, byte[]> classes, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            // write to a temporary file first, so that concurrent processes never read a partially written file
+            Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                    dos.writeInt(FORMAT_VERSION);
+                    dos.writeUTF(mainClassName);
+                    dos.writeInt(classes.size());
+                    for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+                        dos.writeUTF(e.getKey());
+                        dos.writeInt(e.getValue().length);
+                        dos.write(e.getValue());
+                        dos.writeLong(checksum(e.getValue()));
+                    }
+                }
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization
+            LOGGER.warn("Cannot write compiled DSL to {}: {}", file, e.toString());
+        }
+    }
+}
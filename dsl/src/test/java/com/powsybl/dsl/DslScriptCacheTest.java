@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.dsl;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import groovy.lang.Binding;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class DslScriptCacheTest {
+
+    private static final String SCRIPT = String.join(System.lineSeparator(),
+            "def twice = { v -> v * 2 }",
+            "twice(value) + 1");
+
+    private FileSystem fileSystem;
+
+    @Before
+    public void setUp() {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fileSystem.close();
+    }
+
+    private static GroovyCodeSource createSource(String script) {
+        return new GroovyCodeSource(script, "script", GroovyShell.DEFAULT_CODE_BASE);
+    }
+
+    private static Object evaluate(DslScriptCache cache, String script, int value, List<?> extensions) {
+        Binding binding = new Binding();
+        binding.setVariable("value", value);
+        return cache.evaluate(createSource(script), binding, extensions);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedShell() {
+        Binding binding = new Binding();
+        binding.setVariable("value", 3);
+        assertEquals(7, DslLoader.createShell(binding).evaluate(SCRIPT));
+    }
+
+    @Test
+    public void testMemoryCache() {
+        DslScriptCache cache = new DslScriptCache();
+        assertEquals(7, evaluate(cache, SCRIPT, 3, Collections.emptyList()));
+        assertEquals(9, evaluate(cache, SCRIPT, 4, Collections.emptyList()));
+        assertEquals(1, cache.size());
+        assertSame(cache.getScriptClass(createSource(SCRIPT), Collections.emptyList()),
+                   cache.getScriptClass(createSource(SCRIPT), Collections.emptyList()));
+
+        // another set of extensions gives another compiled script
+        assertEquals(7, evaluate(cache, SCRIPT, 3, Collections.singletonList(String.class)));
+        assertEquals(2, cache.size());
+        assertNotSame(cache.getScriptClass(createSource(SCRIPT), Collections.emptyList()),
+                      cache.getScriptClass(createSource(SCRIPT), Collections.singletonList(String.class)));
+
+        // another script content too
+        assertEquals(4, evaluate(cache, "value + 1", 3, Collections.emptyList()));
+        assertEquals(3, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDiskCache() throws IOException {
+        Path directory = fileSystem.getPath("/cache");
+        assertEquals(7, evaluate(new DslScriptCache(directory, 10), SCRIPT, 3, Collections.emptyList()));
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.collect(Collectors.toList());
+        }
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).getFileName().toString().endsWith(".classes"));
+
+        // another cache, for instance in another process, loads the compiled script from the disk
+        DslScriptCache cache = new DslScriptCache(directory, 10);
+        assertEquals(9, evaluate(cache, SCRIPT, 4, Collections.emptyList()));
+
+        // a corrupted file is ignored and replaced
+        Files.write(files.get(0), new byte[] {1, 2, 3});
+        assertEquals(9, evaluate(new DslScriptCache(directory, 10), SCRIPT, 4, Collections.emptyList()));
+        assertTrue(Files.size(files.get(0)) > 3);
+    }
+
+    @Test
+    public void testInvalidClassInDiskCache() throws IOException {
+        Path directory = fileSystem.getPath("/cache");
+        assertEquals(7, evaluate(new DslScriptCache(directory, 10), SCRIPT, 3, Collections.emptyList()));
+        Path file;
+        try (Stream<Path> stream = Files.list(directory)) {
+            file = stream.findFirst().orElseThrow(AssertionError::new);
+        }
+
+        // a well formed file, whose class is not a valid class file, is compiled again
+        DslScriptCache.write("script", Collections.singletonMap("script", new byte[] {1, 2, 3}), file);
+        assertEquals(9, evaluate(new DslScriptCache(directory, 10), SCRIPT, 4, Collections.emptyList()));
+        assertEquals(9, evaluate(new DslScriptCache(directory, 10), SCRIPT, 4, Collections.emptyList()));
+    }
+
+    @Test(expected = CompilationFailedException.class)
+    public void testCompilationError() {
+        evaluate(new DslScriptCache(), "value +", 3, Collections.emptyList());
+    }
+}
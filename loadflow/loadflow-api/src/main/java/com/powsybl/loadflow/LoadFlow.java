@@ -76,6 +76,13 @@ public final class LoadFlow {
             return run(network, LoadFlowParameters.load());
         }
 
+        /**
+         * Create a session to run consecutive loadflows with this implementation, see {@link LoadFlowSession}.
+         */
+        public LoadFlowSession createSession() {
+            return provider.createSession();
+        }
+
         @Override
         public String getName() {
             return provider.getName();
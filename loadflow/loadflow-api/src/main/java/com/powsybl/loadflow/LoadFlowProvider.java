@@ -33,4 +33,15 @@ public interface LoadFlowProvider extends Versionable, PlatformConfigNamedProvid
      * @return a {@link CompletableFuture} on {@link LoadFlowResult]
      */
     CompletableFuture<LoadFlowResult> run(Network network, ComputationManager computationManager, String workingVariantId, LoadFlowParameters parameters);
+
+    /**
+     * Create a session to run consecutive loadflows, allowing the provider to reuse its solver data from one run
+     * to the next. The default session is stateless and delegates each run to
+     * {@link #run(Network, ComputationManager, String, LoadFlowParameters)}.
+     *
+     * @return a new load flow session
+     */
+    default LoadFlowSession createSession() {
+        return this::run;
+    }
 }
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.loadflow;
+
+import com.powsybl.computation.ComputationManager;
+import com.powsybl.iidm.network.Network;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A load flow session allows a provider to keep solver data between consecutive runs, typically on variants or
+ * copies of the same network, which only differ by a few topology changes or set points. Such data could be the
+ * bus numbering, the structure of the jacobian matrix or its factorization. A session is created by
+ * {@link LoadFlowProvider#createSession()} and must give the same results as {@link LoadFlowProvider#run}.
+ *
+ * <p>A session is not thread safe: it must not be used by several threads at the same time, so concurrent
+ * computations should use one session per worker.
+ *
+ * @author agent <agent at local>
+ */
+@FunctionalInterface
+public interface LoadFlowSession extends AutoCloseable {
+
+    /**
+     * Run a loadflow on variant {@code workingVariantId} of {@code network}, reusing solver data of the previous
+     * runs of this session when possible.
+     *
+     * @param network the network
+     * @param computationManager a computation manager to external program execution
+     * @param workingVariantId variant id of the network
+     * @param parameters load flow execution parameters
+     * @return a {@link CompletableFuture} on {@link LoadFlowResult}
+     */
+    CompletableFuture<LoadFlowResult> run(Network network, ComputationManager computationManager, String workingVariantId, LoadFlowParameters parameters);
+
+    /**
+     * Release solver data kept by this session.
+     */
+    @Override
+    default void close() {
+        // nothing to release by default
+    }
+}
@@ -57,4 +57,15 @@ public class LoadFlowTest {
                 computationManager, new LoadFlowParameters());
         assertNotNull(result.get());
     }
+
+    @Test
+    public void testSession() {
+        // default session delegates to the provider
+        try (LoadFlowSession session = LoadFlow.find().createSession()) {
+            for (int i = 0; i < 2; i++) {
+                LoadFlowResult result = session.run(network, computationManager, "v", new LoadFlowParameters()).join();
+                assertTrue(result.isOk());
+            }
+        }
+    }
 }
@@ -6,27 +6,32 @@
  */
 package com.powsybl.security;
 
+import com.google.common.collect.Iterators;
 import com.powsybl.commons.config.PlatformConfig;
 import com.powsybl.commons.exceptions.UncheckedInterruptedException;
 import com.powsybl.computation.ComputationManager;
+import com.powsybl.contingency.CompiledContingencies;
 import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.loadflow.LoadFlow;
 import com.powsybl.loadflow.LoadFlowParameters;
 import com.powsybl.loadflow.LoadFlowResult;
+import com.powsybl.loadflow.LoadFlowSession;
 import com.powsybl.security.detectors.DefaultLimitViolationDetector;
 import com.powsybl.security.interceptors.CurrentLimitViolationInterceptor;
 import com.powsybl.security.interceptors.SecurityAnalysisInterceptor;
+import com.powsybl.security.metrics.ContingencyMetricsContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -73,6 +78,8 @@ public class SecurityAnalysisImpl extends AbstractSecurityAnalysis {
 
     private final ComputationManager computationManager;
 
+    private final CompiledContingencies compiledContingencies;
+
     public SecurityAnalysisImpl(Network network, ComputationManager computationManager) {
         this(network, new LimitViolationFilter(), computationManager);
     }
@@ -87,6 +94,7 @@ public class SecurityAnalysisImpl extends AbstractSecurityAnalysis {
         super(network, detector, filter);
 
         this.computationManager = Objects.requireNonNull(computationManager);
+        this.compiledContingencies = new CompiledContingencies(network);
 
         interceptors.add(new CurrentLimitViolationInterceptor());
     }
@@ -146,23 +154,78 @@ public class SecurityAnalysisImpl extends AbstractSecurityAnalysis {
         return CompletableFuture.completedFuture(null);
     }
 
+    private Stream<Contingency> getContingencyStream(ContingenciesProvider contingenciesProvider) {
+        Stream<Contingency> contingencyStream = contingenciesProvider.getContingencyStream(network);
+        // providers not supporting streams, like mocks, may only give the list of contingencies
+        return contingencyStream != null ? contingencyStream : contingenciesProvider.getContingencies(network).stream();
+    }
+
     private CompletableFuture<Void> submitAllLoadFlows(String workingVariantId,
                                                        ContingenciesProvider contingenciesProvider, LoadFlowParameters postContParameters,
                                                        SecurityAnalysisResultBuilder resultBuilder) {
 
-        List<Contingency> contingencies = contingenciesProvider.getContingencies(network);
-        int workerCount = Math.min(MAX_VARIANTS_PER_ANALYSIS, Math.min(computationManager.getResourcesStatus().getAvailableCores(), contingencies.size()));
-        List<String> variantIds = makeWorkingVariantsNames(workerCount);
-        BlockingQueue<String> queue = new ArrayBlockingQueue<>(workerCount, false, variantIds);
-
-        network.getVariantManager().allowVariantMultiThreadAccess(true);
-        network.getVariantManager().cloneVariant(workingVariantId, variantIds);
-
-        return CompletableFuture
-                .allOf(contingencies.stream()
-                        .map(contingency -> submitOneLoadFlow(workingVariantId, contingency, postContParameters, resultBuilder, queue))
-                        .toArray(CompletableFuture[]::new))
-                .whenComplete((aVoid, throwable) -> variantIds.forEach(network.getVariantManager()::removeVariant));
+        // contingencies are generated lazily: only the contingencies waiting for a variant are kept in memory
+        try (Stream<Contingency> contingencyStream = getContingencyStream(contingenciesProvider)) {
+            Iterator<Contingency> it = contingencyStream.iterator();
+
+            // read the first contingencies to know how many workers are needed
+            int maxWorkerCount = Math.min(MAX_VARIANTS_PER_ANALYSIS, computationManager.getResourcesStatus().getAvailableCores());
+            List<Contingency> firstContingencies = new ArrayList<>(maxWorkerCount);
+            while (firstContingencies.size() < maxWorkerCount && it.hasNext()) {
+                firstContingencies.add(it.next());
+            }
+            if (firstContingencies.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            int workerCount = firstContingencies.size();
+            List<String> variantIds = makeWorkingVariantsNames(workerCount);
+            BlockingQueue<String> queue = new ArrayBlockingQueue<>(workerCount, false, variantIds);
+
+            // one load flow session per worker, so that solver data can be reused from one contingency to the next
+            LoadFlow.Runner loadFlowRunner = LoadFlow.find();
+            Map<String, LoadFlowSession> sessions = variantIds.stream()
+                    .collect(Collectors.toMap(Function.identity(), variantId -> loadFlowRunner.createSession()));
+
+            network.getVariantManager().allowVariantMultiThreadAccess(true);
+            network.getVariantManager().cloneVariant(workingVariantId, variantIds);
+
+            // submission blocks until a variant is available, so only futures of running load flows are kept
+            // and no contingency is submitted anymore once a load flow has failed
+            Set<CompletableFuture<Void>> pendingFutures = ConcurrentHashMap.newKeySet();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Iterator<Contingency> contingencies = Iterators.concat(firstContingencies.iterator(), it);
+            try {
+                while (failure.get() == null && contingencies.hasNext()) {
+                    CompletableFuture<Void> future = submitOneLoadFlow(workingVariantId, contingencies.next(), postContParameters, resultBuilder, queue, sessions, failure);
+                    pendingFutures.add(future);
+                    future.whenComplete((aVoid, throwable) -> {
+                        if (throwable != null) {
+                            failure.compareAndSet(null, throwable);
+                        }
+                        pendingFutures.remove(future);
+                    });
+                }
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+
+            return CompletableFuture
+                    .allOf(pendingFutures.toArray(new CompletableFuture[0]))
+                    .thenCompose(aVoid -> {
+                        CompletableFuture<Void> result = new CompletableFuture<>();
+                        if (failure.get() != null) {
+                            result.completeExceptionally(failure.get());
+                        } else {
+                            result.complete(null);
+                        }
+                        return result;
+                    })
+                    .whenComplete((aVoid, throwable) -> {
+                        variantIds.forEach(network.getVariantManager()::removeVariant);
+                        sessions.values().forEach(LoadFlowSession::close);
+                    });
+        }
     }
 
     private static List<String> makeWorkingVariantsNames(int workerCount) {
@@ -171,13 +234,25 @@ public class SecurityAnalysisImpl extends AbstractSecurityAnalysis {
     }
 
     // Block for an available variant, then submit a loadflow on this variant, then
-    // make the variant available again
+    // make the variant available again. The failure of a loadflow is recorded before
+    // its variant is made available, so that the contingency waiting for it is skipped
     private CompletableFuture<Void> submitOneLoadFlow(String workingVariantId, Contingency contingency, LoadFlowParameters postContParameters,
-                                                      SecurityAnalysisResultBuilder resultBuilder, BlockingQueue<String> queue) {
+                                                      SecurityAnalysisResultBuilder resultBuilder, BlockingQueue<String> queue,
+                                                      Map<String, LoadFlowSession> sessions, AtomicReference<Throwable> failure) {
         return CompletableFuture.completedFuture(null).thenCompose(aaVoid -> {
             String postContVariantId = getVariantId(queue);
-            return runOneLoadFlowAsync(workingVariantId, postContVariantId, postContParameters, resultBuilder, contingency)
-                    .whenComplete((aVoid, throwable) -> queue.add(postContVariantId));
+            if (failure.get() != null) {
+                queue.add(postContVariantId);
+                return CompletableFuture.completedFuture(null);
+            }
+            return runOneLoadFlowAsync(workingVariantId, postContVariantId, postContParameters, resultBuilder, contingency,
+                                       sessions.get(postContVariantId))
+                    .whenComplete((aVoid, throwable) -> {
+                        if (throwable != null) {
+                            failure.compareAndSet(null, throwable);
+                        }
+                        queue.add(postContVariantId);
+                    });
         });
     }
 
@@ -191,35 +266,55 @@ public class SecurityAnalysisImpl extends AbstractSecurityAnalysis {
     }
 
     private CompletableFuture<Void> runOneLoadFlowAsync(String workingVariantId, String postContVariantId, LoadFlowParameters postContParameters,
-                                                        SecurityAnalysisResultBuilder resultBuilder, Contingency contingency) {
+                                                        SecurityAnalysisResultBuilder resultBuilder, Contingency contingency,
+                                                        LoadFlowSession session) {
+        ContingencyMetricsContext metricsContext = new ContingencyMetricsContext(network, workingVariantId);
         return CompletableFuture
                 .runAsync(() -> {
                     LOGGER.debug("Worker {} run loadflow for contingency '{}'.", postContVariantId, contingency.getId());
+                    long startTime = System.nanoTime();
+                    long startAllocatedBytes = ContingencyMetricsContext.getCurrentThreadAllocatedBytes();
                     applyContingency(workingVariantId, postContVariantId, contingency);
+                    metricsContext.setApplyContingencyTime(System.nanoTime() - startTime)
+                            .addAllocatedBytes(getAllocatedBytesSince(startAllocatedBytes));
                 }, computationManager.getExecutor())
-                .thenCompose(aVoid ->
-                    LoadFlow.runAsync(network, postContVariantId, computationManager, postContParameters)
-                )
+                .thenCompose(aVoid -> {
+                    long startTime = System.nanoTime();
+                    return session.run(network, computationManager, postContVariantId, postContParameters)
+                            .thenApply(lfResult -> {
+                                metricsContext.setLoadFlowTime(System.nanoTime() - startTime)
+                                        .setLoadFlowMetrics(lfResult.getMetrics());
+                                return lfResult;
+                            });
+                })
                 .thenApplyAsync(lfResult -> {
-                    setContingencyOkAndCheckViolations(postContVariantId, resultBuilder, contingency, lfResult);
+                    setContingencyOkAndCheckViolations(postContVariantId, resultBuilder, contingency, lfResult, metricsContext);
                     return null;
                 }, computationManager.getExecutor());
     }
 
+    private static long getAllocatedBytesSince(long startAllocatedBytes) {
+        return startAllocatedBytes >= 0 ? ContingencyMetricsContext.getCurrentThreadAllocatedBytes() - startAllocatedBytes : -1;
+    }
+
     private void setContingencyOkAndCheckViolations(String postContVariantId, SecurityAnalysisResultBuilder resultBuilder,
-                                                    Contingency contingency, LoadFlowResult lfResult) {
+                                                    Contingency contingency, LoadFlowResult lfResult, ContingencyMetricsContext metricsContext) {
+        long startTime = System.nanoTime();
+        long startAllocatedBytes = ContingencyMetricsContext.getCurrentThreadAllocatedBytes();
         network.getVariantManager().setWorkingVariant(postContVariantId);
-        SecurityAnalysisResultBuilder.PostContingencyResultBuilder builder = resultBuilder.contingency(contingency).setComputationOk(lfResult.isOk());
+        SecurityAnalysisResultBuilder.PostContingencyResultBuilder builder = resultBuilder.contingency(contingency, metricsContext).setComputationOk(lfResult.isOk());
         if (lfResult.isOk()) {
             violationDetector.checkAll(contingency, network, builder::addViolation);
         }
+        metricsContext.setViolationDetectionTime(System.nanoTime() - startTime)
+                .addAllocatedBytes(getAllocatedBytesSince(startAllocatedBytes));
         builder.endContingency();
     }
 
     private void applyContingency(String workingVariantId, String postContVariantId, Contingency contingency) {
         network.getVariantManager().cloneVariant(workingVariantId, postContVariantId, true);
         network.getVariantManager().setWorkingVariant(postContVariantId);
-        contingency.toTask().modify(network, computationManager);
+        compiledContingencies.apply(contingency, computationManager);
     }
 
 }
@@ -6,6 +6,8 @@
  */
 package com.powsybl.security;
 
+import com.powsybl.security.metrics.SecurityAnalysisMetrics;
+
 import java.util.*;
 
 /**
@@ -32,9 +34,26 @@ public final class SecurityAnalysisResultMerger {
         if (results.length > 1) {
             Arrays.stream(results, 1, results.length).forEach(r -> res.getPostContingencyResults().addAll(r.getPostContingencyResults()));
         }
+        mergeMetrics(res, results);
         return res;
     }
 
+    private static void mergeMetrics(SecurityAnalysisResult res, SecurityAnalysisResult[] results) {
+        SecurityAnalysisMetrics metrics = null;
+        for (SecurityAnalysisResult result : results) {
+            SecurityAnalysisMetrics subMetrics = result.getExtension(SecurityAnalysisMetrics.class);
+            if (subMetrics != null) {
+                if (metrics == null) {
+                    metrics = new SecurityAnalysisMetrics();
+                }
+                metrics.addAll(subMetrics.getContingencyMetrics());
+            }
+        }
+        if (metrics != null) {
+            res.addExtension(SecurityAnalysisMetrics.class, metrics);
+        }
+    }
+
     public static SecurityAnalysisResult merge(Collection<SecurityAnalysisResult> results) {
         Objects.requireNonNull(results);
         return merge(results.toArray(new SecurityAnalysisResult[results.size()]));
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.compact;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.contingency.*;
+import com.powsybl.security.LimitViolationsResult;
+import com.powsybl.security.NetworkMetadata;
+import com.powsybl.security.PostContingencyResult;
+import com.powsybl.security.SecurityAnalysisResult;
+import org.joda.time.DateTime;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads and writes {@link SecurityAnalysisResult} in a compact binary format.
+ *
+ * <p>All the limit violations are written first, in a columnar form (see {@link LimitViolationStore}),
+ * followed by the pre and post contingency results, which refer to ranges of violations.
+ * Results read from this format are backed by a {@link LimitViolationStore}.
+ *
+ * <p>Extensions of the limit violations are written in their JSON form: only the extensions having a
+ * {@link com.powsybl.commons.extensions.ExtensionJsonSerializer} of the {@code security-analysis} category are kept.
+ *
+ * @author agent <agent at local>
+ */
+public final class BinarySecurityAnalysisResultSerializer {
+
+    private static final int MAGIC_NUMBER = 0x50534152; // PSAR
+
+    private static final int VERSION = 1;
+
+    private static final ContingencyElementType[] ELEMENT_TYPES = new ContingencyElementType[ContingencyElementType.values().length];
+
+    static {
+        for (ContingencyElementType type : ContingencyElementType.values()) {
+            ELEMENT_TYPES[getElementTypeCode(type)] = type;
+        }
+    }
+
+    public static void write(SecurityAnalysisResult result, OutputStream os) throws IOException {
+        Objects.requireNonNull(result);
+        Objects.requireNonNull(os);
+
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os));
+        dos.writeInt(MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+
+        NetworkMetadata metadata = result.getNetworkMetadata();
+        dos.writeBoolean(metadata != null);
+        if (metadata != null) {
+            dos.writeUTF(metadata.getId());
+            dos.writeUTF(metadata.getSourceFormat());
+            dos.writeUTF(metadata.getCaseDate().toString());
+            dos.writeInt(metadata.getForecastDistance());
+        }
+
+        LimitViolationStore store = new LimitViolationStore();
+        List<LimitViolationsResult> results = new ArrayList<>(result.getPostContingencyResults().size() + 1);
+        results.add(result.getPreContingencyResult());
+        result.getPostContingencyResults().forEach(r -> results.add(r.getLimitViolationsResult()));
+        int[] ranges = new int[results.size() + 1];
+        for (int i = 0; i < results.size(); i++) {
+            store.addAll(results.get(i).getLimitViolations());
+            ranges[i + 1] = store.size();
+        }
+        store.write(dos);
+
+        writeResult(dos, result.getPreContingencyResult(), ranges[0], ranges[1]);
+        dos.writeInt(result.getPostContingencyResults().size());
+        for (int i = 0; i < result.getPostContingencyResults().size(); i++) {
+            PostContingencyResult postContingencyResult = result.getPostContingencyResults().get(i);
+            writeContingency(dos, postContingencyResult.getContingency());
+            writeResult(dos, postContingencyResult.getLimitViolationsResult(), ranges[i + 1], ranges[i + 2]);
+        }
+        dos.flush();
+    }
+
+    private static void writeResult(DataOutputStream dos, LimitViolationsResult result, int start, int end) throws IOException {
+        dos.writeBoolean(result.isComputationOk());
+        dos.writeInt(result.getActionsTaken().size());
+        for (String action : result.getActionsTaken()) {
+            dos.writeUTF(action);
+        }
+        dos.writeInt(start);
+        dos.writeInt(end);
+    }
+
+    /**
+     * Code of an element type in the format, independent of the declaration order of {@link ContingencyElementType}.
+     */
+    static int getElementTypeCode(ContingencyElementType type) {
+        switch (type) {
+            case GENERATOR:
+                return 0;
+
+            case STATIC_VAR_COMPENSATOR:
+                return 1;
+
+            case SHUNT_COMPENSATOR:
+                return 2;
+
+            case BRANCH:
+                return 3;
+
+            case HVDC_LINE:
+                return 4;
+
+            case BUSBAR_SECTION:
+                return 5;
+
+            default:
+                throw new AssertionError("Unexpected ContingencyElementType value: " + type);
+        }
+    }
+
+    private static void writeContingency(DataOutputStream dos, Contingency contingency) throws IOException {
+        dos.writeUTF(contingency.getId());
+        dos.writeInt(contingency.getElements().size());
+        for (ContingencyElement element : contingency.getElements()) {
+            dos.writeByte(getElementTypeCode(element.getType()));
+            dos.writeUTF(element.getId());
+            String voltageLevelId = element instanceof AbstractSidedContingency ? ((AbstractSidedContingency) element).getVoltageLevelId() : null;
+            dos.writeBoolean(voltageLevelId != null);
+            if (voltageLevelId != null) {
+                dos.writeUTF(voltageLevelId);
+            }
+        }
+    }
+
+    public static void write(SecurityAnalysisResult result, Path file) {
+        Objects.requireNonNull(file);
+        try (OutputStream os = Files.newOutputStream(file)) {
+            write(result, os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SecurityAnalysisResult read(InputStream is) throws IOException {
+        Objects.requireNonNull(is);
+
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+        if (dis.readInt() != MAGIC_NUMBER) {
+            throw new PowsyblException("Not a binary security analysis result");
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new PowsyblException("Unsupported binary security analysis result version: " + version);
+        }
+
+        NetworkMetadata metadata = null;
+        if (dis.readBoolean()) {
+            metadata = new NetworkMetadata(dis.readUTF(), dis.readUTF(), DateTime.parse(dis.readUTF()), dis.readInt());
+        }
+
+        LimitViolationStore store = LimitViolationStore.read(dis);
+
+        LimitViolationsResult preContingencyResult = readResult(dis, store);
+        int postContingencyResultCount = dis.readInt();
+        List<PostContingencyResult> postContingencyResults = new ArrayList<>(postContingencyResultCount);
+        for (int i = 0; i < postContingencyResultCount; i++) {
+            Contingency contingency = readContingency(dis);
+            postContingencyResults.add(new PostContingencyResult(contingency, readResult(dis, store)));
+        }
+
+        return new SecurityAnalysisResult(preContingencyResult, postContingencyResults)
+                .setNetworkMetadata(metadata);
+    }
+
+    private static LimitViolationsResult readResult(DataInputStream dis, LimitViolationStore store) throws IOException {
+        boolean computationOk = dis.readBoolean();
+        int actionCount = dis.readInt();
+        List<String> actions = new ArrayList<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            actions.add(dis.readUTF());
+        }
+        int start = dis.readInt();
+        int end = dis.readInt();
+        return new LimitViolationsResult(computationOk, store.view(start, end), actions);
+    }
+
+    private static Contingency readContingency(DataInputStream dis) throws IOException {
+        String id = dis.readUTF();
+        int elementCount = dis.readInt();
+        List<ContingencyElement> elements = new ArrayList<>(elementCount);
+        for (int i = 0; i < elementCount; i++) {
+            int code = dis.readUnsignedByte();
+            if (code >= ELEMENT_TYPES.length) {
+                throw new PowsyblException("Unexpected contingency element type code: " + code);
+            }
+            ContingencyElementType type = ELEMENT_TYPES[code];
+            String elementId = dis.readUTF();
+            String voltageLevelId = dis.readBoolean() ? dis.readUTF() : null;
+            elements.add(createElement(type, elementId, voltageLevelId));
+        }
+        return new Contingency(id, elements);
+    }
+
+    private static ContingencyElement createElement(ContingencyElementType type, String id, String voltageLevelId) {
+        switch (type) {
+            case BRANCH:
+                return new BranchContingency(id, voltageLevelId);
+
+            case GENERATOR:
+                return new GeneratorContingency(id);
+
+            case STATIC_VAR_COMPENSATOR:
+                return new StaticVarCompensatorContingency(id);
+
+            case SHUNT_COMPENSATOR:
+                return new ShuntCompensatorContingency(id);
+
+            case HVDC_LINE:
+                return new HvdcLineContingency(id, voltageLevelId);
+
+            case BUSBAR_SECTION:
+                return new BusbarSectionContingency(id);
+
+            default:
+                throw new AssertionError("Unexpected ContingencyElementType value: " + type);
+        }
+    }
+
+    public static SecurityAnalysisResult read(Path file) {
+        Objects.requireNonNull(file);
+        try (InputStream is = Files.newInputStream(file)) {
+            return read(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BinarySecurityAnalysisResultSerializer() {
+    }
+}
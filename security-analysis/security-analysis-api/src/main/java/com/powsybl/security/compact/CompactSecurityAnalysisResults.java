@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.compact;
+
+import com.powsybl.security.LimitViolationsResult;
+import com.powsybl.security.PostContingencyResult;
+import com.powsybl.security.SecurityAnalysisResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Utility methods to convert a {@link SecurityAnalysisResult} to a compact form, where all the limit violations
+ * are held by a {@link LimitViolationStore}, and the lists of violations are lazy views over this store.
+ *
+ * @author agent <agent at local>
+ */
+public final class CompactSecurityAnalysisResults {
+
+    /**
+     * Create a compact copy of a security analysis result.
+     * @param result the result to compact
+     * @return a new result whose violations are backed by a {@link LimitViolationStore}
+     */
+    public static SecurityAnalysisResult compact(SecurityAnalysisResult result) {
+        return compact(result, new LimitViolationStore());
+    }
+
+    /**
+     * Create a compact copy of a security analysis result, storing violations in the specified store.
+     * @param result the result to compact
+     * @param store the store where violations will be added
+     * @return a new result whose violations are backed by the store
+     */
+    public static SecurityAnalysisResult compact(SecurityAnalysisResult result, LimitViolationStore store) {
+        Objects.requireNonNull(result);
+        Objects.requireNonNull(store);
+
+        LimitViolationsResult preContingencyResult = compact(result.getPreContingencyResult(), store);
+        List<PostContingencyResult> postContingencyResults = new ArrayList<>(result.getPostContingencyResults().size());
+        for (PostContingencyResult postContingencyResult : result.getPostContingencyResults()) {
+            postContingencyResults.add(new PostContingencyResult(postContingencyResult.getContingency(),
+                    compact(postContingencyResult.getLimitViolationsResult(), store)));
+        }
+        return new SecurityAnalysisResult(preContingencyResult, postContingencyResults)
+                .setNetworkMetadata(result.getNetworkMetadata());
+    }
+
+    private static LimitViolationsResult compact(LimitViolationsResult result, LimitViolationStore store) {
+        return new LimitViolationsResult(result.isComputationOk(), store.addAll(result.getLimitViolations()), result.getActionsTaken());
+    }
+
+    private CompactSecurityAnalysisResults() {
+    }
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.compact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.security.LimitViolation;
+import com.powsybl.security.LimitViolationType;
+import com.powsybl.security.json.SecurityAnalysisJsonModule;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * A columnar storage of {@link LimitViolation limit violations}: each attribute is stored in a primitive array,
+ * and strings (subject IDs and names, limit names) are dictionary encoded.
+ * {@link LimitViolation} objects are only created on demand, when accessed through {@link #get(int)}
+ * or through the lists returned by {@link #view(int, int)}.
+ *
+ * <p>Extensions of the violations added to the store are kept in their JSON form, in a sparse map, so that each
+ * {@link LimitViolation} created by the store gets its own copy of them. Only the extensions having a
+ * {@link com.powsybl.commons.extensions.ExtensionJsonSerializer} of the {@code security-analysis} category are kept,
+ * the other ones are lost. Changes made to the {@link LimitViolation} objects created by the store, including added
+ * extensions, are not written back to the store.
+ *
+ * @author agent <agent at local>
+ */
+public class LimitViolationStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final LimitViolationType[] LIMIT_TYPES = LimitViolationType.values();
+
+    private static final Branch.Side[] SIDES = Branch.Side.values();
+
+    private static final int NULL_INDEX = -1;
+
+    private static final ObjectMapper MAPPER = JsonUtil.createObjectMapper().registerModule(new SecurityAnalysisJsonModule());
+
+    private final List<String> strings = new ArrayList<>();
+
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+    private int size = 0;
+
+    private int[] subjectIds;
+
+    private int[] subjectNames;
+
+    private byte[] limitTypes;
+
+    private int[] limitNames;
+
+    private int[] acceptableDurations;
+
+    private double[] limits;
+
+    private float[] limitReductions;
+
+    private double[] values;
+
+    private byte[] sides;
+
+    private final Map<Integer, byte[]> extensions = new HashMap<>();
+
+    public LimitViolationStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LimitViolationStore(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    private void allocate(int capacity) {
+        subjectIds = new int[capacity];
+        subjectNames = new int[capacity];
+        limitTypes = new byte[capacity];
+        limitNames = new int[capacity];
+        acceptableDurations = new int[capacity];
+        limits = new double[capacity];
+        limitReductions = new float[capacity];
+        values = new double[capacity];
+        sides = new byte[capacity];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > subjectIds.length) {
+            int newCapacity = Math.max(capacity, subjectIds.length * 2);
+            subjectIds = Arrays.copyOf(subjectIds, newCapacity);
+            subjectNames = Arrays.copyOf(subjectNames, newCapacity);
+            limitTypes = Arrays.copyOf(limitTypes, newCapacity);
+            limitNames = Arrays.copyOf(limitNames, newCapacity);
+            acceptableDurations = Arrays.copyOf(acceptableDurations, newCapacity);
+            limits = Arrays.copyOf(limits, newCapacity);
+            limitReductions = Arrays.copyOf(limitReductions, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+            sides = Arrays.copyOf(sides, newCapacity);
+        }
+    }
+
+    private int encode(String str) {
+        if (str == null) {
+            return NULL_INDEX;
+        }
+        return stringIndexes.computeIfAbsent(str, s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+
+    private String decode(int index) {
+        return index == NULL_INDEX ? null : strings.get(index);
+    }
+
+    /**
+     * Add a violation to the store.
+     *
+     * @param violation the violation to add
+     * @return the index of the violation in the store
+     */
+    public synchronized int add(LimitViolation violation) {
+        Objects.requireNonNull(violation);
+        ensureCapacity(size + 1);
+        int index = size;
+        subjectIds[index] = encode(violation.getSubjectId());
+        subjectNames[index] = encode(violation.getSubjectName());
+        limitTypes[index] = (byte) violation.getLimitType().ordinal();
+        limitNames[index] = encode(violation.getLimitName());
+        acceptableDurations[index] = violation.getAcceptableDuration();
+        limits[index] = violation.getLimit();
+        limitReductions[index] = violation.getLimitReduction();
+        values[index] = violation.getValue();
+        sides[index] = violation.getSide() != null ? (byte) violation.getSide().ordinal() : NULL_INDEX;
+        if (!violation.getExtensions().isEmpty()) {
+            try {
+                extensions.put(index, MAPPER.writeValueAsBytes(violation));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        size++;
+        return index;
+    }
+
+    /**
+     * Add violations to the store.
+     *
+     * @param violations the violations to add
+     * @return a lazy view of the added violations
+     */
+    public synchronized List<LimitViolation> addAll(Collection<LimitViolation> violations) {
+        Objects.requireNonNull(violations);
+        ensureCapacity(size + violations.size());
+        int start = size;
+        violations.forEach(this::add);
+        return view(start, size);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    public synchronized String getSubjectId(int index) {
+        checkIndex(index);
+        return decode(subjectIds[index]);
+    }
+
+    public synchronized LimitViolationType getLimitType(int index) {
+        checkIndex(index);
+        return LIMIT_TYPES[limitTypes[index]];
+    }
+
+    public synchronized double getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Create a {@link LimitViolation} object from the data of the store.
+     *
+     * @param index the index of the violation in the store
+     * @return a new {@link LimitViolation} instance
+     */
+    public synchronized LimitViolation get(int index) {
+        checkIndex(index);
+        byte[] json = extensions.get(index);
+        if (json != null) {
+            // the violation is read back from its JSON form, to get new instances of its extensions
+            try {
+                return MAPPER.readValue(json, LimitViolation.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new LimitViolation(decode(subjectIds[index]), decode(subjectNames[index]), LIMIT_TYPES[limitTypes[index]],
+                decode(limitNames[index]), acceptableDurations[index], limits[index], limitReductions[index], values[index],
+                sides[index] != NULL_INDEX ? SIDES[sides[index]] : null);
+    }
+
+    /**
+     * Get a lazy view of a range of violations of this store.
+     *
+     * <p>A violation is created on the first access to its position, then kept by the list: the list always returns
+     * the same instance for a given position, and the changes made to this instance, like added extensions, are
+     * visible through the list. Elements can be replaced, so the list can be sorted in place, but its size is fixed.
+     *
+     * @param start the index of the first violation, inclusive
+     * @param end the index of the last violation, exclusive
+     * @return a list of violations backed by this store
+     */
+    public synchronized List<LimitViolation> view(int start, int end) {
+        if (start < 0 || end > size || start > end) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + "[, Size: " + size);
+        }
+        return new ViolationList(start, end - start);
+    }
+
+    private final class ViolationList extends AbstractList<LimitViolation> implements RandomAccess {
+
+        private final int start;
+
+        private final LimitViolation[] violations;
+
+        private ViolationList(int start, int size) {
+            this.start = start;
+            this.violations = new LimitViolation[size];
+        }
+
+        private void checkListIndex(int index) {
+            if (index < 0 || index >= violations.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + violations.length);
+            }
+        }
+
+        @Override
+        public synchronized LimitViolation get(int index) {
+            checkListIndex(index);
+            if (violations[index] == null) {
+                violations[index] = LimitViolationStore.this.get(start + index);
+            }
+            return violations[index];
+        }
+
+        @Override
+        public synchronized LimitViolation set(int index, LimitViolation violation) {
+            checkListIndex(index);
+            Objects.requireNonNull(violation);
+            // once replaced, a position is not related to the store anymore, so all the violations are created first
+            for (int i = 0; i < violations.length; i++) {
+                get(i);
+            }
+            LimitViolation previous = violations[index];
+            violations[index] = violation;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return violations.length;
+        }
+    }
+
+    /**
+     * Write the store in binary form. Extensions are written in their JSON form.
+     */
+    synchronized void write(DataOutputStream dos) throws IOException {
+        dos.writeInt(strings.size());
+        for (String str : strings) {
+            dos.writeUTF(str);
+        }
+        dos.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            dos.writeInt(subjectIds[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            dos.writeInt(subjectNames[i]);
+        }
+        dos.write(limitTypes, 0, size);
+        for (int i = 0; i < size; i++) {
+            dos.writeInt(limitNames[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            dos.writeInt(acceptableDurations[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            dos.writeDouble(limits[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            dos.writeFloat(limitReductions[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            dos.writeDouble(values[i]);
+        }
+        dos.write(sides, 0, size);
+        dos.writeInt(extensions.size());
+        for (Map.Entry<Integer, byte[]> e : new TreeMap<>(extensions).entrySet()) {
+            dos.writeInt(e.getKey());
+            dos.writeInt(e.getValue().length);
+            dos.write(e.getValue());
+        }
+    }
+
+    static LimitViolationStore read(DataInputStream dis) throws IOException {
+        int stringCount = dis.readInt();
+        List<String> dictionary = new ArrayList<>(stringCount);
+        for (int i = 0; i < stringCount; i++) {
+            dictionary.add(dis.readUTF());
+        }
+        int size = dis.readInt();
+        LimitViolationStore store = new LimitViolationStore(size);
+        for (String str : dictionary) {
+            store.encode(str);
+        }
+        store.size = size;
+        for (int i = 0; i < size; i++) {
+            store.subjectIds[i] = dis.readInt();
+        }
+        for (int i = 0; i < size; i++) {
+            store.subjectNames[i] = dis.readInt();
+        }
+        dis.readFully(store.limitTypes, 0, size);
+        for (int i = 0; i < size; i++) {
+            store.limitNames[i] = dis.readInt();
+        }
+        for (int i = 0; i < size; i++) {
+            store.acceptableDurations[i] = dis.readInt();
+        }
+        for (int i = 0; i < size; i++) {
+            store.limits[i] = dis.readDouble();
+        }
+        for (int i = 0; i < size; i++) {
+            store.limitReductions[i] = dis.readFloat();
+        }
+        for (int i = 0; i < size; i++) {
+            store.values[i] = dis.readDouble();
+        }
+        dis.readFully(store.sides, 0, size);
+        int extensionCount = dis.readInt();
+        for (int i = 0; i < extensionCount; i++) {
+            int index = dis.readInt();
+            byte[] json = new byte[dis.readInt()];
+            dis.readFully(json);
+            store.extensions.put(index, json);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ *
+ * <p>Compact, columnar, in-memory and binary representations of security analysis results,
+ * for studies producing a large number of limit violations.
+ *
+ * @author agent <agent at local>
+ */
+package com.powsybl.security.compact;
@@ -32,6 +32,7 @@ public class CompareSecurityAnalysisResultsTool implements Tool {
     private static final String RESULT2_FILE_OPTION = "result2-file";
     private static final String OUTPUT_FILE_OPTION = "output-file";
     private static final String THRESHOLD_OPTION = "threshold";
+    private static final String PARALLEL_OPTION = "parallel";
 
     private static final double THRESHOLD_DEFAULT = 0d;
 
@@ -80,6 +81,9 @@ public class CompareSecurityAnalysisResultsTool implements Tool {
                         .hasArg()
                         .argName("THRESHOLD")
                         .build());
+                options.addOption(Option.builder().longOpt(PARALLEL_OPTION)
+                        .desc("stream result files and compare contingencies in parallel, for large results sorted by contingency ID")
+                        .build());
                 return options;
             }
 
@@ -98,10 +102,17 @@ public class CompareSecurityAnalysisResultsTool implements Tool {
         Path outputFile = context.getFileSystem().getPath(line.getOptionValue(OUTPUT_FILE_OPTION));
         double threshold = line.hasOption(THRESHOLD_OPTION) ? Double.parseDouble(line.getOptionValue(THRESHOLD_OPTION)) : THRESHOLD_DEFAULT;
         try (Writer outputWriter = Files.newBufferedWriter(outputFile)) {
-            SecurityAnalysisResult result1 = SecurityAnalysisResultDeserializer.read(results1File);
-            SecurityAnalysisResult result2 = SecurityAnalysisResultDeserializer.read(results2File);
-            SecurityAnalysisResultEquivalence resultEquivalence = new SecurityAnalysisResultEquivalence(threshold, outputWriter);
-            context.getOutputStream().println("Comparison result: " + (resultEquivalence.equivalent(result1, result2) ? "success" : "fail"));
+            boolean equivalent;
+            if (line.hasOption(PARALLEL_OPTION)) {
+                IndexedSecurityAnalysisResultComparator comparator = new IndexedSecurityAnalysisResultComparator(threshold);
+                equivalent = comparator.compare(results1File, results2File, outputWriter);
+            } else {
+                SecurityAnalysisResult result1 = SecurityAnalysisResultDeserializer.read(results1File);
+                SecurityAnalysisResult result2 = SecurityAnalysisResultDeserializer.read(results2File);
+                SecurityAnalysisResultEquivalence resultEquivalence = new SecurityAnalysisResultEquivalence(threshold, outputWriter);
+                equivalent = resultEquivalence.equivalent(result1, result2);
+            }
+            context.getOutputStream().println("Comparison result: " + (equivalent ? "success" : "fail"));
         }
     }
 
@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.comparator;
+
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.security.*;
+import com.powsybl.security.json.SecurityAnalysisResultStreamReader;
+
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Compares two security analysis results, producing the same output as {@link SecurityAnalysisResultEquivalence}.
+ *
+ * <p>Post-contingency results of both inputs are merged by contingency ID, and violations of a contingency are
+ * matched through a hash index keyed by subject ID, limit type and side. Matched contingencies are compared
+ * in parallel, and the comparison rows are written in contingency ID order as soon as they are available.
+ *
+ * <p>Inputs can be streamed with {@link SecurityAnalysisResultStreamReader}. In this case, the post-contingency
+ * results of each input must be sorted by contingency ID, and the pre-contingency result must precede them:
+ * only a bounded number of contingency comparisons is then kept in memory, whatever the size of the results.
+ * A {@link PowsyblException} is thrown if a streamed input is not sorted. Results already in memory are sorted
+ * before being compared.
+ *
+ * @author agent <agent at local>
+ */
+public class IndexedSecurityAnalysisResultComparator {
+
+    private static final class ViolationKey {
+
+        private final String subjectId;
+
+        private final LimitViolationType limitType;
+
+        private final Branch.Side side;
+
+        private ViolationKey(LimitViolation violation) {
+            this.subjectId = violation.getSubjectId();
+            this.limitType = violation.getLimitType();
+            this.side = limitType == LimitViolationType.CURRENT ? violation.getSide() : null;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subjectId, limitType, side);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof ViolationKey) {
+                ViolationKey other = (ViolationKey) obj;
+                return subjectId.equals(other.subjectId) && limitType == other.limitType && side == other.side;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Comparison rows of a contingency, to be replayed on the comparison writer.
+     */
+    private static final class Rows {
+
+        private final List<Consumer<SecurityAnalysisResultComparisonWriter>> rows = new ArrayList<>();
+
+        private boolean equivalent = true;
+
+        private void add(Consumer<SecurityAnalysisResultComparisonWriter> row) {
+            rows.add(row);
+        }
+    }
+
+    /**
+     * Post-contingency results of an input, checked to be sorted by contingency ID.
+     */
+    private static final class SortedResults {
+
+        private final Callable<PostContingencyResult> results;
+
+        private final int num;
+
+        private String lastContingencyId;
+
+        private SortedResults(Callable<PostContingencyResult> results, int num) {
+            this.results = results;
+            this.num = num;
+        }
+
+        private PostContingencyResult next() {
+            PostContingencyResult result = call(results);
+            if (result != null) {
+                String contingencyId = result.getContingency().getId();
+                if (lastContingencyId != null && lastContingencyId.compareTo(contingencyId) >= 0) {
+                    throw new PowsyblException("Post-contingency results of result " + num + " are not sorted by contingency ID: '"
+                            + lastContingencyId + "' is followed by '" + contingencyId + "'");
+                }
+                lastContingencyId = contingencyId;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Maximum number of contingency comparisons waiting to be written.
+     */
+    private static final int MAX_PENDING_CONTINGENCIES = 256;
+
+    private final double threshold;
+
+    private final Executor executor;
+
+    public IndexedSecurityAnalysisResultComparator(double threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    public IndexedSecurityAnalysisResultComparator(double threshold, Executor executor) {
+        this.threshold = threshold;
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Compare two JSON security analysis result files, streaming both of them.
+     */
+    public boolean compare(Path result1File, Path result2File, Writer writer) {
+        Objects.requireNonNull(result1File);
+        Objects.requireNonNull(result2File);
+        try (SecurityAnalysisResultStreamReader reader1 = SecurityAnalysisResultStreamReader.open(result1File);
+             SecurityAnalysisResultStreamReader reader2 = SecurityAnalysisResultStreamReader.open(result2File)) {
+            return compare(reader1, reader2, writer);
+        }
+    }
+
+    public boolean compare(SecurityAnalysisResult result1, SecurityAnalysisResult result2, Writer writer) {
+        Objects.requireNonNull(result1);
+        Objects.requireNonNull(result2);
+        Iterator<PostContingencyResult> it1 = sortByContingencyId(result1.getPostContingencyResults()).iterator();
+        Iterator<PostContingencyResult> it2 = sortByContingencyId(result2.getPostContingencyResults()).iterator();
+        return compare(() -> it1.hasNext() ? it1.next() : null, () -> it2.hasNext() ? it2.next() : null,
+            result1.getPreContingencyResult(), result2.getPreContingencyResult(), writer);
+    }
+
+    public boolean compare(SecurityAnalysisResultStreamReader reader1, SecurityAnalysisResultStreamReader reader2, Writer writer) {
+        Objects.requireNonNull(reader1);
+        Objects.requireNonNull(reader2);
+        return compare(reader1::next, reader2::next, getPreContingencyResult(reader1, 1), getPreContingencyResult(reader2, 2), writer);
+    }
+
+    private static List<PostContingencyResult> sortByContingencyId(List<PostContingencyResult> results) {
+        List<PostContingencyResult> sortedResults = new ArrayList<>(results);
+        sortedResults.sort(Comparator.comparing(r -> r.getContingency().getId()));
+        return sortedResults;
+    }
+
+    private static LimitViolationsResult getPreContingencyResult(SecurityAnalysisResultStreamReader reader, int num) {
+        LimitViolationsResult preContingencyResult = reader.getPreContingencyResult();
+        if (preContingencyResult == null) {
+            throw new PowsyblException("Pre-contingency result of result " + num + " must precede the post-contingency results");
+        }
+        return preContingencyResult;
+    }
+
+    private boolean compare(Callable<PostContingencyResult> results1, Callable<PostContingencyResult> results2,
+                            LimitViolationsResult preContingencyResult1, LimitViolationsResult preContingencyResult2,
+                            Writer writer) {
+        Objects.requireNonNull(writer);
+
+        SecurityAnalysisResultComparisonWriter comparisonWriter = new SecurityAnalysisResultComparisonWriter(writer);
+        Rows preContingencyRows = compare(preContingencyResult1, preContingencyResult2);
+        preContingencyRows.rows.forEach(row -> row.accept(comparisonWriter));
+        boolean equivalent = preContingencyRows.equivalent;
+
+        // both inputs are sorted by contingency ID, so they are merged, and the rows of the oldest
+        // contingency are written as soon as too many comparisons are pending
+        Deque<Map.Entry<String, CompletableFuture<Rows>>> pending = new ArrayDeque<>();
+        SortedResults sortedResults1 = new SortedResults(results1, 1);
+        SortedResults sortedResults2 = new SortedResults(results2, 2);
+        PostContingencyResult result1 = sortedResults1.next();
+        PostContingencyResult result2 = sortedResults2.next();
+        while (result1 != null || result2 != null) {
+            int c;
+            if (result1 == null) {
+                c = 1;
+            } else if (result2 == null) {
+                c = -1;
+            } else {
+                c = result1.getContingency().getId().compareTo(result2.getContingency().getId());
+            }
+            if (c == 0) {
+                LimitViolationsResult violationsResult1 = result1.getLimitViolationsResult();
+                LimitViolationsResult violationsResult2 = result2.getLimitViolationsResult();
+                pending.add(new AbstractMap.SimpleImmutableEntry<>(result1.getContingency().getId(),
+                        CompletableFuture.supplyAsync(() -> compare(violationsResult1, violationsResult2), executor)));
+                result1 = sortedResults1.next();
+                result2 = sortedResults2.next();
+            } else if (c < 0) {
+                // contingency only in result 1
+                pending.add(new AbstractMap.SimpleImmutableEntry<>(result1.getContingency().getId(),
+                        CompletableFuture.completedFuture(onlySmallViolations(result1, false))));
+                result1 = sortedResults1.next();
+            } else {
+                // contingency only in result 2
+                pending.add(new AbstractMap.SimpleImmutableEntry<>(result2.getContingency().getId(),
+                        CompletableFuture.completedFuture(onlySmallViolations(result2, true))));
+                result2 = sortedResults2.next();
+            }
+            if (pending.size() >= MAX_PENDING_CONTINGENCIES) {
+                equivalent &= writeRows(pending.poll(), comparisonWriter);
+            }
+        }
+        while (!pending.isEmpty()) {
+            equivalent &= writeRows(pending.poll(), comparisonWriter);
+        }
+        return equivalent;
+    }
+
+    private static boolean writeRows(Map.Entry<String, CompletableFuture<Rows>> contingencyRows, SecurityAnalysisResultComparisonWriter comparisonWriter) {
+        Rows rows = contingencyRows.getValue().join();
+        comparisonWriter.setContingency(contingencyRows.getKey());
+        rows.rows.forEach(row -> row.accept(comparisonWriter));
+        return rows.equivalent;
+    }
+
+    private static <T> T call(Callable<T> callable) {
+        try {
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private Rows compare(LimitViolationsResult result1, LimitViolationsResult result2) {
+        Rows rows = new Rows();
+
+        // compare computation
+        boolean computationEquivalent = result1.isComputationOk() == result2.isComputationOk();
+        rows.add(w -> w.write(result1.isComputationOk(), result2.isComputationOk(), computationEquivalent));
+        rows.equivalent = computationEquivalent;
+
+        // compare violations: violations of result 2 are indexed, then the union is written sorted
+        Map<ViolationKey, Deque<LimitViolation>> index2 = new HashMap<>();
+        for (LimitViolation violation2 : result2.getLimitViolations()) {
+            index2.computeIfAbsent(new ViolationKey(violation2), k -> new ArrayDeque<>()).add(violation2);
+        }
+        List<LimitViolation[]> pairs = new ArrayList<>();
+        for (LimitViolation violation1 : result1.getLimitViolations()) {
+            Deque<LimitViolation> violations2 = index2.get(new ViolationKey(violation1));
+            pairs.add(new LimitViolation[] {violation1, violations2 != null ? violations2.poll() : null});
+        }
+        index2.values().forEach(violations2 -> violations2.forEach(violation2 -> pairs.add(new LimitViolation[] {null, violation2})));
+
+        LimitViolationComparator violationComparator = new LimitViolationComparator();
+        LimitViolationEquivalence violationEquivalence = new LimitViolationEquivalence(threshold);
+        pairs.sort((p1, p2) -> violationComparator.compare(p1[0] != null ? p1[0] : p1[1], p2[0] != null ? p2[0] : p2[1]));
+        for (LimitViolation[] pair : pairs) {
+            boolean violationEquivalent;
+            if (pair[0] != null && pair[1] != null) {
+                violationEquivalent = violationEquivalence.equivalent(pair[0], pair[1]);
+            } else {
+                violationEquivalent = isSmallViolation(pair[0] != null ? pair[0] : pair[1]);
+            }
+            rows.add(w -> w.write(pair[0], pair[1], violationEquivalent));
+            rows.equivalent &= violationEquivalent;
+        }
+
+        // compare actions
+        List<String> actions1 = new ArrayList<>(result1.getActionsTaken());
+        List<String> actions2 = new ArrayList<>(result2.getActionsTaken());
+        Collections.sort(actions1);
+        Collections.sort(actions2);
+        boolean actionsEquivalent = actions1.equals(actions2);
+        rows.add(w -> w.write(actions1, actions2, actionsEquivalent));
+        rows.equivalent &= actionsEquivalent;
+
+        return rows;
+    }
+
+    private Rows onlySmallViolations(PostContingencyResult postContingencyResult, boolean missingResult1) {
+        Rows rows = new Rows();
+        LimitViolationsResult result = postContingencyResult.getLimitViolationsResult();
+        List<LimitViolation> violations = new ArrayList<>(result.getLimitViolations());
+        violations.sort(new LimitViolationComparator());
+        boolean equivalent = !violations.isEmpty();
+        for (LimitViolation violation : violations) {
+            boolean smallViolation = isSmallViolation(violation);
+            rows.add(w -> w.write(missingResult1 ? null : violation, missingResult1 ? violation : null, smallViolation));
+            equivalent &= smallViolation;
+        }
+        boolean finalEquivalent = equivalent;
+        rows.add(w -> w.write(missingResult1 ? null : result.isComputationOk(), missingResult1 ? result.isComputationOk() : null, finalEquivalent));
+        rows.add(w -> w.write(missingResult1 ? null : result.getActionsTaken(), missingResult1 ? result.getActionsTaken() : null, finalEquivalent));
+        rows.equivalent = equivalent;
+        return rows;
+    }
+
+    private boolean isSmallViolation(LimitViolation violation) {
+        return Math.abs(violation.getValue() - (violation.getLimit() * violation.getLimitReduction())) <= threshold;
+    }
+}
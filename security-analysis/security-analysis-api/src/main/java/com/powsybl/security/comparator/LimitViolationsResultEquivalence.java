@@ -7,6 +7,7 @@
 package com.powsybl.security.comparator;
 
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -44,8 +45,8 @@ public class LimitViolationsResultEquivalence extends Equivalence<LimitViolation
 
         // I still carry on the comparison even if equivalent is already false because I need to print the violations
         // compare violations
-        List<LimitViolation> violations1 = result1.getLimitViolations();
-        List<LimitViolation> violations2 = result2.getLimitViolations();
+        List<LimitViolation> violations1 = new ArrayList<>(result1.getLimitViolations());
+        List<LimitViolation> violations2 = new ArrayList<>(result2.getLimitViolations());
         Collections.sort(violations1, violationComparator);
         Collections.sort(violations2, violationComparator);
         int index1 = 0;
@@ -80,8 +81,8 @@ public class LimitViolationsResultEquivalence extends Equivalence<LimitViolation
         }
 
         // compare actions
-        List<String> actions1 = result1.getActionsTaken();
-        List<String> actions2 = result2.getActionsTaken();
+        List<String> actions1 = new ArrayList<>(result1.getActionsTaken());
+        List<String> actions2 = new ArrayList<>(result2.getActionsTaken());
         Collections.sort(actions1);
         Collections.sort(actions2);
         boolean actionsEquivalent = actions1.equals(actions2);
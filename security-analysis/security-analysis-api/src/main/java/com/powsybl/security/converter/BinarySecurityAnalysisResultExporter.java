@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.converter;
+
+import com.google.auto.service.AutoService;
+import com.powsybl.security.SecurityAnalysisResult;
+import com.powsybl.security.compact.BinarySecurityAnalysisResultSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A SecurityAnalysisResultBinaryExporter implementation which export the result in a compact binary format.
+ * Extensions of the limit violations are exported in their JSON form, if they have a JSON serializer.
+ *
+ * @author agent <agent at local>
+ */
+@AutoService(SecurityAnalysisResultBinaryExporter.class)
+public class BinarySecurityAnalysisResultExporter implements SecurityAnalysisResultBinaryExporter {
+
+    @Override
+    public String getFormat() {
+        return "BIN";
+    }
+
+    @Override
+    public String getComment() {
+        return "Export a security analysis result in a compact binary format";
+    }
+
+    @Override
+    public void export(SecurityAnalysisResult result, OutputStream os) {
+        try {
+            BinarySecurityAnalysisResultSerializer.write(result, os);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
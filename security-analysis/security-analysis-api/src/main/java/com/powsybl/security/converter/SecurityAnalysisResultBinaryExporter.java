@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.converter;
+
+import com.powsybl.security.SecurityAnalysisResult;
+
+import java.io.OutputStream;
+
+/**
+ * An exporter of security analysis results to a binary format, which can only be written to an output stream.
+ * Text formats are provided by {@link SecurityAnalysisResultExporter}.
+ *
+ * @author agent <agent at local>
+ */
+public interface SecurityAnalysisResultBinaryExporter {
+
+    /**
+     * Get the format of this exporter
+     *
+     * @return the format name of this exporter
+     */
+    String getFormat();
+
+    /**
+     * Get a brief description of this exporter
+     *
+     * @return a brief description of this exporter
+     */
+    String getComment();
+
+    /**
+     * Export a result of a security analysis
+     *
+     * @param result The result of the security analysis
+     * @param os     The output stream used for the export, not closed by this method
+     */
+    void export(SecurityAnalysisResult result, OutputStream os);
+}
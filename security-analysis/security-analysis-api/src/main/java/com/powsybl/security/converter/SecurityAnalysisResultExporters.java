@@ -10,6 +10,7 @@ import com.powsybl.commons.PowsyblException;
 import com.powsybl.security.SecurityAnalysisResult;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.file.Files;
@@ -36,6 +37,9 @@ public final class SecurityAnalysisResultExporters {
         for (SecurityAnalysisResultExporter e : ServiceLoader.load(SecurityAnalysisResultExporter.class)) {
             formats.add(e.getFormat());
         }
+        for (SecurityAnalysisResultBinaryExporter e : ServiceLoader.load(SecurityAnalysisResultBinaryExporter.class)) {
+            formats.add(e.getFormat());
+        }
         return formats;
     }
 
@@ -56,19 +60,48 @@ public final class SecurityAnalysisResultExporters {
         return null;
     }
 
+    /**
+     * Get the binary exporter for the specified format
+     *
+     * @param format The export format
+     *
+     * @return The binary exporter for the specified format or null if this format is not a supported binary format
+     */
+    public static SecurityAnalysisResultBinaryExporter getBinaryExporter(String format) {
+        Objects.requireNonNull(format);
+        for (SecurityAnalysisResultBinaryExporter e : ServiceLoader.load(SecurityAnalysisResultBinaryExporter.class)) {
+            if (format.equals(e.getFormat())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
     public static void export(SecurityAnalysisResult result, Path path, String format) {
         Objects.requireNonNull(path);
 
-        try (Writer writer = Files.newBufferedWriter(path)) {
-            export(result, writer, format);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        SecurityAnalysisResultBinaryExporter binaryExporter = getBinaryExporter(format);
+        if (binaryExporter != null) {
+            try (OutputStream os = Files.newOutputStream(path)) {
+                binaryExporter.export(result, os);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                export(result, writer, format);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
     public static void export(SecurityAnalysisResult result, Writer writer, String format) {
         SecurityAnalysisResultExporter exporter = getExporter(format);
         if (exporter == null) {
+            if (getBinaryExporter(format) != null) {
+                throw new PowsyblException("Binary format " + format + " cannot be exported to a character stream");
+            }
             throw new PowsyblException("Unsupported format: " + format + " [" + getFormats() + "]");
         }
 
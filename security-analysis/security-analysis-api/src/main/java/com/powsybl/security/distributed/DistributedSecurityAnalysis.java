@@ -8,7 +8,6 @@ package com.powsybl.security.distributed;
 
 import com.powsybl.computation.*;
 import com.powsybl.contingency.ContingenciesProvider;
-import com.powsybl.contingency.Contingency;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.security.SecurityAnalysisParameters;
 import com.powsybl.security.SecurityAnalysisResult;
@@ -49,8 +48,7 @@ public class DistributedSecurityAnalysis extends ExternalSecurityAnalysis {
 
         SecurityAnalysisExecutionInput input = buildInput(workingVariantId, parameters, contingenciesProvider);
 
-        List<Contingency> contingencies = contingenciesProvider.getContingencies(network);
-        int actualTaskCount = Math.min(taskCount, Math.max(1, contingencies.size()));
+        int actualTaskCount = Math.min(taskCount, Math.max(1, contingenciesProvider.getContingencyCount(network)));
         return computationManager.execute(itoolsEnv,
                 SecurityAnalysisExecutionHandlers.distributed(input, actualTaskCount));
     }
@@ -63,8 +61,7 @@ public class DistributedSecurityAnalysis extends ExternalSecurityAnalysis {
 
         SecurityAnalysisExecutionInput input = buildInput(workingVariantId, parameters, contingenciesProvider);
 
-        List<Contingency> contingencies = contingenciesProvider.getContingencies(network);
-        int actualTaskCount = Math.min(taskCount, Math.max(1, contingencies.size()));
+        int actualTaskCount = Math.min(taskCount, Math.max(1, contingenciesProvider.getContingencyCount(network)));
         return computationManager.execute(itoolsEnv,
                 SecurityAnalysisExecutionHandlers.distributedWithLog(input, actualTaskCount));
     }
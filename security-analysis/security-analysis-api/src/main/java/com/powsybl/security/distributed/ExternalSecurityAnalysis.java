@@ -6,7 +6,6 @@
  */
 package com.powsybl.security.distributed;
 
-import com.google.common.io.ByteSource;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.computation.ExecutionEnvironment;
 import com.powsybl.contingency.ContingenciesProvider;
@@ -19,7 +18,6 @@ import com.powsybl.security.interceptors.SecurityAnalysisInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -91,7 +89,7 @@ public class ExternalSecurityAnalysis implements SecurityAnalysis {
         return new SecurityAnalysisExecutionInput()
                 .setNetworkVariant(network, workingStateId)
                 .setParameters(parameters)
-                .setContingenciesSource(ByteSource.wrap(contingenciesProvider.asScript().getBytes(StandardCharsets.UTF_8)))
+                .setContingenciesSource(contingenciesProvider.asByteSource())
                 .addResultExtensions(extensions);
     }
 }
@@ -8,6 +8,7 @@ package com.powsybl.security.distributed;
 
 import com.google.common.io.ByteSource;
 import com.powsybl.computation.*;
+import com.powsybl.contingency.binary.BinaryContingencyListReader;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.xml.NetworkXml;
 import com.powsybl.security.SecurityAnalysisParameters;
@@ -45,6 +46,7 @@ public class SecurityAnalysisExecutionHandler<R> extends AbstractExecutionHandle
 
     private static final String NETWORK_FILE = "network.xiidm";
     private static final String CONTINGENCIES_FILE = "contingencies.groovy";
+    private static final String BINARY_CONTINGENCIES_FILE = "contingencies.bin";
     private static final String PARAMETERS_FILE = "parameters.json";
 
     private final ResultReader<R> reader;
@@ -165,8 +167,8 @@ public class SecurityAnalysisExecutionHandler<R> extends AbstractExecutionHandle
         return workingDir.resolve(PARAMETERS_FILE);
     }
 
-    private static Path getContingenciesPath(Path workingDir) {
-        return workingDir.resolve(CONTINGENCIES_FILE);
+    private static Path getContingenciesPath(Path workingDir, ByteSource source) {
+        return workingDir.resolve(BinaryContingencyListReader.isBinaryContingencyList(source) ? BINARY_CONTINGENCIES_FILE : CONTINGENCIES_FILE);
     }
 
     /**
@@ -181,9 +183,10 @@ public class SecurityAnalysisExecutionHandler<R> extends AbstractExecutionHandle
 
     /**
      * Add contingencies file option, and write it to working directory.
+     * Binary contingency lists are written to a {@literal .bin} file, other contingencies to a {@literal .groovy} file.
      */
     private static void addContingenciesFile(SecurityAnalysisCommandOptions options, Path workingDir, ByteSource source) {
-        Path dest = getContingenciesPath(workingDir);
+        Path dest = getContingenciesPath(workingDir, source);
         options.contingenciesFile(dest);
         LOGGER.debug("Writing contingencies to file {}", dest);
         copySourceToPath(source, dest);
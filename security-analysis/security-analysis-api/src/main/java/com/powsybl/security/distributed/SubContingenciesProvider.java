@@ -11,9 +11,10 @@ import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.contingency.Contingency;
 import com.powsybl.iidm.network.Network;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A contingencies provider which provides a subset of another provider,
@@ -37,11 +38,23 @@ public class SubContingenciesProvider implements ContingenciesProvider {
 
     @Override
     public List<Contingency> getContingencies(Network network) {
-        List<Contingency> fullList = delegate.getContingencies(network);
-        int fullSize = fullList.size();
-        int start = partition.startIndex(fullSize);
-        int end = partition.endIndex(fullSize);
-        return new ArrayList<>(fullList.subList(start, end));
+        try (Stream<Contingency> contingencies = getContingencyStream(network)) {
+            return contingencies.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Contingencies of the partition, generated by the delegate provider only when the stream is consumed.
+     */
+    @Override
+    public Stream<Contingency> getContingencyStream(Network network) {
+        return delegate.getContingencyStream(network, partition);
+    }
+
+    @Override
+    public int getContingencyCount(Network network) {
+        int fullSize = delegate.getContingencyCount(network);
+        return partition.endIndex(fullSize) - partition.startIndex(fullSize);
     }
 
 }
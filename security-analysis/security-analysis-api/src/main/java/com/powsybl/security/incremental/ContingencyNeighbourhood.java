@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.incremental;
+
+import com.powsybl.contingency.Contingency;
+import com.powsybl.contingency.ContingencyElement;
+import com.powsybl.iidm.network.*;
+
+import java.util.*;
+
+/**
+ * Computes the electrical neighbourhood of a {@link Contingency}, defined as the set of voltage levels
+ * which are at most {@code depth} branches away from the voltage levels of the contingency elements.
+ *
+ * @author agent <agent at local>
+ */
+public final class ContingencyNeighbourhood {
+
+    /**
+     * Get the IDs of the voltage levels in the neighbourhood of a contingency.
+     *
+     * @param contingency the contingency
+     * @param network the network
+     * @param depth the maximum number of branches between a contingency element and a voltage level of the neighbourhood
+     * @return the IDs of the voltage levels, or an empty optional if one of the elements cannot be located in the network
+     */
+    public static Optional<Set<String>> getVoltageLevelIds(Contingency contingency, Network network, int depth) {
+        Objects.requireNonNull(contingency);
+        Objects.requireNonNull(network);
+        if (depth < 0) {
+            throw new IllegalArgumentException("Invalid neighbourhood depth: " + depth);
+        }
+
+        Set<VoltageLevel> visited = new HashSet<>();
+        for (ContingencyElement element : contingency.getElements()) {
+            Optional<Set<VoltageLevel>> voltageLevels = getVoltageLevels(element.getId(), network);
+            if (!voltageLevels.isPresent()) {
+                return Optional.empty();
+            }
+            visited.addAll(voltageLevels.get());
+        }
+
+        Set<VoltageLevel> frontier = new HashSet<>(visited);
+        for (int i = 0; i < depth && !frontier.isEmpty(); i++) {
+            Set<VoltageLevel> next = new HashSet<>();
+            for (VoltageLevel voltageLevel : frontier) {
+                voltageLevel.getConnectableStream()
+                        .flatMap(c -> ((Connectable<?>) c).getTerminals().stream())
+                        .map(Terminal::getVoltageLevel)
+                        .filter(visited::add)
+                        .forEach(next::add);
+            }
+            frontier = next;
+        }
+
+        Set<String> ids = new HashSet<>();
+        visited.forEach(vl -> ids.add(vl.getId()));
+        return Optional.of(ids);
+    }
+
+    /**
+     * Get the IDs of the voltage levels an equipment belongs to.
+     *
+     * @param id the ID of the equipment
+     * @param network the network
+     * @return the IDs of the voltage levels, or an empty optional if the equipment cannot be located in the network
+     */
+    public static Optional<Set<String>> getVoltageLevelIds(String id, Network network) {
+        return getVoltageLevels(id, network).map(voltageLevels -> {
+            Set<String> ids = new HashSet<>();
+            voltageLevels.forEach(vl -> ids.add(vl.getId()));
+            return ids;
+        });
+    }
+
+    private static Optional<Set<VoltageLevel>> getVoltageLevels(String id, Network network) {
+        Objects.requireNonNull(id);
+        Identifiable<?> identifiable = network.getIdentifiable(id);
+        Set<VoltageLevel> voltageLevels = new HashSet<>();
+        if (identifiable instanceof Connectable) {
+            ((Connectable<?>) identifiable).getTerminals().forEach(t -> voltageLevels.add(t.getVoltageLevel()));
+        } else if (identifiable instanceof Switch) {
+            voltageLevels.add(((Switch) identifiable).getVoltageLevel());
+        } else if (identifiable instanceof Bus) {
+            voltageLevels.add(((Bus) identifiable).getVoltageLevel());
+        } else if (identifiable instanceof VoltageLevel) {
+            voltageLevels.add((VoltageLevel) identifiable);
+        } else if (identifiable instanceof Substation) {
+            ((Substation) identifiable).getVoltageLevelStream().forEach(voltageLevels::add);
+        } else if (identifiable instanceof HvdcLine) {
+            HvdcLine hvdcLine = (HvdcLine) identifiable;
+            voltageLevels.add(hvdcLine.getConverterStation1().getTerminal().getVoltageLevel());
+            voltageLevels.add(hvdcLine.getConverterStation2().getTerminal().getVoltageLevel());
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(voltageLevels);
+    }
+
+    private ContingencyNeighbourhood() {
+    }
+}
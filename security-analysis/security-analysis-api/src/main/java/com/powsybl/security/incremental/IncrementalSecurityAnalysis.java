@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.incremental;
+
+import com.powsybl.contingency.ContingenciesProvider;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.security.PostContingencyResult;
+import com.powsybl.security.SecurityAnalysis;
+import com.powsybl.security.SecurityAnalysisParameters;
+import com.powsybl.security.SecurityAnalysisResult;
+import com.powsybl.security.interceptors.SecurityAnalysisInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link SecurityAnalysis} which keeps the result of its previous run, and on the next run only recomputes
+ * the contingencies whose electrical neighbourhood contains an equipment modified in between.
+ * Modifications are tracked through a {@link NetworkChangeRecorder} listening to the network, including the
+ * modifications done while an analysis runs, which are taken into account by the next run. Only the updates of the
+ * analysed variant are recorded, not the ones done by the delegate on its own variants. The other post-contingency
+ * results are carried over from the previous run, if their contingency has not changed.
+ *
+ * <p>The pre-contingency situation is always recomputed. All contingencies are recomputed on the first run,
+ * when the working variant changes, or when a modified equipment cannot be located in the network
+ * (for instance after a removal). Reused and recomputed contingencies are reported through an
+ * {@link IncrementalSecurityAnalysisExtension} on the result.
+ *
+ * <p>Note that this class is not thread safe: runs are expected to be done one after the other.
+ *
+ * @author agent <agent at local>
+ */
+public class IncrementalSecurityAnalysis implements SecurityAnalysis {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalSecurityAnalysis.class);
+
+    public static final int DEFAULT_NEIGHBOURHOOD_DEPTH = 1;
+
+    private final Network network;
+
+    private final SecurityAnalysis delegate;
+
+    private final int neighbourhoodDepth;
+
+    private final NetworkChangeRecorder recorder = new NetworkChangeRecorder();
+
+    private String previousWorkingVariantId;
+
+    private Map<String, PostContingencyResult> previousResults;
+
+    private final Map<String, Set<String>> neighbourhoods = new HashMap<>();
+
+    public IncrementalSecurityAnalysis(Network network, SecurityAnalysis delegate) {
+        this(network, delegate, DEFAULT_NEIGHBOURHOOD_DEPTH);
+    }
+
+    public IncrementalSecurityAnalysis(Network network, SecurityAnalysis delegate, int neighbourhoodDepth) {
+        this.network = Objects.requireNonNull(network);
+        this.delegate = Objects.requireNonNull(delegate);
+        if (neighbourhoodDepth < 0) {
+            throw new IllegalArgumentException("Invalid neighbourhood depth: " + neighbourhoodDepth);
+        }
+        this.neighbourhoodDepth = neighbourhoodDepth;
+        network.addListener(recorder);
+    }
+
+    @Override
+    public void addInterceptor(SecurityAnalysisInterceptor interceptor) {
+        delegate.addInterceptor(interceptor);
+    }
+
+    @Override
+    public boolean removeInterceptor(SecurityAnalysisInterceptor interceptor) {
+        return delegate.removeInterceptor(interceptor);
+    }
+
+    /**
+     * Forget the previous result: the next run will recompute all the contingencies.
+     */
+    public void reset() {
+        previousWorkingVariantId = null;
+        previousResults = null;
+        neighbourhoods.clear();
+    }
+
+    /**
+     * Stop listening to the network modifications and forget the previous result.
+     */
+    public void close() {
+        network.removeListener(recorder);
+        reset();
+    }
+
+    @Override
+    public CompletableFuture<SecurityAnalysisResult> run(String workingVariantId, SecurityAnalysisParameters parameters,
+                                                         ContingenciesProvider contingenciesProvider) {
+        Objects.requireNonNull(workingVariantId);
+        Objects.requireNonNull(parameters);
+        Objects.requireNonNull(contingenciesProvider);
+
+        List<Contingency> contingencies = contingenciesProvider.getContingencies(network);
+        // modifications done during the run are recorded for the next one
+        Set<String> changedIds = recorder.getAndClearChangedIds();
+        recorder.setVariantId(workingVariantId);
+        Optional<Set<String>> changedVoltageLevelIds = getChangedVoltageLevelIds(workingVariantId, changedIds);
+
+        List<Contingency> toRecompute = new ArrayList<>();
+        for (Contingency contingency : contingencies) {
+            if (!changedVoltageLevelIds.isPresent() || !isUnchanged(contingency)
+                    || isImpacted(contingency, changedVoltageLevelIds.get())) {
+                toRecompute.add(contingency);
+            }
+        }
+
+        return delegate.run(workingVariantId, parameters, n -> toRecompute)
+                .thenApply(result -> merge(workingVariantId, contingencies, toRecompute, result))
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        // the modifications taken into account by this run are lost
+                        reset();
+                    }
+                });
+    }
+
+    /**
+     * Check that the contingency has a previous result, computed with the same elements.
+     */
+    private boolean isUnchanged(Contingency contingency) {
+        PostContingencyResult previousResult = previousResults.get(contingency.getId());
+        return previousResult != null && previousResult.getContingency().equals(contingency);
+    }
+
+    private Optional<Set<String>> getChangedVoltageLevelIds(String workingVariantId, Set<String> changedIds) {
+        if (previousResults == null || !workingVariantId.equals(previousWorkingVariantId)) {
+            return Optional.empty();
+        }
+
+        Set<String> changedVoltageLevelIds = new HashSet<>();
+        for (String id : changedIds) {
+            Optional<Set<String>> voltageLevelIds = ContingencyNeighbourhood.getVoltageLevelIds(id, network);
+            if (!voltageLevelIds.isPresent()) {
+                LOGGER.info("Modified equipment '{}' cannot be located, all contingencies will be recomputed", id);
+                return Optional.empty();
+            }
+            changedVoltageLevelIds.addAll(voltageLevelIds.get());
+        }
+        return Optional.of(changedVoltageLevelIds);
+    }
+
+    private boolean isImpacted(Contingency contingency, Set<String> changedVoltageLevelIds) {
+        if (changedVoltageLevelIds.isEmpty()) {
+            return false;
+        }
+        Set<String> neighbourhood = neighbourhoods.get(contingency.getId());
+        return neighbourhood == null || !Collections.disjoint(neighbourhood, changedVoltageLevelIds);
+    }
+
+    private SecurityAnalysisResult merge(String workingVariantId, List<Contingency> contingencies, List<Contingency> recomputed,
+                                         SecurityAnalysisResult result) {
+        if (!result.getPreContingencyResult().isComputationOk()) {
+            reset();
+            return result;
+        }
+
+        Map<String, PostContingencyResult> newResults = new HashMap<>();
+        result.getPostContingencyResults().forEach(r -> newResults.put(r.getContingency().getId(), r));
+
+        for (Contingency contingency : recomputed) {
+            Optional<Set<String>> neighbourhood = ContingencyNeighbourhood.getVoltageLevelIds(contingency, network, neighbourhoodDepth);
+            if (neighbourhood.isPresent()) {
+                neighbourhoods.put(contingency.getId(), neighbourhood.get());
+            } else {
+                neighbourhoods.remove(contingency.getId());
+            }
+        }
+
+        List<PostContingencyResult> postContingencyResults = new ArrayList<>(contingencies.size());
+        List<String> reusedIds = new ArrayList<>();
+        List<String> recomputedIds = new ArrayList<>();
+        Map<String, PostContingencyResult> mergedResults = new HashMap<>();
+        Set<String> recomputedSet = new HashSet<>();
+        recomputed.forEach(c -> recomputedSet.add(c.getId()));
+        for (Contingency contingency : contingencies) {
+            PostContingencyResult postContingencyResult;
+            if (recomputedSet.contains(contingency.getId())) {
+                postContingencyResult = newResults.get(contingency.getId());
+                if (postContingencyResult == null) {
+                    // no result provided by the delegate for this contingency
+                    continue;
+                }
+                recomputedIds.add(contingency.getId());
+            } else {
+                PostContingencyResult previousResult = previousResults.get(contingency.getId());
+                postContingencyResult = new PostContingencyResult(contingency, previousResult.getLimitViolationsResult());
+                reusedIds.add(contingency.getId());
+            }
+            postContingencyResults.add(postContingencyResult);
+            mergedResults.put(contingency.getId(), postContingencyResult);
+        }
+        LOGGER.info("Incremental security analysis: {} contingencies recomputed, {} reused", recomputedIds.size(), reusedIds.size());
+
+        previousWorkingVariantId = workingVariantId;
+        previousResults = mergedResults;
+        neighbourhoods.keySet().retainAll(mergedResults.keySet());
+
+        SecurityAnalysisResult mergedResult = new SecurityAnalysisResult(result.getPreContingencyResult(), postContingencyResults)
+                .setNetworkMetadata(result.getNetworkMetadata());
+        mergedResult.addExtension(IncrementalSecurityAnalysisExtension.class, new IncrementalSecurityAnalysisExtension(reusedIds, recomputedIds));
+        return mergedResult;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.incremental;
+
+import com.powsybl.commons.extensions.AbstractExtension;
+import com.powsybl.security.SecurityAnalysisResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reports which post-contingency results of a {@link SecurityAnalysisResult} have been
+ * carried over from a previous run and which ones have been recomputed.
+ *
+ * @author agent <agent at local>
+ */
+public class IncrementalSecurityAnalysisExtension extends AbstractExtension<SecurityAnalysisResult> {
+
+    private final List<String> reusedContingencyIds;
+
+    private final List<String> recomputedContingencyIds;
+
+    public IncrementalSecurityAnalysisExtension(List<String> reusedContingencyIds, List<String> recomputedContingencyIds) {
+        this.reusedContingencyIds = Collections.unmodifiableList(Objects.requireNonNull(reusedContingencyIds));
+        this.recomputedContingencyIds = Collections.unmodifiableList(Objects.requireNonNull(recomputedContingencyIds));
+    }
+
+    @Override
+    public String getName() {
+        return "IncrementalSecurityAnalysis";
+    }
+
+    public List<String> getReusedContingencyIds() {
+        return reusedContingencyIds;
+    }
+
+    public List<String> getRecomputedContingencyIds() {
+        return recomputedContingencyIds;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.incremental;
+
+import com.powsybl.iidm.network.Identifiable;
+import com.powsybl.iidm.network.NetworkListener;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link NetworkListener} which records the IDs of the equipments created, removed or updated
+ * since the last call to {@link #clear()}.
+ *
+ * <p>Updates of state variables (flows, voltages, angles and component numbers), which are typically
+ * written by a load flow, are not considered as modifications of the network. Updates of variant dependent
+ * attributes can be restricted to a single variant, so that modifications of the other variants, for instance
+ * by a computation working on its own variants, are not recorded.
+ *
+ * @author agent <agent at local>
+ */
+public class NetworkChangeRecorder implements NetworkListener {
+
+    private static final Pattern STATE_VARIABLE_PATTERN = Pattern.compile("[pq][123]?|v|angle|connectedComponentNumber|synchronousComponentNumber");
+
+    private final AtomicReference<Set<String>> changedIds = new AtomicReference<>(ConcurrentHashMap.newKeySet());
+
+    private volatile String variantId;
+
+    @Override
+    public void onCreation(Identifiable identifiable) {
+        record(identifiable);
+    }
+
+    @Override
+    public void onRemoval(Identifiable identifiable) {
+        record(identifiable);
+    }
+
+    @Override
+    public void onUpdate(Identifiable identifiable, String attribute, Object oldValue, Object newValue) {
+        if (!isStateVariable(attribute) && !Objects.equals(oldValue, newValue)) {
+            record(identifiable);
+        }
+    }
+
+    @Override
+    public void onUpdate(Identifiable identifiable, String attribute, String variantId, Object oldValue, Object newValue) {
+        String recordedVariantId = this.variantId;
+        if ((recordedVariantId == null || recordedVariantId.equals(variantId)) && !isStateVariable(attribute) && !Objects.equals(oldValue, newValue)) {
+            record(identifiable);
+        }
+    }
+
+    @Override
+    public void onElementAdded(Identifiable identifiable, String attribute, Object newValue) {
+        record(identifiable);
+    }
+
+    @Override
+    public void onElementReplaced(Identifiable identifiable, String attribute, Object oldValue, Object newValue) {
+        record(identifiable);
+    }
+
+    @Override
+    public void onElementRemoved(Identifiable identifiable, String attribute, Object oldValue) {
+        record(identifiable);
+    }
+
+    private static boolean isStateVariable(String attribute) {
+        return attribute != null && STATE_VARIABLE_PATTERN.matcher(attribute).matches();
+    }
+
+    private void record(Identifiable identifiable) {
+        changedIds.get().add(identifiable.getId());
+    }
+
+    /**
+     * Get the IDs of the equipments modified since the last call to {@link #clear()}.
+     * @return a snapshot of the modified equipment IDs
+     */
+    public Set<String> getChangedIds() {
+        return Collections.unmodifiableSet(new HashSet<>(changedIds.get()));
+    }
+
+    /**
+     * Get the IDs of the equipments modified since the last call to {@link #clear()}, and start recording the next
+     * modifications from scratch.
+     * @return the modified equipment IDs
+     */
+    public Set<String> getAndClearChangedIds() {
+        return Collections.unmodifiableSet(changedIds.getAndSet(ConcurrentHashMap.newKeySet()));
+    }
+
+    public void clear() {
+        changedIds.set(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Only record the updates of variant dependent attributes done on a variant.
+     * @param variantId the recorded variant, or null to record the updates of all the variants
+     */
+    public void setVariantId(String variantId) {
+        this.variantId = variantId;
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ *
+ * <p>Classes used to re-run a security analysis on a slightly modified network,
+ * recomputing only the contingencies impacted by the modifications.
+ *
+ * @author agent <agent at local>
+ */
+package com.powsybl.security.incremental;
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.google.auto.service.AutoService;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.extensions.ExtensionJsonSerializer;
+import com.powsybl.security.SecurityAnalysisResult;
+import com.powsybl.security.metrics.ContingencyMetrics;
+import com.powsybl.security.metrics.SecurityAnalysisMetrics;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author agent <agent at local>
+ */
+@AutoService(ExtensionJsonSerializer.class)
+public class SecurityAnalysisMetricsSerializer implements ExtensionJsonSerializer<SecurityAnalysisResult, SecurityAnalysisMetrics> {
+
+    @Override
+    public String getExtensionName() {
+        return SecurityAnalysisMetrics.NAME;
+    }
+
+    @Override
+    public String getCategoryName() {
+        return "security-analysis";
+    }
+
+    @Override
+    public Class<? super SecurityAnalysisMetrics> getExtensionClass() {
+        return SecurityAnalysisMetrics.class;
+    }
+
+    @Override
+    public void serialize(SecurityAnalysisMetrics extension, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+        write(extension, jsonGenerator);
+    }
+
+    public static void write(SecurityAnalysisMetrics metrics, JsonGenerator jsonGenerator) throws IOException {
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeArrayFieldStart("contingencies");
+        for (ContingencyMetrics contingencyMetrics : metrics.getContingencyMetrics()) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("id", contingencyMetrics.getContingencyId());
+            jsonGenerator.writeNumberField("applyContingencyTime", contingencyMetrics.getApplyContingencyTime());
+            jsonGenerator.writeNumberField("loadFlowTime", contingencyMetrics.getLoadFlowTime());
+            jsonGenerator.writeObjectFieldStart("loadFlowMetrics");
+            for (Map.Entry<String, String> e : contingencyMetrics.getLoadFlowMetrics().entrySet()) {
+                jsonGenerator.writeStringField(e.getKey(), e.getValue());
+            }
+            jsonGenerator.writeEndObject();
+            jsonGenerator.writeNumberField("violationDetectionTime", contingencyMetrics.getViolationDetectionTime());
+            jsonGenerator.writeNumberField("allocatedBytes", contingencyMetrics.getAllocatedBytes());
+            jsonGenerator.writeEndObject();
+        }
+        jsonGenerator.writeEndArray();
+        jsonGenerator.writeEndObject();
+    }
+
+    @Override
+    public SecurityAnalysisMetrics deserialize(JsonParser parser, DeserializationContext deserializationContext) throws IOException {
+        SecurityAnalysisMetrics metrics = new SecurityAnalysisMetrics();
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            if (parser.getCurrentName().equals("contingencies")) {
+                parser.nextToken();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    metrics.add(readContingencyMetrics(parser));
+                }
+            } else {
+                throw new PowsyblException("Unexpected field: " + parser.getCurrentName());
+            }
+        }
+        return metrics;
+    }
+
+    private static ContingencyMetrics readContingencyMetrics(JsonParser parser) throws IOException {
+        String id = null;
+        long applyContingencyTime = -1;
+        long loadFlowTime = -1;
+        Map<String, String> loadFlowMetrics = new HashMap<>();
+        long violationDetectionTime = -1;
+        long allocatedBytes = -1;
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            switch (parser.getCurrentName()) {
+                case "id":
+                    id = parser.nextTextValue();
+                    break;
+                case "applyContingencyTime":
+                    parser.nextToken();
+                    applyContingencyTime = parser.getLongValue();
+                    break;
+                case "loadFlowTime":
+                    parser.nextToken();
+                    loadFlowTime = parser.getLongValue();
+                    break;
+                case "loadFlowMetrics":
+                    parser.nextToken();
+                    while (parser.nextToken() != JsonToken.END_OBJECT) {
+                        String name = parser.getCurrentName();
+                        loadFlowMetrics.put(name, parser.nextTextValue());
+                    }
+                    break;
+                case "violationDetectionTime":
+                    parser.nextToken();
+                    violationDetectionTime = parser.getLongValue();
+                    break;
+                case "allocatedBytes":
+                    parser.nextToken();
+                    allocatedBytes = parser.getLongValue();
+                    break;
+                default:
+                    throw new PowsyblException("Unexpected field: " + parser.getCurrentName());
+            }
+        }
+        if (id == null) {
+            throw new PowsyblException("Contingency metrics without id");
+        }
+        return new ContingencyMetrics(id, applyContingencyTime, loadFlowTime, loadFlowMetrics, violationDetectionTime, allocatedBytes);
+    }
+}
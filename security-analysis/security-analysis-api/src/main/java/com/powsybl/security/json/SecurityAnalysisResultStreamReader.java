@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.security.LimitViolationsResult;
+import com.powsybl.security.NetworkMetadata;
+import com.powsybl.security.PostContingencyResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Reads a JSON security analysis result one post-contingency result at a time, so that
+ * results which do not fit in memory can still be processed.
+ *
+ * <p>Extensions of the security analysis result are skipped.
+ *
+ * @author agent <agent at local>
+ */
+public class SecurityAnalysisResultStreamReader implements AutoCloseable {
+
+    private final JsonParser parser;
+
+    private NetworkMetadata networkMetadata;
+
+    private LimitViolationsResult preContingencyResult;
+
+    private boolean inPostContingencyResults = false;
+
+    private boolean ended = false;
+
+    public SecurityAnalysisResultStreamReader(InputStream is) {
+        Objects.requireNonNull(is);
+        ObjectMapper objectMapper = JsonUtil.createObjectMapper()
+                .registerModule(new SecurityAnalysisJsonModule());
+        try {
+            parser = objectMapper.getFactory().createParser(is);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new PowsyblException("Security analysis result JSON object expected");
+            }
+            readFields();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static SecurityAnalysisResultStreamReader open(Path jsonFile) {
+        Objects.requireNonNull(jsonFile);
+        try {
+            return new SecurityAnalysisResultStreamReader(Files.newInputStream(jsonFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the fields until the beginning of the post-contingency results or the end of the object.
+     */
+    private void readFields() throws IOException {
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            switch (parser.getCurrentName()) {
+                case "version":
+                    parser.nextToken(); // skip
+                    break;
+
+                case "network":
+                    parser.nextToken();
+                    networkMetadata = parser.readValueAs(NetworkMetadata.class);
+                    break;
+
+                case "preContingencyResult":
+                    parser.nextToken();
+                    preContingencyResult = parser.readValueAs(LimitViolationsResult.class);
+                    break;
+
+                case "postContingencyResults":
+                    parser.nextToken();
+                    inPostContingencyResults = true;
+                    return;
+
+                case "extensions":
+                    parser.nextToken();
+                    parser.skipChildren();
+                    break;
+
+                default:
+                    throw new PowsyblException("Unexpected field: " + parser.getCurrentName());
+            }
+        }
+        ended = true;
+    }
+
+    /**
+     * Read the next post-contingency result.
+     * @return the next post-contingency result, or null if all of them have been read
+     */
+    public PostContingencyResult next() {
+        try {
+            while (!ended) {
+                if (inPostContingencyResults) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        return parser.readValueAs(PostContingencyResult.class);
+                    }
+                    inPostContingencyResults = false;
+                }
+                readFields();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public NetworkMetadata getNetworkMetadata() {
+        return networkMetadata;
+    }
+
+    /**
+     * Get the pre-contingency result. Note that depending on the position of the pre-contingency result in the file,
+     * it may only be available once all post-contingency results have been read.
+     * @return the pre-contingency result, or null if not yet read
+     */
+    public LimitViolationsResult getPreContingencyResult() {
+        return preContingencyResult;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.metrics;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * Timing and resource metrics of the computation of one contingency.
+ * Durations are in nanoseconds, and undefined values are set to -1.
+ *
+ * @author agent <agent at local>
+ */
+public class ContingencyMetrics {
+
+    private final String contingencyId;
+
+    private final long applyContingencyTime;
+
+    private final long loadFlowTime;
+
+    private final Map<String, String> loadFlowMetrics;
+
+    private final long violationDetectionTime;
+
+    private final long allocatedBytes;
+
+    public ContingencyMetrics(String contingencyId, long applyContingencyTime, long loadFlowTime, Map<String, String> loadFlowMetrics,
+                              long violationDetectionTime, long allocatedBytes) {
+        this.contingencyId = Objects.requireNonNull(contingencyId);
+        this.applyContingencyTime = applyContingencyTime;
+        this.loadFlowTime = loadFlowTime;
+        this.loadFlowMetrics = ImmutableMap.copyOf(Objects.requireNonNull(loadFlowMetrics));
+        this.violationDetectionTime = violationDetectionTime;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getContingencyId() {
+        return contingencyId;
+    }
+
+    public long getApplyContingencyTime() {
+        return applyContingencyTime;
+    }
+
+    public long getLoadFlowTime() {
+        return loadFlowTime;
+    }
+
+    /**
+     * Get the metrics of the post-contingency load flow, as provided by {@link com.powsybl.loadflow.LoadFlowResult#getMetrics()}.
+     */
+    public Map<String, String> getLoadFlowMetrics() {
+        return loadFlowMetrics;
+    }
+
+    /**
+     * Get the iteration count of the post-contingency load flow. As metric names depend on the load flow implementation,
+     * the first integer metric whose name contains "iteration" (ignoring case) is used.
+     */
+    public OptionalInt getLoadFlowIterationCount() {
+        for (Map.Entry<String, String> e : loadFlowMetrics.entrySet()) {
+            if (e.getKey().toLowerCase().contains("iteration")) {
+                try {
+                    return OptionalInt.of(Integer.parseInt(e.getValue().trim()));
+                } catch (NumberFormatException ignored) {
+                    // not an iteration count
+                }
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    public long getViolationDetectionTime() {
+        return violationDetectionTime;
+    }
+
+    /**
+     * Get the number of bytes allocated while applying the contingency and while detecting the violations, each step
+     * being measured on the thread running it. Allocations of the load flow are not accounted, as it may run in
+     * another thread or process.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
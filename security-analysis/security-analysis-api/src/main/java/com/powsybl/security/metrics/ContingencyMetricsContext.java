@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.metrics;
+
+import com.powsybl.iidm.network.Network;
+import com.powsybl.security.interceptors.RunningContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A {@link RunningContext} used for the computation of one contingency, which records the time spent
+ * in each step of the computation. It is provided to the interceptors on post-contingency result.
+ *
+ * @author agent <agent at local>
+ */
+public class ContingencyMetricsContext extends RunningContext {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private volatile long applyContingencyTime = -1;
+
+    private volatile long loadFlowTime = -1;
+
+    private volatile Map<String, String> loadFlowMetrics = Collections.emptyMap();
+
+    private volatile long violationDetectionTime = -1;
+
+    private volatile long allocatedBytes = -1;
+
+    public ContingencyMetricsContext(Network network, String initialStateId) {
+        super(network, initialStateId);
+    }
+
+    /**
+     * Get the number of bytes allocated so far by the current thread.
+     * @return the number of bytes, or -1 if not supported by the JVM
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public ContingencyMetricsContext setApplyContingencyTime(long applyContingencyTime) {
+        this.applyContingencyTime = applyContingencyTime;
+        return this;
+    }
+
+    public ContingencyMetricsContext setLoadFlowTime(long loadFlowTime) {
+        this.loadFlowTime = loadFlowTime;
+        return this;
+    }
+
+    public ContingencyMetricsContext setLoadFlowMetrics(Map<String, String> loadFlowMetrics) {
+        this.loadFlowMetrics = loadFlowMetrics != null ? loadFlowMetrics : Collections.emptyMap();
+        return this;
+    }
+
+    public ContingencyMetricsContext setViolationDetectionTime(long violationDetectionTime) {
+        this.violationDetectionTime = violationDetectionTime;
+        return this;
+    }
+
+    /**
+     * Account bytes allocated by a step of the computation.
+     * @param bytes the number of bytes, ignored if negative
+     */
+    public synchronized ContingencyMetricsContext addAllocatedBytes(long bytes) {
+        if (bytes >= 0) {
+            allocatedBytes = Math.max(allocatedBytes, 0) + bytes;
+        }
+        return this;
+    }
+
+    public ContingencyMetrics toMetrics(String contingencyId) {
+        return new ContingencyMetrics(contingencyId, applyContingencyTime, loadFlowTime, loadFlowMetrics, violationDetectionTime, allocatedBytes);
+    }
+}
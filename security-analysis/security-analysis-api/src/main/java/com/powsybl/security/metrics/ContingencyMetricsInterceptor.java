@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.metrics;
+
+import com.powsybl.security.PostContingencyResult;
+import com.powsybl.security.SecurityAnalysisResult;
+import com.powsybl.security.interceptors.DefaultSecurityAnalysisInterceptor;
+import com.powsybl.security.interceptors.SecurityAnalysisResultContext;
+
+/**
+ * Collects the {@link ContingencyMetrics} of each contingency, when provided by the security analysis implementation
+ * through a {@link ContingencyMetricsContext}, and attaches them to the result as a {@link SecurityAnalysisMetrics} extension.
+ *
+ * @author agent <agent at local>
+ */
+public class ContingencyMetricsInterceptor extends DefaultSecurityAnalysisInterceptor {
+
+    private final SecurityAnalysisMetrics metrics = new SecurityAnalysisMetrics();
+
+    @Override
+    public void onPostContingencyResult(PostContingencyResult postContingencyResult, SecurityAnalysisResultContext context) {
+        if (context instanceof ContingencyMetricsContext) {
+            metrics.add(((ContingencyMetricsContext) context).toMetrics(postContingencyResult.getContingency().getId()));
+        }
+    }
+
+    @Override
+    public void onSecurityAnalysisResult(SecurityAnalysisResult result, SecurityAnalysisResultContext context) {
+        result.addExtension(SecurityAnalysisMetrics.class, metrics);
+    }
+
+    public SecurityAnalysisMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.metrics;
+
+import com.google.auto.service.AutoService;
+import com.powsybl.security.interceptors.SecurityAnalysisInterceptor;
+import com.powsybl.security.interceptors.SecurityAnalysisInterceptorExtension;
+
+/**
+ * @author agent <agent at local>
+ */
+@AutoService(SecurityAnalysisInterceptorExtension.class)
+public class ContingencyMetricsInterceptorExtension implements SecurityAnalysisInterceptorExtension {
+
+    public static final String NAME = "contingency-metrics";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public SecurityAnalysisInterceptor createInterceptor() {
+        return new ContingencyMetricsInterceptor();
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.metrics;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.powsybl.commons.extensions.AbstractExtension;
+import com.powsybl.commons.io.table.*;
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.security.SecurityAnalysisResult;
+import com.powsybl.security.json.SecurityAnalysisMetricsSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-contingency metrics of a security analysis run, attached as an extension to the {@link SecurityAnalysisResult}.
+ * Metrics can be exported in CSV or JSON, and summarized as percentiles.
+ *
+ * @author agent <agent at local>
+ */
+public class SecurityAnalysisMetrics extends AbstractExtension<SecurityAnalysisResult> {
+
+    public static final String NAME = "ContingencyMetrics";
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final List<ContingencyMetrics> contingencyMetrics = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public synchronized SecurityAnalysisMetrics add(ContingencyMetrics metrics) {
+        contingencyMetrics.add(Objects.requireNonNull(metrics));
+        return this;
+    }
+
+    public synchronized SecurityAnalysisMetrics addAll(Collection<ContingencyMetrics> metrics) {
+        metrics.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Get the metrics of all contingencies, sorted by contingency ID.
+     */
+    public synchronized List<ContingencyMetrics> getContingencyMetrics() {
+        List<ContingencyMetrics> sorted = new ArrayList<>(contingencyMetrics);
+        sorted.sort(Comparator.comparing(ContingencyMetrics::getContingencyId));
+        return sorted;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos < 0 ? Double.NaN : nanos / NANOS_PER_MILLI;
+    }
+
+    public void write(Writer writer, TableFormatterFactory formatterFactory, TableFormatterConfig formatterConfig) {
+        Objects.requireNonNull(writer);
+        try (TableFormatter formatter = formatterFactory.create(writer, "Contingency metrics", formatterConfig,
+                new Column("Contingency"),
+                new Column("ApplyContingencyTime (ms)"),
+                new Column("LoadFlowTime (ms)"),
+                new Column("LoadFlowIterations"),
+                new Column("ViolationDetectionTime (ms)"),
+                new Column("AllocatedBytes"))) {
+            for (ContingencyMetrics metrics : getContingencyMetrics()) {
+                formatter.writeCell(metrics.getContingencyId())
+                        .writeCell(toMillis(metrics.getApplyContingencyTime()))
+                        .writeCell(toMillis(metrics.getLoadFlowTime()));
+                OptionalInt iterationCount = metrics.getLoadFlowIterationCount();
+                if (iterationCount.isPresent()) {
+                    formatter.writeCell(iterationCount.getAsInt());
+                } else {
+                    formatter.writeEmptyCell();
+                }
+                formatter.writeCell(toMillis(metrics.getViolationDetectionTime()));
+                if (metrics.getAllocatedBytes() >= 0) {
+                    formatter.writeCell(Long.toString(metrics.getAllocatedBytes()));
+                } else {
+                    formatter.writeEmptyCell();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeCsv(Writer writer) {
+        write(writer, new CsvTableFormatterFactory(), new TableFormatterConfig());
+    }
+
+    public void writeJson(Writer writer) {
+        Objects.requireNonNull(writer);
+        try (JsonGenerator generator = JsonUtil.createObjectMapper().getFactory().createGenerator(writer)) {
+            generator.useDefaultPrettyPrinter();
+            SecurityAnalysisMetricsSerializer.write(this, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compute a percentile, using the nearest-rank method, of a metric over all contingencies.
+     * Undefined values are ignored.
+     *
+     * @param metric the metric
+     * @param percentile the percentile, in ]0, 100]
+     * @return the percentile value, or -1 if no contingency defines this metric
+     */
+    public long getPercentile(ToLongFunction<ContingencyMetrics> metric, double percentile) {
+        Objects.requireNonNull(metric);
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+        long[] values = getContingencyMetrics().stream()
+                .mapToLong(metric)
+                .filter(v -> v >= 0)
+                .sorted()
+                .toArray();
+        if (values.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * values.length);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Write percentiles (50, 90, 99 and max) of the metrics over all contingencies.
+     */
+    public synchronized void writeSummary(Writer writer, TableFormatterFactory formatterFactory, TableFormatterConfig formatterConfig) {
+        Objects.requireNonNull(writer);
+        try (TableFormatter formatter = formatterFactory.create(writer, "Contingency metrics summary (" + contingencyMetrics.size() + " contingencies)", formatterConfig,
+                new Column("Metric"),
+                new Column("P50"),
+                new Column("P90"),
+                new Column("P99"),
+                new Column("Max"))) {
+            writeSummaryLine(formatter, "Apply contingency time (ms)", ContingencyMetrics::getApplyContingencyTime, true);
+            writeSummaryLine(formatter, "Load flow time (ms)", ContingencyMetrics::getLoadFlowTime, true);
+            writeSummaryLine(formatter, "Load flow iterations", m -> m.getLoadFlowIterationCount().orElse(-1), false);
+            writeSummaryLine(formatter, "Violation detection time (ms)", ContingencyMetrics::getViolationDetectionTime, true);
+            writeSummaryLine(formatter, "Allocated bytes", ContingencyMetrics::getAllocatedBytes, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSummaryLine(TableFormatter formatter, String name, ToLongFunction<ContingencyMetrics> metric, boolean duration) throws IOException {
+        formatter.writeCell(name);
+        for (double percentile : new double[] {50, 90, 99, 100}) {
+            long value = getPercentile(metric, percentile);
+            if (value < 0) {
+                formatter.writeEmptyCell();
+            } else if (duration) {
+                formatter.writeCell(toMillis(value));
+            } else {
+                formatter.writeCell(Long.toString(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ *
+ * <p>Per-contingency timing and resource metrics of security analysis runs.
+ *
+ * @author agent <agent at local>
+ */
+package com.powsybl.security.metrics;
@@ -12,6 +12,8 @@ import com.powsybl.commons.config.PlatformConfig;
 import com.powsybl.commons.util.ServiceLoaderCache;
 import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.contingency.ContingenciesProviderFactory;
+import com.powsybl.contingency.binary.BinaryContingenciesProvider;
+import com.powsybl.contingency.binary.BinaryContingencyListReader;
 import com.powsybl.security.SecurityAnalysisConfig;
 
 import java.io.IOException;
@@ -97,6 +99,7 @@ public final class SecurityAnalysisPreprocessors {
      * Create a preprocessor which will create and inject a {@link ContingenciesProvider} into
      * security analysis inputs, based on the specified factory and the specified
      * source of data (raw bytes to be interpreted by the factory).
+     * Binary contingency lists are read by a {@link BinaryContingenciesProvider}, whatever the factory.
      *
      * @param factory the factory in charge of creating the {@link ContingenciesProvider}.
      * @param source the source of data to be used by the factory.
@@ -111,6 +114,9 @@ public final class SecurityAnalysisPreprocessors {
 
     private static ContingenciesProvider newContingenciesProvider(ContingenciesProviderFactory factory,
                                                                   ByteSource byteSource) {
+        if (BinaryContingencyListReader.isBinaryContingencyList(byteSource)) {
+            return new BinaryContingenciesProvider(byteSource);
+        }
         try (InputStream is = byteSource.openBufferedStream()) {
             return factory.create(is);
         } catch (IOException e) {
@@ -32,6 +32,8 @@ import com.powsybl.security.execution.SecurityAnalysisExecutionInput;
 import com.powsybl.security.execution.SecurityAnalysisInputBuildStrategy;
 import com.powsybl.security.interceptors.SecurityAnalysisInterceptors;
 import com.powsybl.security.json.JsonSecurityAnalysisParameters;
+import com.powsybl.security.metrics.ContingencyMetricsInterceptorExtension;
+import com.powsybl.security.metrics.SecurityAnalysisMetrics;
 import com.powsybl.security.preprocessor.SecurityAnalysisPreprocessorFactory;
 import com.powsybl.security.preprocessor.SecurityAnalysisPreprocessors;
 import com.powsybl.tools.Command;
@@ -47,9 +49,11 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Properties;
 import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
@@ -147,6 +151,11 @@ public class SecurityAnalysisTool implements Tool {
                         .hasArg()
                         .argName("FILE")
                         .build());
+                options.addOption(Option.builder().longOpt(METRICS_FILE_OPTION)
+                        .desc("per contingency metrics output path (.csv or .json)")
+                        .hasArg()
+                        .argName("FILE")
+                        .build());
                 return options;
             }
 
@@ -174,6 +183,10 @@ public class SecurityAnalysisTool implements Tool {
 
         options.getValues(WITH_EXTENSIONS_OPTION)
                 .ifPresent(inputs::addResultExtensions);
+
+        options.getPath(METRICS_FILE_OPTION)
+                .filter(p -> !inputs.getResultExtensions().contains(ContingencyMetricsInterceptorExtension.NAME))
+                .ifPresent(p -> inputs.addResultExtensions(Collections.singletonList(ContingencyMetricsInterceptorExtension.NAME)));
     }
 
     private static SecurityAnalysisInputBuildStrategy configBasedInputBuildStrategy(PlatformConfig config) {
@@ -322,5 +335,28 @@ public class SecurityAnalysisTool implements Tool {
             Writer writer = new OutputStreamWriter(context.getOutputStream());
             Security.print(result, network, writer, new AsciiTableFormatterFactory(), tableFormatterConfigLoader.get());
         }
+
+        SecurityAnalysisMetrics metrics = result.getExtension(SecurityAnalysisMetrics.class);
+        if (metrics != null) {
+            writeMetrics(metrics, options.getPath(METRICS_FILE_OPTION).orElse(null), context, tableFormatterConfigLoader.get());
+        }
+    }
+
+    private static void writeMetrics(SecurityAnalysisMetrics metrics, Path metricsFile, ToolRunningContext context,
+                                     TableFormatterConfig tableFormatterConfig) throws IOException {
+        if (metricsFile != null) {
+            context.getOutputStream().println("Writing contingency metrics to '" + metricsFile + "'");
+            try (Writer writer = Files.newBufferedWriter(metricsFile, StandardCharsets.UTF_8)) {
+                if (metricsFile.getFileName().toString().endsWith(".csv")) {
+                    metrics.writeCsv(writer);
+                } else {
+                    metrics.writeJson(writer);
+                }
+            }
+        }
+        // To avoid the closing of System.out
+        Writer writer = new OutputStreamWriter(context.getOutputStream());
+        metrics.writeSummary(writer, new AsciiTableFormatterFactory(), tableFormatterConfig);
+        writer.flush();
     }
 }
@@ -21,6 +21,7 @@ public final class SecurityAnalysisToolConstants {
     public static final String EXTERNAL = "external";
     public static final String OUTPUT_LOG_OPTION = "log-file";
     public static final String SKIP_POSTPROC_OPTION = "skip-postproc";
+    public static final String METRICS_FILE_OPTION = "metrics-file";
 
     private SecurityAnalysisToolConstants() {
     }
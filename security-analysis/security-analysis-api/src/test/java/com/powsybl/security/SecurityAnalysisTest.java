@@ -12,6 +12,7 @@ import com.powsybl.commons.config.InMemoryPlatformConfig;
 import com.powsybl.commons.config.PlatformConfig;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.computation.ComputationResourcesStatus;
+import com.powsybl.contingency.AbstractStreamingContingenciesProvider;
 import com.powsybl.contingency.BranchContingency;
 import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.contingency.Contingency;
@@ -24,6 +25,9 @@ import com.powsybl.security.extensions.ActivePowerExtension;
 import com.powsybl.security.extensions.CurrentExtension;
 import com.powsybl.security.interceptors.CurrentLimitViolationInterceptor;
 import com.powsybl.security.interceptors.SecurityAnalysisInterceptorMock;
+import com.powsybl.security.metrics.ContingencyMetrics;
+import com.powsybl.security.metrics.ContingencyMetricsInterceptor;
+import com.powsybl.security.metrics.SecurityAnalysisMetrics;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -32,7 +36,12 @@ import org.mockito.Mockito;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -102,6 +111,7 @@ public class SecurityAnalysisTest {
         SecurityAnalysisInterceptorMock interceptorMock = new SecurityAnalysisInterceptorMock();
         securityAnalysis.addInterceptor(interceptorMock);
         securityAnalysis.addInterceptor(new CurrentLimitViolationInterceptor());
+        securityAnalysis.addInterceptor(new ContingencyMetricsInterceptor());
 
         SecurityAnalysisResult result = securityAnalysis.run(VariantManagerConstants.INITIAL_VARIANT_ID, SecurityAnalysisParameters.load(platformConfig), contingenciesProvider).join();
 
@@ -126,5 +136,84 @@ public class SecurityAnalysisTest {
         assertEquals(1, interceptorMock.getOnPostContingencyResultCount());
         assertEquals(1, interceptorMock.getOnPreContingencyResultCount());
         assertEquals(1, interceptorMock.getOnSecurityAnalysisResultCount());
+
+        SecurityAnalysisMetrics metrics = result.getExtension(SecurityAnalysisMetrics.class);
+        assertNotNull(metrics);
+        assertEquals(1, metrics.getContingencyMetrics().size());
+        ContingencyMetrics contingencyMetrics = metrics.getContingencyMetrics().get(0);
+        assertEquals("NHV1_NHV2_2_contingency", contingencyMetrics.getContingencyId());
+        assertTrue(contingencyMetrics.getApplyContingencyTime() >= 0);
+        assertTrue(contingencyMetrics.getLoadFlowTime() >= 0);
+        assertTrue(contingencyMetrics.getViolationDetectionTime() >= 0);
+        assertFalse(contingencyMetrics.getLoadFlowIterationCount().isPresent());
+    }
+
+    private static ComputationManager createComputationManager() {
+        ComputationManager computationManager = Mockito.mock(ComputationManager.class);
+        Executor executor = Runnable::run;
+        Mockito.when(computationManager.getExecutor()).thenReturn(executor);
+        ComputationResourcesStatus computationResourcesStatus = Mockito.mock(ComputationResourcesStatus.class);
+        Mockito.when(computationResourcesStatus.getAvailableCores()).thenReturn(4);
+        Mockito.when(computationManager.getResourcesStatus()).thenReturn(computationResourcesStatus);
+        return computationManager;
+    }
+
+    @Test
+    public void runOnContingencyStream() {
+        Network network = EurostagTutorialExample1Factory.create();
+        AtomicInteger generatedCount = new AtomicInteger();
+        ContingenciesProvider contingenciesProvider = new AbstractStreamingContingenciesProvider() {
+            @Override
+            public Stream<Contingency> getContingencyStream(Network network) {
+                return IntStream.range(0, 25)
+                        .peek(i -> generatedCount.incrementAndGet())
+                        .mapToObj(i -> new Contingency("contingency" + i, new BranchContingency(i % 2 == 0 ? "NHV1_NHV2_1" : "NHV1_NHV2_2")));
+            }
+        };
+
+        SecurityAnalysis securityAnalysis = new SecurityAnalysisImpl(network, new LimitViolationFilter(), createComputationManager());
+        SecurityAnalysisResult result = securityAnalysis.run(VariantManagerConstants.INITIAL_VARIANT_ID, SecurityAnalysisParameters.load(platformConfig), contingenciesProvider).join();
+
+        assertEquals(25, generatedCount.get());
+        assertEquals(25, result.getPostContingencyResults().size());
+        assertEquals("contingency24", result.getPostContingencyResults().get(24).getContingency().getId());
+        assertEquals(Collections.singleton(VariantManagerConstants.INITIAL_VARIANT_ID), new HashSet<>(network.getVariantManager().getVariantIds()));
+    }
+
+    @Test
+    public void runStopsAfterFailure() {
+        Network network = EurostagTutorialExample1Factory.create();
+        AtomicInteger generatedCount = new AtomicInteger();
+        ContingenciesProvider contingenciesProvider = new AbstractStreamingContingenciesProvider() {
+            @Override
+            public Stream<Contingency> getContingencyStream(Network network) {
+                return IntStream.range(0, 25)
+                        .peek(i -> generatedCount.incrementAndGet())
+                        .mapToObj(i -> new Contingency("contingency" + i, new BranchContingency(i == 0 ? "UNKNOWN" : "NHV1_NHV2_1")));
+            }
+        };
+
+        SecurityAnalysis securityAnalysis = new SecurityAnalysisImpl(network, new LimitViolationFilter(), createComputationManager());
+        try {
+            securityAnalysis.run(VariantManagerConstants.INITIAL_VARIANT_ID, SecurityAnalysisParameters.load(platformConfig), contingenciesProvider).join();
+            fail();
+        } catch (CompletionException e) {
+            // the load flow of the first contingency has failed
+        }
+
+        // only the first contingencies, read to create the variants, have been generated
+        assertTrue(generatedCount.get() < 25);
+        assertEquals(Collections.singleton(VariantManagerConstants.INITIAL_VARIANT_ID), new HashSet<>(network.getVariantManager().getVariantIds()));
+    }
+
+    @Test
+    public void runWithoutContingencies() {
+        Network network = EurostagTutorialExample1Factory.create();
+        SecurityAnalysis securityAnalysis = new SecurityAnalysisImpl(network, new LimitViolationFilter(), createComputationManager());
+        SecurityAnalysisResult result = securityAnalysis.run(VariantManagerConstants.INITIAL_VARIANT_ID, SecurityAnalysisParameters.load(platformConfig), n -> Collections.emptyList()).join();
+
+        assertTrue(result.getPreContingencyResult().isComputationOk());
+        assertTrue(result.getPostContingencyResults().isEmpty());
+        assertEquals(Collections.singleton(VariantManagerConstants.INITIAL_VARIANT_ID), new HashSet<>(network.getVariantManager().getVariantIds()));
     }
 }
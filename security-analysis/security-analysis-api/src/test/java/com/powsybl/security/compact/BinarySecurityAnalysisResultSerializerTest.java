@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.compact;
+
+import com.powsybl.contingency.*;
+import com.powsybl.security.LimitViolationsResult;
+import com.powsybl.security.PostContingencyResult;
+import com.powsybl.security.SecurityAnalysisResult;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent <agent at local>
+ */
+public class BinarySecurityAnalysisResultSerializerTest {
+
+    @Test
+    public void testElementTypeCodes() {
+        // codes are part of the format: they must not change when element types are added or reordered
+        assertEquals(0, BinarySecurityAnalysisResultSerializer.getElementTypeCode(ContingencyElementType.GENERATOR));
+        assertEquals(1, BinarySecurityAnalysisResultSerializer.getElementTypeCode(ContingencyElementType.STATIC_VAR_COMPENSATOR));
+        assertEquals(2, BinarySecurityAnalysisResultSerializer.getElementTypeCode(ContingencyElementType.SHUNT_COMPENSATOR));
+        assertEquals(3, BinarySecurityAnalysisResultSerializer.getElementTypeCode(ContingencyElementType.BRANCH));
+        assertEquals(4, BinarySecurityAnalysisResultSerializer.getElementTypeCode(ContingencyElementType.HVDC_LINE));
+        assertEquals(5, BinarySecurityAnalysisResultSerializer.getElementTypeCode(ContingencyElementType.BUSBAR_SECTION));
+    }
+
+    @Test
+    public void testContingencyElements() throws IOException {
+        List<ContingencyElement> elements = Arrays.asList(new GeneratorContingency("G"), new StaticVarCompensatorContingency("SVC"),
+                new ShuntCompensatorContingency("SC"), new BranchContingency("L", "VL"), new HvdcLineContingency("HVDC"),
+                new BusbarSectionContingency("BBS"));
+        LimitViolationsResult ok = new LimitViolationsResult(true, Collections.emptyList());
+        SecurityAnalysisResult result = new SecurityAnalysisResult(ok, Collections.singletonList(new PostContingencyResult(new Contingency("C", elements), ok)));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinarySecurityAnalysisResultSerializer.write(result, os);
+        List<ContingencyElement> readElements = new ArrayList<>(BinarySecurityAnalysisResultSerializer.read(new ByteArrayInputStream(os.toByteArray()))
+                .getPostContingencyResults().get(0).getContingency().getElements());
+
+        assertEquals(elements.size(), readElements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            assertEquals(elements.get(i).getType(), readElements.get(i).getType());
+            assertEquals(elements.get(i).getId(), readElements.get(i).getId());
+        }
+        assertEquals("VL", ((BranchContingency) readElements.get(3)).getVoltageLevelId());
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.compact;
+
+import com.powsybl.commons.extensions.AbstractExtension;
+import com.powsybl.contingency.BranchContingency;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.security.*;
+import com.powsybl.security.extensions.ActivePowerExtension;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class LimitViolationStoreTest {
+
+    @Test
+    public void test() {
+        LimitViolationStore store = new LimitViolationStore(1);
+        LimitViolation violation1 = new LimitViolation("NHV1_NHV2_1", "line1", LimitViolationType.CURRENT, "10'", 600, 1000, 0.95f, 1100, Branch.Side.ONE);
+        violation1.addExtension(ActivePowerExtension.class, new ActivePowerExtension(220.0));
+        LimitViolation violation2 = new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410);
+
+        assertEquals(0, store.add(violation1));
+        List<LimitViolation> view = store.addAll(Arrays.asList(violation2, violation1));
+        assertEquals(3, store.size());
+        assertEquals(2, view.size());
+
+        LimitViolation violation = view.get(1);
+        assertEquals("NHV1_NHV2_1", violation.getSubjectId());
+        assertEquals("line1", violation.getSubjectName());
+        assertEquals(LimitViolationType.CURRENT, violation.getLimitType());
+        assertEquals("10'", violation.getLimitName());
+        assertEquals(600, violation.getAcceptableDuration());
+        assertEquals(1000, violation.getLimit(), 0);
+        assertEquals(0.95f, violation.getLimitReduction(), 0f);
+        assertEquals(1100, violation.getValue(), 0);
+        assertEquals(Branch.Side.ONE, violation.getSide());
+        assertNotNull(violation.getExtension(ActivePowerExtension.class));
+
+        violation = view.get(0);
+        assertEquals("VLHV1", store.getSubjectId(1));
+        assertEquals(LimitViolationType.HIGH_VOLTAGE, store.getLimitType(1));
+        assertEquals(410, store.getValue(1), 0);
+        assertNull(violation.getSubjectName());
+        assertNull(violation.getLimitName());
+        assertNull(violation.getSide());
+    }
+
+    @Test
+    public void testExtensionsCopy() {
+        LimitViolationStore store = new LimitViolationStore();
+        LimitViolation violation = new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410);
+        ActivePowerExtension extension = new ActivePowerExtension(220.0, 230.0);
+        violation.addExtension(ActivePowerExtension.class, extension);
+        store.add(violation);
+
+        // the extension stays attached to the original violation, each created violation gets its own copy
+        LimitViolation violation1 = store.get(0);
+        LimitViolation violation2 = store.get(0);
+        assertSame(violation, extension.getExtendable());
+        assertNotSame(extension, violation1.getExtension(ActivePowerExtension.class));
+        assertNotSame(violation1.getExtension(ActivePowerExtension.class), violation2.getExtension(ActivePowerExtension.class));
+        assertSame(violation1, violation1.getExtension(ActivePowerExtension.class).getExtendable());
+        assertEquals(220.0, violation2.getExtension(ActivePowerExtension.class).getPreContingencyValue(), 0.0);
+        assertEquals(230.0, violation2.getExtension(ActivePowerExtension.class).getPostContingencyValue(), 0.0);
+        assertEquals("VLHV1", violation2.getSubjectId());
+        assertEquals(410, violation2.getValue(), 0.0);
+    }
+
+    private static class NotSerializableExtension extends AbstractExtension<LimitViolation> {
+
+        @Override
+        public String getName() {
+            return "NotSerializable";
+        }
+    }
+
+    @Test
+    public void testExtensionWithoutSerializer() {
+        LimitViolationStore store = new LimitViolationStore();
+        LimitViolation violation = new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410);
+        NotSerializableExtension extension = new NotSerializableExtension();
+        violation.addExtension(NotSerializableExtension.class, extension);
+        store.add(violation);
+
+        // extensions without JSON serializer are not kept
+        assertTrue(store.get(0).getExtensions().isEmpty());
+        assertSame(violation, extension.getExtendable());
+    }
+
+    @Test
+    public void testViewInstances() {
+        LimitViolationStore store = new LimitViolationStore();
+        List<LimitViolation> view = store.addAll(Arrays.asList(new LimitViolation("VLHV2", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 420),
+                new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410)));
+
+        // the same instance is returned for a position, so that changes are kept
+        LimitViolation violation = view.get(0);
+        assertSame(violation, view.get(0));
+        violation.addExtension(ActivePowerExtension.class, new ActivePowerExtension(220.0));
+        assertNotNull(view.get(0).getExtension(ActivePowerExtension.class));
+        assertNotSame(violation, store.get(0));
+
+        // in place sort
+        view.sort(Comparator.comparing(LimitViolation::getSubjectId));
+        assertEquals("VLHV1", view.get(0).getSubjectId());
+        assertSame(violation, view.get(1));
+        assertEquals("VLHV2", store.getSubjectId(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewFixedSize() {
+        LimitViolationStore store = new LimitViolationStore();
+        store.addAll(Collections.singletonList(new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410)))
+                .add(new LimitViolation("VLHV2", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 420));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidView() {
+        new LimitViolationStore().view(0, 1);
+    }
+
+    @Test
+    public void testCompact() {
+        LimitViolation violation = new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410);
+        SecurityAnalysisResult result = new SecurityAnalysisResult(new LimitViolationsResult(true, Collections.singletonList(violation)),
+                Collections.singletonList(new PostContingencyResult(new Contingency("c", new BranchContingency("l")), false,
+                        Arrays.asList(violation, violation), Collections.singletonList("action"))));
+
+        SecurityAnalysisResult compact = CompactSecurityAnalysisResults.compact(result);
+        assertEquals(1, compact.getPreContingencyResult().getLimitViolations().size());
+        PostContingencyResult postContingencyResult = compact.getPostContingencyResults().get(0);
+        assertEquals("c", postContingencyResult.getContingency().getId());
+        assertFalse(postContingencyResult.getLimitViolationsResult().isComputationOk());
+        assertEquals(Collections.singletonList("action"), postContingencyResult.getLimitViolationsResult().getActionsTaken());
+        assertEquals(2, postContingencyResult.getLimitViolationsResult().getLimitViolations().size());
+        assertEquals("VLHV1", postContingencyResult.getLimitViolationsResult().getLimitViolations().get(1).getSubjectId());
+    }
+}
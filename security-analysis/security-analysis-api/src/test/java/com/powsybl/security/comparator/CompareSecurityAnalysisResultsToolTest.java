@@ -28,11 +28,12 @@ public class CompareSecurityAnalysisResultsToolTest extends AbstractToolTest {
         CompareSecurityAnalysisResultsTool tool = new CompareSecurityAnalysisResultsTool();
         Command command = tool.getCommand();
 
-        assertCommand(command, "compare-security-analysis-results", 4, 3);
+        assertCommand(command, "compare-security-analysis-results", 5, 3);
         assertOption(command.getOptions(), "result1-file", true, true);
         assertOption(command.getOptions(), "result2-file", true, true);
         assertOption(command.getOptions(), "output-file", true, true);
         assertOption(command.getOptions(), "threshold", false, true);
+        assertOption(command.getOptions(), "parallel", false, false);
     }
 
 }
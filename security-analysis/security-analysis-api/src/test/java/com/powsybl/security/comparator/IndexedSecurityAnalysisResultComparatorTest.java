@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.comparator;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.powsybl.commons.PowsyblException;
+import com.powsybl.contingency.BranchContingency;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Branch;
+import com.powsybl.security.*;
+import com.powsybl.security.json.SecurityAnalysisResultSerializer;
+import com.powsybl.security.json.SecurityAnalysisResultStreamReader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent <agent at local>
+ */
+public class IndexedSecurityAnalysisResultComparatorTest {
+
+    private final LimitViolation line1Violation1 = new LimitViolation("NHV1_NHV2_1", LimitViolationType.CURRENT, null, Integer.MAX_VALUE, 1000.0, 0.95f, 1100.0, Branch.Side.ONE);
+    private final LimitViolation similarLine1Violation1 = new LimitViolation("NHV1_NHV2_1", LimitViolationType.CURRENT, null, Integer.MAX_VALUE, 1000.0, 0.95f, 1100.09, Branch.Side.ONE);
+    private final LimitViolation line1Violation2 = new LimitViolation("NHV1_NHV2_1", LimitViolationType.CURRENT, null, Integer.MAX_VALUE, 1000.0, 0.95f, 1100.0, Branch.Side.TWO);
+    private final LimitViolation differentLine1Violation2 = new LimitViolation("NHV1_NHV2_1", LimitViolationType.CURRENT, null, Integer.MAX_VALUE, 1000.0, 0.95f, 1101.0, Branch.Side.TWO);
+    private final LimitViolation line2Violation = new LimitViolation("NHV1_NHV2_2", LimitViolationType.CURRENT, "20'", 1200, 1000.0, 0.95f, 1100.0, Branch.Side.ONE);
+    private final LimitViolation smallLine2Violation = new LimitViolation("NHV1_NHV2_2", LimitViolationType.CURRENT, null, Integer.MAX_VALUE, 1000.0, 0.95f, 950.09, Branch.Side.ONE);
+    private final LimitViolation voltageViolation = new LimitViolation("VLHV1", LimitViolationType.HIGH_VOLTAGE, 400, 1f, 410);
+
+    private static PostContingencyResult postContingencyResult(String contingencyId, boolean ok, LimitViolation... violations) {
+        return new PostContingencyResult(new Contingency(contingencyId, new BranchContingency("NHV1_NHV2_1")), ok, new ArrayList<>(Arrays.asList(violations)),
+                new ArrayList<>(Collections.singletonList("action")));
+    }
+
+    private SecurityAnalysisResult createResult1() {
+        return new SecurityAnalysisResult(new LimitViolationsResult(true, new ArrayList<>(Arrays.asList(line1Violation1, voltageViolation))),
+                new ArrayList<>(Arrays.asList(postContingencyResult("c3", true, line2Violation),
+                                              postContingencyResult("c1", true, line1Violation2, line1Violation1),
+                                              postContingencyResult("c2", true, line1Violation1, line2Violation),
+                                              postContingencyResult("c5", true, smallLine2Violation))));
+    }
+
+    private SecurityAnalysisResult createResult2() {
+        return new SecurityAnalysisResult(new LimitViolationsResult(true, new ArrayList<>(Collections.singletonList(similarLine1Violation1))),
+                new ArrayList<>(Arrays.asList(postContingencyResult("c1", true, similarLine1Violation1, differentLine1Violation2),
+                                              postContingencyResult("c2", false, line2Violation, similarLine1Violation1),
+                                              postContingencyResult("c4", true, voltageViolation))));
+    }
+
+    private static SecurityAnalysisResult sort(SecurityAnalysisResult result) {
+        result.getPostContingencyResults().sort(Comparator.comparing(r -> r.getContingency().getId()));
+        return result;
+    }
+
+    private static void write(SecurityAnalysisResult result, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            SecurityAnalysisResultSerializer.write(result, writer);
+        }
+    }
+
+    private static String compareWithEquivalence(SecurityAnalysisResult result1, SecurityAnalysisResult result2, double threshold, boolean[] equivalent) {
+        StringWriter writer = new StringWriter();
+        equivalent[0] = new SecurityAnalysisResultEquivalence(threshold, writer).equivalent(result1, result2);
+        return writer.toString();
+    }
+
+    @Test
+    public void sameOutputAsEquivalence() {
+        boolean[] expectedEquivalent = new boolean[1];
+        String expected = compareWithEquivalence(createResult1(), createResult2(), 0.1, expectedEquivalent);
+
+        StringWriter writer = new StringWriter();
+        boolean equivalent = new IndexedSecurityAnalysisResultComparator(0.1).compare(createResult1(), createResult2(), writer);
+        assertEquals(expectedEquivalent[0], equivalent);
+        assertFalse(equivalent);
+        assertEquals(expected, writer.toString());
+
+        // same results are equivalent
+        assertTrue(new IndexedSecurityAnalysisResultComparator(0.1).compare(createResult1(), createResult1(), new StringWriter()));
+    }
+
+    @Test
+    public void streaming() throws IOException {
+        try (FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix())) {
+            Path file1 = fileSystem.getPath("/result1.json");
+            Path file2 = fileSystem.getPath("/result2.json");
+            write(sort(createResult1()), file1);
+            write(sort(createResult2()), file2);
+
+            boolean[] expectedEquivalent = new boolean[1];
+            String expected = compareWithEquivalence(createResult1(), createResult2(), 0.1, expectedEquivalent);
+
+            StringWriter writer = new StringWriter();
+            boolean equivalent = new IndexedSecurityAnalysisResultComparator(0.1, Runnable::run).compare(file1, file2, writer);
+            assertEquals(expectedEquivalent[0], equivalent);
+            assertEquals(expected, writer.toString());
+        }
+    }
+
+    @Test
+    public void streamingNotSorted() throws IOException {
+        try (FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix())) {
+            Path file1 = fileSystem.getPath("/result1.json");
+            Path file2 = fileSystem.getPath("/result2.json");
+            write(createResult1(), file1);
+            write(sort(createResult2()), file2);
+
+            try {
+                new IndexedSecurityAnalysisResultComparator(0.1, Runnable::run).compare(file1, file2, new StringWriter());
+                fail();
+            } catch (PowsyblException e) {
+                assertEquals("Post-contingency results of result 1 are not sorted by contingency ID: 'c3' is followed by 'c1'", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void streamingUnexpectedField() {
+        String json = "{\"version\":\"1.0\",\"unknown\":0}";
+        try {
+            new SecurityAnalysisResultStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+            fail();
+        } catch (PowsyblException e) {
+            assertEquals("Unexpected field: unknown", e.getMessage());
+        }
+    }
+}
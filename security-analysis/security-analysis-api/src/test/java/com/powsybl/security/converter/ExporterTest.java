@@ -7,11 +7,13 @@
 package com.powsybl.security.converter;
 
 import com.powsybl.commons.AbstractConverterTest;
+import com.powsybl.commons.PowsyblException;
 import com.powsybl.contingency.*;
 import com.powsybl.iidm.network.Branch;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
 import com.powsybl.security.*;
+import com.powsybl.security.compact.BinarySecurityAnalysisResultSerializer;
 import com.powsybl.security.extensions.ActivePowerExtension;
 import com.powsybl.security.extensions.CurrentExtension;
 import com.powsybl.security.json.SecurityAnalysisResultDeserializer;
@@ -25,8 +27,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 /**
  * @author Mathieu Bague <mathieu.bague at rte-france.com>
@@ -76,6 +77,57 @@ public class ExporterTest extends AbstractConverterTest {
         roundTripTest(result, exporter, SecurityAnalysisResultDeserializer::read, "/SecurityAnalysisResult.json");
     }
 
+    @Test
+    public void roundTripBinary() throws IOException {
+        SecurityAnalysisResult result = create();
+
+        Path file = tmpDir.resolve("result.bin");
+        SecurityAnalysisResultExporters.export(result, file, "BIN");
+        SecurityAnalysisResult result2 = BinarySecurityAnalysisResultSerializer.read(file);
+
+        assertEquals(NETWORK.getId(), result2.getNetworkMetadata().getId());
+        assertEquals(result.getNetworkMetadata().getCaseDate(), result2.getNetworkMetadata().getCaseDate());
+        assertTrue(result2.getPreContingencyResult().isComputationOk());
+        assertEquals(1, result2.getPreContingencyResult().getLimitViolations().size());
+        assertEquals(1, result2.getPostContingencyResults().size());
+        PostContingencyResult postContingencyResult = result2.getPostContingencyResults().get(0);
+        assertEquals(result.getPostContingencyResults().get(0).getContingency(), postContingencyResult.getContingency());
+        assertEquals(Arrays.asList("action1", "action2"), postContingencyResult.getLimitViolationsResult().getActionsTaken());
+        List<LimitViolation> violations = postContingencyResult.getLimitViolationsResult().getLimitViolations();
+        assertEquals(3, violations.size());
+        assertEquals("NHV1_NHV2_2", violations.get(0).getSubjectId());
+        assertEquals("20'", violations.get(0).getLimitName());
+        assertEquals(1200, violations.get(0).getAcceptableDuration());
+        assertEquals(Branch.Side.TWO, violations.get(0).getSide());
+        assertEquals(LimitViolationType.LOW_VOLTAGE, violations.get(2).getLimitType());
+        assertEquals(0.7f, violations.get(2).getLimitReduction(), 0f);
+        assertNull(violations.get(2).getSide());
+        assertEquals(230.0, violations.get(0).getExtension(ActivePowerExtension.class).getPostContingencyValue(), 0.0);
+        assertEquals(95.0, violations.get(0).getExtension(CurrentExtension.class).getPreContingencyValue(), 0.0);
+        assertEquals(220.0, result2.getPreContingencyResult().getLimitViolations().get(0).getExtension(ActivePowerExtension.class).getPreContingencyValue(), 0.0);
+        assertTrue(violations.get(2).getExtensions().isEmpty());
+
+        // Writing again the result read must give the same content
+        Path file2 = tmpDir.resolve("result2.bin");
+        BinarySecurityAnalysisResultSerializer.write(result2, file2);
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(file2));
+    }
+
+    @Test
+    public void binaryFormat() {
+        assertTrue(SecurityAnalysisResultExporters.getFormats().containsAll(Arrays.asList("JSON", "BIN")));
+        assertNull(SecurityAnalysisResultExporters.getExporter("BIN"));
+        SecurityAnalysisResultBinaryExporter exporter = SecurityAnalysisResultExporters.getBinaryExporter("BIN");
+        assertNotNull(exporter);
+        assertEquals("BIN", exporter.getFormat());
+        assertNull(SecurityAnalysisResultExporters.getBinaryExporter("JSON"));
+    }
+
+    @Test(expected = PowsyblException.class)
+    public void binaryToWriter() {
+        SecurityAnalysisResultExporters.export(create(), new StringWriter(), "BIN");
+    }
+
     private static void writeJson(SecurityAnalysisResult result, Path path) {
         SecurityAnalysisResultExporter exporter = SecurityAnalysisResultExporters.getExporter("JSON");
         assertNotNull(exporter);
@@ -13,8 +13,11 @@ import com.powsybl.commons.config.MapModuleConfig;
 import com.powsybl.computation.CommandExecution;
 import com.powsybl.computation.ComputationManager;
 import com.powsybl.computation.ExecutionHandler;
+import com.powsybl.computation.SimpleCommand;
 import com.powsybl.contingency.ContingenciesProvider;
 import com.powsybl.contingency.Contingency;
+import com.powsybl.contingency.binary.BinaryContingenciesProvider;
+import com.powsybl.contingency.binary.BinaryContingencyListWriter;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.iidm.network.VariantManagerConstants;
 import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
@@ -33,6 +36,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.junit.Assert.*;
@@ -143,6 +147,30 @@ public class DistributedSecurityAnalysisTest {
         assertEquals(1, cmd.get(0).getExecutionCount());
     }
 
+    /**
+     * Checks that a binary contingency list is sent as is, in a file of its own format.
+     */
+    @Test
+    public void testExternalBinary() throws IOException {
+        Path contingenciesFile = fileSystem.getPath("/contingencies.bin");
+        BinaryContingencyListWriter.write(Stream.of(new Contingency("contingency-1"), new Contingency("contingency-2")), contingenciesFile);
+
+        ExternalSecurityAnalysisConfig config = new ExternalSecurityAnalysisConfig();
+        SecurityAnalysis analysis = new ExternalSecurityAnalysis(config, network, cm, Collections.emptyList());
+
+        analysis.run(VariantManagerConstants.INITIAL_VARIANT_ID, new SecurityAnalysisParameters(), new BinaryContingenciesProvider(contingenciesFile));
+
+        ArgumentCaptor<ExecutionHandler> capt = ArgumentCaptor.forClass(ExecutionHandler.class);
+        verify(cm, times(1)).execute(any(), capt.capture());
+        List<CommandExecution> cmd = capt.getValue().before(workingDir);
+
+        assertTrue(Files.exists(workingDir.resolve("network.xiidm")));
+        assertTrue(Files.exists(workingDir.resolve("parameters.json")));
+        assertFalse(Files.exists(workingDir.resolve("contingencies.groovy")));
+        assertArrayEquals(Files.readAllBytes(contingenciesFile), Files.readAllBytes(workingDir.resolve("contingencies.bin")));
+        assertTrue(((SimpleCommand) cmd.get(0).getCommand()).getArgs(0).contains("--contingencies-file=/working-dir/contingencies.bin"));
+    }
+
     /**
      * Checks config class.
      */
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.incremental;
+
+import com.powsybl.contingency.BranchContingency;
+import com.powsybl.contingency.ContingenciesProvider;
+import com.powsybl.contingency.Contingency;
+import com.powsybl.iidm.network.Network;
+import com.powsybl.iidm.network.VariantManagerConstants;
+import com.powsybl.iidm.network.test.EurostagTutorialExample1Factory;
+import com.powsybl.security.*;
+import com.powsybl.security.interceptors.SecurityAnalysisInterceptor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class IncrementalSecurityAnalysisTest {
+
+    private static class SecurityAnalysisMock implements SecurityAnalysis {
+
+        private final List<List<String>> runs = new ArrayList<>();
+
+        private Runnable duringRun;
+
+        @Override
+        public void addInterceptor(SecurityAnalysisInterceptor interceptor) {
+        }
+
+        @Override
+        public boolean removeInterceptor(SecurityAnalysisInterceptor interceptor) {
+            return false;
+        }
+
+        @Override
+        public CompletableFuture<SecurityAnalysisResult> run(String workingVariantId, SecurityAnalysisParameters parameters, ContingenciesProvider contingenciesProvider) {
+            List<Contingency> contingencies = contingenciesProvider.getContingencies(null);
+            runs.add(contingencies.stream().map(Contingency::getId).collect(Collectors.toList()));
+            if (duringRun != null) {
+                duringRun.run();
+            }
+            List<PostContingencyResult> results = contingencies.stream()
+                    .map(c -> new PostContingencyResult(c, true, Collections.emptyList()))
+                    .collect(Collectors.toList());
+            return CompletableFuture.completedFuture(new SecurityAnalysisResult(LimitViolationsResult.empty(), results));
+        }
+    }
+
+    private Network network;
+
+    private SecurityAnalysisMock delegate;
+
+    private IncrementalSecurityAnalysis securityAnalysis;
+
+    private ContingenciesProvider contingenciesProvider;
+
+    @Before
+    public void setUp() {
+        network = EurostagTutorialExample1Factory.create();
+        delegate = new SecurityAnalysisMock();
+        securityAnalysis = new IncrementalSecurityAnalysis(network, delegate, 0);
+        List<Contingency> contingencies = Arrays.asList(new Contingency("c1", new BranchContingency("NGEN_NHV1")),
+                                                        new Contingency("c2", new BranchContingency("NHV2_NLOAD")));
+        contingenciesProvider = n -> contingencies;
+    }
+
+    private SecurityAnalysisResult run() {
+        return securityAnalysis.run(VariantManagerConstants.INITIAL_VARIANT_ID, new SecurityAnalysisParameters(), contingenciesProvider).join();
+    }
+
+    private static IncrementalSecurityAnalysisExtension getReport(SecurityAnalysisResult result) {
+        IncrementalSecurityAnalysisExtension extension = result.getExtension(IncrementalSecurityAnalysisExtension.class);
+        assertNotNull(extension);
+        return extension;
+    }
+
+    @Test
+    public void test() {
+        SecurityAnalysisResult result = run();
+        assertEquals(Arrays.asList("c1", "c2"), delegate.runs.get(0));
+        assertEquals(2, result.getPostContingencyResults().size());
+        assertTrue(getReport(result).getReusedContingencyIds().isEmpty());
+
+        // nothing changed: everything is reused
+        result = run();
+        assertEquals(Collections.emptyList(), delegate.runs.get(1));
+        assertEquals(2, result.getPostContingencyResults().size());
+        assertEquals(Arrays.asList("c1", "c2"), getReport(result).getReusedContingencyIds());
+
+        // flows are state variables and do not trigger a recomputation
+        network.getLoad("LOAD").getTerminal().setP(10.0);
+        run();
+        assertEquals(Collections.emptyList(), delegate.runs.get(2));
+
+        // load is in the neighbourhood of c2 only
+        network.getLoad("LOAD").setP0(700.0);
+        result = run();
+        assertEquals(Collections.singletonList("c2"), delegate.runs.get(3));
+        assertEquals(Collections.singletonList("c1"), getReport(result).getReusedContingencyIds());
+        assertEquals(Collections.singletonList("c2"), getReport(result).getRecomputedContingencyIds());
+        assertEquals(Arrays.asList("c1", "c2"), result.getPostContingencyResults().stream().map(r -> r.getContingency().getId()).collect(Collectors.toList()));
+
+        // line between VLHV1 and VLHV2 is in the neighbourhood of both contingencies
+        network.getLine("NHV1_NHV2_1").setR(5.0);
+        run();
+        assertEquals(Arrays.asList("c1", "c2"), delegate.runs.get(4));
+
+        securityAnalysis.reset();
+        run();
+        assertEquals(Arrays.asList("c1", "c2"), delegate.runs.get(5));
+    }
+
+    @Test
+    public void testChangedContingency() {
+        run();
+        // same id, but other elements
+        List<Contingency> contingencies = Arrays.asList(new Contingency("c1", new BranchContingency("NGEN_NHV1")),
+                                                        new Contingency("c2", new BranchContingency("NHV1_NHV2_1")));
+        contingenciesProvider = n -> contingencies;
+        SecurityAnalysisResult result = run();
+        assertEquals(Collections.singletonList("c2"), delegate.runs.get(1));
+        assertSame(contingencies.get(1), result.getPostContingencyResults().get(1).getContingency());
+    }
+
+    @Test
+    public void testChangesDuringRun() {
+        network.getVariantManager().cloneVariant(VariantManagerConstants.INITIAL_VARIANT_ID, "other");
+        delegate.duringRun = () -> {
+            // modification of another variant, like the ones done by the analysis itself
+            network.getVariantManager().setWorkingVariant("other");
+            network.getLoad("LOAD").setP0(800.0);
+            network.getVariantManager().setWorkingVariant(VariantManagerConstants.INITIAL_VARIANT_ID);
+        };
+        run();
+        run();
+        assertEquals(Collections.emptyList(), delegate.runs.get(1));
+
+        // modification of the analysed variant during the run
+        delegate.duringRun = () -> network.getLoad("LOAD").setP0(700.0);
+        run();
+        assertEquals(Collections.emptyList(), delegate.runs.get(2));
+        delegate.duringRun = null;
+        run();
+        assertEquals(Collections.singletonList("c2"), delegate.runs.get(3));
+    }
+
+    @Test
+    public void testNeighbourhood() {
+        Contingency contingency = new Contingency("c", new BranchContingency("NGEN_NHV1"));
+        assertEquals(new HashSet<>(Arrays.asList("VLGEN", "VLHV1")), ContingencyNeighbourhood.getVoltageLevelIds(contingency, network, 0).orElseThrow(AssertionError::new));
+        assertEquals(new HashSet<>(Arrays.asList("VLGEN", "VLHV1", "VLHV2")), ContingencyNeighbourhood.getVoltageLevelIds(contingency, network, 1).orElseThrow(AssertionError::new));
+        assertFalse(ContingencyNeighbourhood.getVoltageLevelIds(new Contingency("c", new BranchContingency("UNKNOWN")), network, 1).isPresent());
+    }
+}
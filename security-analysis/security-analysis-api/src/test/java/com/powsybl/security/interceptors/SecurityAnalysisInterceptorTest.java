@@ -6,13 +6,12 @@
  */
 package com.powsybl.security.interceptors;
 
+import com.google.common.collect.ImmutableSet;
 import com.powsybl.security.LimitViolationsResult;
 import com.powsybl.security.PostContingencyResult;
 import com.powsybl.security.SecurityAnalysisResult;
 import org.junit.Test;
 
-import java.util.Collections;
-
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
@@ -23,7 +22,7 @@ public class SecurityAnalysisInterceptorTest {
 
     @Test
     public void test() {
-        assertEquals(Collections.singleton("SecurityAnalysisInterceptorMock"), SecurityAnalysisInterceptors.getExtensionNames());
+        assertEquals(ImmutableSet.of("SecurityAnalysisInterceptorMock", "contingency-metrics"), SecurityAnalysisInterceptors.getExtensionNames());
 
         SecurityAnalysisInterceptor interceptor = SecurityAnalysisInterceptors.createInterceptor("SecurityAnalysisInterceptorMock");
         assertNotNull(interceptor);
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.security.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.powsybl.commons.io.table.AsciiTableFormatterFactory;
+import com.powsybl.commons.io.table.CsvTableFormatterFactory;
+import com.powsybl.commons.io.table.TableFormatterConfig;
+import com.powsybl.security.LimitViolationsResult;
+import com.powsybl.security.SecurityAnalysisResult;
+import com.powsybl.security.SecurityAnalysisResultMerger;
+import com.powsybl.security.json.SecurityAnalysisResultDeserializer;
+import com.powsybl.security.json.SecurityAnalysisResultSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class SecurityAnalysisMetricsTest {
+
+    private SecurityAnalysisMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new SecurityAnalysisMetrics();
+        for (int i = 1; i <= 10; i++) {
+            metrics.add(new ContingencyMetrics("c" + (char) ('a' + 10 - i), i * 1000000L, i * 10000000L,
+                    ImmutableMap.of("iterations", Integer.toString(i)), i * 100000L, i * 1024L));
+        }
+        metrics.add(new ContingencyMetrics("z", -1, -1, Collections.emptyMap(), -1, -1));
+    }
+
+    @Test
+    public void percentiles() {
+        assertEquals(5000000L, metrics.getPercentile(ContingencyMetrics::getApplyContingencyTime, 50));
+        assertEquals(9000000L, metrics.getPercentile(ContingencyMetrics::getApplyContingencyTime, 90));
+        assertEquals(10000000L, metrics.getPercentile(ContingencyMetrics::getApplyContingencyTime, 99));
+        assertEquals(10000000L, metrics.getPercentile(ContingencyMetrics::getApplyContingencyTime, 100));
+        assertEquals(1L, metrics.getPercentile(m -> m.getLoadFlowIterationCount().orElse(-1), 1));
+        assertEquals(-1L, new SecurityAnalysisMetrics().getPercentile(ContingencyMetrics::getLoadFlowTime, 50));
+        try {
+            metrics.getPercentile(ContingencyMetrics::getLoadFlowTime, 0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void sortedById() {
+        List<ContingencyMetrics> contingencyMetrics = metrics.getContingencyMetrics();
+        assertEquals(11, contingencyMetrics.size());
+        assertEquals("ca", contingencyMetrics.get(0).getContingencyId());
+        assertEquals(10, contingencyMetrics.get(0).getLoadFlowIterationCount().getAsInt());
+        assertEquals("z", contingencyMetrics.get(10).getContingencyId());
+        assertFalse(contingencyMetrics.get(10).getLoadFlowIterationCount().isPresent());
+    }
+
+    @Test
+    public void writeCsv() {
+        StringWriter writer = new StringWriter();
+        metrics.write(writer, new CsvTableFormatterFactory(),
+                new TableFormatterConfig(Locale.US, ';', "inv", true, false));
+        String[] lines = writer.toString().split(System.lineSeparator());
+        assertEquals(12, lines.length);
+        assertEquals("Contingency;ApplyContingencyTime (ms);LoadFlowTime (ms);LoadFlowIterations;ViolationDetectionTime (ms);AllocatedBytes", lines[0]);
+        assertEquals("ca;10.0000;100.000;10;1.00000;10240", lines[1]);
+        assertEquals("z;inv;inv;;inv;", lines[11]);
+    }
+
+    @Test
+    public void writeSummary() {
+        StringWriter writer = new StringWriter();
+        metrics.writeSummary(writer, new AsciiTableFormatterFactory(), new TableFormatterConfig(Locale.US, ';', "inv", true, true));
+        String summary = writer.toString();
+        assertTrue(summary.contains("Contingency metrics summary (11 contingencies)"));
+        assertTrue(summary.contains("Load flow iterations"));
+        assertTrue(summary.contains("10240"));
+    }
+
+    @Test
+    public void jsonRoundTrip() throws IOException {
+        SecurityAnalysisResult result = new SecurityAnalysisResult(new LimitViolationsResult(true, Collections.emptyList()), Collections.emptyList());
+        result.addExtension(SecurityAnalysisMetrics.class, metrics);
+
+        StringWriter writer = new StringWriter();
+        SecurityAnalysisResultSerializer.write(result, writer);
+        SecurityAnalysisResult read = SecurityAnalysisResultDeserializer.read(new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8)));
+
+        SecurityAnalysisMetrics readMetrics = read.getExtension(SecurityAnalysisMetrics.class);
+        assertNotNull(readMetrics);
+        StringWriter expected = new StringWriter();
+        metrics.writeJson(expected);
+        StringWriter actual = new StringWriter();
+        readMetrics.writeJson(actual);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void merge() {
+        SecurityAnalysisResult result1 = new SecurityAnalysisResult(new LimitViolationsResult(true, Collections.emptyList()), Collections.emptyList());
+        result1.addExtension(SecurityAnalysisMetrics.class, new SecurityAnalysisMetrics()
+                .add(new ContingencyMetrics("c1", 1, 2, Collections.emptyMap(), 3, 4)));
+        SecurityAnalysisResult result2 = new SecurityAnalysisResult(new LimitViolationsResult(true, Collections.emptyList()), Collections.emptyList());
+        result2.addExtension(SecurityAnalysisMetrics.class, new SecurityAnalysisMetrics()
+                .add(new ContingencyMetrics("c2", 1, 2, Collections.emptyMap(), 3, 4)));
+
+        SecurityAnalysisMetrics merged = SecurityAnalysisResultMerger.merge(new SecurityAnalysisResult[] {result1, result2})
+                .getExtension(SecurityAnalysisMetrics.class);
+        assertNotNull(merged);
+        assertEquals(2, merged.getContingencyMetrics().size());
+    }
+}
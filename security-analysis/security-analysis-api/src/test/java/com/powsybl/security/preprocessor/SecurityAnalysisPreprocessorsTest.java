@@ -9,15 +9,20 @@ package com.powsybl.security.preprocessor;
 import com.google.auto.service.AutoService;
 import com.google.common.io.ByteSource;
 import com.powsybl.contingency.ContingenciesProvider;
+import com.powsybl.contingency.Contingency;
 import com.powsybl.contingency.ContingenciesProviderFactory;
 import com.powsybl.contingency.EmptyContingencyListProvider;
 import com.powsybl.contingency.EmptyContingencyListProviderFactory;
+import com.powsybl.contingency.binary.BinaryContingenciesProvider;
+import com.powsybl.contingency.binary.BinaryContingencyListWriter;
 import com.powsybl.iidm.network.Network;
 import com.powsybl.security.SecurityAnalysisConfig;
 import com.powsybl.security.SecurityAnalysisInput;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -63,6 +68,25 @@ public class SecurityAnalysisPreprocessorsTest {
         assertSame(provider, input.getContingenciesProvider());
     }
 
+    @Test
+    public void binaryContingencyList() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (BinaryContingencyListWriter writer = new BinaryContingencyListWriter(os)) {
+            writer.write(new Contingency("contingency-1"));
+        }
+
+        // binary lists are read whatever the configured factory
+        ContingenciesProviderFactory providerFactory = Mockito.mock(ContingenciesProviderFactory.class);
+        SecurityAnalysisPreprocessor preprocessor = SecurityAnalysisPreprocessors.wrap(providerFactory)
+                .newPreprocessor(ByteSource.wrap(os.toByteArray()));
+        SecurityAnalysisInput input = new SecurityAnalysisInput(Mockito.mock(Network.class), "");
+        preprocessor.preprocess(input);
+
+        assertThat(input.getContingenciesProvider()).isInstanceOf(BinaryContingenciesProvider.class);
+        assertEquals("contingency-1", input.getContingenciesProvider().getContingencies(null).get(0).getId());
+        Mockito.verifyZeroInteractions(providerFactory);
+    }
+
     @Test
     public void configuredFactory() {
 
@@ -67,7 +67,7 @@ public class SecurityAnalysisToolTest extends AbstractToolTest {
 
     @Override
     public void assertCommand() {
-        assertCommand(tool.getCommand(), "security-analysis", 14, 1);
+        assertCommand(tool.getCommand(), "security-analysis", 15, 1);
         assertOption(tool.getCommand().getOptions(), "case-file", true, true);
         assertOption(tool.getCommand().getOptions(), "parameters-file", false, true);
         assertOption(tool.getCommand().getOptions(), "limit-types", false, true);
@@ -80,6 +80,7 @@ public class SecurityAnalysisToolTest extends AbstractToolTest {
         assertOption(tool.getCommand().getOptions(), "external", false, false);
         assertOption(tool.getCommand().getOptions(), "log-file", false, true);
         assertOption(tool.getCommand().getOptions(), "skip-postproc", false, false);
+        assertOption(tool.getCommand().getOptions(), "metrics-file", false, true);
     }
 
     @Test
@@ -131,6 +132,11 @@ public class SecurityAnalysisToolTest extends AbstractToolTest {
         SecurityAnalysisTool.updateInput(options, input);
         assertThat(input.getResultExtensions()).containsExactly("ext1", "ext2");
 
+        options = mockOptions(ImmutableMap.of(SecurityAnalysisToolConstants.METRICS_FILE_OPTION, "metrics.csv"));
+        SecurityAnalysisTool.updateInput(options, input);
+        SecurityAnalysisTool.updateInput(options, input);
+        assertThat(input.getResultExtensions()).containsExactly("ext1", "ext2", "contingency-metrics");
+
         ToolOptions invalidOptions = mockOptions(ImmutableMap.of(SecurityAnalysisToolConstants.CONTINGENCIES_FILE_OPTION, "contingencies"));
         assertThatIllegalArgumentException().isThrownBy(() -> SecurityAnalysisTool.updateInput(invalidOptions, input));
 
@@ -8,14 +8,21 @@ package com.powsybl.timeseries
 
 import com.powsybl.timeseries.ast.BigDecimalNodeCalc
 import com.powsybl.timeseries.ast.BinaryOperation
+import com.powsybl.timeseries.ast.CumulativeSumNodeCalc
 import com.powsybl.timeseries.ast.DoubleNodeCalc
 import com.powsybl.timeseries.ast.FloatNodeCalc
 import com.powsybl.timeseries.ast.IntegerNodeCalc
 import com.powsybl.timeseries.ast.MaxNodeCalc
 import com.powsybl.timeseries.ast.MinNodeCalc
 import com.powsybl.timeseries.ast.NodeCalc
+import com.powsybl.timeseries.ast.ResampleNodeCalc
+import com.powsybl.timeseries.ast.RollingNodeCalc
+import com.powsybl.timeseries.ast.ShiftNodeCalc
 import com.powsybl.timeseries.ast.TimeNodeCalc
 import com.powsybl.timeseries.ast.UnaryOperation
+import com.powsybl.timeseries.ast.WindowAggregation
+
+import java.time.Duration
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -295,4 +302,45 @@ class NodeCalcGroovyExtensionModule {
     static NodeCalc max(NodeCalc self, BigDecimal value) {
         new MaxNodeCalc(self, value.doubleValue())
     }
+
+    // window
+    static NodeCalc rollingSum(NodeCalc self, Integer window) {
+        RollingNodeCalc.sum(self, window)
+    }
+
+    static NodeCalc rollingMean(NodeCalc self, Integer window) {
+        RollingNodeCalc.mean(self, window)
+    }
+
+    static NodeCalc rollingMin(NodeCalc self, Integer window) {
+        RollingNodeCalc.min(self, window)
+    }
+
+    static NodeCalc rollingMax(NodeCalc self, Integer window) {
+        RollingNodeCalc.max(self, window)
+    }
+
+    static NodeCalc shift(NodeCalc self, Integer lag) {
+        new ShiftNodeCalc(self, lag)
+    }
+
+    static NodeCalc resampleSum(NodeCalc self, String period) {
+        new ResampleNodeCalc(self, WindowAggregation.SUM, Duration.parse(period))
+    }
+
+    static NodeCalc resampleMean(NodeCalc self, String period) {
+        new ResampleNodeCalc(self, WindowAggregation.MEAN, Duration.parse(period))
+    }
+
+    static NodeCalc resampleMin(NodeCalc self, String period) {
+        new ResampleNodeCalc(self, WindowAggregation.MIN, Duration.parse(period))
+    }
+
+    static NodeCalc resampleMax(NodeCalc self, String period) {
+        new ResampleNodeCalc(self, WindowAggregation.MAX, Duration.parse(period))
+    }
+
+    static NodeCalc cumsum(NodeCalc self) {
+        new CumulativeSumNodeCalc(self)
+    }
 }
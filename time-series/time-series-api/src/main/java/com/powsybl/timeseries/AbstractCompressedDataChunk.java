@@ -11,6 +11,7 @@ import com.powsybl.commons.json.JsonUtil;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -46,6 +47,43 @@ public abstract class AbstractCompressedDataChunk {
         }
     }
 
+    /**
+     * Steps of the points [from, to[ of a chunk: steps first to last, with lengths of first and last steps truncated.
+     */
+    static final class StepRange {
+
+        final int first;
+
+        final int last;
+
+        final int[] lengths;
+
+        private StepRange(int first, int last, int[] lengths) {
+            this.first = first;
+            this.last = last;
+            this.lengths = lengths;
+        }
+    }
+
+    protected StepRange getStepRange(int from, int to) {
+        int step = 0;
+        int stepStart = offset;
+        while (stepStart + stepLengths[step] <= from) {
+            stepStart += stepLengths[step];
+            step++;
+        }
+        int first = step;
+        int firstStepStart = stepStart;
+        while (stepStart + stepLengths[step] < to) {
+            stepStart += stepLengths[step];
+            step++;
+        }
+        int[] lengths = Arrays.copyOfRange(stepLengths, first, step + 1);
+        lengths[lengths.length - 1] = to - stepStart;
+        lengths[0] -= from - firstStepStart;
+        return new StepRange(first, step, lengths);
+    }
+
     public int getOffset() {
         return offset;
     }
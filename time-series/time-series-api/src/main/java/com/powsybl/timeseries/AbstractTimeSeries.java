@@ -58,6 +58,19 @@ public abstract class AbstractTimeSeries<P extends AbstractPoint, C extends Data
         return metadata;
     }
 
+    /**
+     * Get the compression factor of all the chunks, 1 meaning no compression.
+     */
+    public double getCompressionFactor() {
+        double estimatedSize = 0;
+        double uncompressedEstimatedSize = 0;
+        for (C chunk : chunks) {
+            estimatedSize += chunk.getEstimatedSize();
+            uncompressedEstimatedSize += chunk.getEstimatedSize() / chunk.getCompressionFactor();
+        }
+        return uncompressedEstimatedSize > 0 ? estimatedSize / uncompressedEstimatedSize : 1d;
+    }
+
     protected abstract C createGapFillingChunk(int i, int length);
 
     private List<C> getSortedChunks() {
@@ -66,7 +79,7 @@ public abstract class AbstractTimeSeries<P extends AbstractPoint, C extends Data
                 .collect(Collectors.toList());
     }
 
-    private List<C> getCheckedChunks(boolean fillGap) {
+    List<C> getCheckedChunks(boolean fillGap) {
         // sort chunks by offset
         List<C> sortedChunks = getSortedChunks();
         int pointCount = metadata.getIndex().getPointCount();
@@ -149,6 +162,20 @@ public abstract class AbstractTimeSeries<P extends AbstractPoint, C extends Data
         return splitList;
     }
 
+    protected abstract T createTimeSeries(TimeSeriesMetadata metadata, List<C> chunks);
+
+    public T slice(int start, int end) {
+        TimeSeriesIndex slicedIndex = metadata.getIndex().slice(start, end);
+        List<C> slicedChunks = new ArrayList<>();
+        for (C chunk : chunks) {
+            if (chunk.overlaps(start, end)) {
+                slicedChunks.add(chunk.slice(start, end));
+            }
+        }
+        return createTimeSeries(new TimeSeriesMetadata(metadata.getName(), metadata.getDataType(), metadata.getTags(), slicedIndex),
+                                slicedChunks);
+    }
+
     public void writeJson(JsonGenerator generator) {
         Objects.requireNonNull(generator);
         try {
@@ -64,6 +64,25 @@ public class BigDoubleBuffer {
         return buffers[bufferIndex].get(secondIndex);
     }
 
+    /**
+     * Bulk get of the values [index, index + length[ of the buffer.
+     */
+    public void get(long index, double[] dst, int offset, int length) {
+        int copied = 0;
+        while (copied < length) {
+            long computedBufferIndex = (index + copied) >> BUFFER_SHIFT;
+            long computedSecondIndex = (index + copied) & BUFFER_MASK;
+            int bufferIndex = (int) computedBufferIndex;
+            int secondIndex = (int) computedSecondIndex;
+            // absolute positioning on a duplicate to be thread safe
+            DoubleBuffer buffer = buffers[bufferIndex].duplicate();
+            int count = Math.min(length - copied, buffer.capacity() - secondIndex);
+            buffer.position(secondIndex);
+            buffer.get(dst, offset + copied, count);
+            copied += count;
+        }
+    }
+
     public long capacity() {
         return size;
     }
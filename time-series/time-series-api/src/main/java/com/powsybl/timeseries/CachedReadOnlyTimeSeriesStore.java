@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the data of the time series of a store, which may be slow to load (remote, compressed on disk...).
+ *
+ * <p>Each version of each time series is a cache entry, weighted by the estimated size of its chunks, and least
+ * recently used entries are evicted when the total weight exceeds a maximum size. Time series loaded concurrently by
+ * several threads are only loaded once from the store. The cache is cleared when the store notifies that its time
+ * series have been updated. Metadata, names and versions are not cached.
+ *
+ * @author agent <agent at local>
+ */
+public class CachedReadOnlyTimeSeriesStore implements ReadOnlyTimeSeriesStore {
+
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    // rough size in bytes of the key, the metadata and the entry of a time series
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private static final class Key {
+
+        private final String timeSeriesName;
+
+        private final int version;
+
+        private final TimeSeriesDataType dataType;
+
+        private Key(String timeSeriesName, int version, TimeSeriesDataType dataType) {
+            this.timeSeriesName = Objects.requireNonNull(timeSeriesName);
+            this.version = version;
+            this.dataType = dataType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(timeSeriesName, version, dataType);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return timeSeriesName.equals(other.timeSeriesName) && version == other.version && dataType == other.dataType;
+            }
+            return false;
+        }
+    }
+
+    private final ReadOnlyTimeSeriesStore store;
+
+    private final long maxSize;
+
+    private final TimeSeriesStoreListener listener = this::invalidateAll;
+
+    // replaced on invalidation, so that the loads in progress do not put outdated time series in the new cache
+    private volatile LoadingCache<Key, Optional<TimeSeries>> cache;
+
+    private CacheStats previousStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    public CachedReadOnlyTimeSeriesStore(ReadOnlyTimeSeriesStore store) {
+        this(store, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param store the cached store
+     * @param maxSize maximum estimated size in bytes of the cached time series
+     */
+    public CachedReadOnlyTimeSeriesStore(ReadOnlyTimeSeriesStore store, long maxSize) {
+        this.store = Objects.requireNonNull(store);
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        cache = createCache();
+        store.addListener(listener);
+    }
+
+    private LoadingCache<Key, Optional<TimeSeries>> createCache() {
+        // the maximum weight is split between the segments of the cache, so a single segment is used for the maximum
+        // size to apply to all the time series; loads from the store are not done under the lock of the segment
+        return CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxSize)
+                .weigher((Key key, Optional<TimeSeries> timeSeries) -> timeSeries.map(CachedReadOnlyTimeSeriesStore::getEstimatedSize).orElse(ENTRY_OVERHEAD))
+                .recordStats()
+                .build(new CacheLoader<Key, Optional<TimeSeries>>() {
+                    @Override
+                    public Optional<TimeSeries> load(Key key) {
+                        if (key.dataType == TimeSeriesDataType.DOUBLE) {
+                            return store.getDoubleTimeSeries(key.timeSeriesName, key.version).map(TimeSeries.class::cast);
+                        } else {
+                            return store.getStringTimeSeries(key.timeSeriesName, key.version).map(TimeSeries.class::cast);
+                        }
+                    }
+
+                    @Override
+                    public Map<Key, Optional<TimeSeries>> loadAll(Iterable<? extends Key> keys) {
+                        return CachedReadOnlyTimeSeriesStore.this.loadAll(keys);
+                    }
+                });
+    }
+
+    private Map<Key, Optional<TimeSeries>> loadAll(Iterable<? extends Key> keys) {
+        Map<Key, Optional<TimeSeries>> timeSeriesByKey = new HashMap<>();
+        Map<Key, Set<String>> namesByTypeAndVersion = new HashMap<>();
+        for (Key key : keys) {
+            timeSeriesByKey.put(key, Optional.empty());
+            namesByTypeAndVersion.computeIfAbsent(new Key("", key.version, key.dataType), k -> new HashSet<>())
+                    .add(key.timeSeriesName);
+        }
+        for (Map.Entry<Key, Set<String>> e : namesByTypeAndVersion.entrySet()) {
+            int version = e.getKey().version;
+            TimeSeriesDataType dataType = e.getKey().dataType;
+            List<? extends TimeSeries> timeSeriesList = dataType == TimeSeriesDataType.DOUBLE
+                    ? store.getDoubleTimeSeries(e.getValue(), version)
+                    : store.getStringTimeSeries(e.getValue(), version);
+            for (TimeSeries timeSeries : timeSeriesList) {
+                timeSeriesByKey.put(new Key(timeSeries.getMetadata().getName(), version, dataType), Optional.of(timeSeries));
+            }
+        }
+        return timeSeriesByKey;
+    }
+
+    static int getEstimatedSize(TimeSeries timeSeries) {
+        long size = ENTRY_OVERHEAD;
+        if (timeSeries instanceof AbstractTimeSeries) {
+            for (Object chunk : ((AbstractTimeSeries<?, ?, ?>) timeSeries).getChunks()) {
+                size += ((DataChunk) chunk).getEstimatedSize();
+            }
+        } else {
+            size += (long) Double.BYTES * timeSeries.getMetadata().getIndex().getPointCount();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static RuntimeException unwrap(Exception e) {
+        return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new UncheckedExecutionException(e.getCause());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends TimeSeries> Optional<T> get(String timeSeriesName, int version, TimeSeriesDataType dataType) {
+        Objects.requireNonNull(timeSeriesName);
+        TimeSeriesVersions.check(version);
+        try {
+            return (Optional<T>) cache.getUnchecked(new Key(timeSeriesName, version, dataType));
+        } catch (UncheckedExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends TimeSeries> List<T> get(Set<String> timeSeriesNames, int version, TimeSeriesDataType dataType) {
+        Objects.requireNonNull(timeSeriesNames);
+        TimeSeriesVersions.check(version);
+        List<Key> keys = timeSeriesNames.stream().map(name -> new Key(name, version, dataType)).collect(Collectors.toList());
+        try {
+            return cache.getAll(keys).values().stream()
+                    .filter(Optional::isPresent)
+                    .map(timeSeries -> (T) timeSeries.get())
+                    .collect(Collectors.toList());
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Clear the cache.
+     */
+    public synchronized void invalidateAll() {
+        previousStats = previousStats.plus(cache.stats());
+        cache = createCache();
+    }
+
+    /**
+     * Get the hit, miss, load and eviction statistics of the cache since its creation.
+     */
+    public synchronized CacheStats getStats() {
+        return previousStats.plus(cache.stats());
+    }
+
+    @Override
+    public Set<String> getTimeSeriesNames(TimeSeriesFilter filter) {
+        return store.getTimeSeriesNames(filter);
+    }
+
+    @Override
+    public boolean timeSeriesExists(String timeSeriesName) {
+        return store.timeSeriesExists(timeSeriesName);
+    }
+
+    @Override
+    public Optional<TimeSeriesMetadata> getTimeSeriesMetadata(String timeSeriesName) {
+        return store.getTimeSeriesMetadata(timeSeriesName);
+    }
+
+    @Override
+    public List<TimeSeriesMetadata> getTimeSeriesMetadata(Set<String> timeSeriesNames) {
+        return store.getTimeSeriesMetadata(timeSeriesNames);
+    }
+
+    @Override
+    public Set<Integer> getTimeSeriesDataVersions() {
+        return store.getTimeSeriesDataVersions();
+    }
+
+    @Override
+    public Set<Integer> getTimeSeriesDataVersions(String timeSeriesName) {
+        return store.getTimeSeriesDataVersions(timeSeriesName);
+    }
+
+    @Override
+    public Optional<DoubleTimeSeries> getDoubleTimeSeries(String timeSeriesName, int version) {
+        return get(timeSeriesName, version, TimeSeriesDataType.DOUBLE);
+    }
+
+    @Override
+    public List<DoubleTimeSeries> getDoubleTimeSeries(Set<String> timeSeriesNames, int version) {
+        return get(timeSeriesNames, version, TimeSeriesDataType.DOUBLE);
+    }
+
+    @Override
+    public List<DoubleTimeSeries> getDoubleTimeSeries(int version) {
+        // the names of the time series of the version are only known by the store; the cache is got before loading
+        // them, so that they are not put in a cache created by an invalidation during the load
+        LoadingCache<Key, Optional<TimeSeries>> currentCache = cache;
+        List<DoubleTimeSeries> timeSeriesList = store.getDoubleTimeSeries(version);
+        for (DoubleTimeSeries timeSeries : timeSeriesList) {
+            currentCache.put(new Key(timeSeries.getMetadata().getName(), version, TimeSeriesDataType.DOUBLE), Optional.of(timeSeries));
+        }
+        return timeSeriesList;
+    }
+
+    @Override
+    public Optional<StringTimeSeries> getStringTimeSeries(String timeSeriesName, int version) {
+        return get(timeSeriesName, version, TimeSeriesDataType.STRING);
+    }
+
+    @Override
+    public List<StringTimeSeries> getStringTimeSeries(Set<String> timeSeriesNames, int version) {
+        return get(timeSeriesNames, version, TimeSeriesDataType.STRING);
+    }
+
+    @Override
+    public void addListener(TimeSeriesStoreListener listener) {
+        store.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(TimeSeriesStoreListener listener) {
+        store.removeListener(listener);
+    }
+
+    /**
+     * Stop listening to the updates of the store, to be called when the cache is not used anymore.
+     */
+    public void dispose() {
+        store.removeListener(listener);
+    }
+}
@@ -20,6 +20,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -70,6 +71,10 @@ public class CalculatedTimeSeries implements DoubleTimeSeries {
         this(name, nodeCalc, EMPTY_RESOLVER);
     }
 
+    public NodeCalc getNodeCalc() {
+        return nodeCalc;
+    }
+
     @Override
     public void setTimeSeriesNameResolver(TimeSeriesNameResolver resolver) {
         this.resolver = Objects.requireNonNull(resolver);
@@ -112,7 +117,8 @@ public class CalculatedTimeSeries implements DoubleTimeSeries {
                 throw new TimeSeriesException("A calculated time series must depend on synchronized time series");
             }
 
-            index = indexes.iterator().next();
+            // a resampling at the root gives its values on a coarser index
+            index = NodeCalcStreamEvaluator.getIndex(nodeCalc, indexes.iterator().next());
         }
 
         return index;
@@ -159,48 +165,76 @@ public class CalculatedTimeSeries implements DoubleTimeSeries {
         }
     }
 
-    //To remove if we ever get it from somewhere else
-    @FunctionalInterface private interface DoubleIntConsumer { public void accept(double a, int b); }
-
-    private void forEachMaterializedValueIndex(DoubleIntConsumer consumer) {
-        if (metadata.getIndex() == InfiniteTimeSeriesIndex.INSTANCE) {
+    private TimeSeriesIndex getFiniteIndex() {
+        TimeSeriesIndex finiteIndex = metadata.getIndex();
+        if (finiteIndex == InfiniteTimeSeriesIndex.INSTANCE) {
             throw new TimeSeriesException("Impossible to fill buffer because calculated time series has not been synchronized on a finite time index");
         }
-        Iterator<DoublePoint> it = iterator();
-        DoublePoint prevPoint = null;
-        while (it.hasNext()) {
-            DoublePoint point = it.next();
-            if (prevPoint != null) {
-                for (int i = prevPoint.getIndex(); i < point.getIndex(); i++) {
-                    consumer.accept(prevPoint.getValue(), i);
-                }
-            }
-            prevPoint = point;
-        }
-        if (prevPoint != null) {
-            for (int i = prevPoint.getIndex(); i < metadata.getIndex().getPointCount(); i++) {
-                consumer.accept(prevPoint.getValue(), i);
-            }
+        return finiteIndex;
+    }
+
+    /**
+     * Evaluate the calculated time series on all the points of its index at once.
+     */
+    NodeCalcBulkEvaluator.Block evaluateBlock() {
+        if (AbstractWindowNodeCalc.isWindowed(nodeCalc)) {
+            return NodeCalcBulkEvaluator.Block.dense(toArray(), false);
         }
+        TimeSeriesIndex finiteIndex = getFiniteIndex();
+        List<DoubleTimeSeries> timeSeriesList = loadData();
+        NodeCalc resolvedNodeCalc = resolve(timeSeriesList);
+        return NodeCalcBulkEvaluator.eval(resolvedNodeCalc, timeSeriesList, finiteIndex);
+    }
+
+    /**
+     * Evaluate the calculated time series point by point, as needed by window nodes.
+     */
+    private NodeCalcStreamEvaluator.Cursor evaluateCursor() {
+        TimeSeriesIndex finiteIndex = getFiniteIndex();
+        List<DoubleTimeSeries> timeSeriesList = loadData();
+        NodeCalc resolvedNodeCalc = resolve(timeSeriesList);
+        // the index of the time series differs from the calculated time series one when it is resampled
+        TimeSeriesIndex timeSeriesIndex = timeSeriesList.isEmpty() ? finiteIndex : timeSeriesList.get(0).getMetadata().getIndex();
+        return NodeCalcStreamEvaluator.eval(resolvedNodeCalc, timeSeriesList, timeSeriesIndex);
     }
 
     @Override
     public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
         Objects.requireNonNull(buffer);
-        forEachMaterializedValueIndex((v, i) -> buffer.put(i + timeSeriesOffset, v));
+        if (AbstractWindowNodeCalc.isWindowed(nodeCalc)) {
+            NodeCalcStreamEvaluator.Cursor cursor = evaluateCursor();
+            for (int i = 0; i < metadata.getIndex().getPointCount(); i++) {
+                buffer.put(timeSeriesOffset + i, cursor.next());
+            }
+        } else {
+            evaluateBlock().fillBuffer(buffer, timeSeriesOffset, metadata.getIndex().getPointCount());
+        }
     }
 
     @Override
     public void fillBuffer(BigDoubleBuffer buffer, long timeSeriesOffset) {
         Objects.requireNonNull(buffer);
-        forEachMaterializedValueIndex((v, i) -> buffer.put(i + timeSeriesOffset, v));
+        if (AbstractWindowNodeCalc.isWindowed(nodeCalc)) {
+            NodeCalcStreamEvaluator.Cursor cursor = evaluateCursor();
+            for (int i = 0; i < metadata.getIndex().getPointCount(); i++) {
+                buffer.put(timeSeriesOffset + i, cursor.next());
+            }
+        } else {
+            evaluateBlock().fillBuffer(buffer, timeSeriesOffset, metadata.getIndex().getPointCount());
+        }
     }
 
     @Override
     public double[] toArray() {
-        DoubleBuffer buffer = DoubleBuffer.allocate(metadata.getIndex().getPointCount());
-        fillBuffer(buffer, 0);
-        return buffer.array();
+        if (AbstractWindowNodeCalc.isWindowed(nodeCalc)) {
+            NodeCalcStreamEvaluator.Cursor cursor = evaluateCursor();
+            double[] values = new double[metadata.getIndex().getPointCount()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = cursor.next();
+            }
+            return values;
+        }
+        return evaluateBlock().toArray(metadata.getIndex().getPointCount());
     }
 
     @Override
@@ -215,35 +249,74 @@ public class CalculatedTimeSeries implements DoubleTimeSeries {
         return index;
     }
 
-    private static DoublePoint evaluateMultiPoint(NodeCalc resolvedNodeCalc, DoubleMultiPoint multiPoint) {
-        double value = NodeCalcEvaluator.eval(resolvedNodeCalc, multiPoint);
+    private static DoublePoint evaluateMultiPoint(CompiledNodeCalc compiledNodeCalc, DoubleMultiPoint multiPoint) {
+        double value = compiledNodeCalc.eval(multiPoint);
         return new DoublePoint(multiPoint.getIndex(), multiPoint.getTime(), value);
     }
 
-    private static DoublePoint evaluate(NodeCalc resolvedNodeCalc) {
-        double value = NodeCalcEvaluator.eval(resolvedNodeCalc, null);
+    private static DoublePoint evaluate(CompiledNodeCalc compiledNodeCalc) {
+        double value = compiledNodeCalc.eval(null);
         return new DoublePoint(0, InfiniteTimeSeriesIndex.START_TIME, value);
     }
 
+    /**
+     * Window nodes are evaluated at each point of the index. Without time series and until synchronized on a finite
+     * index, they are evaluated as any other node on a single point.
+     */
+    private boolean isEvaluatedPointByPoint() {
+        return AbstractWindowNodeCalc.isWindowed(nodeCalc) && metadata.getIndex() != InfiniteTimeSeriesIndex.INSTANCE;
+    }
+
+    private Iterator<DoublePoint> evaluatePointByPoint() {
+        TimeSeriesIndex finiteIndex = metadata.getIndex();
+        NodeCalcStreamEvaluator.Cursor cursor = evaluateCursor();
+        return new Iterator<DoublePoint>() {
+
+            private int point = 0;
+
+            @Override
+            public boolean hasNext() {
+                return point < finiteIndex.getPointCount();
+            }
+
+            @Override
+            public DoublePoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DoublePoint doublePoint = new DoublePoint(point, finiteIndex.getTimeAt(point), cursor.next());
+                point++;
+                return doublePoint;
+            }
+        };
+    }
+
     @Override
     public Stream<DoublePoint> stream() {
+        if (isEvaluatedPointByPoint()) {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(evaluatePointByPoint(),
+                    Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+        }
         List<DoubleTimeSeries> timeSeriesList = loadData();
-        NodeCalc resolvedNodeCalc = resolve(timeSeriesList);
+        CompiledNodeCalc compiledNodeCalc = NodeCalcCompiler.compile(resolve(timeSeriesList));
         if (timeSeriesList.isEmpty()) {
-            return Stream.of(evaluate(resolvedNodeCalc));
+            return Stream.of(evaluate(compiledNodeCalc));
         } else {
-            return DoubleTimeSeries.stream(timeSeriesList).map(multiPoint -> evaluateMultiPoint(resolvedNodeCalc, multiPoint));
+            return DoubleTimeSeries.stream(timeSeriesList).map(multiPoint -> evaluateMultiPoint(compiledNodeCalc, multiPoint));
         }
     }
 
     @Override
     public Iterator<DoublePoint> iterator() {
+        if (isEvaluatedPointByPoint()) {
+            return evaluatePointByPoint();
+        }
         List<DoubleTimeSeries> timeSeriesList = loadData();
-        NodeCalc resolvedNodeCalc = resolve(timeSeriesList);
+        CompiledNodeCalc compiledNodeCalc = NodeCalcCompiler.compile(resolve(timeSeriesList));
         if (timeSeriesList.isEmpty()) {
-            return Iterators.singletonIterator(evaluate(resolvedNodeCalc));
+            return Iterators.singletonIterator(evaluate(compiledNodeCalc));
         } else {
-            return Iterators.transform(DoubleTimeSeries.iterator(timeSeriesList), multiPoint -> evaluateMultiPoint(resolvedNodeCalc, multiPoint));
+            return Iterators.transform(DoubleTimeSeries.iterator(timeSeriesList), multiPoint -> evaluateMultiPoint(compiledNodeCalc, multiPoint));
         }
     }
 
@@ -148,6 +148,15 @@ public class CompressedDoubleDataChunk extends AbstractCompressedDataChunk imple
         throw new AssertionError("Should not happen");
     }
 
+    @Override
+    public DoubleDataChunk slice(int start, int end) {
+        DataChunk.checkSlice(this, start, end);
+        int from = Math.max(start, offset);
+        int to = Math.min(end, offset + uncompressedLength);
+        StepRange range = getStepRange(from, to);
+        return new CompressedDoubleDataChunk(from - start, to - from, Arrays.copyOfRange(stepValues, range.first, range.last + 1), range.lengths);
+    }
+
     @Override
     protected void writeStepValuesJson(JsonGenerator generator) throws IOException {
         generator.writeArray(stepValues, 0, stepValues.length);
@@ -167,6 +167,15 @@ public class CompressedStringDataChunk extends AbstractCompressedDataChunk imple
         throw new AssertionError("Should not happen");
     }
 
+    @Override
+    public StringDataChunk slice(int start, int end) {
+        DataChunk.checkSlice(this, start, end);
+        int from = Math.max(start, offset);
+        int to = Math.min(end, offset + uncompressedLength);
+        StepRange range = getStepRange(from, to);
+        return new CompressedStringDataChunk(from - start, to - from, Arrays.copyOfRange(stepValues, range.first, range.last + 1), range.lengths);
+    }
+
     @Override
     protected void writeStepValuesJson(JsonGenerator generator) throws IOException {
         generator.writeStartArray();
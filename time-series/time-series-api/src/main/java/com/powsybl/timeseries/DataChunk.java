@@ -11,6 +11,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import gnu.trove.list.array.TDoubleArrayList;
 import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -118,6 +119,27 @@ public interface DataChunk<P extends AbstractPoint, A extends DataChunk<P, A>> {
      */
     Split<P, A> splitAt(int splitIndex);
 
+    /**
+     * Check if the chunk has at least one point in a point range.
+     *
+     * @param start first point of the range
+     * @param end point following the last point of the range
+     * @return true if the chunk overlaps the range, false otherwise
+     */
+    default boolean overlaps(int start, int end) {
+        return getOffset() < end && getOffset() + getLength() > start;
+    }
+
+    /**
+     * Get the part of the chunk included in a point range. The offset of the sliced chunk is relative to the start of
+     * the range and only the overlapping values are copied.
+     *
+     * @param start first point of the range
+     * @param end point following the last point of the range
+     * @return the sliced chunk
+     */
+    A slice(int start, int end);
+
     /**
      * Serialize this data chunk to json.
      *
@@ -126,6 +148,13 @@ public interface DataChunk<P extends AbstractPoint, A extends DataChunk<P, A>> {
      */
     void writeJson(JsonGenerator generator);
 
+    static void checkSlice(DataChunk<?, ?> chunk, int start, int end) {
+        if (!chunk.overlaps(start, end)) {
+            throw new IllegalArgumentException("Range [" + start + ", " + end + "[ does not overlap chunk range ["
+                    + chunk.getOffset() + ", " + (chunk.getOffset() + chunk.getLength() - 1) + "]");
+        }
+    }
+
     static DoubleDataChunk create(int offset, double[] values) {
         return new UncompressedDoubleDataChunk(offset, values);
     }
@@ -176,6 +205,8 @@ public interface DataChunk<P extends AbstractPoint, A extends DataChunk<P, A>> {
         private List<String> stringValues;
         private TIntArrayList stepLengths;
         private int uncompressedLength = -1;
+        private TLongArrayList xorWords;
+        private long bitLength = -1;
         private boolean valuesOrLengthArray = false;
 
         void addDoubleValue(double value) {
@@ -212,6 +243,13 @@ public interface DataChunk<P extends AbstractPoint, A extends DataChunk<P, A>> {
             case "stepValues":
                 context.valuesOrLengthArray = true;
                 break;
+            case "bitLength":
+                context.bitLength = parser.nextLongValue(-1);
+                break;
+            case "xorWords":
+                context.xorWords = new TLongArrayList();
+                context.valuesOrLengthArray = true;
+                break;
             default:
                 break;
         }
@@ -250,8 +288,18 @@ public interface DataChunk<P extends AbstractPoint, A extends DataChunk<P, A>> {
         }
     }
 
+    static void addXorCompressedChunk(JsonParsingContext context) {
+        context.doubleChunks.add(new XorCompressedDoubleDataChunk(context.offset, context.uncompressedLength,
+                context.xorWords.toArray(), context.bitLength));
+        context.xorWords = null;
+        context.bitLength = -1;
+        context.uncompressedLength = -1;
+    }
+
     static void parseEndObject(JsonParsingContext context) {
-        if (context.stepLengths == null) {
+        if (context.xorWords != null) {
+            addXorCompressedChunk(context);
+        } else if (context.stepLengths == null) {
             addUncompressedChunk(context);
         } else {
             addCompressedChunk(context);
@@ -262,6 +310,8 @@ public interface DataChunk<P extends AbstractPoint, A extends DataChunk<P, A>> {
     static void parseValueNumberInt(JsonParser parser, JsonParsingContext context) throws IOException {
         if (context.stepLengths != null) {
             context.stepLengths.add(parser.getIntValue());
+        } else if (context.xorWords != null) {
+            context.xorWords.add(parser.getLongValue());
         } else {
             context.addDoubleValue(parser.getIntValue());
         }
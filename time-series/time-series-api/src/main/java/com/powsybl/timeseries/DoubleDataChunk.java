@@ -7,6 +7,7 @@
 package com.powsybl.timeseries;
 
 import java.nio.DoubleBuffer;
+import java.util.Arrays;
 
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
@@ -16,4 +17,18 @@ public interface DoubleDataChunk extends DataChunk<DoublePoint, DoubleDataChunk>
     void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset);
 
     void fillBuffer(BigDoubleBuffer buffer, long timeSeriesOffset);
+
+    /**
+     * By default, the values of the chunk are filled in an array to create an uncompressed sliced chunk.
+     */
+    @Override
+    default DoubleDataChunk slice(int start, int end) {
+        DataChunk.checkSlice(this, start, end);
+        int offset = getOffset();
+        double[] values = new double[getLength()];
+        fillBuffer(DoubleBuffer.wrap(values), -offset);
+        int from = Math.max(start, offset);
+        int to = Math.min(end, offset + values.length);
+        return new UncompressedDoubleDataChunk(from - start, Arrays.copyOfRange(values, from - offset, to - offset));
+    }
 }
@@ -23,6 +23,18 @@ public interface DoubleTimeSeries extends TimeSeries<DoublePoint, DoubleTimeSeri
 
     double[] toArray();
 
+    /**
+     * By default, the time series is converted to an array before being sliced.
+     */
+    @Override
+    default DoubleTimeSeries slice(int start, int end) {
+        TimeSeriesMetadata metadata = getMetadata();
+        TimeSeriesIndex slicedIndex = metadata.getIndex().slice(start, end);
+        double[] values = Arrays.copyOfRange(toArray(), start, end);
+        return new StoredDoubleTimeSeries(new TimeSeriesMetadata(metadata.getName(), metadata.getDataType(), metadata.getTags(), slicedIndex),
+                                          new UncompressedDoubleDataChunk(0, values).tryToCompress());
+    }
+
     static Iterator<DoubleMultiPoint> iterator(List<DoubleTimeSeries> timeSeriesList) {
         Objects.requireNonNull(timeSeriesList);
 
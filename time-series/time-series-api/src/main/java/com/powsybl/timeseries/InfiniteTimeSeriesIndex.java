@@ -45,6 +45,15 @@ public class InfiniteTimeSeriesIndex extends AbstractTimeSeriesIndex {
         }
     }
 
+    @Override
+    public TimeSeriesIndex slice(int start, int end) {
+        TimeSeriesIndex.checkSlice(this, start, end);
+        if (start != 0 || end != 2) {
+            throw new TimeSeriesException("An infinite index cannot be partially sliced");
+        }
+        return this;
+    }
+
     @Override
     public String getType() {
         return TYPE;
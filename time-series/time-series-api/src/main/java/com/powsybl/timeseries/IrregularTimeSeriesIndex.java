@@ -74,6 +74,18 @@ public class IrregularTimeSeriesIndex extends AbstractTimeSeriesIndex {
         return times[point];
     }
 
+    @Override
+    public int getPointAtOrAfter(long time) {
+        int point = Arrays.binarySearch(times, time);
+        return point >= 0 ? point : -point - 1;
+    }
+
+    @Override
+    public TimeSeriesIndex slice(int start, int end) {
+        TimeSeriesIndex.checkSlice(this, start, end);
+        return new IrregularTimeSeriesIndex(Arrays.copyOfRange(times, start, end));
+    }
+
     @Override
     public int hashCode() {
         return Arrays.hashCode(times);
@@ -0,0 +1,590 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.powsybl.timeseries.ast.*;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.nio.DoubleBuffer;
+import java.util.*;
+
+/**
+ * Evaluates a resolved {@link NodeCalc} over all the points of the time series it depends on, one operation at a
+ * time on arrays of values, instead of point by point.
+ *
+ * <p>Values of a node are stored in a {@link Block}: either a constant, a list of steps (value changes) or a dense
+ * array with one value per point. Steps of compressed chunks are kept as steps, so that an operation on compressed
+ * time series only computes one value per step.
+ *
+ * <p>The result is the same as a point by point evaluation with {@link NodeCalcEvaluator}: a value is only
+ * computed at points where at least one time series has a point (a step start for compressed chunks), and kept
+ * until the next one. Trees with window nodes, whose values may change at any point, are evaluated by
+ * {@link NodeCalcStreamEvaluator}.
+ *
+ * @author agent <agent at local>
+ */
+final class NodeCalcBulkEvaluator implements NodeCalcVisitor<NodeCalcBulkEvaluator.Block, Void> {
+
+    /**
+     * Values of a node for all the points of the index.
+     */
+    static final class Block {
+
+        private enum Kind {
+            CONSTANT,
+            STEPS,
+            DENSE
+        }
+
+        private final Kind kind;
+
+        /**
+         * Start indexes of the steps, only for steps.
+         */
+        private final int[] starts;
+
+        private final double[] values;
+
+        /**
+         * A shared block is used several times and must not be modified.
+         */
+        private final boolean shared;
+
+        private Block(Kind kind, int[] starts, double[] values, boolean shared) {
+            this.kind = kind;
+            this.starts = starts;
+            this.values = values;
+            this.shared = shared;
+        }
+
+        static Block constant(double value) {
+            return new Block(Kind.CONSTANT, null, new double[] {value}, false);
+        }
+
+        static Block steps(int[] starts, double[] values, boolean shared) {
+            return new Block(Kind.STEPS, starts, values, shared);
+        }
+
+        static Block dense(double[] values, boolean shared) {
+            return new Block(Kind.DENSE, null, values, shared);
+        }
+
+        private Block asShared() {
+            return shared ? this : new Block(kind, starts, values, true);
+        }
+
+        private Block withValues(double[] newValues) {
+            return new Block(kind, starts, newValues, false);
+        }
+
+        private double[] getWritableValues() {
+            return shared ? new double[values.length] : values;
+        }
+
+        private double[] toDenseArray(int pointCount) {
+            switch (kind) {
+                case CONSTANT:
+                    double[] constantValues = new double[pointCount];
+                    Arrays.fill(constantValues, values[0]);
+                    return constantValues;
+                case STEPS:
+                    double[] stepValues = new double[pointCount];
+                    for (int s = 0; s < starts.length; s++) {
+                        int end = s < starts.length - 1 ? starts[s + 1] : pointCount;
+                        Arrays.fill(stepValues, starts[s], end, values[s]);
+                    }
+                    return stepValues;
+                case DENSE:
+                    return shared ? values.clone() : values;
+                default:
+                    throw new AssertionError("Unexpected block kind: " + kind);
+            }
+        }
+
+        void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset, int pointCount) {
+            if (kind == Kind.DENSE) {
+                DoubleBuffer view = buffer.duplicate();
+                view.position(timeSeriesOffset);
+                view.put(values, 0, pointCount);
+            } else {
+                forEachStep(pointCount, (start, end, value) -> {
+                    for (int i = start; i < end; i++) {
+                        buffer.put(timeSeriesOffset + i, value);
+                    }
+                });
+            }
+        }
+
+        void fillBuffer(BigDoubleBuffer buffer, long timeSeriesOffset, int pointCount) {
+            if (kind == Kind.DENSE) {
+                for (int i = 0; i < pointCount; i++) {
+                    buffer.put(timeSeriesOffset + i, values[i]);
+                }
+            } else {
+                forEachStep(pointCount, (start, end, value) -> {
+                    for (int i = start; i < end; i++) {
+                        buffer.put(timeSeriesOffset + i, value);
+                    }
+                });
+            }
+        }
+
+        double[] toArray(int pointCount) {
+            return toDenseArray(pointCount);
+        }
+
+        @FunctionalInterface
+        private interface StepConsumer {
+            void accept(int start, int end, double value);
+        }
+
+        private void forEachStep(int pointCount, StepConsumer consumer) {
+            if (kind == Kind.CONSTANT) {
+                consumer.accept(0, pointCount, values[0]);
+            } else {
+                for (int s = 0; s < starts.length; s++) {
+                    consumer.accept(starts[s], s < starts.length - 1 ? starts[s + 1] : pointCount, values[s]);
+                }
+            }
+        }
+    }
+
+    private final TimeSeriesIndex index;
+
+    private final int pointCount;
+
+    private final List<Block> timeSeriesBlocks;
+
+    /**
+     * Start indexes of the points of the evaluation, or null if all the indexes are points.
+     */
+    private final int[] pointStarts;
+
+    private Block timeBlock;
+
+    private NodeCalcBulkEvaluator(TimeSeriesIndex index, List<Block> timeSeriesBlocks) {
+        this.index = index;
+        this.pointCount = index.getPointCount();
+        this.timeSeriesBlocks = timeSeriesBlocks;
+        this.pointStarts = computePointStarts(timeSeriesBlocks, pointCount);
+    }
+
+    /**
+     * Evaluate a resolved node over all the points of the index.
+     *
+     * @param resolvedNodeCalc node without window nodes in which time series are referenced by their number in the list
+     * @param timeSeriesList the time series, all on the given index
+     * @param index the index of the evaluation
+     */
+    static Block eval(NodeCalc resolvedNodeCalc, List<DoubleTimeSeries> timeSeriesList, TimeSeriesIndex index) {
+        Objects.requireNonNull(resolvedNodeCalc);
+        Objects.requireNonNull(timeSeriesList);
+        Objects.requireNonNull(index);
+        List<Block> timeSeriesBlocks = new ArrayList<>(timeSeriesList.size());
+        for (DoubleTimeSeries timeSeries : timeSeriesList) {
+            timeSeriesBlocks.add(toBlock(timeSeries, index));
+        }
+        NodeCalcBulkEvaluator evaluator = new NodeCalcBulkEvaluator(index, timeSeriesBlocks);
+        Block result = resolvedNodeCalc.accept(evaluator, null, 0);
+        return timeSeriesBlocks.isEmpty() ? result : evaluator.alignOnPoints(result);
+    }
+
+    private static Block toBlock(DoubleTimeSeries timeSeries, TimeSeriesIndex index) {
+        if (timeSeries instanceof CalculatedTimeSeries) {
+            return ((CalculatedTimeSeries) timeSeries).evaluateBlock().asShared();
+        }
+        int pointCount = index.getPointCount();
+        TIntArrayList starts = new TIntArrayList();
+        TDoubleArrayList values = new TDoubleArrayList();
+        if (timeSeries instanceof StoredDoubleTimeSeries) {
+            for (DoubleDataChunk chunk : ((StoredDoubleTimeSeries) timeSeries).getCheckedChunks(true)) {
+                addChunk(chunk, index, starts, values);
+            }
+        } else {
+            for (DoublePoint point : timeSeries) {
+                starts.add(point.getIndex());
+                values.add(point.getValue());
+            }
+        }
+        if (starts.size() == pointCount) {
+            return Block.dense(values.toArray(), true);
+        }
+        return Block.steps(starts.toArray(), values.toArray(), true);
+    }
+
+    private static void addChunk(DoubleDataChunk chunk, TimeSeriesIndex index, TIntArrayList starts, TDoubleArrayList values) {
+        if (chunk instanceof CompressedDoubleDataChunk) {
+            CompressedDoubleDataChunk compressedChunk = (CompressedDoubleDataChunk) chunk;
+            int start = compressedChunk.getOffset();
+            for (int s = 0; s < compressedChunk.getStepLengths().length; s++) {
+                starts.add(start);
+                values.add(compressedChunk.getStepValues()[s]);
+                start += compressedChunk.getStepLengths()[s];
+            }
+        } else if (chunk instanceof UncompressedDoubleDataChunk) {
+            UncompressedDoubleDataChunk uncompressedChunk = (UncompressedDoubleDataChunk) chunk;
+            for (int i = 0; i < uncompressedChunk.getLength(); i++) {
+                starts.add(uncompressedChunk.getOffset() + i);
+            }
+            values.add(uncompressedChunk.getValues());
+        } else if (chunk instanceof XorCompressedDoubleDataChunk) {
+            XorCompressedDoubleDataChunk.Decoder decoder = ((XorCompressedDoubleDataChunk) chunk).decoder();
+            for (int i = 0; i < chunk.getLength(); i++) {
+                starts.add(chunk.getOffset() + i);
+                values.add(decoder.next());
+            }
+        } else {
+            Iterator<DoublePoint> it = chunk.iterator(index);
+            while (it.hasNext()) {
+                DoublePoint point = it.next();
+                starts.add(point.getIndex());
+                values.add(point.getValue());
+            }
+        }
+    }
+
+    private static int[] computePointStarts(List<Block> blocks, int pointCount) {
+        if (blocks.stream().anyMatch(block -> block.kind == Block.Kind.DENSE)) {
+            return null;
+        }
+        BitSet points = new BitSet(pointCount);
+        for (Block block : blocks) {
+            if (block.kind == Block.Kind.CONSTANT) {
+                points.set(0);
+            } else {
+                for (int start : block.starts) {
+                    points.set(start);
+                }
+            }
+        }
+        return points.cardinality() == pointCount ? null : points.stream().toArray();
+    }
+
+    /**
+     * Give to the result one value per point of the evaluation, as some time series may not be part of the
+     * computation (the one of the time node for instance).
+     */
+    private Block alignOnPoints(Block block) {
+        if (pointStarts == null) {
+            return block.kind == Block.Kind.DENSE ? block : Block.dense(block.toDenseArray(pointCount), false);
+        }
+        if (block.kind == Block.Kind.STEPS && Arrays.equals(block.starts, pointStarts)) {
+            return block;
+        }
+        double[] values = new double[pointStarts.length];
+        if (block.kind == Block.Kind.CONSTANT) {
+            Arrays.fill(values, block.values[0]);
+        } else {
+            int s = 0;
+            for (int p = 0; p < pointStarts.length; p++) {
+                while (s < block.starts.length - 1 && block.starts[s + 1] <= pointStarts[p]) {
+                    s++;
+                }
+                values[p] = block.values[s];
+            }
+        }
+        return Block.steps(pointStarts, values, false);
+    }
+
+    @Override
+    public Block visit(IntegerNodeCalc nodeCalc, Void arg) {
+        return Block.constant(nodeCalc.toDouble());
+    }
+
+    @Override
+    public Block visit(FloatNodeCalc nodeCalc, Void arg) {
+        return Block.constant(nodeCalc.toDouble());
+    }
+
+    @Override
+    public Block visit(DoubleNodeCalc nodeCalc, Void arg) {
+        return Block.constant(nodeCalc.getValue());
+    }
+
+    @Override
+    public Block visit(BigDecimalNodeCalc nodeCalc, Void arg) {
+        return Block.constant(nodeCalc.toDouble());
+    }
+
+    @Override
+    public Block visit(TimeNodeCalc nodeCalc, Void arg, Block child) {
+        if (timeBlock == null) {
+            if (pointStarts == null) {
+                double[] times = new double[pointCount];
+                for (int i = 0; i < pointCount; i++) {
+                    times[i] = index.getTimeAt(i);
+                }
+                timeBlock = Block.dense(times, true);
+            } else {
+                double[] times = new double[pointStarts.length];
+                for (int p = 0; p < pointStarts.length; p++) {
+                    times[p] = index.getTimeAt(pointStarts[p]);
+                }
+                timeBlock = Block.steps(pointStarts, times, true);
+            }
+        }
+        return timeBlock;
+    }
+
+    @Override
+    public NodeCalc iterate(TimeNodeCalc nodeCalc, Void arg) {
+        return null;
+    }
+
+    @Override
+    public Block visit(BinaryOperation nodeCalc, Void arg, Block left, Block right) {
+        BinaryOperation.Operator operator = nodeCalc.getOperator();
+        if (left.kind == Block.Kind.CONSTANT && right.kind == Block.Kind.CONSTANT) {
+            double[] result = new double[1];
+            apply(operator, left.values, true, right.values, true, result, 1);
+            return Block.constant(result[0]);
+        }
+        if (left.kind == Block.Kind.DENSE || right.kind == Block.Kind.DENSE) {
+            boolean leftScalar = left.kind == Block.Kind.CONSTANT;
+            boolean rightScalar = right.kind == Block.Kind.CONSTANT;
+            double[] leftValues = leftScalar ? left.values : left.toDenseArray(pointCount);
+            double[] rightValues = rightScalar ? right.values : right.toDenseArray(pointCount);
+            double[] result = getResultArray(left, leftValues, right, rightValues, pointCount);
+            apply(operator, leftValues, leftScalar, rightValues, rightScalar, result, pointCount);
+            return Block.dense(result, false);
+        }
+        if (left.kind == Block.Kind.CONSTANT || right.kind == Block.Kind.CONSTANT || left.starts == right.starts
+                || Arrays.equals(left.starts, right.starts)) {
+            // steps are aligned, compute one value per step
+            Block steps = left.kind == Block.Kind.STEPS ? left : right;
+            double[] result = steps.getWritableValues();
+            apply(operator, left.values, left.kind == Block.Kind.CONSTANT, right.values, right.kind == Block.Kind.CONSTANT,
+                  result, result.length);
+            return steps.withValues(result);
+        }
+        Pair<int[], double[][]> merged = mergeSteps(left, right);
+        double[] leftValues = merged.getRight()[0];
+        double[] rightValues = merged.getRight()[1];
+        apply(operator, leftValues, false, rightValues, false, leftValues, leftValues.length);
+        return Block.steps(merged.getLeft(), leftValues, false);
+    }
+
+    private static double[] getResultArray(Block left, double[] leftValues, Block right, double[] rightValues, int length) {
+        // values not coming from a shared block can be overwritten
+        if (left.kind != Block.Kind.CONSTANT && (left.kind != Block.Kind.DENSE || !left.shared)) {
+            return leftValues;
+        }
+        if (right.kind != Block.Kind.CONSTANT && (right.kind != Block.Kind.DENSE || !right.shared)) {
+            return rightValues;
+        }
+        return new double[length];
+    }
+
+    /**
+     * Express two step blocks on the union of their step starts.
+     */
+    private static Pair<int[], double[][]> mergeSteps(Block left, Block right) {
+        int capacity = Math.max(left.starts.length, right.starts.length);
+        TIntArrayList starts = new TIntArrayList(capacity);
+        TDoubleArrayList leftValues = new TDoubleArrayList(capacity);
+        TDoubleArrayList rightValues = new TDoubleArrayList(capacity);
+        int l = 0;
+        int r = 0;
+        while (l < left.starts.length || r < right.starts.length) {
+            int leftStart = l < left.starts.length ? left.starts[l] : Integer.MAX_VALUE;
+            int rightStart = r < right.starts.length ? right.starts[r] : Integer.MAX_VALUE;
+            int start = Math.min(leftStart, rightStart);
+            if (leftStart == start) {
+                l++;
+            }
+            if (rightStart == start) {
+                r++;
+            }
+            starts.add(start);
+            leftValues.add(l > 0 ? left.values[l - 1] : 0);
+            rightValues.add(r > 0 ? right.values[r - 1] : 0);
+        }
+        return Pair.of(starts.toArray(), new double[][] {leftValues.toArray(), rightValues.toArray()});
+    }
+
+    private static void apply(BinaryOperation.Operator operator, double[] left, boolean leftScalar, double[] right,
+                              boolean rightScalar, double[] result, int length) {
+        // a scalar operand is always read at index 0
+        int l = leftScalar ? 0 : -1;
+        int r = rightScalar ? 0 : -1;
+        switch (operator) {
+            case PLUS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] + right[i & r];
+                }
+                break;
+            case MINUS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] - right[i & r];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] * right[i & r];
+                }
+                break;
+            case DIVIDE:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] / right[i & r];
+                }
+                break;
+            case LESS_THAN:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] < right[i & r] ? 1d : 0d;
+                }
+                break;
+            case LESS_THAN_OR_EQUALS_TO:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] <= right[i & r] ? 1d : 0d;
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] > right[i & r] ? 1d : 0d;
+                }
+                break;
+            case GREATER_THAN_OR_EQUALS_TO:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] >= right[i & r] ? 1d : 0d;
+                }
+                break;
+            case EQUALS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] == right[i & r] ? 1d : 0d;
+                }
+                break;
+            case NOT_EQUALS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = left[i & l] != right[i & r] ? 1d : 0d;
+                }
+                break;
+            default:
+                throw new AssertionError("Unexpected operator value: " + operator);
+        }
+    }
+
+    @Override
+    public Pair<NodeCalc, NodeCalc> iterate(BinaryOperation nodeCalc, Void arg) {
+        return Pair.of(nodeCalc.getLeft(), nodeCalc.getRight());
+    }
+
+    @Override
+    public Block visit(UnaryOperation nodeCalc, Void arg, Block child) {
+        double[] values = child.values;
+        double[] result = child.getWritableValues();
+        switch (nodeCalc.getOperator()) {
+            case ABS:
+                for (int i = 0; i < values.length; i++) {
+                    result[i] = Math.abs(values[i]);
+                }
+                break;
+            case NEGATIVE:
+                for (int i = 0; i < values.length; i++) {
+                    result[i] = -values[i];
+                }
+                break;
+            case POSITIVE:
+                return child;
+            default:
+                throw new AssertionError("Unexpected operator value: " + nodeCalc.getOperator());
+        }
+        return child.withValues(result);
+    }
+
+    @Override
+    public NodeCalc iterate(UnaryOperation nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Block visit(MinNodeCalc nodeCalc, Void arg, Block child) {
+        double[] values = child.values;
+        double[] result = child.getWritableValues();
+        double min = nodeCalc.getMin();
+        for (int i = 0; i < values.length; i++) {
+            result[i] = Math.min(values[i], min);
+        }
+        return child.withValues(result);
+    }
+
+    @Override
+    public NodeCalc iterate(MinNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Block visit(MaxNodeCalc nodeCalc, Void arg, Block child) {
+        double[] values = child.values;
+        double[] result = child.getWritableValues();
+        double max = nodeCalc.getMax();
+        for (int i = 0; i < values.length; i++) {
+            result[i] = Math.max(values[i], max);
+        }
+        return child.withValues(result);
+    }
+
+    @Override
+    public NodeCalc iterate(MaxNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    private static AssertionError createWindowError() {
+        return new AssertionError("Window nodes should be evaluated point by point");
+    }
+
+    @Override
+    public Block visit(RollingNodeCalc nodeCalc, Void arg, Block child) {
+        throw createWindowError();
+    }
+
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, Void arg) {
+        throw createWindowError();
+    }
+
+    @Override
+    public Block visit(ShiftNodeCalc nodeCalc, Void arg, Block child) {
+        throw createWindowError();
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, Void arg) {
+        throw createWindowError();
+    }
+
+    @Override
+    public Block visit(ResampleNodeCalc nodeCalc, Void arg, Block child) {
+        throw createWindowError();
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, Void arg) {
+        throw createWindowError();
+    }
+
+    @Override
+    public Block visit(CumulativeSumNodeCalc nodeCalc, Void arg, Block child) {
+        throw createWindowError();
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, Void arg) {
+        throw createWindowError();
+    }
+
+    @Override
+    public Block visit(TimeSeriesNameNodeCalc nodeCalc, Void arg) {
+        throw new AssertionError("NodeCalc should have been resolved before");
+    }
+
+    @Override
+    public Block visit(TimeSeriesNumNodeCalc nodeCalc, Void arg) {
+        return timeSeriesBlocks.get(nodeCalc.getTimeSeriesNum());
+    }
+}
@@ -0,0 +1,524 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.powsybl.timeseries.ast.*;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Evaluates a resolved {@link NodeCalc} containing window nodes point by point, in the order of the index.
+ *
+ * <p>Each node gives its values one point after the other through a {@link Cursor}. Window nodes only keep the
+ * state their window needs: the values of the last points of a rolling window or of a shift, a running sum, the
+ * aggregation of the current period. So the evaluation is linear in the number of points and the values of all the
+ * points are never held at once. Nodes using the values of next points (shift with a negative lag, resampling) read
+ * their child ahead.
+ *
+ * <p>Unlike {@link NodeCalcBulkEvaluator}, time series values are read at each point, steps being repeated, as the
+ * result of a window node may change at any point. A resampling at the root of a tree depending on time series
+ * gives one value per period, on the index given by {@link #getIndex(NodeCalc, TimeSeriesIndex)}.
+ *
+ * @author agent <agent at local>
+ */
+final class NodeCalcStreamEvaluator implements NodeCalcVisitor<NodeCalcStreamEvaluator.Cursor, Void> {
+
+    /**
+     * Values of a node, one point after the other.
+     */
+    @FunctionalInterface
+    interface Cursor {
+
+        /**
+         * Get the value at the next point.
+         */
+        double next();
+    }
+
+    /**
+     * Aggregation of values, NaN values being ignored.
+     */
+    private static final class Aggregator {
+
+        private final WindowAggregation aggregation;
+
+        private double sum;
+
+        private double min;
+
+        private double max;
+
+        private int count;
+
+        private Aggregator(WindowAggregation aggregation) {
+            this.aggregation = Objects.requireNonNull(aggregation);
+            reset();
+        }
+
+        private void reset() {
+            sum = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            count = 0;
+        }
+
+        private void add(double value) {
+            if (!Double.isNaN(value)) {
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                count++;
+            }
+        }
+
+        private double get() {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            switch (aggregation) {
+                case SUM: return sum;
+                case MEAN: return sum / count;
+                case MIN: return min;
+                case MAX: return max;
+                default: throw new AssertionError("Unexpected aggregation value: " + aggregation);
+            }
+        }
+    }
+
+    private final TimeSeriesIndex index;
+
+    private final int pointCount;
+
+    private final List<DoubleTimeSeries> timeSeriesList;
+
+    private NodeCalcStreamEvaluator(TimeSeriesIndex index, List<DoubleTimeSeries> timeSeriesList) {
+        this.index = index;
+        this.pointCount = index.getPointCount();
+        this.timeSeriesList = timeSeriesList;
+    }
+
+    /**
+     * Evaluate a resolved node point by point.
+     *
+     * @param resolvedNodeCalc node in which time series are referenced by their number in the list
+     * @param timeSeriesList the time series, all on the given index
+     * @param index the index of the time series, or the index of the evaluation if there is no time series
+     * @return the values of the node at each point of {@link #getIndex(NodeCalc, TimeSeriesIndex)}
+     */
+    static Cursor eval(NodeCalc resolvedNodeCalc, List<DoubleTimeSeries> timeSeriesList, TimeSeriesIndex index) {
+        Objects.requireNonNull(resolvedNodeCalc);
+        Objects.requireNonNull(timeSeriesList);
+        Objects.requireNonNull(index);
+        if (resolvedNodeCalc instanceof ResampleNodeCalc && !timeSeriesList.isEmpty()) {
+            ResampleNodeCalc resampleNodeCalc = (ResampleNodeCalc) resolvedNodeCalc;
+            NodeCalc child = resampleNodeCalc.getChild();
+            return resample(resampleNodeCalc, eval(child, timeSeriesList, index), getIndex(child, index));
+        }
+        return resolvedNodeCalc.accept(new NodeCalcStreamEvaluator(index, timeSeriesList), null, 0);
+    }
+
+    /**
+     * Get the index of the values of a node depending on time series: the coarser index of its periods for a
+     * resampling, the index of the time series otherwise.
+     *
+     * @param nodeCalc the node
+     * @param index the index of the time series the node depends on
+     */
+    static TimeSeriesIndex getIndex(NodeCalc nodeCalc, TimeSeriesIndex index) {
+        Objects.requireNonNull(nodeCalc);
+        Objects.requireNonNull(index);
+        if (nodeCalc instanceof ResampleNodeCalc) {
+            ResampleNodeCalc resampleNodeCalc = (ResampleNodeCalc) nodeCalc;
+            return resampleNodeCalc.resample(getIndex(resampleNodeCalc.getChild(), index));
+        }
+        return index;
+    }
+
+    /**
+     * Aggregate the values of a child on each period of the resampled index.
+     */
+    private static Cursor resample(ResampleNodeCalc nodeCalc, Cursor child, TimeSeriesIndex childIndex) {
+        long period = nodeCalc.getPeriod();
+        int childPointCount = childIndex.getPointCount();
+        Aggregator aggregator = new Aggregator(nodeCalc.getAggregation());
+        return new Cursor() {
+
+            private long periodNum = Math.floorDiv(childIndex.getTimeAt(0), period);
+
+            private int childPoint = 0;
+
+            @Override
+            public double next() {
+                // periods without any point of the child are NaN
+                aggregator.reset();
+                while (childPoint < childPointCount && Math.floorDiv(childIndex.getTimeAt(childPoint), period) == periodNum) {
+                    aggregator.add(child.next());
+                    childPoint++;
+                }
+                periodNum++;
+                return aggregator.get();
+            }
+        };
+    }
+
+    private static Cursor read(DoubleTimeSeries timeSeries) {
+        Iterator<DoublePoint> it = timeSeries.iterator();
+        return new Cursor() {
+
+            private int point = 0;
+
+            private double value = Double.NaN;
+
+            private DoublePoint nextPoint = it.hasNext() ? it.next() : null;
+
+            @Override
+            public double next() {
+                // the value of a point is kept until the next one
+                while (nextPoint != null && nextPoint.getIndex() <= point) {
+                    value = nextPoint.getValue();
+                    nextPoint = it.hasNext() ? it.next() : null;
+                }
+                point++;
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public Cursor visit(IntegerNodeCalc nodeCalc, Void arg) {
+        double value = nodeCalc.toDouble();
+        return () -> value;
+    }
+
+    @Override
+    public Cursor visit(FloatNodeCalc nodeCalc, Void arg) {
+        double value = nodeCalc.toDouble();
+        return () -> value;
+    }
+
+    @Override
+    public Cursor visit(DoubleNodeCalc nodeCalc, Void arg) {
+        double value = nodeCalc.getValue();
+        return () -> value;
+    }
+
+    @Override
+    public Cursor visit(BigDecimalNodeCalc nodeCalc, Void arg) {
+        double value = nodeCalc.toDouble();
+        return () -> value;
+    }
+
+    @Override
+    public Cursor visit(TimeNodeCalc nodeCalc, Void arg, Cursor child) {
+        return new Cursor() {
+
+            private int point = 0;
+
+            @Override
+            public double next() {
+                return index.getTimeAt(point++);
+            }
+        };
+    }
+
+    @Override
+    public NodeCalc iterate(TimeNodeCalc nodeCalc, Void arg) {
+        return null;
+    }
+
+    private static DoubleBinaryOperator getOperator(BinaryOperation.Operator operator) {
+        switch (operator) {
+            case PLUS: return (left, right) -> left + right;
+            case MINUS: return (left, right) -> left - right;
+            case MULTIPLY: return (left, right) -> left * right;
+            case DIVIDE: return (left, right) -> left / right;
+            case LESS_THAN: return (left, right) -> left < right ? 1d : 0d;
+            case LESS_THAN_OR_EQUALS_TO: return (left, right) -> left <= right ? 1d : 0d;
+            case GREATER_THAN: return (left, right) -> left > right ? 1d : 0d;
+            case GREATER_THAN_OR_EQUALS_TO: return (left, right) -> left >= right ? 1d : 0d;
+            case EQUALS: return (left, right) -> left == right ? 1d : 0d;
+            case NOT_EQUALS: return (left, right) -> left != right ? 1d : 0d;
+            default: throw new AssertionError("Unexpected operator value: " + operator);
+        }
+    }
+
+    @Override
+    public Cursor visit(BinaryOperation nodeCalc, Void arg, Cursor left, Cursor right) {
+        DoubleBinaryOperator operator = getOperator(nodeCalc.getOperator());
+        return () -> operator.applyAsDouble(left.next(), right.next());
+    }
+
+    @Override
+    public Pair<NodeCalc, NodeCalc> iterate(BinaryOperation nodeCalc, Void arg) {
+        return Pair.of(nodeCalc.getLeft(), nodeCalc.getRight());
+    }
+
+    @Override
+    public Cursor visit(UnaryOperation nodeCalc, Void arg, Cursor child) {
+        switch (nodeCalc.getOperator()) {
+            case ABS: return () -> Math.abs(child.next());
+            case NEGATIVE: return () -> -child.next();
+            case POSITIVE: return child;
+            default: throw new AssertionError("Unexpected operator value: " + nodeCalc.getOperator());
+        }
+    }
+
+    @Override
+    public NodeCalc iterate(UnaryOperation nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(MinNodeCalc nodeCalc, Void arg, Cursor child) {
+        double min = nodeCalc.getMin();
+        return () -> Math.min(child.next(), min);
+    }
+
+    @Override
+    public NodeCalc iterate(MinNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(MaxNodeCalc nodeCalc, Void arg, Cursor child) {
+        double max = nodeCalc.getMax();
+        return () -> Math.max(child.next(), max);
+    }
+
+    @Override
+    public NodeCalc iterate(MaxNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(RollingNodeCalc nodeCalc, Void arg, Cursor child) {
+        switch (nodeCalc.getAggregation()) {
+            case SUM:
+                return rollingSum(child, nodeCalc.getWindow(), false);
+            case MEAN:
+                return rollingSum(child, nodeCalc.getWindow(), true);
+            case MIN:
+                return rollingMinMax(child, nodeCalc.getWindow(), false);
+            case MAX:
+                return rollingMinMax(child, nodeCalc.getWindow(), true);
+            default:
+                throw new AssertionError("Unexpected aggregation value: " + nodeCalc.getAggregation());
+        }
+    }
+
+    private Cursor rollingSum(Cursor child, int window, boolean mean) {
+        // values of the points of the window, by point modulo the window size
+        double[] windowValues = new double[Math.min(window, pointCount)];
+        return new Cursor() {
+
+            private int point = 0;
+
+            private double sum = 0;
+
+            private int count = 0;
+
+            @Override
+            public double next() {
+                int position = point % windowValues.length;
+                if (point >= window && !Double.isNaN(windowValues[position])) {
+                    sum -= windowValues[position];
+                    count--;
+                }
+                double value = child.next();
+                windowValues[position] = value;
+                if (!Double.isNaN(value)) {
+                    sum += value;
+                    count++;
+                }
+                point++;
+                if (count == 0) {
+                    sum = 0; // no rounding error accumulation
+                    return Double.NaN;
+                }
+                return mean ? sum / count : sum;
+            }
+        };
+    }
+
+    private Cursor rollingMinMax(Cursor child, int window, boolean max) {
+        // points of the window which can still be the min (or max), in increasing order of point and of value (or
+        // decreasing order of value), so that the min (or max) is the first one: a circular queue
+        int capacity = Math.min(window, pointCount);
+        int[] candidatePoints = new int[capacity];
+        double[] candidateValues = new double[capacity];
+        return new Cursor() {
+
+            private int point = 0;
+
+            private int head = 0;
+
+            private int size = 0;
+
+            @Override
+            public double next() {
+                if (size > 0 && candidatePoints[head] <= point - window) {
+                    head = (head + 1) % capacity;
+                    size--;
+                }
+                double value = child.next();
+                if (!Double.isNaN(value)) {
+                    while (size > 0) {
+                        double lastValue = candidateValues[(head + size - 1) % capacity];
+                        if (max ? lastValue > value : lastValue < value) {
+                            break;
+                        }
+                        size--;
+                    }
+                    int tail = (head + size) % capacity;
+                    candidatePoints[tail] = point;
+                    candidateValues[tail] = value;
+                    size++;
+                }
+                point++;
+                return size > 0 ? candidateValues[head] : Double.NaN;
+            }
+        };
+    }
+
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(ShiftNodeCalc nodeCalc, Void arg, Cursor child) {
+        int lag = nodeCalc.getLag();
+        if (lag == 0) {
+            return child;
+        }
+        if (Math.abs((long) lag) >= pointCount) {
+            // no point of the child is in the index once shifted
+            return () -> Double.NaN;
+        }
+        return lag > 0 ? lag(child, lag) : lead(child, -lag);
+    }
+
+    private static Cursor lag(Cursor child, int lag) {
+        // values of the last points, by point modulo the lag
+        double[] lastValues = new double[lag];
+        return new Cursor() {
+
+            private int point = 0;
+
+            @Override
+            public double next() {
+                int position = point % lag;
+                double value = point >= lag ? lastValues[position] : Double.NaN;
+                lastValues[position] = child.next();
+                point++;
+                return value;
+            }
+        };
+    }
+
+    private Cursor lead(Cursor child, int lead) {
+        // values of the current point to the one read ahead, by point modulo the lead + 1
+        double[] nextValues = new double[lead + 1];
+        return new Cursor() {
+
+            private int point = 0;
+
+            private int readPointCount = 0;
+
+            @Override
+            public double next() {
+                int leadPoint = point + lead;
+                point++;
+                if (leadPoint >= pointCount) {
+                    return Double.NaN;
+                }
+                while (readPointCount <= leadPoint) {
+                    nextValues[readPointCount % nextValues.length] = child.next();
+                    readPointCount++;
+                }
+                return nextValues[leadPoint % nextValues.length];
+            }
+        };
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(ResampleNodeCalc nodeCalc, Void arg, Cursor child) {
+        // the aggregation of the whole period is needed at its first point: the child is read until the period end
+        long period = nodeCalc.getPeriod();
+        Aggregator aggregator = new Aggregator(nodeCalc.getAggregation());
+        return new Cursor() {
+
+            private int point = 0;
+
+            private int periodEnd = 0;
+
+            private double value = Double.NaN;
+
+            @Override
+            public double next() {
+                if (point == periodEnd) {
+                    long periodNum = Math.floorDiv(index.getTimeAt(point), period);
+                    aggregator.reset();
+                    do {
+                        aggregator.add(child.next());
+                        periodEnd++;
+                    } while (periodEnd < pointCount && Math.floorDiv(index.getTimeAt(periodEnd), period) == periodNum);
+                    value = aggregator.get();
+                }
+                point++;
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(CumulativeSumNodeCalc nodeCalc, Void arg, Cursor child) {
+        return new Cursor() {
+
+            private double sum = 0;
+
+            @Override
+            public double next() {
+                double value = child.next();
+                if (Double.isNaN(value)) {
+                    return value;
+                }
+                sum += value;
+                return sum;
+            }
+        };
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Cursor visit(TimeSeriesNameNodeCalc nodeCalc, Void arg) {
+        throw new AssertionError("NodeCalc should have been resolved before");
+    }
+
+    @Override
+    public Cursor visit(TimeSeriesNumNodeCalc nodeCalc, Void arg) {
+        return read(timeSeriesList.get(nodeCalc.getTimeSeriesNum()));
+    }
+}
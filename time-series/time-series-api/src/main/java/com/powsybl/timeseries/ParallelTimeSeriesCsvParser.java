@@ -0,0 +1,564 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.primitives.Doubles;
+import gnu.trove.list.array.TDoubleArrayList;
+import org.slf4j.LoggerFactory;
+import org.supercsv.io.CsvListReader;
+import org.supercsv.prefs.CsvPreference;
+import org.threeten.extra.Interval;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Parses a time series CSV file in parallel. It gives the same result as {@link TimeSeries#parseCsv(Path, char)}.
+ *
+ * <p>The file is split into byte ranges on line boundaries. Ranges are memory mapped and parsed in parallel:
+ * numbers are parsed directly from the bytes, without creating strings. Values of each range are then merged and
+ * each time series is built, and compressed when it is worth it, in parallel.
+ *
+ * <p>Quoted values are supported, but not line breaks inside quoted values.
+ *
+ * @author agent <agent at local>
+ */
+public final class ParallelTimeSeriesCsvParser {
+
+    private static final long MIN_RANGE_SIZE = 1L << 20;
+
+    private static final long MAX_RANGE_SIZE = 1L << 28;
+
+    private static final long MAX_SAFE_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final byte QUOTE = '"';
+
+    private final FileChannel channel;
+
+    private final byte separator;
+
+    private final int rangeCount;
+
+    private List<String> names;
+
+    private TimeSeriesDataType[] dataTypes;
+
+    /**
+     * Values of consecutive lines of a same version in a range.
+     */
+    private final class Segment {
+
+        private final int version;
+
+        private final List<ZonedDateTime> times = new ArrayList<>();
+
+        private final Object[] values = new Object[names.size()];
+
+        private Segment(int version) {
+            this.version = version;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = dataTypes[i] == TimeSeriesDataType.DOUBLE ? new TDoubleArrayList() : new ArrayList<String>();
+            }
+        }
+    }
+
+    /**
+     * Fields of a line: start and end positions in the buffer, or the decoded string for quoted fields.
+     */
+    private final class Line {
+
+        private final int[] starts = new int[names.size() + 2];
+
+        private final int[] ends = new int[names.size() + 2];
+
+        private final String[] quotedValues = new String[names.size() + 2];
+
+        private int fieldCount;
+
+        private void tokenize(ByteBuffer buffer, int start, int end) {
+            fieldCount = 0;
+            int p = start;
+            while (true) {
+                int fieldStart = p;
+                String quotedValue = null;
+                if (p < end && buffer.get(p) == QUOTE) {
+                    StringBuilder value = new StringBuilder();
+                    p = readQuotedValue(buffer, p + 1, end, value);
+                    // characters following the closing quote are kept
+                    int tailStart = p;
+                    while (p < end && buffer.get(p) != separator) {
+                        p++;
+                    }
+                    value.append(decode(buffer, tailStart, p));
+                    quotedValue = value.toString();
+                } else {
+                    while (p < end && buffer.get(p) != separator) {
+                        p++;
+                    }
+                }
+                if (fieldCount < starts.length) {
+                    starts[fieldCount] = fieldStart;
+                    ends[fieldCount] = p;
+                    quotedValues[fieldCount] = quotedValue;
+                }
+                fieldCount++;
+                if (p >= end) {
+                    break;
+                }
+                p++; // skip separator
+            }
+        }
+
+        private int readQuotedValue(ByteBuffer buffer, int start, int end, StringBuilder value) {
+            int p = start;
+            int chunkStart = p;
+            while (true) {
+                if (p >= end) {
+                    throw new TimeSeriesException("Line breaks in quoted values are not supported by the parallel CSV parser");
+                }
+                if (buffer.get(p) == QUOTE) {
+                    value.append(decode(buffer, chunkStart, p));
+                    if (p + 1 < end && buffer.get(p + 1) == QUOTE) {
+                        // escaped quote
+                        value.append('"');
+                        p += 2;
+                        chunkStart = p;
+                    } else {
+                        return p + 1;
+                    }
+                } else {
+                    p++;
+                }
+            }
+        }
+
+        private String getString(ByteBuffer buffer, int field) {
+            return quotedValues[field] != null ? quotedValues[field] : decode(buffer, starts[field], ends[field]);
+        }
+
+        /**
+         * Trimmed token, as parsed by {@link TimeSeries#parseCsv(Path, char)}.
+         */
+        private String getToken(ByteBuffer buffer, int field) {
+            return field < fieldCount ? getString(buffer, field).trim() : "";
+        }
+
+        private double getDouble(ByteBuffer buffer, int field) {
+            if (field >= fieldCount) {
+                return Double.NaN;
+            }
+            if (quotedValues[field] != null) {
+                return TimeSeries.parseDouble(quotedValues[field].trim());
+            }
+            int start = starts[field];
+            int end = ends[field];
+            while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+                start++;
+            }
+            while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+                end--;
+            }
+            return parseDouble(buffer, start, end);
+        }
+
+        private int getInt(ByteBuffer buffer, int field) {
+            if (quotedValues[field] == null) {
+                int start = starts[field];
+                int end = ends[field];
+                boolean negative = start < end && buffer.get(start) == '-';
+                int p = negative ? start + 1 : start;
+                // at most 9 digits to avoid overflows
+                if (p < end && end - p <= 9) {
+                    int value = 0;
+                    for (; p < end; p++) {
+                        int digit = buffer.get(p) - '0';
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        }
+                        value = value * 10 + digit;
+                    }
+                    if (p == end) {
+                        return negative ? -value : value;
+                    }
+                }
+            }
+            return Integer.parseInt(getString(buffer, field));
+        }
+    }
+
+    private ParallelTimeSeriesCsvParser(FileChannel channel, char separator, int rangeCount) {
+        this.channel = channel;
+        this.separator = (byte) separator;
+        this.rangeCount = rangeCount;
+    }
+
+    public static Map<Integer, List<TimeSeries>> parse(Path file) {
+        return parse(file, TimeSeriesConstants.DEFAULT_SEPARATOR);
+    }
+
+    public static Map<Integer, List<TimeSeries>> parse(Path file, char separator) {
+        return parse(file, separator, 0);
+    }
+
+    /**
+     * @param rangeCount number of ranges the file is split into, or 0 to choose it from the size of the file
+     */
+    static Map<Integer, List<TimeSeries>> parse(Path file, char separator, int rangeCount) {
+        Objects.requireNonNull(file);
+        if (separator > 0x7F || separator == '"' || separator == '\n' || separator == '\r') {
+            throw new IllegalArgumentException("Unsupported separator '" + separator + "'");
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            timeSeriesPerVersion = new ParallelTimeSeriesCsvParser(channel, separator, rangeCount).parse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        LoggerFactory.getLogger(ParallelTimeSeriesCsvParser.class)
+                .info("{} time series loaded from CSV in {} ms",
+                        timeSeriesPerVersion.values().stream().mapToInt(List::size).sum(),
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+
+        return timeSeriesPerVersion;
+    }
+
+    private Map<Integer, List<TimeSeries>> parse() throws IOException {
+        long size = channel.size();
+
+        long dataStart = readHeader(size);
+        long firstLineEnd = readDataTypes(dataStart, size);
+        if (firstLineEnd < 0) {
+            throw new TimeSeriesException("At least 2 rows are expected");
+        }
+
+        long[] bounds = computeRangeBounds(dataStart, size);
+        List<List<Segment>> segmentsPerRange = IntStream.range(0, bounds.length - 1)
+                .parallel()
+                .mapToObj(i -> parseRange(bounds[i], bounds[i + 1]))
+                .collect(Collectors.toList());
+
+        // group consecutive segments of the same version
+        List<List<Segment>> groups = new ArrayList<>();
+        for (List<Segment> segments : segmentsPerRange) {
+            for (Segment segment : segments) {
+                if (groups.isEmpty() || groups.get(groups.size() - 1).get(0).version != segment.version) {
+                    groups.add(new ArrayList<>());
+                }
+                groups.get(groups.size() - 1).add(segment);
+            }
+        }
+
+        Map<Integer, List<TimeSeries>> timeSeriesPerVersion = new HashMap<>();
+        TimeSeriesIndex refIndex = null;
+        for (List<Segment> group : groups) {
+            TimeSeriesIndex index = createIndex(group);
+            // check all data version have the same index
+            if (refIndex != null && !index.equals(refIndex)) {
+                throw new TimeSeriesException("All version of the data must have the same index: " + refIndex + " != " + index);
+            }
+            refIndex = index;
+            List<TimeSeries> timeSeriesList = IntStream.range(0, names.size())
+                    .parallel()
+                    .mapToObj(i -> createTimeSeries(i, group, index))
+                    .collect(Collectors.toList());
+            timeSeriesPerVersion.put(group.get(0).version, timeSeriesList);
+        }
+        return timeSeriesPerVersion;
+    }
+
+    private ByteBuffer map(long start, long end) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Position of the first byte after the end of the line containing a position, or the size of the file.
+     */
+    private long findNextLineStart(long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long p = position;
+        while (p < size) {
+            buffer.clear();
+            int read = channel.read(buffer, p);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += read;
+        }
+        return size;
+    }
+
+    private static int trimLineEnd(ByteBuffer buffer, int start, int end) {
+        int e = end;
+        if (e > start && buffer.get(e - 1) == '\n') {
+            e--;
+        }
+        if (e > start && buffer.get(e - 1) == '\r') {
+            e--;
+        }
+        return e;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readHeader(long size) throws IOException {
+        long headerEnd = findNextLineStart(0, size);
+        ByteBuffer buffer = map(0, headerEnd);
+        String header = decode(buffer, 0, trimLineEnd(buffer, 0, (int) headerEnd));
+        CsvListReader csvListReader = new CsvListReader(new StringReader(header), new CsvPreference.Builder('"', (char) separator, System.lineSeparator()).build());
+        names = TimeSeries.readCsvHeader(csvListReader, Character.toString((char) separator)).names;
+        return headerEnd;
+    }
+
+    /**
+     * Find data types from the first line of data, as {@link TimeSeries#parseCsv(Path, char)} does.
+     *
+     * @return the end of the first line of data, or -1 if there is no data
+     */
+    private long readDataTypes(long dataStart, long size) throws IOException {
+        dataTypes = new TimeSeriesDataType[names.size()];
+        long lineStart = dataStart;
+        while (lineStart < size) {
+            long lineEnd = findNextLineStart(lineStart, size);
+            ByteBuffer buffer = map(lineStart, lineEnd);
+            int end = trimLineEnd(buffer, 0, buffer.limit());
+            if (end > 0) {
+                Line line = new Line();
+                line.tokenize(buffer, 0, end);
+                for (int i = 0; i < names.size(); i++) {
+                    dataTypes[i] = Doubles.tryParse(line.getToken(buffer, i + 2)) != null ? TimeSeriesDataType.DOUBLE : TimeSeriesDataType.STRING;
+                }
+                return lineEnd;
+            }
+            lineStart = lineEnd;
+        }
+        return -1;
+    }
+
+    private long[] computeRangeBounds(long dataStart, long size) throws IOException {
+        long dataSize = size - dataStart;
+        long count = rangeCount;
+        if (count <= 0) {
+            count = Math.max((dataSize + MAX_RANGE_SIZE - 1) / MAX_RANGE_SIZE,
+                             Math.min(Runtime.getRuntime().availableProcessors() * 4L, dataSize / MIN_RANGE_SIZE));
+        }
+        count = Math.max(Math.min(count, Math.max(dataSize, 1)), 1);
+        long[] bounds = new long[(int) count + 1];
+        bounds[0] = dataStart;
+        for (int i = 1; i < count; i++) {
+            long nominalBound = dataStart + i * dataSize / count;
+            bounds[i] = Math.max(bounds[i - 1], findNextLineStart(nominalBound - 1, size));
+        }
+        bounds[(int) count] = size;
+        return bounds;
+    }
+
+    private List<Segment> parseRange(long start, long end) {
+        List<Segment> segments = new ArrayList<>();
+        if (start >= end) {
+            return segments;
+        }
+        ByteBuffer buffer = map(start, end);
+        Line line = new Line();
+        Segment segment = null;
+        int lineStart = 0;
+        int limit = buffer.limit();
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int nextLineStart = lineEnd + 1;
+            lineEnd = trimLineEnd(buffer, lineStart, lineEnd);
+            if (lineEnd > lineStart) {
+                line.tokenize(buffer, lineStart, lineEnd);
+                if (line.fieldCount != names.size() + 2 && line.fieldCount != names.size() + 1) {
+                    throw new TimeSeriesException("Columns of line starting at byte " + (start + lineStart) + " are inconsistent with header");
+                }
+                int version = line.getInt(buffer, 1);
+                if (segment == null || segment.version != version) {
+                    segment = new Segment(version);
+                    segments.add(segment);
+                }
+                parseLine(buffer, line, segment);
+            }
+            lineStart = nextLineStart;
+        }
+        return segments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseLine(ByteBuffer buffer, Line line, Segment segment) {
+        for (int i = 0; i < names.size(); i++) {
+            if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+                ((TDoubleArrayList) segment.values[i]).add(line.getDouble(buffer, i + 2));
+            } else {
+                ((List<String>) segment.values[i]).add(TimeSeries.checkString(line.getToken(buffer, i + 2)));
+            }
+        }
+        segment.times.add(ZonedDateTime.parse(line.getString(buffer, 0)));
+    }
+
+    /**
+     * Parse a number from bytes. Numbers whose digits fit exactly in a double and with a small exponent, which is
+     * the case of most numbers, are parsed exactly with a single floating point operation. Other numbers are parsed
+     * by {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return Double.NaN;
+        }
+        int p = start;
+        boolean negative = false;
+        byte b = buffer.get(p);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            p++;
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int exponent = 0;
+        boolean dot = false;
+        boolean digits = false;
+        for (; p < end; p++) {
+            b = buffer.get(p);
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                if (digitCount >= 18) {
+                    return parseDoubleSlow(buffer, start, end);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    digitCount++;
+                }
+                if (dot) {
+                    exponent--;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (!digits) {
+            return parseDoubleSlow(buffer, start, end);
+        }
+        if (p < end) {
+            b = buffer.get(p);
+            if (b != 'e' && b != 'E') {
+                return parseDoubleSlow(buffer, start, end);
+            }
+            p++;
+            boolean negativeExponent = false;
+            if (p < end && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+                negativeExponent = buffer.get(p) == '-';
+                p++;
+            }
+            if (p == end || end - p > 3) {
+                return parseDoubleSlow(buffer, start, end);
+            }
+            int explicitExponent = 0;
+            for (; p < end; p++) {
+                b = buffer.get(p);
+                if (b < '0' || b > '9') {
+                    return parseDoubleSlow(buffer, start, end);
+                }
+                explicitExponent = explicitExponent * 10 + (b - '0');
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (mantissa > MAX_SAFE_MANTISSA) {
+            return parseDoubleSlow(buffer, start, end);
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (exponent == 0) {
+            value = mantissa;
+        } else if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseDoubleSlow(buffer, start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    private static double parseDoubleSlow(ByteBuffer buffer, int start, int end) {
+        return Double.parseDouble(decode(buffer, start, end));
+    }
+
+    private static TimeSeriesIndex createIndex(List<Segment> group) {
+        List<ZonedDateTime> times = new ArrayList<>();
+        group.forEach(segment -> times.addAll(segment.times));
+        if (times.size() < 2) {
+            throw new TimeSeriesException("At least 2 rows are expected");
+        }
+        // check time spacing is regular
+        Duration spacing = Duration.between(times.get(0), times.get(1));
+        for (int i = 2; i < times.size(); i++) {
+            if (!Duration.between(times.get(i - 1), times.get(i)).equals(spacing)) {
+                throw new TimeSeriesException("Time spacing has to be regular");
+            }
+        }
+        Interval interval = Interval.of(times.get(0).toInstant(), times.get(times.size() - 1).toInstant());
+        return RegularTimeSeriesIndex.create(interval, spacing);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TimeSeries createTimeSeries(int i, List<Segment> group, TimeSeriesIndex index) {
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata(names.get(i), dataTypes[i], index);
+        if (dataTypes[i] == TimeSeriesDataType.DOUBLE) {
+            double[] values = new double[group.stream().mapToInt(segment -> ((TDoubleArrayList) segment.values[i]).size()).sum()];
+            int offset = 0;
+            for (Segment segment : group) {
+                TDoubleArrayList segmentValues = (TDoubleArrayList) segment.values[i];
+                segmentValues.toArray(values, 0, offset, segmentValues.size());
+                offset += segmentValues.size();
+            }
+            return new StoredDoubleTimeSeries(metadata, new UncompressedDoubleDataChunk(0, values).tryToCompress());
+        } else {
+            List<String> values = new ArrayList<>();
+            group.forEach(segment -> values.addAll((List<String>) segment.values[i]));
+            return new StringTimeSeries(metadata, new UncompressedStringDataChunk(0, values.toArray(new String[0])).tryToCompress());
+        }
+    }
+}
@@ -6,9 +6,15 @@
  */
 package com.powsybl.timeseries;
 
+import org.threeten.extra.Interval;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -38,6 +44,101 @@ public interface ReadOnlyTimeSeriesStore {
 
     List<StringTimeSeries> getStringTimeSeries(Set<String> timeSeriesNames, int version);
 
+    /**
+     * Get a version of a double time series restricted to a time interval.
+     *
+     * <p>By default, only the metadata of the time series are loaded when it has no point in the interval, otherwise
+     * the whole time series is loaded before being sliced. Stores able to read only a part of a time series should
+     * override the range queries.
+     *
+     * @return the sliced time series, or nothing if the time series does not exist or has no point in the interval
+     */
+    default Optional<DoubleTimeSeries> getDoubleTimeSeries(String timeSeriesName, int version, Interval interval) {
+        Objects.requireNonNull(interval);
+        return getTimeSeriesMetadata(timeSeriesName)
+                .filter(metadata -> hasPoints(metadata, interval))
+                .flatMap(metadata -> getDoubleTimeSeries(timeSeriesName, version))
+                .map(timeSeries -> timeSeries.slice(interval));
+    }
+
+    default List<DoubleTimeSeries> getDoubleTimeSeries(Set<String> timeSeriesNames, int version, Interval interval) {
+        Set<String> namesWithPoints = getTimeSeriesNames(this, timeSeriesNames, interval);
+        if (namesWithPoints.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return getDoubleTimeSeries(namesWithPoints, version).stream()
+                .map(timeSeries -> timeSeries.slice(interval))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a version of a double time series restricted to the points [start, end[ of its index. By default, the whole
+     * time series is loaded before being sliced.
+     */
+    default Optional<DoubleTimeSeries> getDoubleTimeSeries(String timeSeriesName, int version, int start, int end) {
+        return getDoubleTimeSeries(timeSeriesName, version).map(timeSeries -> timeSeries.slice(start, end));
+    }
+
+    default List<DoubleTimeSeries> getDoubleTimeSeries(Set<String> timeSeriesNames, int version, int start, int end) {
+        return getDoubleTimeSeries(timeSeriesNames, version).stream()
+                .map(timeSeries -> timeSeries.slice(start, end))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a version of a string time series restricted to a time interval.
+     *
+     * @return the sliced time series, or nothing if the time series does not exist or has no point in the interval
+     */
+    default Optional<StringTimeSeries> getStringTimeSeries(String timeSeriesName, int version, Interval interval) {
+        Objects.requireNonNull(interval);
+        return getTimeSeriesMetadata(timeSeriesName)
+                .filter(metadata -> hasPoints(metadata, interval))
+                .flatMap(metadata -> getStringTimeSeries(timeSeriesName, version))
+                .map(timeSeries -> timeSeries.slice(interval));
+    }
+
+    default List<StringTimeSeries> getStringTimeSeries(Set<String> timeSeriesNames, int version, Interval interval) {
+        Set<String> namesWithPoints = getTimeSeriesNames(this, timeSeriesNames, interval);
+        if (namesWithPoints.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return getStringTimeSeries(namesWithPoints, version).stream()
+                .map(timeSeries -> timeSeries.slice(interval))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a version of a string time series restricted to the points [start, end[ of its index. By default, the whole
+     * time series is loaded before being sliced.
+     */
+    default Optional<StringTimeSeries> getStringTimeSeries(String timeSeriesName, int version, int start, int end) {
+        return getStringTimeSeries(timeSeriesName, version).map(timeSeries -> timeSeries.slice(start, end));
+    }
+
+    default List<StringTimeSeries> getStringTimeSeries(Set<String> timeSeriesNames, int version, int start, int end) {
+        return getStringTimeSeries(timeSeriesNames, version).stream()
+                .map(timeSeries -> timeSeries.slice(start, end))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the names of the time series of a store having at least one point in a time interval.
+     */
+    static Set<String> getTimeSeriesNames(ReadOnlyTimeSeriesStore store, Set<String> timeSeriesNames, Interval interval) {
+        Objects.requireNonNull(timeSeriesNames);
+        Objects.requireNonNull(interval);
+        return store.getTimeSeriesMetadata(timeSeriesNames).stream()
+                .filter(metadata -> hasPoints(metadata, interval))
+                .map(TimeSeriesMetadata::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    static boolean hasPoints(TimeSeriesMetadata metadata, Interval interval) {
+        TimeSeriesIndex index = metadata.getIndex();
+        return index.getPointAtOrAfter(interval.getStart().toEpochMilli()) < index.getPointAtOrAfter(interval.getEnd().toEpochMilli());
+    }
+
     void addListener(TimeSeriesStoreListener listener);
 
     void removeListener(TimeSeriesStoreListener listener);
@@ -94,17 +94,13 @@ public class ReadOnlyTimeSeriesStoreCache implements ReadOnlyTimeSeriesStore {
         return Collections.emptyList();
     }
 
-    private static UnsupportedOperationException createNotImplementedException() {
-        return new UnsupportedOperationException("Not implemented");
-    }
-
     @Override
     public void addListener(TimeSeriesStoreListener listener) {
-        throw createNotImplementedException();
+        // the store is never modified
     }
 
     @Override
     public void removeListener(TimeSeriesStoreListener listener) {
-        throw createNotImplementedException();
+        // the store is never modified
     }
 }
@@ -137,6 +137,25 @@ public class RegularTimeSeriesIndex extends AbstractTimeSeriesIndex {
         return startTime + point * spacing;
     }
 
+    @Override
+    public int getPointAtOrAfter(long time) {
+        if (time <= startTime) {
+            return 0;
+        }
+        long point = (time - startTime + spacing - 1) / spacing;
+        return (int) Math.min(point, pointCount);
+    }
+
+    @Override
+    public TimeSeriesIndex slice(int start, int end) {
+        TimeSeriesIndex.checkSlice(this, start, end);
+        if (end - start == 1) {
+            // a regular index has at least 2 points
+            return new IrregularTimeSeriesIndex(new long[] {getTimeAt(start)});
+        }
+        return new RegularTimeSeriesIndex(getTimeAt(start), getTimeAt(end - 1), spacing);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(startTime, endTime, spacing);
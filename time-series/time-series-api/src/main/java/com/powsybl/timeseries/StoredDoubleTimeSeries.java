@@ -34,6 +34,11 @@ public class StoredDoubleTimeSeries extends AbstractTimeSeries<DoublePoint, Doub
         return new StoredDoubleTimeSeries(metadata, chunk);
     }
 
+    @Override
+    protected DoubleTimeSeries createTimeSeries(TimeSeriesMetadata metadata, List<DoubleDataChunk> chunks) {
+        return new StoredDoubleTimeSeries(metadata, chunks);
+    }
+
     private void forEachChunk(Consumer<DoubleDataChunk> consumer) {
         chunks.forEach(consumer);
     }
@@ -34,6 +34,11 @@ public class StringTimeSeries extends AbstractTimeSeries<StringPoint, StringData
         return new StringTimeSeries(metadata, chunk);
     }
 
+    @Override
+    protected StringTimeSeries createTimeSeries(TimeSeriesMetadata metadata, List<StringDataChunk> chunks) {
+        return new StringTimeSeries(metadata, chunks);
+    }
+
     private void forEachChunk(Consumer<StringDataChunk> consumer) {
         chunks.forEach(consumer);
     }
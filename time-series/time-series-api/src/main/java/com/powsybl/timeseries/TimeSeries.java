@@ -45,6 +45,32 @@ public interface TimeSeries<P extends AbstractPoint, T extends TimeSeries<P, T>>
 
     List<T> split(int newChunkSize);
 
+    /**
+     * Get the time series restricted to the points [start, end[ of its index.
+     *
+     * @param start first point of the slice
+     * @param end point following the last point of the slice
+     * @return the sliced time series, with an index starting at the first point of the slice
+     */
+    T slice(int start, int end);
+
+    /**
+     * Get the time series restricted to the points of its index included in a time interval.
+     *
+     * @param interval a time interval, start inclusive and end exclusive
+     * @return the sliced time series
+     */
+    default T slice(Interval interval) {
+        Objects.requireNonNull(interval);
+        TimeSeriesIndex index = getMetadata().getIndex();
+        int start = index.getPointAtOrAfter(interval.getStart().toEpochMilli());
+        int end = index.getPointAtOrAfter(interval.getEnd().toEpochMilli());
+        if (start >= end) {
+            throw new IllegalArgumentException("No point of time series '" + getMetadata().getName() + "' in " + interval);
+        }
+        return slice(start, end);
+    }
+
     void setTimeSeriesNameResolver(TimeSeriesNameResolver resolver);
 
     static StoredDoubleTimeSeries createDouble(String name, TimeSeriesIndex index) {
@@ -32,4 +32,48 @@ public interface TimeSeriesIndex extends Iterable<Instant> {
     Stream<Instant> stream();
 
     Iterator<Instant> iterator();
+
+    /**
+     * Get the first point whose time is greater than or equal to a time.
+     *
+     * @param time a time in ms from epoch
+     * @return the first point at or after the time, or the point count if there is none
+     */
+    default int getPointAtOrAfter(long time) {
+        // binary search, times are sorted
+        int low = 0;
+        int high = getPointCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getTimeAt(middle) < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get an index with the points [start, end[ of this index.
+     *
+     * @param start first point of the slice
+     * @param end point following the last point of the slice
+     * @return the index of the slice
+     */
+    default TimeSeriesIndex slice(int start, int end) {
+        checkSlice(this, start, end);
+        long[] times = new long[end - start];
+        for (int point = start; point < end; point++) {
+            times[point - start] = getTimeAt(point);
+        }
+        return new IrregularTimeSeriesIndex(times);
+    }
+
+    static void checkSlice(TimeSeriesIndex index, int start, int end) {
+        if (start < 0 || end > index.getPointCount() || start >= end) {
+            throw new IllegalArgumentException("Bad slice [" + start + ", " + end + "[ of point range [0, "
+                    + index.getPointCount() + "[");
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.IntFunction;
@@ -140,12 +141,35 @@ public class TimeSeriesTable {
 
     private final Lock initLock = new ReentrantLock();
 
-    // statistics
-    private double[] means;
+    // statistics, an invalid statistics object is replaced by the computed one only if it has not been invalidated again
+    // by a concurrent load
+    private static final class Statistics {
 
-    private double[] stdDevs;
+        private final double mean;
 
-    private final Lock statsLock = new ReentrantLock();
+        private final double stdDev;
+
+        private Statistics(double mean, double stdDev) {
+            this.mean = mean;
+            this.stdDev = stdDev;
+        }
+
+        private static Statistics invalid() {
+            return new Statistics(Double.NaN, Double.NaN);
+        }
+
+        private boolean isValid() {
+            return !Double.isNaN(mean) && !Double.isNaN(stdDev);
+        }
+    }
+
+    private static final int STATISTICS_POINT_BLOCK_SIZE = 4096;
+
+    private static final int PPMCC_SERIES_BLOCK_SIZE = 32;
+
+    private static final int PPMCC_POINT_BLOCK_SIZE = 1024;
+
+    private AtomicReferenceArray<Statistics> statistics;
 
     public TimeSeriesTable(int fromVersion, int toVersion, TimeSeriesIndex tableIndex) {
         this(fromVersion, toVersion, tableIndex, ByteBuffer::allocateDirect);
@@ -215,11 +239,10 @@ public class TimeSeriesTable {
             }
 
             // allocate statistics buffer
-            means = new double[doubleTimeSeriesNames.size() * versionCount];
-            Arrays.fill(means, Double.NaN);
-
-            stdDevs = new double[doubleTimeSeriesNames.size() * versionCount];
-            Arrays.fill(stdDevs, Double.NaN);
+            statistics = new AtomicReferenceArray<>(doubleTimeSeriesNames.size() * versionCount);
+            for (int i = 0; i < statistics.length(); i++) {
+                statistics.set(i, Statistics.invalid());
+            }
         } catch (Exception e) {
             LOGGER.error(e.toString(), e);
             timeSeriesMetadata = null;
@@ -228,8 +251,7 @@ public class TimeSeriesTable {
             timeSeriesIndexDoubleOrString.clear();
             doubleBuffer = null;
             stringBuffer = null;
-            means = null;
-            stdDevs = null;
+            statistics = null;
             throw e;
         } finally {
             initLock.unlock();
@@ -372,73 +394,69 @@ public class TimeSeriesTable {
     }
 
     private void invalidateStatistics(int version, int timeSeriesNum) {
-        int statisticsIndex = getStatisticsIndex(version, timeSeriesNum);
-        statsLock.lock();
-        try {
-            means[statisticsIndex] = Double.NaN;
-            stdDevs[statisticsIndex] = Double.NaN;
-        } finally {
-            statsLock.unlock();
-        }
+        statistics.set(getStatisticsIndex(version, timeSeriesNum), Statistics.invalid());
     }
 
-    private void updateStatistics(int version, int timeSeriesNum) {
-
-        int statisticsIndex = getStatisticsIndex(version, timeSeriesNum);
-        if (!Double.isNaN(means[statisticsIndex]) && !Double.isNaN(stdDevs[statisticsIndex])) {
-            return;
-        }
+    private Statistics computeStatistics(int version, int timeSeriesNum) {
         long timeSeriesOffset = getTimeSeriesOffset(version, timeSeriesNum);
+        int pointCount = tableIndex.getPointCount();
+        double[] values = new double[Math.min(pointCount, STATISTICS_POINT_BLOCK_SIZE)];
 
         double sum = 0;
         int nbPoints = 0;
-        for (int point = 0; point < tableIndex.getPointCount(); point++) {
-            double value = doubleBuffer.get(timeSeriesOffset + point);
-            if (!Double.isNaN(value)) {
-                sum += value;
-                nbPoints++;
+        for (int start = 0; start < pointCount; start += values.length) {
+            int length = Math.min(values.length, pointCount - start);
+            doubleBuffer.get(timeSeriesOffset + start, values, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (!Double.isNaN(values[i])) {
+                    sum += values[i];
+                    nbPoints++;
+                }
             }
         }
         double mean = nbPoints > 0 ? sum / nbPoints : 0;
-        means[statisticsIndex] = mean;
 
         double stdDev = 0;
-        for (int point = 0; point < tableIndex.getPointCount(); point++) {
-            double value = doubleBuffer.get(timeSeriesOffset + point);
-            if (!Double.isNaN(value)) {
-                stdDev += (value - mean) * (value - mean);
+        for (int start = 0; start < pointCount; start += values.length) {
+            int length = Math.min(values.length, pointCount - start);
+            doubleBuffer.get(timeSeriesOffset + start, values, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (!Double.isNaN(values[i])) {
+                    stdDev += (values[i] - mean) * (values[i] - mean);
+                }
             }
         }
         stdDev = nbPoints > 1 ? Math.sqrt(stdDev / (nbPoints - 1)) : 0;
-        stdDevs[statisticsIndex] = stdDev;
+        return new Statistics(mean, stdDev);
     }
 
-    private void updateStatistics(int version) {
-        for (int timeSeriesNum = 0; timeSeriesNum < doubleTimeSeriesNames.size(); timeSeriesNum++) {
-            updateStatistics(version, timeSeriesNum);
+    private Statistics getStatistics(int version, int timeSeriesNum) {
+        int statisticsIndex = getStatisticsIndex(version, timeSeriesNum);
+        Statistics stats = statistics.get(statisticsIndex);
+        if (!stats.isValid()) {
+            Statistics computedStats = computeStatistics(version, timeSeriesNum);
+            // not kept if statistics have been invalidated in the meantime
+            statistics.compareAndSet(statisticsIndex, stats, computedStats);
+            stats = computedStats;
         }
+        return stats;
     }
 
-    private double getStatistics(int version, int timeSeriesNum, double[] stats) {
-        checkVersionIsInRange(version);
-        int doubleTimeSeriesNum = checkTimeSeriesNum(timeSeriesNum);
-        int statisticsIndex = getStatisticsIndex(version, doubleTimeSeriesNum);
-
-        statsLock.lock();
-        try {
-            updateStatistics(version, timeSeriesNum);
-            return stats[statisticsIndex];
-        } finally {
-            statsLock.unlock();
-        }
+    private Statistics[] getStatistics(int version) {
+        return IntStream.range(0, doubleTimeSeriesNames.size())
+                .parallel()
+                .mapToObj(timeSeriesNum -> getStatistics(version, timeSeriesNum))
+                .toArray(Statistics[]::new);
     }
 
     public double getMean(int version, int timeSeriesNum) {
-        return getStatistics(version, timeSeriesNum, means);
+        checkVersionIsInRange(version);
+        return getStatistics(version, checkTimeSeriesNum(timeSeriesNum)).mean;
     }
 
     public double getStdDev(int version, int timeSeriesNum) {
-        return getStatistics(version, timeSeriesNum, stdDevs);
+        checkVersionIsInRange(version);
+        return getStatistics(version, checkTimeSeriesNum(timeSeriesNum)).stdDev;
     }
 
     public List<Correlation> findMostCorrelatedTimeSeries(String timeSeriesName, int version) {
@@ -455,31 +473,27 @@ public class TimeSeriesTable {
                 .collect(Collectors.toList());
     }
 
-    private void computeConstantTimeSeriesPpmcc(double[] r, int version) {
-        for (int timeSeriesNum2 = 0; timeSeriesNum2 < doubleTimeSeriesNames.size(); timeSeriesNum2++) {
-            int statisticsIndex2 = getStatisticsIndex(version, timeSeriesNum2);
-            double stdDev2 = stdDevs[statisticsIndex2];
-
+    private static void computeConstantTimeSeriesPpmcc(double[] r, Statistics[] stats) {
+        for (int timeSeriesNum2 = 0; timeSeriesNum2 < stats.length; timeSeriesNum2++) {
             // time series 1 is correlated to other constant time series
-            r[timeSeriesNum2] = stdDev2 == 0 ? 1 : 0;
+            r[timeSeriesNum2] = stats[timeSeriesNum2].stdDev == 0 ? 1 : 0;
         }
     }
 
-    private void computeVariableTimeSeriesPpmcc(double[] r, int timeSeriesNum1, int statisticsIndex1, double stdDev1,
-                                                int version) {
-        double mean1 = means[statisticsIndex1];
+    private void computeVariableTimeSeriesPpmcc(double[] r, int timeSeriesNum1, Statistics[] stats, int version) {
+        double mean1 = stats[timeSeriesNum1].mean;
+        double stdDev1 = stats[timeSeriesNum1].stdDev;
 
-        for (int timeSeriesNum2 = 0; timeSeriesNum2 < doubleTimeSeriesNames.size(); timeSeriesNum2++) {
+        for (int timeSeriesNum2 = 0; timeSeriesNum2 < stats.length; timeSeriesNum2++) {
             if (timeSeriesNum2 == timeSeriesNum1) {
                 r[timeSeriesNum2] = 1;
             } else {
-                int statisticsIndex2 = getStatisticsIndex(version, timeSeriesNum2);
-                double stdDev2 = stdDevs[statisticsIndex2];
+                double stdDev2 = stats[timeSeriesNum2].stdDev;
 
                 r[timeSeriesNum2] = 0;
 
                 if (stdDev2 != 0) {
-                    double mean2 = means[statisticsIndex2];
+                    double mean2 = stats[timeSeriesNum2].mean;
 
                     long timeSeriesOffset1 = getTimeSeriesOffset(version, timeSeriesNum1);
                     long timeSeriesOffset2 = getTimeSeriesOffset(version, timeSeriesNum2);
@@ -503,23 +517,138 @@ public class TimeSeriesTable {
 
         double[] r = new double[doubleTimeSeriesNames.size()];
 
-        statsLock.lock();
-        try {
-            updateStatistics(version);
+        Statistics[] stats = getStatistics(version);
+        if (stats[timeSeriesNum1].stdDev == 0) { // constant time series
+            computeConstantTimeSeriesPpmcc(r, stats);
+        } else {
+            computeVariableTimeSeriesPpmcc(r, timeSeriesNum1, stats, version);
+        }
 
-            int statisticsIndex1 = getStatisticsIndex(version, timeSeriesNum1);
-            double stdDev1 = stdDevs[statisticsIndex1];
+        LOGGER.info("PPMCC computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
 
-            if (stdDev1 == 0) { // constant time series
-                computeConstantTimeSeriesPpmcc(r, version);
-            } else {
-                computeVariableTimeSeriesPpmcc(r, timeSeriesNum1, statisticsIndex1, stdDev1, version);
+        return r;
+    }
+
+    /**
+     * Read the values [pointStart, pointStart + length[ of time series [timeSeriesNumStart, timeSeriesNumStart + tile.length[
+     * minus their mean.
+     */
+    private void readCenteredTile(int version, int timeSeriesNumStart, int pointStart, int length, Statistics[] stats, double[][] tile) {
+        for (int i = 0; i < tile.length; i++) {
+            doubleBuffer.get(getTimeSeriesOffset(version, timeSeriesNumStart + i) + pointStart, tile[i], 0, length);
+            double mean = stats[timeSeriesNumStart + i].mean;
+            for (int point = 0; point < length; point++) {
+                tile[i][point] -= mean;
             }
-        } finally {
-            statsLock.unlock();
         }
+    }
 
-        LOGGER.info("PPMCC computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
+    /**
+     * Compute the sums of centered products of time series of 2 blocks, by tiles of points so that the values of a
+     * tile are read once for all the pairs of the blocks.
+     */
+    private void computeCenteredProducts(int version, int block1, int block2, Statistics[] stats, double[][] products) {
+        int start1 = block1 * PPMCC_SERIES_BLOCK_SIZE;
+        int start2 = block2 * PPMCC_SERIES_BLOCK_SIZE;
+        int size1 = Math.min(PPMCC_SERIES_BLOCK_SIZE, stats.length - start1);
+        int size2 = Math.min(PPMCC_SERIES_BLOCK_SIZE, stats.length - start2);
+        int pointCount = tableIndex.getPointCount();
+        int tileLength = Math.min(pointCount, PPMCC_POINT_BLOCK_SIZE);
+
+        double[][] tile1 = new double[size1][tileLength];
+        double[][] tile2 = block1 == block2 ? tile1 : new double[size2][tileLength];
+        double[][] sums = new double[size1][size2];
+        for (int pointStart = 0; pointStart < pointCount; pointStart += tileLength) {
+            int length = Math.min(tileLength, pointCount - pointStart);
+            readCenteredTile(version, start1, pointStart, length, stats, tile1);
+            if (tile2 != tile1) {
+                readCenteredTile(version, start2, pointStart, length, stats, tile2);
+            }
+            for (int i = 0; i < size1; i++) {
+                double[] values1 = tile1[i];
+                // only the upper triangle of diagonal blocks
+                for (int j = block1 == block2 ? i : 0; j < size2; j++) {
+                    double[] values2 = tile2[j];
+                    double sum = 0;
+                    for (int point = 0; point < length; point++) {
+                        sum += values1[point] * values2[point];
+                    }
+                    sums[i][j] += sum;
+                }
+            }
+        }
+        for (int i = 0; i < size1; i++) {
+            for (int j = block1 == block2 ? i : 0; j < size2; j++) {
+                products[start1 + i][start2 + j] = sums[i][j];
+                products[start2 + j][start1 + i] = sums[i][j];
+            }
+        }
+    }
+
+    /**
+     * Compute the sums of centered products of all pairs of double time series of a version. Pairs of blocks of time
+     * series are processed in parallel.
+     */
+    private double[][] computeCenteredProducts(int version, Statistics[] stats) {
+        int timeSeriesCount = stats.length;
+        double[][] products = new double[timeSeriesCount][timeSeriesCount];
+        int blockCount = (timeSeriesCount + PPMCC_SERIES_BLOCK_SIZE - 1) / PPMCC_SERIES_BLOCK_SIZE;
+        IntStream.range(0, blockCount * blockCount)
+                .filter(k -> k / blockCount <= k % blockCount)
+                .parallel()
+                .forEach(k -> computeCenteredProducts(version, k / blockCount, k % blockCount, stats, products));
+        return products;
+    }
+
+    /**
+     * Compute the covariance matrix of the double time series of a version. Rows and columns are in time series
+     * number order.
+     */
+    public double[][] computeCovarianceMatrix(int version) {
+        checkVersionIsInRange(version);
+
+        Stopwatch stopWatch = Stopwatch.createStarted();
+
+        double[][] covariances = computeCenteredProducts(version, getStatistics(version));
+        for (double[] row : covariances) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] /= tableIndex.getPointCount() - 1;
+            }
+        }
+
+        LOGGER.info("Covariance matrix computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
+
+        return covariances;
+    }
+
+    /**
+     * Compute the PPMCC matrix of the double time series of a version, with the same coefficients as
+     * {@link #computePpmcc(String, int)}. Rows and columns are in time series number order.
+     */
+    public double[][] computePpmccMatrix(int version) {
+        checkVersionIsInRange(version);
+
+        Stopwatch stopWatch = Stopwatch.createStarted();
+
+        Statistics[] stats = getStatistics(version);
+        double[][] r = computeCenteredProducts(version, stats);
+        for (int i = 0; i < r.length; i++) {
+            double stdDev1 = stats[i].stdDev;
+            for (int j = 0; j < r.length; j++) {
+                double stdDev2 = stats[j].stdDev;
+                if (stdDev1 == 0) {
+                    r[i][j] = stdDev2 == 0 ? 1 : 0;
+                } else if (i == j) {
+                    r[i][j] = 1;
+                } else if (stdDev2 == 0) {
+                    r[i][j] = 0;
+                } else {
+                    r[i][j] /= stdDev1 * stdDev2 * (tableIndex.getPointCount() - 1);
+                }
+            }
+        }
+
+        LOGGER.info("PPMCC matrix computed in {} ms", stopWatch.elapsed(TimeUnit.MILLISECONDS));
 
         return r;
     }
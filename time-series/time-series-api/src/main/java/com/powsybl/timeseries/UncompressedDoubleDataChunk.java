@@ -91,13 +91,23 @@ public class UncompressedDoubleDataChunk extends AbstractUncompressedDataChunk i
                 }
             }
             if (CompressedDoubleDataChunk.getEstimatedSize(stepValues.size(), stepLengths.size()) >= estimatedSize) {
-                // compression is inefficient
-                return this;
+                // run length encoding is inefficient
+                return tryToXorCompress();
             }
         }
         return new CompressedDoubleDataChunk(offset, values.length, stepValues.toArray(), stepLengths.toArray());
     }
 
+    private DoubleDataChunk tryToXorCompress() {
+        if (values.length >= XorCompressedDoubleDataChunk.MIN_LENGTH) {
+            XorCompressedDoubleDataChunk xorCompressedChunk = XorCompressedDoubleDataChunk.compress(offset, values);
+            if (xorCompressedChunk.getEstimatedSize() < getEstimatedSize()) {
+                return xorCompressedChunk;
+            }
+        }
+        return this;
+    }
+
     @Override
     public Split<DoublePoint, DoubleDataChunk> splitAt(int splitIndex) {
         // split at offset is not allowed because it will result to a null left chunk
@@ -113,6 +123,14 @@ public class UncompressedDoubleDataChunk extends AbstractUncompressedDataChunk i
                            new UncompressedDoubleDataChunk(splitIndex, values2));
     }
 
+    @Override
+    public DoubleDataChunk slice(int start, int end) {
+        DataChunk.checkSlice(this, start, end);
+        int from = Math.max(start, offset);
+        int to = Math.min(end, offset + values.length);
+        return new UncompressedDoubleDataChunk(from - start, Arrays.copyOfRange(values, from - offset, to - offset));
+    }
+
     @Override
     public Stream<DoublePoint> stream(TimeSeriesIndex index) {
         Objects.requireNonNull(index);
@@ -124,6 +124,14 @@ public class UncompressedStringDataChunk extends AbstractUncompressedDataChunk i
                            new UncompressedStringDataChunk(splitIndex, values2));
     }
 
+    @Override
+    public StringDataChunk slice(int start, int end) {
+        DataChunk.checkSlice(this, start, end);
+        int from = Math.max(start, offset);
+        int to = Math.min(end, offset + values.length);
+        return new UncompressedStringDataChunk(from - start, Arrays.copyOfRange(values, from - offset, to - offset));
+    }
+
     @Override
     public Stream<StringPoint> stream(TimeSeriesIndex index) {
         Objects.requireNonNull(index);
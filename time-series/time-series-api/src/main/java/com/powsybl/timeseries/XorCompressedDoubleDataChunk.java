@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.powsybl.commons.json.JsonUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * XOR (Gorilla like) compressed double data chunk, efficient for slowly varying values which are not constant
+ * enough to be run length encoded.
+ *
+ * <p>The first value is stored as is, then each value is stored as the XOR of its bits with the ones of the previous
+ * value: a single 0 bit when they are equal, otherwise the meaningful bits of the XOR, reusing the leading and trailing
+ * zero counts of the previous XOR when they fit or followed by new ones. Values can only be decoded sequentially.
+ *
+ * <p>The JSON serialization keeps the encoded form: the offset, the number of values, the number of used bits and the
+ * bits themselves as an array of 64 bits words.
+ *
+ * @author agent <agent at local>
+ */
+public class XorCompressedDoubleDataChunk implements DoubleDataChunk {
+
+    /**
+     * Minimum number of values of a chunk to try this compression, smaller chunks are not worth it.
+     */
+    static final int MIN_LENGTH = 16;
+
+    private final int offset;
+
+    private final int length;
+
+    private final long[] words;
+
+    private final long bitLength;
+
+    /**
+     * @param words bits of the encoded values, first bit being the most significant bit of the first word
+     * @param bitLength number of used bits
+     */
+    public XorCompressedDoubleDataChunk(int offset, int length, long[] words, long bitLength) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Bad offset value " + offset);
+        }
+        if (length < 1) {
+            throw new IllegalArgumentException("Bad length value " + length);
+        }
+        this.words = Objects.requireNonNull(words);
+        if (bitLength < Long.SIZE || bitLength > (long) Long.SIZE * words.length) {
+            throw new IllegalArgumentException("Bad bit length value " + bitLength);
+        }
+        this.offset = offset;
+        this.length = length;
+        this.bitLength = bitLength;
+    }
+
+    public static XorCompressedDoubleDataChunk compress(int offset, double[] values) {
+        Objects.requireNonNull(values);
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Empty values");
+        }
+        BitWriter writer = new BitWriter(values.length);
+        long previousBits = Double.doubleToRawLongBits(values[0]);
+        writer.write(previousBits, Long.SIZE);
+        int previousLeadingZeros = Integer.MAX_VALUE;
+        int previousTrailingZeros = 0;
+        for (int i = 1; i < values.length; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previousBits;
+            if (xor == 0) {
+                writer.write(0, 1);
+            } else {
+                // leading zero count is written on 5 bits
+                int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailingZeros = Long.numberOfTrailingZeros(xor);
+                if (leadingZeros >= previousLeadingZeros && trailingZeros >= previousTrailingZeros) {
+                    writer.write(0b10, 2);
+                    writer.write(xor >>> previousTrailingZeros, Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+                } else {
+                    int meaningfulBits = Long.SIZE - leadingZeros - trailingZeros;
+                    writer.write(0b11, 2);
+                    writer.write(leadingZeros, 5);
+                    writer.write(meaningfulBits - 1, 6); // 1 to 64 written on 6 bits
+                    writer.write(xor >>> trailingZeros, meaningfulBits);
+                    previousLeadingZeros = leadingZeros;
+                    previousTrailingZeros = trailingZeros;
+                }
+            }
+            previousBits = bits;
+        }
+        return new XorCompressedDoubleDataChunk(offset, values.length, writer.toWords(), writer.bitLength);
+    }
+
+    static int getEstimatedSize(long bitLength) {
+        return (int) (Long.BYTES * ((bitLength + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    private static final class BitWriter {
+
+        private long[] words;
+
+        private long bitLength = 0;
+
+        private BitWriter(int valueCount) {
+            // enough for values varying on half of their bits
+            words = new long[Math.max(1, valueCount / 2)];
+        }
+
+        private void write(long value, int bitCount) {
+            int wordIndex = (int) (bitLength / Long.SIZE);
+            int bitIndex = (int) (bitLength % Long.SIZE);
+            if (wordIndex + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2 + 2);
+            }
+            long bits = bitCount == Long.SIZE ? value : value & ((1L << bitCount) - 1);
+            int freeBits = Long.SIZE - bitIndex;
+            if (bitCount <= freeBits) {
+                words[wordIndex] |= bits << (freeBits - bitCount);
+            } else {
+                words[wordIndex] |= bits >>> (bitCount - freeBits);
+                words[wordIndex + 1] |= bits << (Long.SIZE - bitCount + freeBits);
+            }
+            bitLength += bitCount;
+        }
+
+        private long[] toWords() {
+            return Arrays.copyOf(words, (int) ((bitLength + Long.SIZE - 1) / Long.SIZE));
+        }
+    }
+
+    /**
+     * Sequential decoder of the values of the chunk.
+     */
+    final class Decoder {
+
+        private long bitPosition = 0;
+
+        private int decodedCount = 0;
+
+        private long previousBits;
+
+        private int leadingZeros;
+
+        private int trailingZeros;
+
+        private long read(int bitCount) {
+            int wordIndex = (int) (bitPosition / Long.SIZE);
+            int bitIndex = (int) (bitPosition % Long.SIZE);
+            bitPosition += bitCount;
+            int availableBits = Long.SIZE - bitIndex;
+            long bits;
+            if (bitCount <= availableBits) {
+                bits = words[wordIndex] >>> (availableBits - bitCount);
+            } else {
+                bits = (words[wordIndex] << (bitCount - availableBits)) | (words[wordIndex + 1] >>> (Long.SIZE - bitCount + availableBits));
+            }
+            return bitCount == Long.SIZE ? bits : bits & ((1L << bitCount) - 1);
+        }
+
+        boolean hasNext() {
+            return decodedCount < length;
+        }
+
+        double next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (decodedCount == 0) {
+                previousBits = read(Long.SIZE);
+            } else if (read(1) == 1) {
+                if (read(1) == 1) {
+                    leadingZeros = (int) read(5);
+                    int meaningfulBits = (int) read(6) + 1;
+                    trailingZeros = Long.SIZE - leadingZeros - meaningfulBits;
+                }
+                previousBits ^= read(Long.SIZE - leadingZeros - trailingZeros) << trailingZeros;
+            }
+            decodedCount++;
+            return Double.longBitsToDouble(previousBits);
+        }
+    }
+
+    Decoder decoder() {
+        return new Decoder();
+    }
+
+    public long[] getWords() {
+        return words;
+    }
+
+    public long getBitLength() {
+        return bitLength;
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        return getEstimatedSize(bitLength);
+    }
+
+    @Override
+    public double getCompressionFactor() {
+        return ((double) getEstimatedSize()) / (Double.BYTES * length);
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Override
+    public TimeSeriesDataType getDataType() {
+        return TimeSeriesDataType.DOUBLE;
+    }
+
+    public UncompressedDoubleDataChunk uncompress() {
+        double[] values = new double[length];
+        Decoder decoder = decoder();
+        for (int i = 0; i < length; i++) {
+            values[i] = decoder.next();
+        }
+        return new UncompressedDoubleDataChunk(offset, values);
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        Decoder decoder = decoder();
+        for (int i = 0; i < length; i++) {
+            buffer.put(timeSeriesOffset + offset + i, decoder.next());
+        }
+    }
+
+    @Override
+    public void fillBuffer(BigDoubleBuffer buffer, long timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        Decoder decoder = decoder();
+        for (int i = 0; i < length; i++) {
+            buffer.put(timeSeriesOffset + offset + i, decoder.next());
+        }
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        return new Iterator<DoublePoint>() {
+
+            private final Decoder decoder = decoder();
+
+            private int i = offset;
+
+            @Override
+            public boolean hasNext() {
+                return decoder.hasNext();
+            }
+
+            @Override
+            public DoublePoint next() {
+                DoublePoint point = new DoublePoint(i, index.getTimeAt(i), decoder.next());
+                i++;
+                return point;
+            }
+        };
+    }
+
+    @Override
+    public Stream<DoublePoint> stream(TimeSeriesIndex index) {
+        return StreamSupport.stream(Spliterators.spliterator(
+                iterator(index), length,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+    }
+
+    @Override
+    public DoubleDataChunk tryToCompress() {
+        return this;
+    }
+
+    @Override
+    public Split<DoublePoint, DoubleDataChunk> splitAt(int splitIndex) {
+        // split at offset is not allowed because it will result to a null left chunk
+        if (splitIndex <= offset || splitIndex > (offset + length - 1)) {
+            throw new IllegalArgumentException("Split index " + splitIndex + " out of chunk range ]" + offset
+                    + ", " + (offset + length - 1) + "]");
+        }
+        Split<DoublePoint, DoubleDataChunk> split = uncompress().splitAt(splitIndex);
+        return new Split<>(split.getChunk1().tryToCompress(), split.getChunk2().tryToCompress());
+    }
+
+    @Override
+    public DoubleDataChunk slice(int start, int end) {
+        DataChunk.checkSlice(this, start, end);
+        int from = Math.max(start, offset);
+        int to = Math.min(end, offset + length);
+        Decoder decoder = decoder();
+        for (int i = offset; i < from; i++) {
+            decoder.next();
+        }
+        double[] values = new double[to - from];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = decoder.next();
+        }
+        return new UncompressedDoubleDataChunk(from - start, values).tryToCompress();
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        Objects.requireNonNull(generator);
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("offset", offset);
+            generator.writeNumberField("uncompressedLength", length);
+            generator.writeNumberField("bitLength", bitLength);
+            generator.writeFieldName("xorWords");
+            generator.writeArray(words, 0, words.length);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toJson() {
+        return JsonUtil.toJson(this::writeJson);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, length, bitLength, Arrays.hashCode(words));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof XorCompressedDoubleDataChunk) {
+            XorCompressedDoubleDataChunk other = (XorCompressedDoubleDataChunk) obj;
+            return offset == other.offset &&
+                    length == other.length &&
+                    bitLength == other.bitLength &&
+                    Arrays.equals(words, other.words);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import org.apache.commons.lang3.mutable.MutableBoolean;
+
+import java.util.Objects;
+
+/**
+ * A window node computes the value of a point from the values of its child at other points (previous points,
+ * points of the same period...), the value of the child being kept between two of its points. So unlike other
+ * nodes, its value may change at any point of the index: a {@link com.powsybl.timeseries.CalculatedTimeSeries}
+ * evaluates it at each point, in the order of the index, only keeping the values its window needs.
+ *
+ * @author agent <agent at local>
+ */
+public abstract class AbstractWindowNodeCalc extends AbstractSingleChildNodeCalc {
+
+    AbstractWindowNodeCalc(NodeCalc child) {
+        super(child);
+    }
+
+    /**
+     * Check if a tree contains window nodes.
+     */
+    public static boolean isWindowed(NodeCalc nodeCalc) {
+        Objects.requireNonNull(nodeCalc);
+        MutableBoolean windowed = new MutableBoolean(false);
+        nodeCalc.accept(new DefaultNodeCalcVisitor<Void, MutableBoolean>() {
+            @Override
+            public Void visit(RollingNodeCalc nodeCalc, MutableBoolean windowed, Void child) {
+                windowed.setTrue();
+                return null;
+            }
+
+            @Override
+            public Void visit(ShiftNodeCalc nodeCalc, MutableBoolean windowed, Void child) {
+                windowed.setTrue();
+                return null;
+            }
+
+            @Override
+            public Void visit(ResampleNodeCalc nodeCalc, MutableBoolean windowed, Void child) {
+                windowed.setTrue();
+                return null;
+            }
+
+            @Override
+            public Void visit(CumulativeSumNodeCalc nodeCalc, MutableBoolean windowed, Void child) {
+                windowed.setTrue();
+                return null;
+            }
+        }, windowed, 0);
+        return windowed.booleanValue();
+    }
+}
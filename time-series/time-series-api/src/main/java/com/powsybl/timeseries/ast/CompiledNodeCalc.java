@@ -0,0 +1,20 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import com.powsybl.timeseries.DoubleMultiPoint;
+
+/**
+ * A resolved {@link NodeCalc} compiled by {@link NodeCalcCompiler}, evaluated on primitive doubles.
+ *
+ * @author agent <agent at local>
+ */
+@FunctionalInterface
+public interface CompiledNodeCalc {
+
+    double eval(DoubleMultiPoint multiPoint);
+}
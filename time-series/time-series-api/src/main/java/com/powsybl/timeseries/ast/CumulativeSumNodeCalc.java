@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.powsybl.timeseries.TimeSeriesException;
+
+import java.io.IOException;
+import java.util.Deque;
+
+/**
+ * Sum of the values of the child from the first point to the current one. NaN values are ignored but kept NaN in
+ * the result.
+ *
+ * @author agent <agent at local>
+ */
+public class CumulativeSumNodeCalc extends AbstractWindowNodeCalc {
+
+    static final String NAME = "cumsum";
+
+    public CumulativeSumNodeCalc(NodeCalc child) {
+        super(child);
+    }
+
+    @Override
+    public <R, A> R accept(NodeCalcVisitor<R, A> visitor, A arg, int depth) {
+        if (depth < NodeCalcVisitors.RECURSION_THRESHOLD) {
+            NodeCalc child = visitor.iterate(this, arg);
+            R childValue = null;
+            if (child != null) {
+                childValue = child.accept(visitor, arg, depth + 1);
+            }
+            return visitor.visit(this, arg, childValue);
+        } else {
+            return NodeCalcVisitors.visit(this, arg, visitor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R, A> R acceptHandle(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> resultsStack) {
+        Object childResult = resultsStack.pop();
+        childResult = childResult == NodeCalcVisitors.NULL ? null : childResult;
+        return visitor.visit(this, arg, (R) childResult);
+    }
+
+    @Override
+    public <R, A> void acceptIterate(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> nodesStack) {
+        NodeCalc childNode = visitor.iterate(this, arg);
+        nodesStack.push(childNode == null ? NodeCalcVisitors.NULL : childNode);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeFieldName(NAME);
+        generator.writeStartObject();
+        child.writeJson(generator);
+        generator.writeEndObject();
+    }
+
+    static NodeCalc parseJson(JsonParser parser) throws IOException {
+        NodeCalc child = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                // skip
+            } else if (token == JsonToken.END_OBJECT) {
+                if (child == null) {
+                    throw new TimeSeriesException("Invalid cumulative sum node calc JSON");
+                }
+                return new CumulativeSumNodeCalc(child);
+            } else if (token == JsonToken.FIELD_NAME) {
+                child = NodeCalc.parseJson(parser, token);
+            } else {
+                throw NodeCalc.createUnexpectedToken(token);
+            }
+        }
+        throw NodeCalc.createUnexpectedToken(token);
+    }
+
+    @Override
+    public int hashCode() {
+        return child.hashCode() + NAME.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof CumulativeSumNodeCalc) {
+            return ((CumulativeSumNodeCalc) obj).child.equals(child);
+        }
+        return false;
+    }
+}
@@ -72,6 +72,46 @@ public class DefaultNodeCalcVisitor<R, A> implements NodeCalcVisitor<R, A> {
         return nodeCalc.getChild();
     }
 
+    @Override
+    public R visit(RollingNodeCalc nodeCalc, A arg, R child) {
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public R visit(ShiftNodeCalc nodeCalc, A arg, R child) {
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public R visit(ResampleNodeCalc nodeCalc, A arg, R child) {
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public R visit(CumulativeSumNodeCalc nodeCalc, A arg, R child) {
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
     @Override
     public R visit(TimeNodeCalc nodeCalc, A arg, R child) {
         return null;
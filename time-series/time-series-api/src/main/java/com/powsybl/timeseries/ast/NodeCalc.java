@@ -137,6 +137,18 @@ public interface NodeCalc {
                 case TimeNodeCalc.NAME:
                     return TimeNodeCalc.parseJson(parser);
 
+                case RollingNodeCalc.NAME:
+                    return RollingNodeCalc.parseJson(parser);
+
+                case ShiftNodeCalc.NAME:
+                    return ShiftNodeCalc.parseJson(parser);
+
+                case ResampleNodeCalc.NAME:
+                    return ResampleNodeCalc.parseJson(parser);
+
+                case CumulativeSumNodeCalc.NAME:
+                    return CumulativeSumNodeCalc.parseJson(parser);
+
                 default:
                     break;
             }
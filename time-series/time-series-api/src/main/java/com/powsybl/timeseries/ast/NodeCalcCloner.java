@@ -72,6 +72,46 @@ public class NodeCalcCloner<A> implements NodeCalcVisitor<NodeCalc, A> {
         return nodeCalc.getChild();
     }
 
+    @Override
+    public NodeCalc visit(RollingNodeCalc nodeCalc, A arg, NodeCalc child) {
+        return new RollingNodeCalc(child, nodeCalc.getAggregation(), nodeCalc.getWindow());
+    }
+
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc visit(ShiftNodeCalc nodeCalc, A arg, NodeCalc child) {
+        return new ShiftNodeCalc(child, nodeCalc.getLag());
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc visit(ResampleNodeCalc nodeCalc, A arg, NodeCalc child) {
+        return new ResampleNodeCalc(child, nodeCalc.getAggregation(), nodeCalc.getPeriod());
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc visit(CumulativeSumNodeCalc nodeCalc, A arg, NodeCalc child) {
+        return new CumulativeSumNodeCalc(child);
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
     @Override
     public NodeCalc visit(TimeNodeCalc nodeCalc, A arg, NodeCalc child) {
         return new TimeNodeCalc(child);
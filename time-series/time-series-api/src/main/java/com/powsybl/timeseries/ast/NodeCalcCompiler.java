@@ -0,0 +1,369 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.powsybl.commons.config.PlatformConfig;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.Objects;
+
+/**
+ * Compiles a resolved {@link NodeCalc} into a tree of specialized lambdas working on primitive doubles, so that
+ * evaluating the same formula on many points avoids the visitor dispatch, operator switches and boxing of
+ * {@link NodeCalcEvaluator}. Constant sub-trees are folded and operations with a constant operand are specialized.
+ *
+ * <p>Compiled forms are cached by tree. Trees deeper than {@link NodeCalcVisitors#RECURSION_THRESHOLD} are not
+ * compiled and are evaluated with {@link NodeCalcEvaluator}, as their evaluation would need too deep a stack. As
+ * with {@link NodeCalcEvaluator}, window nodes are evaluated as on a time series having only the evaluated point.
+ *
+ * @author agent <agent at local>
+ */
+public final class NodeCalcCompiler {
+
+    private static final int CACHE_MAX_SIZE = 1000;
+
+    public static final boolean ENABLED = PlatformConfig.defaultConfig()
+            .getOptionalModuleConfig("timeseries")
+            .map(moduleConfig -> moduleConfig.getBooleanProperty("compile-node-calc", true))
+            .orElse(true);
+
+    private static final LoadingCache<NodeCalc, CompiledNodeCalc> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_MAX_SIZE)
+            .build(CacheLoader.from(NodeCalcCompiler::doCompile));
+
+    private NodeCalcCompiler() {
+    }
+
+    /**
+     * A compiled node and, for constant nodes, their value.
+     */
+    private static final class Compiled {
+
+        private final CompiledNodeCalc function;
+
+        private final boolean constant;
+
+        private final double value;
+
+        private Compiled(CompiledNodeCalc function, boolean constant, double value) {
+            this.function = function;
+            this.constant = constant;
+            this.value = value;
+        }
+
+        private static Compiled constant(double value) {
+            return new Compiled(multiPoint -> value, true, value);
+        }
+
+        private static Compiled of(CompiledNodeCalc function) {
+            return new Compiled(function, false, Double.NaN);
+        }
+    }
+
+    /**
+     * Compile a resolved node, or get it from the cache if it has already been compiled.
+     */
+    public static CompiledNodeCalc compile(NodeCalc nodeCalc) {
+        Objects.requireNonNull(nodeCalc);
+        if (!ENABLED || depth(nodeCalc) > NodeCalcVisitors.RECURSION_THRESHOLD) {
+            return multiPoint -> NodeCalcEvaluator.eval(nodeCalc, multiPoint);
+        }
+        return CACHE.getUnchecked(nodeCalc);
+    }
+
+    private static int depth(NodeCalc nodeCalc) {
+        return NodeCalcVisitors.visit(nodeCalc, null, new DefaultNodeCalcVisitor<Integer, Void>() {
+            @Override
+            public Integer visit(IntegerNodeCalc nodeCalc, Void arg) {
+                return 1;
+            }
+
+            @Override
+            public Integer visit(FloatNodeCalc nodeCalc, Void arg) {
+                return 1;
+            }
+
+            @Override
+            public Integer visit(DoubleNodeCalc nodeCalc, Void arg) {
+                return 1;
+            }
+
+            @Override
+            public Integer visit(BigDecimalNodeCalc nodeCalc, Void arg) {
+                return 1;
+            }
+
+            @Override
+            public Integer visit(BinaryOperation nodeCalc, Void arg, Integer left, Integer right) {
+                return Math.max(left, right) + 1;
+            }
+
+            @Override
+            public Integer visit(UnaryOperation nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(MinNodeCalc nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(MaxNodeCalc nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(RollingNodeCalc nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(ShiftNodeCalc nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(ResampleNodeCalc nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(CumulativeSumNodeCalc nodeCalc, Void arg, Integer child) {
+                return child + 1;
+            }
+
+            @Override
+            public Integer visit(TimeNodeCalc nodeCalc, Void arg, Integer child) {
+                return 1;
+            }
+
+            @Override
+            public NodeCalc iterate(TimeNodeCalc nodeCalc, Void arg) {
+                return null;
+            }
+
+            @Override
+            public Integer visit(TimeSeriesNameNodeCalc nodeCalc, Void arg) {
+                return 1;
+            }
+
+            @Override
+            public Integer visit(TimeSeriesNumNodeCalc nodeCalc, Void arg) {
+                return 1;
+            }
+        });
+    }
+
+    private static CompiledNodeCalc doCompile(NodeCalc nodeCalc) {
+        NodeCalc simplifiedNodeCalc = NodeCalcSimplifier.simplify(nodeCalc);
+        return NodeCalcVisitors.visit(simplifiedNodeCalc, null, new Visitor()).function;
+    }
+
+    private static final class Visitor implements NodeCalcVisitor<Compiled, Void> {
+
+        @Override
+        public Compiled visit(IntegerNodeCalc nodeCalc, Void arg) {
+            return Compiled.constant(nodeCalc.toDouble());
+        }
+
+        @Override
+        public Compiled visit(FloatNodeCalc nodeCalc, Void arg) {
+            return Compiled.constant(nodeCalc.toDouble());
+        }
+
+        @Override
+        public Compiled visit(DoubleNodeCalc nodeCalc, Void arg) {
+            return Compiled.constant(nodeCalc.getValue());
+        }
+
+        @Override
+        public Compiled visit(BigDecimalNodeCalc nodeCalc, Void arg) {
+            return Compiled.constant(nodeCalc.toDouble());
+        }
+
+        @Override
+        public Compiled visit(BinaryOperation nodeCalc, Void arg, Compiled left, Compiled right) {
+            BinaryOperation.Operator operator = nodeCalc.getOperator();
+            if (left.constant && right.constant) {
+                return Compiled.constant(compile(operator, left.function, right.function).eval(null));
+            } else if (right.constant) {
+                return Compiled.of(compile(operator, left.function, right.value));
+            } else if (left.constant) {
+                return Compiled.of(compile(operator, left.value, right.function));
+            }
+            return Compiled.of(compile(operator, left.function, right.function));
+        }
+
+        private static CompiledNodeCalc compile(BinaryOperation.Operator operator, CompiledNodeCalc l, CompiledNodeCalc r) {
+            switch (operator) {
+                case PLUS: return p -> l.eval(p) + r.eval(p);
+                case MINUS: return p -> l.eval(p) - r.eval(p);
+                case MULTIPLY: return p -> l.eval(p) * r.eval(p);
+                case DIVIDE: return p -> l.eval(p) / r.eval(p);
+                case LESS_THAN: return p -> l.eval(p) < r.eval(p) ? 1d : 0d;
+                case LESS_THAN_OR_EQUALS_TO: return p -> l.eval(p) <= r.eval(p) ? 1d : 0d;
+                case GREATER_THAN: return p -> l.eval(p) > r.eval(p) ? 1d : 0d;
+                case GREATER_THAN_OR_EQUALS_TO: return p -> l.eval(p) >= r.eval(p) ? 1d : 0d;
+                case EQUALS: return p -> l.eval(p) == r.eval(p) ? 1d : 0d;
+                case NOT_EQUALS: return p -> l.eval(p) != r.eval(p) ? 1d : 0d;
+                default: throw new AssertionError("Unexpected operator value: " + operator);
+            }
+        }
+
+        private static CompiledNodeCalc compile(BinaryOperation.Operator operator, CompiledNodeCalc l, double r) {
+            switch (operator) {
+                case PLUS: return p -> l.eval(p) + r;
+                case MINUS: return p -> l.eval(p) - r;
+                case MULTIPLY: return p -> l.eval(p) * r;
+                case DIVIDE: return p -> l.eval(p) / r;
+                case LESS_THAN: return p -> l.eval(p) < r ? 1d : 0d;
+                case LESS_THAN_OR_EQUALS_TO: return p -> l.eval(p) <= r ? 1d : 0d;
+                case GREATER_THAN: return p -> l.eval(p) > r ? 1d : 0d;
+                case GREATER_THAN_OR_EQUALS_TO: return p -> l.eval(p) >= r ? 1d : 0d;
+                case EQUALS: return p -> l.eval(p) == r ? 1d : 0d;
+                case NOT_EQUALS: return p -> l.eval(p) != r ? 1d : 0d;
+                default: throw new AssertionError("Unexpected operator value: " + operator);
+            }
+        }
+
+        private static CompiledNodeCalc compile(BinaryOperation.Operator operator, double l, CompiledNodeCalc r) {
+            switch (operator) {
+                case PLUS: return p -> l + r.eval(p);
+                case MINUS: return p -> l - r.eval(p);
+                case MULTIPLY: return p -> l * r.eval(p);
+                case DIVIDE: return p -> l / r.eval(p);
+                case LESS_THAN: return p -> l < r.eval(p) ? 1d : 0d;
+                case LESS_THAN_OR_EQUALS_TO: return p -> l <= r.eval(p) ? 1d : 0d;
+                case GREATER_THAN: return p -> l > r.eval(p) ? 1d : 0d;
+                case GREATER_THAN_OR_EQUALS_TO: return p -> l >= r.eval(p) ? 1d : 0d;
+                case EQUALS: return p -> l == r.eval(p) ? 1d : 0d;
+                case NOT_EQUALS: return p -> l != r.eval(p) ? 1d : 0d;
+                default: throw new AssertionError("Unexpected operator value: " + operator);
+            }
+        }
+
+        @Override
+        public Pair<NodeCalc, NodeCalc> iterate(BinaryOperation nodeCalc, Void arg) {
+            return Pair.of(nodeCalc.getLeft(), nodeCalc.getRight());
+        }
+
+        @Override
+        public Compiled visit(UnaryOperation nodeCalc, Void arg, Compiled child) {
+            CompiledNodeCalc c = child.function;
+            CompiledNodeCalc function;
+            switch (nodeCalc.getOperator()) {
+                case ABS:
+                    function = p -> Math.abs(c.eval(p));
+                    break;
+                case NEGATIVE:
+                    function = p -> -c.eval(p);
+                    break;
+                case POSITIVE:
+                    return child;
+                default:
+                    throw new AssertionError("Unexpected operator value: " + nodeCalc.getOperator());
+            }
+            return child.constant ? Compiled.constant(function.eval(null)) : Compiled.of(function);
+        }
+
+        @Override
+        public NodeCalc iterate(UnaryOperation nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(MinNodeCalc nodeCalc, Void arg, Compiled child) {
+            CompiledNodeCalc c = child.function;
+            double min = nodeCalc.getMin();
+            CompiledNodeCalc function = p -> Math.min(c.eval(p), min);
+            return child.constant ? Compiled.constant(function.eval(null)) : Compiled.of(function);
+        }
+
+        @Override
+        public NodeCalc iterate(MinNodeCalc nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(MaxNodeCalc nodeCalc, Void arg, Compiled child) {
+            CompiledNodeCalc c = child.function;
+            double max = nodeCalc.getMax();
+            CompiledNodeCalc function = p -> Math.max(c.eval(p), max);
+            return child.constant ? Compiled.constant(function.eval(null)) : Compiled.of(function);
+        }
+
+        @Override
+        public NodeCalc iterate(MaxNodeCalc nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(RollingNodeCalc nodeCalc, Void arg, Compiled child) {
+            return child;
+        }
+
+        @Override
+        public NodeCalc iterate(RollingNodeCalc nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(ShiftNodeCalc nodeCalc, Void arg, Compiled child) {
+            return nodeCalc.getLag() == 0 ? child : Compiled.constant(Double.NaN);
+        }
+
+        @Override
+        public NodeCalc iterate(ShiftNodeCalc nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(ResampleNodeCalc nodeCalc, Void arg, Compiled child) {
+            return child;
+        }
+
+        @Override
+        public NodeCalc iterate(ResampleNodeCalc nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(CumulativeSumNodeCalc nodeCalc, Void arg, Compiled child) {
+            return child;
+        }
+
+        @Override
+        public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, Void arg) {
+            return nodeCalc.getChild();
+        }
+
+        @Override
+        public Compiled visit(TimeNodeCalc nodeCalc, Void arg, Compiled child) {
+            return Compiled.of(p -> (double) p.getTime());
+        }
+
+        @Override
+        public NodeCalc iterate(TimeNodeCalc nodeCalc, Void arg) {
+            return null;
+        }
+
+        @Override
+        public Compiled visit(TimeSeriesNameNodeCalc nodeCalc, Void arg) {
+            throw new AssertionError("NodeCalc should have been resolved before");
+        }
+
+        @Override
+        public Compiled visit(TimeSeriesNumNodeCalc nodeCalc, Void arg) {
+            int num = nodeCalc.getTimeSeriesNum();
+            return Compiled.of(p -> p.getValue(num));
+        }
+    }
+}
@@ -11,6 +11,9 @@ import com.powsybl.timeseries.DoubleMultiPoint;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
+ * Evaluates a node on a single point. Window nodes are evaluated as on a time series having only this point: a
+ * {@link com.powsybl.timeseries.CalculatedTimeSeries} evaluates them on all the points of its index.
+ *
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
 public class NodeCalcEvaluator implements NodeCalcVisitor<Double, DoubleMultiPoint> {
@@ -101,6 +104,46 @@ public class NodeCalcEvaluator implements NodeCalcVisitor<Double, DoubleMultiPoi
         return nodeCalc.getChild();
     }
 
+    @Override
+    public Double visit(RollingNodeCalc nodeCalc, DoubleMultiPoint multiPoint, Double child) {
+        return child;
+    }
+
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, DoubleMultiPoint multiPoint) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Double visit(ShiftNodeCalc nodeCalc, DoubleMultiPoint multiPoint, Double child) {
+        return nodeCalc.getLag() == 0 ? child : Double.NaN;
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, DoubleMultiPoint multiPoint) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Double visit(ResampleNodeCalc nodeCalc, DoubleMultiPoint multiPoint, Double child) {
+        return child;
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, DoubleMultiPoint multiPoint) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public Double visit(CumulativeSumNodeCalc nodeCalc, DoubleMultiPoint multiPoint, Double child) {
+        return child;
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, DoubleMultiPoint multiPoint) {
+        return nodeCalc.getChild();
+    }
+
     @Override
     public Double visit(TimeNodeCalc nodeCalc, DoubleMultiPoint multiPoint, Double child) {
         return (double) multiPoint.getTime();
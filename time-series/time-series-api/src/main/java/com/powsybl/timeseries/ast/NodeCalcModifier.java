@@ -92,6 +92,62 @@ public class NodeCalcModifier<A> implements NodeCalcVisitor<NodeCalc, A> {
         return nodeCalc.getChild();
     }
 
+    @Override
+    public NodeCalc visit(RollingNodeCalc nodeCalc, A arg, NodeCalc child) {
+        NodeCalc newChild = child;
+        if (newChild != null) {
+            nodeCalc.setChild(newChild);
+        }
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc visit(ShiftNodeCalc nodeCalc, A arg, NodeCalc child) {
+        NodeCalc newChild = child;
+        if (newChild != null) {
+            nodeCalc.setChild(newChild);
+        }
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc visit(ResampleNodeCalc nodeCalc, A arg, NodeCalc child) {
+        NodeCalc newChild = child;
+        if (newChild != null) {
+            nodeCalc.setChild(newChild);
+        }
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc visit(CumulativeSumNodeCalc nodeCalc, A arg, NodeCalc child) {
+        NodeCalc newChild = child;
+        if (newChild != null) {
+            nodeCalc.setChild(newChild);
+        }
+        return null;
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, A arg) {
+        return nodeCalc.getChild();
+    }
+
     @Override
     public NodeCalc visit(TimeNodeCalc nodeCalc, A arg, NodeCalc child) {
         NodeCalc newChild = child;
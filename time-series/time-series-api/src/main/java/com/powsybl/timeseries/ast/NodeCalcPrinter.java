@@ -8,6 +8,8 @@ package com.powsybl.timeseries.ast;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.time.Duration;
+
 /**
  * @author Geoffroy Jamgotchian <geoffroy.jamgotchian at rte-france.com>
  */
@@ -57,6 +59,26 @@ public class NodeCalcPrinter implements NodeCalcVisitor<String, Void> {
         return child + ".max(" + nodeCalc.getMax() + ")";
     }
 
+    @Override
+    public String visit(RollingNodeCalc nodeCalc, Void arg, String child) {
+        return "(" + child + ").rolling" + nodeCalc.getAggregation() + "(" + nodeCalc.getWindow() + ")";
+    }
+
+    @Override
+    public String visit(ShiftNodeCalc nodeCalc, Void arg, String child) {
+        return "(" + child + ").shift(" + nodeCalc.getLag() + ")";
+    }
+
+    @Override
+    public String visit(ResampleNodeCalc nodeCalc, Void arg, String child) {
+        return "(" + child + ").resample" + nodeCalc.getAggregation() + "('" + Duration.ofMillis(nodeCalc.getPeriod()) + "')";
+    }
+
+    @Override
+    public String visit(CumulativeSumNodeCalc nodeCalc, Void arg, String child) {
+        return "(" + child + ").cumsum()";
+    }
+
     @Override
     public String visit(TimeNodeCalc nodeCalc, Void arg, String child) {
         return "(" + child + ").time()";
@@ -97,4 +119,24 @@ public class NodeCalcPrinter implements NodeCalcVisitor<String, Void> {
         return nodeCalc.getChild();
     }
 
+    @Override
+    public NodeCalc iterate(RollingNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc iterate(ShiftNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc iterate(ResampleNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
+    @Override
+    public NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, Void arg) {
+        return nodeCalc.getChild();
+    }
+
 }
@@ -49,6 +49,22 @@ public interface NodeCalcVisitor<R, A> {
 
     NodeCalc iterate(MaxNodeCalc nodeCalc, A arg);
 
+    R visit(RollingNodeCalc nodeCalc, A arg, R child);
+
+    NodeCalc iterate(RollingNodeCalc nodeCalc, A arg);
+
+    R visit(ShiftNodeCalc nodeCalc, A arg, R child);
+
+    NodeCalc iterate(ShiftNodeCalc nodeCalc, A arg);
+
+    R visit(ResampleNodeCalc nodeCalc, A arg, R child);
+
+    NodeCalc iterate(ResampleNodeCalc nodeCalc, A arg);
+
+    R visit(CumulativeSumNodeCalc nodeCalc, A arg, R child);
+
+    NodeCalc iterate(CumulativeSumNodeCalc nodeCalc, A arg);
+
     R visit(TimeSeriesNameNodeCalc nodeCalc, A arg);
 
     R visit(TimeSeriesNumNodeCalc nodeCalc, A arg);
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.powsybl.timeseries.IrregularTimeSeriesIndex;
+import com.powsybl.timeseries.RegularTimeSeriesIndex;
+import com.powsybl.timeseries.TimeSeriesException;
+import com.powsybl.timeseries.TimeSeriesIndex;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Aggregation of the values of the child on the points of the period containing the current point, periods
+ * being aligned on epoch. At the root of a calculated time series, the result has one point per period, on the
+ * coarser index given by {@link #resample(TimeSeriesIndex)}. Elsewhere in a tree, the result is a step for each
+ * period on the index of the time series.
+ *
+ * @author agent <agent at local>
+ */
+public class ResampleNodeCalc extends AbstractWindowNodeCalc {
+
+    static final String NAME = "resample";
+
+    private final WindowAggregation aggregation;
+
+    private final long period;
+
+    /**
+     * @param period length of the periods in ms
+     */
+    public ResampleNodeCalc(NodeCalc child, WindowAggregation aggregation, long period) {
+        super(child);
+        this.aggregation = Objects.requireNonNull(aggregation);
+        if (period <= 0) {
+            throw new IllegalArgumentException("Bad period " + period);
+        }
+        this.period = period;
+    }
+
+    public ResampleNodeCalc(NodeCalc child, WindowAggregation aggregation, Duration period) {
+        this(child, aggregation, period.toMillis());
+    }
+
+    public WindowAggregation getAggregation() {
+        return aggregation;
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Index of the results of the node evaluated on the points of the given index: a regular index with a point at
+     * the start of each period, from the period of the first point to the one of the last point.
+     */
+    public TimeSeriesIndex resample(TimeSeriesIndex index) {
+        Objects.requireNonNull(index);
+        long startTime = Math.floorDiv(index.getTimeAt(0), period) * period;
+        long endTime = Math.floorDiv(index.getTimeAt(index.getPointCount() - 1), period) * period;
+        // a regular index cannot have a single point
+        return startTime == endTime ? new IrregularTimeSeriesIndex(new long[] {startTime})
+                                    : new RegularTimeSeriesIndex(startTime, endTime, period);
+    }
+
+    @Override
+    public <R, A> R accept(NodeCalcVisitor<R, A> visitor, A arg, int depth) {
+        if (depth < NodeCalcVisitors.RECURSION_THRESHOLD) {
+            NodeCalc child = visitor.iterate(this, arg);
+            R childValue = null;
+            if (child != null) {
+                childValue = child.accept(visitor, arg, depth + 1);
+            }
+            return visitor.visit(this, arg, childValue);
+        } else {
+            return NodeCalcVisitors.visit(this, arg, visitor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R, A> R acceptHandle(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> resultsStack) {
+        Object childResult = resultsStack.pop();
+        childResult = childResult == NodeCalcVisitors.NULL ? null : childResult;
+        return visitor.visit(this, arg, (R) childResult);
+    }
+
+    @Override
+    public <R, A> void acceptIterate(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> nodesStack) {
+        NodeCalc childNode = visitor.iterate(this, arg);
+        nodesStack.push(childNode == null ? NodeCalcVisitors.NULL : childNode);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeFieldName(NAME);
+        generator.writeStartObject();
+        generator.writeStringField("aggregation", aggregation.name());
+        generator.writeNumberField("period", period);
+        child.writeJson(generator);
+        generator.writeEndObject();
+    }
+
+    static class ParsingContext {
+        NodeCalc child;
+        WindowAggregation aggregation;
+        long period = -1;
+    }
+
+    static void parseFieldName(JsonParser parser, JsonToken token, ParsingContext context) throws IOException {
+        String fieldName = parser.getCurrentName();
+        if ("aggregation".equals(fieldName)) {
+            context.aggregation = WindowAggregation.valueOf(parser.nextTextValue());
+        } else if ("period".equals(fieldName)) {
+            parser.nextValue();
+            context.period = parser.getValueAsLong();
+        } else {
+            if (context.child != null) {
+                throw new TimeSeriesException("Only 1 operand expected for a resampling");
+            }
+            context.child = NodeCalc.parseJson(parser, token);
+        }
+    }
+
+    static NodeCalc parseJson(JsonParser parser) throws IOException {
+        ParsingContext context = new ParsingContext();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                // skip
+            } else if (token == JsonToken.END_OBJECT) {
+                if (context.child == null || context.aggregation == null || context.period == -1) {
+                    throw new TimeSeriesException("Invalid resample node calc JSON");
+                }
+                return new ResampleNodeCalc(context.child, context.aggregation, context.period);
+            } else if (token == JsonToken.FIELD_NAME) {
+                parseFieldName(parser, token, context);
+            } else {
+                throw NodeCalc.createUnexpectedToken(token);
+            }
+        }
+        throw NodeCalc.createUnexpectedToken(token);
+    }
+
+    @Override
+    public int hashCode() {
+        return child.hashCode() + Objects.hash(aggregation, period);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof ResampleNodeCalc) {
+            ResampleNodeCalc other = (ResampleNodeCalc) obj;
+            return other.child.equals(child) && other.aggregation == aggregation && other.period == period;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.powsybl.timeseries.TimeSeriesException;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Aggregation of the values of the child on a window of points ending at the current point. At the first points,
+ * the window is truncated to the available points.
+ *
+ * @author agent <agent at local>
+ */
+public class RollingNodeCalc extends AbstractWindowNodeCalc {
+
+    static final String NAME = "rolling";
+
+    public static RollingNodeCalc sum(NodeCalc child, int window) {
+        return new RollingNodeCalc(child, WindowAggregation.SUM, window);
+    }
+
+    public static RollingNodeCalc mean(NodeCalc child, int window) {
+        return new RollingNodeCalc(child, WindowAggregation.MEAN, window);
+    }
+
+    public static RollingNodeCalc min(NodeCalc child, int window) {
+        return new RollingNodeCalc(child, WindowAggregation.MIN, window);
+    }
+
+    public static RollingNodeCalc max(NodeCalc child, int window) {
+        return new RollingNodeCalc(child, WindowAggregation.MAX, window);
+    }
+
+    private final WindowAggregation aggregation;
+
+    private final int window;
+
+    public RollingNodeCalc(NodeCalc child, WindowAggregation aggregation, int window) {
+        super(child);
+        this.aggregation = Objects.requireNonNull(aggregation);
+        if (window < 1) {
+            throw new IllegalArgumentException("Bad window size " + window);
+        }
+        this.window = window;
+    }
+
+    public WindowAggregation getAggregation() {
+        return aggregation;
+    }
+
+    /**
+     * Number of points of the window.
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    @Override
+    public <R, A> R accept(NodeCalcVisitor<R, A> visitor, A arg, int depth) {
+        if (depth < NodeCalcVisitors.RECURSION_THRESHOLD) {
+            NodeCalc child = visitor.iterate(this, arg);
+            R childValue = null;
+            if (child != null) {
+                childValue = child.accept(visitor, arg, depth + 1);
+            }
+            return visitor.visit(this, arg, childValue);
+        } else {
+            return NodeCalcVisitors.visit(this, arg, visitor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R, A> R acceptHandle(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> resultsStack) {
+        Object childResult = resultsStack.pop();
+        childResult = childResult == NodeCalcVisitors.NULL ? null : childResult;
+        return visitor.visit(this, arg, (R) childResult);
+    }
+
+    @Override
+    public <R, A> void acceptIterate(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> nodesStack) {
+        NodeCalc childNode = visitor.iterate(this, arg);
+        nodesStack.push(childNode == null ? NodeCalcVisitors.NULL : childNode);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeFieldName(NAME);
+        generator.writeStartObject();
+        generator.writeStringField("aggregation", aggregation.name());
+        generator.writeNumberField("window", window);
+        child.writeJson(generator);
+        generator.writeEndObject();
+    }
+
+    static class ParsingContext {
+        NodeCalc child;
+        WindowAggregation aggregation;
+        int window = -1;
+    }
+
+    static void parseFieldName(JsonParser parser, JsonToken token, ParsingContext context) throws IOException {
+        String fieldName = parser.getCurrentName();
+        if ("aggregation".equals(fieldName)) {
+            context.aggregation = WindowAggregation.valueOf(parser.nextTextValue());
+        } else if ("window".equals(fieldName)) {
+            parser.nextValue();
+            context.window = parser.getValueAsInt();
+        } else {
+            if (context.child != null) {
+                throw new TimeSeriesException("Only 1 operand expected for a rolling aggregation");
+            }
+            context.child = NodeCalc.parseJson(parser, token);
+        }
+    }
+
+    static NodeCalc parseJson(JsonParser parser) throws IOException {
+        ParsingContext context = new ParsingContext();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                // skip
+            } else if (token == JsonToken.END_OBJECT) {
+                if (context.child == null || context.aggregation == null || context.window == -1) {
+                    throw new TimeSeriesException("Invalid rolling node calc JSON");
+                }
+                return new RollingNodeCalc(context.child, context.aggregation, context.window);
+            } else if (token == JsonToken.FIELD_NAME) {
+                parseFieldName(parser, token, context);
+            } else {
+                throw NodeCalc.createUnexpectedToken(token);
+            }
+        }
+        throw NodeCalc.createUnexpectedToken(token);
+    }
+
+    @Override
+    public int hashCode() {
+        return child.hashCode() + Objects.hash(aggregation, window);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof RollingNodeCalc) {
+            RollingNodeCalc other = (RollingNodeCalc) obj;
+            return other.child.equals(child) && other.aggregation == aggregation && other.window == window;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.powsybl.timeseries.TimeSeriesException;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Value of the child a given number of points before (lag) or after (negative lag) the current point, NaN when
+ * this point is out of the index.
+ *
+ * @author agent <agent at local>
+ */
+public class ShiftNodeCalc extends AbstractWindowNodeCalc {
+
+    static final String NAME = "shift";
+
+    private final int lag;
+
+    public ShiftNodeCalc(NodeCalc child, int lag) {
+        super(child);
+        this.lag = lag;
+    }
+
+    public int getLag() {
+        return lag;
+    }
+
+    @Override
+    public <R, A> R accept(NodeCalcVisitor<R, A> visitor, A arg, int depth) {
+        if (depth < NodeCalcVisitors.RECURSION_THRESHOLD) {
+            NodeCalc child = visitor.iterate(this, arg);
+            R childValue = null;
+            if (child != null) {
+                childValue = child.accept(visitor, arg, depth + 1);
+            }
+            return visitor.visit(this, arg, childValue);
+        } else {
+            return NodeCalcVisitors.visit(this, arg, visitor);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R, A> R acceptHandle(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> resultsStack) {
+        Object childResult = resultsStack.pop();
+        childResult = childResult == NodeCalcVisitors.NULL ? null : childResult;
+        return visitor.visit(this, arg, (R) childResult);
+    }
+
+    @Override
+    public <R, A> void acceptIterate(NodeCalcVisitor<R, A> visitor, A arg, Deque<Object> nodesStack) {
+        NodeCalc childNode = visitor.iterate(this, arg);
+        nodesStack.push(childNode == null ? NodeCalcVisitors.NULL : childNode);
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeFieldName(NAME);
+        generator.writeStartObject();
+        generator.writeNumberField("lag", lag);
+        child.writeJson(generator);
+        generator.writeEndObject();
+    }
+
+    static class ParsingContext {
+        NodeCalc child;
+        Integer lag;
+    }
+
+    static void parseFieldName(JsonParser parser, JsonToken token, ParsingContext context) throws IOException {
+        String fieldName = parser.getCurrentName();
+        if ("lag".equals(fieldName)) {
+            parser.nextValue();
+            context.lag = parser.getValueAsInt();
+        } else {
+            if (context.child != null) {
+                throw new TimeSeriesException("Only 1 operand expected for a shift");
+            }
+            context.child = NodeCalc.parseJson(parser, token);
+        }
+    }
+
+    static NodeCalc parseJson(JsonParser parser) throws IOException {
+        ParsingContext context = new ParsingContext();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                // skip
+            } else if (token == JsonToken.END_OBJECT) {
+                if (context.child == null || context.lag == null) {
+                    throw new TimeSeriesException("Invalid shift node calc JSON");
+                }
+                return new ShiftNodeCalc(context.child, context.lag);
+            } else if (token == JsonToken.FIELD_NAME) {
+                parseFieldName(parser, token, context);
+            } else {
+                throw NodeCalc.createUnexpectedToken(token);
+            }
+        }
+        throw NodeCalc.createUnexpectedToken(token);
+    }
+
+    @Override
+    public int hashCode() {
+        return child.hashCode() + Objects.hash(NAME, lag);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof ShiftNodeCalc) {
+            return ((ShiftNodeCalc) obj).child.equals(child) && ((ShiftNodeCalc) obj).lag == lag;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.ast;
+
+import java.util.Objects;
+
+/**
+ * Aggregation of the values of a window, NaN values are ignored.
+ *
+ * @author agent <agent at local>
+ */
+public enum WindowAggregation {
+    SUM("Sum"),
+    MEAN("Mean"),
+    MIN("Min"),
+    MAX("Max");
+
+    WindowAggregation(String str) {
+        this.str = Objects.requireNonNull(str);
+    }
+
+    @Override
+    public String toString() {
+        return str;
+    }
+
+    private final String str;
+}
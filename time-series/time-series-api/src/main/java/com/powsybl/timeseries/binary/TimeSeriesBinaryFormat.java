@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.binary;
+
+import com.powsybl.timeseries.TimeSeriesException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encodings shared by {@link TimeSeriesBinaryWriter} and {@link TimeSeriesBinaryReader}.
+ *
+ * <p>Integers are written as variable length quantities (7 bits per byte, least significant group first), signed
+ * ones being zigzag encoded first, and strings as their UTF-8 byte count followed by their UTF-8 bytes.
+ *
+ * @author agent <agent at local>
+ */
+final class TimeSeriesBinaryFormat {
+
+    static final int MAGIC = 0x50545342; // PTSB
+
+    static final int VERSION = 1;
+
+    // records
+    static final byte END = 0;
+    static final byte STORED_TIME_SERIES = 1;
+    static final byte CALCULATED_TIME_SERIES = 2;
+
+    // indexes
+    static final byte REGULAR_INDEX = 0;
+    static final byte IRREGULAR_INDEX = 1;
+    static final byte INFINITE_INDEX = 2;
+
+    // chunks
+    static final byte UNCOMPRESSED_DOUBLE_CHUNK = 0;
+    static final byte COMPRESSED_DOUBLE_CHUNK = 1;
+    static final byte UNCOMPRESSED_STRING_CHUNK = 2;
+    static final byte COMPRESSED_STRING_CHUNK = 3;
+    static final byte XOR_COMPRESSED_DOUBLE_CHUNK = 4;
+
+    // string dictionary code reserved to null values, other codes are dictionary indexes shifted by one
+    static final int NULL_STRING_CODE = 0;
+
+    private TimeSeriesBinaryFormat() {
+    }
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            output.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        output.writeByte(v);
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = input.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new TimeSeriesException("Malformed variable length integer");
+    }
+
+    static void writeVarLong(DataOutput output, long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            output.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        output.writeByte((int) v);
+    }
+
+    static long readVarLong(DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new TimeSeriesException("Malformed variable length long");
+    }
+
+    static void writeSignedVarLong(DataOutput output, long value) throws IOException {
+        writeVarLong(output, (value << 1) ^ (value >> 63));
+    }
+
+    static long readSignedVarLong(DataInput input) throws IOException {
+        long v = readVarLong(input);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static int readCount(DataInput input) throws IOException {
+        int count = readVarInt(input);
+        if (count < 0) {
+            throw new TimeSeriesException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInput input) throws IOException {
+        byte[] bytes = new byte[readCount(input)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.binary;
+
+import com.powsybl.timeseries.*;
+import com.powsybl.timeseries.ast.NodeCalc;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.powsybl.timeseries.binary.TimeSeriesBinaryFormat.*;
+
+/**
+ * Reads time series written by {@link TimeSeriesBinaryWriter}, one at a time.
+ *
+ * @author agent <agent at local>
+ */
+public class TimeSeriesBinaryReader implements Closeable {
+
+    private final DataInputStream dis;
+
+    private boolean ended = false;
+
+    public TimeSeriesBinaryReader(InputStream is) {
+        Objects.requireNonNull(is);
+        dis = new DataInputStream(new BufferedInputStream(is));
+        try {
+            if (dis.readInt() != MAGIC) {
+                throw new TimeSeriesException("Not a binary time series stream");
+            }
+            int version = dis.readInt();
+            if (version != VERSION) {
+                throw new TimeSeriesException("Unsupported binary time series format version: " + version);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<TimeSeries> read(InputStream is) {
+        List<TimeSeries> timeSeriesList = new ArrayList<>();
+        try (TimeSeriesBinaryReader reader = new TimeSeriesBinaryReader(is)) {
+            TimeSeries timeSeries;
+            while ((timeSeries = reader.read()) != null) {
+                timeSeriesList.add(timeSeries);
+            }
+        }
+        return timeSeriesList;
+    }
+
+    public static List<TimeSeries> read(Path file) {
+        try (InputStream is = Files.newInputStream(file)) {
+            return read(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<TimeSeries> read(byte[] bytes) {
+        return read(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Read the next time series of the stream.
+     *
+     * @return the next time series or null at the end of the stream
+     */
+    public TimeSeries read() {
+        if (ended) {
+            return null;
+        }
+        try {
+            byte record = dis.readByte();
+            switch (record) {
+                case END:
+                    ended = true;
+                    return null;
+                case STORED_TIME_SERIES:
+                    return readStoredTimeSeries();
+                case CALCULATED_TIME_SERIES:
+                    String name = readString(dis);
+                    return new CalculatedTimeSeries(name, NodeCalc.parseJson(readString(dis)));
+                default:
+                    throw new TimeSeriesException("Unexpected record type: " + record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TimeSeries readStoredTimeSeries() throws IOException {
+        TimeSeriesMetadata metadata = readMetadata(dis);
+        int chunkCount = readCount(dis);
+        if (metadata.getDataType() == TimeSeriesDataType.DOUBLE) {
+            List<DoubleDataChunk> chunks = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                DataChunk chunk = readChunk(dis);
+                if (!(chunk instanceof DoubleDataChunk)) {
+                    throw new TimeSeriesException("String chunks found in a double time series");
+                }
+                chunks.add((DoubleDataChunk) chunk);
+            }
+            return new StoredDoubleTimeSeries(metadata, chunks);
+        } else if (metadata.getDataType() == TimeSeriesDataType.STRING) {
+            List<StringDataChunk> chunks = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                DataChunk chunk = readChunk(dis);
+                if (!(chunk instanceof StringDataChunk)) {
+                    throw new TimeSeriesException("Double chunks found in a string time series");
+                }
+                chunks.add((StringDataChunk) chunk);
+            }
+            return new StringTimeSeries(metadata, chunks);
+        } else {
+            throw new TimeSeriesException("Unexpected time series data type " + metadata.getDataType());
+        }
+    }
+
+    public static TimeSeriesMetadata readMetadata(DataInputStream dis) throws IOException {
+        Objects.requireNonNull(dis);
+        String name = readString(dis);
+        TimeSeriesDataType dataType = TimeSeriesDataType.valueOf(readString(dis));
+        int tagCount = readCount(dis);
+        Map<String, String> tags = new LinkedHashMap<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            String key = readString(dis);
+            tags.put(key, readString(dis));
+        }
+        return new TimeSeriesMetadata(name, dataType, tags, readIndex(dis));
+    }
+
+    private static TimeSeriesIndex readIndex(DataInputStream dis) throws IOException {
+        byte type = dis.readByte();
+        switch (type) {
+            case REGULAR_INDEX:
+                long startTime = dis.readLong();
+                long endTime = dis.readLong();
+                long spacing = dis.readLong();
+                return new RegularTimeSeriesIndex(startTime, endTime, spacing);
+            case IRREGULAR_INDEX:
+                long[] times = new long[readCount(dis)];
+                long time = 0;
+                for (int point = 0; point < times.length; point++) {
+                    time += readSignedVarLong(dis);
+                    times[point] = time;
+                }
+                return new IrregularTimeSeriesIndex(times);
+            case INFINITE_INDEX:
+                return InfiniteTimeSeriesIndex.INSTANCE;
+            default:
+                throw new TimeSeriesException("Unexpected index type: " + type);
+        }
+    }
+
+    public static DataChunk readChunk(DataInputStream dis) throws IOException {
+        Objects.requireNonNull(dis);
+        byte type = dis.readByte();
+        int offset = readCount(dis);
+        switch (type) {
+            case UNCOMPRESSED_DOUBLE_CHUNK:
+                double[] values = new double[readCount(dis)];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = dis.readDouble();
+                }
+                return new UncompressedDoubleDataChunk(offset, values);
+            case COMPRESSED_DOUBLE_CHUNK: {
+                int uncompressedLength = readCount(dis);
+                double[] stepValues = new double[readCount(dis)];
+                for (int i = 0; i < stepValues.length; i++) {
+                    stepValues[i] = dis.readDouble();
+                }
+                return new CompressedDoubleDataChunk(offset, uncompressedLength, stepValues, readStepLengths(dis, stepValues.length));
+            }
+            case XOR_COMPRESSED_DOUBLE_CHUNK: {
+                int length = readCount(dis);
+                long bitLength = readVarLong(dis);
+                long[] words = new long[(int) ((bitLength + Long.SIZE - 1) / Long.SIZE)];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = dis.readLong();
+                }
+                return new XorCompressedDoubleDataChunk(offset, length, words, bitLength);
+            }
+            case UNCOMPRESSED_STRING_CHUNK:
+                return new UncompressedStringDataChunk(offset, readStrings(dis));
+            case COMPRESSED_STRING_CHUNK: {
+                int uncompressedLength = readCount(dis);
+                String[] stepValues = readStrings(dis);
+                return new CompressedStringDataChunk(offset, uncompressedLength, stepValues, readStepLengths(dis, stepValues.length));
+            }
+            default:
+                throw new TimeSeriesException("Unexpected chunk type: " + type);
+        }
+    }
+
+    private static int[] readStepLengths(DataInputStream dis, int stepCount) throws IOException {
+        int[] stepLengths = new int[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            stepLengths[i] = readCount(dis);
+        }
+        return stepLengths;
+    }
+
+    private static String[] readStrings(DataInputStream dis) throws IOException {
+        String[] dictionary = new String[readCount(dis)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(dis);
+        }
+        String[] values = new String[readCount(dis)];
+        for (int i = 0; i < values.length; i++) {
+            int code = readCount(dis);
+            if (code > dictionary.length) {
+                throw new TimeSeriesException("Invalid string code: " + code);
+            }
+            values[i] = code == NULL_STRING_CODE ? null : dictionary[code - 1];
+        }
+        return values;
+    }
+
+    @Override
+    public void close() {
+        try {
+            dis.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
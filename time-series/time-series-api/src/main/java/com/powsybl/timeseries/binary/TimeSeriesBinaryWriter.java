@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.binary;
+
+import com.powsybl.timeseries.*;
+import com.powsybl.timeseries.ast.NodeCalc;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.powsybl.timeseries.binary.TimeSeriesBinaryFormat.*;
+
+/**
+ * Writes time series to a stream in a compact binary format, readable by {@link TimeSeriesBinaryReader}.
+ *
+ * <p>The format carries the same model as the JSON one: metadata with tags and index, and chunks of any of the
+ * uncompressed, run length encoded or XOR compressed types, or the expression of calculated time series. Time series
+ * are written one after the other as they are given, so a large list does not need to be held in memory. Values of
+ * string chunks are replaced by codes in a dictionary of the distinct values of the chunk.
+ *
+ * @author agent <agent at local>
+ */
+public class TimeSeriesBinaryWriter implements Closeable {
+
+    private final DataOutputStream dos;
+
+    /**
+     * @param os the output stream, closed with the writer
+     */
+    public TimeSeriesBinaryWriter(OutputStream os) {
+        Objects.requireNonNull(os);
+        dos = new DataOutputStream(new BufferedOutputStream(os));
+        try {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void write(OutputStream os, List<? extends TimeSeries> timeSeriesList) {
+        Objects.requireNonNull(timeSeriesList);
+        try (TimeSeriesBinaryWriter writer = new TimeSeriesBinaryWriter(os)) {
+            for (TimeSeries timeSeries : timeSeriesList) {
+                writer.write(timeSeries);
+            }
+        }
+    }
+
+    public static void write(Path file, List<? extends TimeSeries> timeSeriesList) {
+        try (OutputStream os = Files.newOutputStream(file)) {
+            write(os, timeSeriesList);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] toBytes(List<? extends TimeSeries> timeSeriesList) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        write(bos, timeSeriesList);
+        return bos.toByteArray();
+    }
+
+    public TimeSeriesBinaryWriter write(TimeSeries timeSeries) {
+        Objects.requireNonNull(timeSeries);
+        try {
+            if (timeSeries instanceof CalculatedTimeSeries) {
+                dos.writeByte(CALCULATED_TIME_SERIES);
+                writeString(dos, timeSeries.getMetadata().getName());
+                writeString(dos, NodeCalc.toJson(((CalculatedTimeSeries) timeSeries).getNodeCalc()));
+            } else {
+                dos.writeByte(STORED_TIME_SERIES);
+                writeMetadata(dos, timeSeries.getMetadata());
+                List<? extends DataChunk> chunks = getChunks(timeSeries);
+                writeVarInt(dos, chunks.size());
+                for (DataChunk chunk : chunks) {
+                    writeChunk(dos, chunk);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private static List<? extends DataChunk> getChunks(TimeSeries timeSeries) {
+        if (timeSeries instanceof AbstractTimeSeries) {
+            return ((AbstractTimeSeries<?, ?, ?>) timeSeries).getChunks();
+        } else if (timeSeries instanceof DoubleTimeSeries) {
+            // time series not backed by chunks, like mapped ones
+            return Collections.singletonList(new UncompressedDoubleDataChunk(0, ((DoubleTimeSeries) timeSeries).toArray()).tryToCompress());
+        } else {
+            throw new TimeSeriesException("Unsupported time series type: " + timeSeries.getClass().getName());
+        }
+    }
+
+    public static void writeMetadata(DataOutputStream dos, TimeSeriesMetadata metadata) throws IOException {
+        Objects.requireNonNull(dos);
+        Objects.requireNonNull(metadata);
+        writeString(dos, metadata.getName());
+        writeString(dos, metadata.getDataType().name());
+        writeVarInt(dos, metadata.getTags().size());
+        for (Map.Entry<String, String> e : metadata.getTags().entrySet()) {
+            writeString(dos, e.getKey());
+            writeString(dos, e.getValue());
+        }
+        writeIndex(dos, metadata.getIndex());
+    }
+
+    private static void writeIndex(DataOutputStream dos, TimeSeriesIndex index) throws IOException {
+        if (index instanceof RegularTimeSeriesIndex) {
+            RegularTimeSeriesIndex regularIndex = (RegularTimeSeriesIndex) index;
+            dos.writeByte(REGULAR_INDEX);
+            dos.writeLong(regularIndex.getStartTime());
+            dos.writeLong(regularIndex.getEndTime());
+            dos.writeLong(regularIndex.getSpacing());
+        } else if (index instanceof IrregularTimeSeriesIndex) {
+            // times are delta encoded, so that close times only take a few bytes
+            dos.writeByte(IRREGULAR_INDEX);
+            writeVarInt(dos, index.getPointCount());
+            long previousTime = 0;
+            for (int point = 0; point < index.getPointCount(); point++) {
+                long time = index.getTimeAt(point);
+                writeSignedVarLong(dos, time - previousTime);
+                previousTime = time;
+            }
+        } else if (index instanceof InfiniteTimeSeriesIndex) {
+            dos.writeByte(INFINITE_INDEX);
+        } else {
+            throw new TimeSeriesException("Unsupported index type: " + index.getClass().getName());
+        }
+    }
+
+    public static void writeChunk(DataOutputStream dos, DataChunk chunk) throws IOException {
+        Objects.requireNonNull(dos);
+        Objects.requireNonNull(chunk);
+        if (chunk instanceof UncompressedDoubleDataChunk) {
+            UncompressedDoubleDataChunk uncompressedChunk = (UncompressedDoubleDataChunk) chunk;
+            dos.writeByte(UNCOMPRESSED_DOUBLE_CHUNK);
+            writeVarInt(dos, uncompressedChunk.getOffset());
+            writeVarInt(dos, uncompressedChunk.getLength());
+            for (double value : uncompressedChunk.getValues()) {
+                dos.writeDouble(value);
+            }
+        } else if (chunk instanceof CompressedDoubleDataChunk) {
+            CompressedDoubleDataChunk compressedChunk = (CompressedDoubleDataChunk) chunk;
+            dos.writeByte(COMPRESSED_DOUBLE_CHUNK);
+            writeVarInt(dos, compressedChunk.getOffset());
+            writeVarInt(dos, compressedChunk.getUncompressedLength());
+            writeVarInt(dos, compressedChunk.getStepValues().length);
+            for (double value : compressedChunk.getStepValues()) {
+                dos.writeDouble(value);
+            }
+            writeStepLengths(dos, compressedChunk.getStepLengths());
+        } else if (chunk instanceof XorCompressedDoubleDataChunk) {
+            XorCompressedDoubleDataChunk xorCompressedChunk = (XorCompressedDoubleDataChunk) chunk;
+            dos.writeByte(XOR_COMPRESSED_DOUBLE_CHUNK);
+            writeVarInt(dos, xorCompressedChunk.getOffset());
+            writeVarInt(dos, xorCompressedChunk.getLength());
+            writeVarLong(dos, xorCompressedChunk.getBitLength());
+            for (long word : xorCompressedChunk.getWords()) {
+                dos.writeLong(word);
+            }
+        } else if (chunk instanceof UncompressedStringDataChunk) {
+            UncompressedStringDataChunk uncompressedChunk = (UncompressedStringDataChunk) chunk;
+            dos.writeByte(UNCOMPRESSED_STRING_CHUNK);
+            writeVarInt(dos, uncompressedChunk.getOffset());
+            writeStrings(dos, uncompressedChunk.getValues());
+        } else if (chunk instanceof CompressedStringDataChunk) {
+            CompressedStringDataChunk compressedChunk = (CompressedStringDataChunk) chunk;
+            dos.writeByte(COMPRESSED_STRING_CHUNK);
+            writeVarInt(dos, compressedChunk.getOffset());
+            writeVarInt(dos, compressedChunk.getUncompressedLength());
+            writeStrings(dos, compressedChunk.getStepValues());
+            writeStepLengths(dos, compressedChunk.getStepLengths());
+        } else {
+            throw new TimeSeriesException("Unsupported chunk type: " + chunk.getClass().getName());
+        }
+    }
+
+    private static void writeStepLengths(DataOutputStream dos, int[] stepLengths) throws IOException {
+        for (int length : stepLengths) {
+            writeVarInt(dos, length);
+        }
+    }
+
+    /**
+     * Write the dictionary of the distinct values, in order of first occurrence, followed by the count and codes of
+     * the values.
+     */
+    private static void writeStrings(DataOutputStream dos, String[] values) throws IOException {
+        TObjectIntMap<String> codes = new TObjectIntHashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (String value : values) {
+            if (value != null && !codes.containsKey(value)) {
+                dictionary.add(value);
+                codes.put(value, dictionary.size()); // code 0 is for null values
+            }
+        }
+        writeVarInt(dos, dictionary.size());
+        for (String value : dictionary) {
+            writeString(dos, value);
+        }
+        writeVarInt(dos, values.length);
+        for (String value : values) {
+            writeVarInt(dos, value != null ? codes.get(value) : NULL_STRING_CODE);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            dos.writeByte(END);
+            dos.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.mmap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.powsybl.timeseries.*;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A double time series whose data is a column of a memory mapped data file. Buffers are filled directly from the
+ * mapped data, the chunks are only created to iterate over the points. A slice of the time series is a window on the
+ * same column: only the data of the window is read.
+ *
+ * @author agent <agent at local>
+ */
+class MappedDoubleTimeSeries implements DoubleTimeSeries {
+
+    private final TimeSeriesMetadata metadata;
+
+    private final ByteBuffer data;
+
+    private final int position;
+
+    private final int windowStart;
+
+    private final int windowEnd;
+
+    private StoredDoubleTimeSeries loaded;
+
+    /**
+     * @param metadata metadata of the time series
+     * @param data mapped data file, only read with absolute methods
+     * @param position position of the column in the data file
+     */
+    MappedDoubleTimeSeries(TimeSeriesMetadata metadata, ByteBuffer data, int position) {
+        this(metadata, data, position, 0, metadata.getIndex().getPointCount());
+    }
+
+    /**
+     * @param windowStart first point of the column in the window
+     * @param windowEnd point of the column following the last point of the window
+     */
+    private MappedDoubleTimeSeries(TimeSeriesMetadata metadata, ByteBuffer data, int position, int windowStart, int windowEnd) {
+        this.metadata = Objects.requireNonNull(metadata);
+        this.data = Objects.requireNonNull(data);
+        this.position = position;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    private interface ChunkVisitor {
+
+        /**
+         * @param offset offset of the chunk in the time series
+         * @param length number of points of the chunk
+         * @param valuesPosition position of the values in the data file
+         */
+        void visitUncompressed(int offset, int length, int valuesPosition);
+
+        /**
+         * Visit a compressed chunk, its steps are visited just after.
+         *
+         * @param offset offset of the chunk in the time series
+         * @param uncompressedLength number of points of the chunk
+         * @param stepCount number of steps of the chunk
+         */
+        void visitCompressed(int offset, int uncompressedLength, int stepCount);
+
+        /**
+         * @param offset offset of the step in the time series
+         * @param length number of points of the step
+         * @param value value of the step
+         */
+        void visitStep(int offset, int length, double value);
+    }
+
+    private void visitChunks(ChunkVisitor visitor) {
+        int chunkCount = data.getInt(position);
+        int p = position + Integer.BYTES;
+        for (int c = 0; c < chunkCount; c++) {
+            byte type = data.get(p);
+            int offset = data.getInt(p + 1);
+            int length = data.getInt(p + 1 + Integer.BYTES);
+            p += 1 + 2 * Integer.BYTES;
+            // part of the chunk in the window
+            int from = Math.max(offset, windowStart);
+            int to = Math.min(offset + length, windowEnd);
+            if (type == MappedTimeSeriesStoreWriter.UNCOMPRESSED_CHUNK) {
+                if (from < to) {
+                    visitor.visitUncompressed(from - windowStart, to - from, p + (from - offset) * Double.BYTES);
+                }
+                p += length * Double.BYTES;
+            } else if (type == MappedTimeSeriesStoreWriter.COMPRESSED_CHUNK) {
+                int stepCount = data.getInt(p);
+                p += Integer.BYTES;
+                if (from < to) {
+                    visitSteps(visitor, offset, stepCount, p, from, to);
+                }
+                p += stepCount * (Double.BYTES + Integer.BYTES);
+            } else {
+                throw new TimeSeriesException("Unexpected chunk type " + type);
+            }
+        }
+    }
+
+    private void visitSteps(ChunkVisitor visitor, int offset, int stepCount, int stepValuesPosition, int from, int to) {
+        int stepLengthsPosition = stepValuesPosition + stepCount * Double.BYTES;
+        // find steps overlapping the window
+        int first = 0;
+        int firstStart = offset;
+        while (firstStart + data.getInt(stepLengthsPosition + first * Integer.BYTES) <= from) {
+            firstStart += data.getInt(stepLengthsPosition + first * Integer.BYTES);
+            first++;
+        }
+        int last = first;
+        int lastStart = firstStart;
+        while (lastStart + data.getInt(stepLengthsPosition + last * Integer.BYTES) < to) {
+            lastStart += data.getInt(stepLengthsPosition + last * Integer.BYTES);
+            last++;
+        }
+        visitor.visitCompressed(from - windowStart, to - from, last - first + 1);
+        int stepStart = firstStart;
+        for (int s = first; s <= last; s++) {
+            int stepEnd = stepStart + data.getInt(stepLengthsPosition + s * Integer.BYTES);
+            int start = Math.max(stepStart, from);
+            int end = Math.min(stepEnd, to);
+            visitor.visitStep(start - windowStart, end - start, data.getDouble(stepValuesPosition + s * Double.BYTES));
+            stepStart = stepEnd;
+        }
+    }
+
+    @Override
+    public void fillBuffer(DoubleBuffer buffer, int timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        visitChunks(new ChunkVisitor() {
+            @Override
+            public void visitUncompressed(int offset, int length, int valuesPosition) {
+                ByteBuffer values = data.duplicate();
+                values.position(valuesPosition);
+                values.limit(valuesPosition + length * Double.BYTES);
+                DoubleBuffer target = buffer.duplicate();
+                target.position(timeSeriesOffset + offset);
+                target.put(values.slice().asDoubleBuffer());
+            }
+
+            @Override
+            public void visitCompressed(int offset, int uncompressedLength, int stepCount) {
+                // nothing to do, steps are filled one by one
+            }
+
+            @Override
+            public void visitStep(int offset, int length, double value) {
+                for (int i = timeSeriesOffset + offset; i < timeSeriesOffset + offset + length; i++) {
+                    buffer.put(i, value);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void fillBuffer(BigDoubleBuffer buffer, long timeSeriesOffset) {
+        Objects.requireNonNull(buffer);
+        visitChunks(new ChunkVisitor() {
+            @Override
+            public void visitUncompressed(int offset, int length, int valuesPosition) {
+                for (int i = 0; i < length; i++) {
+                    buffer.put(timeSeriesOffset + offset + i, data.getDouble(valuesPosition + i * Double.BYTES));
+                }
+            }
+
+            @Override
+            public void visitCompressed(int offset, int uncompressedLength, int stepCount) {
+                // nothing to do, steps are filled one by one
+            }
+
+            @Override
+            public void visitStep(int offset, int length, double value) {
+                for (long i = timeSeriesOffset + offset; i < timeSeriesOffset + offset + length; i++) {
+                    buffer.put(i, value);
+                }
+            }
+        });
+    }
+
+    @Override
+    public double[] toArray() {
+        double[] values = new double[metadata.getIndex().getPointCount()];
+        Arrays.fill(values, Double.NaN);
+        fillBuffer(DoubleBuffer.wrap(values), 0);
+        return values;
+    }
+
+    private synchronized StoredDoubleTimeSeries load() {
+        if (loaded == null) {
+            List<DoubleDataChunk> chunks = new ArrayList<>();
+            visitChunks(new ChunkVisitor() {
+
+                private int chunkOffset;
+
+                private int chunkLength;
+
+                private double[] stepValues;
+
+                private int[] stepLengths;
+
+                private int step;
+
+                @Override
+                public void visitUncompressed(int offset, int length, int valuesPosition) {
+                    double[] values = new double[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = data.getDouble(valuesPosition + i * Double.BYTES);
+                    }
+                    chunks.add(new UncompressedDoubleDataChunk(offset, values));
+                }
+
+                @Override
+                public void visitCompressed(int offset, int uncompressedLength, int stepCount) {
+                    chunkOffset = offset;
+                    chunkLength = uncompressedLength;
+                    stepValues = new double[stepCount];
+                    stepLengths = new int[stepCount];
+                    step = 0;
+                }
+
+                @Override
+                public void visitStep(int offset, int length, double value) {
+                    stepValues[step] = value;
+                    stepLengths[step] = length;
+                    step++;
+                    if (step == stepValues.length) {
+                        chunks.add(new CompressedDoubleDataChunk(chunkOffset, chunkLength, stepValues, stepLengths));
+                    }
+                }
+            });
+            loaded = new StoredDoubleTimeSeries(metadata, chunks);
+        }
+        return loaded;
+    }
+
+    @Override
+    public DoubleTimeSeries slice(int start, int end) {
+        TimeSeriesIndex slicedIndex = metadata.getIndex().slice(start, end);
+        TimeSeriesMetadata slicedMetadata = new TimeSeriesMetadata(metadata.getName(), metadata.getDataType(), metadata.getTags(), slicedIndex);
+        return new MappedDoubleTimeSeries(slicedMetadata, data, position, windowStart + start, windowStart + end);
+    }
+
+    @Override
+    public TimeSeriesMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Mapped time series are read only: they can only be synchronized to their own index.
+     */
+    @Override
+    public void synchronize(TimeSeriesIndex newIndex) {
+        Objects.requireNonNull(newIndex);
+        if (!metadata.getIndex().equals(newIndex)) {
+            throw new TimeSeriesException("Memory mapped time series '" + metadata.getName() + "' cannot be synchronized to another index");
+        }
+    }
+
+    @Override
+    public Stream<DoublePoint> stream() {
+        return load().stream();
+    }
+
+    @Override
+    public Iterator<DoublePoint> iterator() {
+        return load().iterator();
+    }
+
+    @Override
+    public List<DoubleTimeSeries> split(int newChunkSize) {
+        return load().split(newChunkSize);
+    }
+
+    @Override
+    public void setTimeSeriesNameResolver(TimeSeriesNameResolver resolver) {
+        // nothing to resolve
+    }
+
+    @Override
+    public void writeJson(JsonGenerator generator) {
+        load().writeJson(generator);
+    }
+
+    @Override
+    public String toJson() {
+        return load().toJson();
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.mmap;
+
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.timeseries.*;
+import org.threeten.extra.Interval;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A read only time series store on memory mapped files written by {@link MappedTimeSeriesStoreWriter}.
+ *
+ * <p>The index of the store (metadata and location of each version of each time series) is loaded when the store is
+ * opened, time series data are read from the mapped data files only when time series buffers are filled or their
+ * points iterated. Files are opened and mapped in read only mode. As the store cannot be modified, listeners are
+ * never notified. The store only contains double time series: string time series are rejected. Once the store is
+ * closed, it cannot be used anymore, but the time series already obtained from it remain valid.
+ *
+ * @author agent <agent at local>
+ */
+public class MappedTimeSeriesStore implements ReadOnlyTimeSeriesStore, AutoCloseable {
+
+    private static final class Entry {
+
+        private final TimeSeriesMetadata metadata;
+
+        private final Map<Integer, MappedTimeSeriesStoreWriter.Column> columns = new TreeMap<>();
+
+        private final Instant start;
+
+        private final Instant end;
+
+        private Entry(TimeSeriesMetadata metadata) {
+            this.metadata = metadata;
+            TimeSeriesIndex index = metadata.getIndex();
+            if (index.getPointCount() > 0) {
+                start = Instant.ofEpochMilli(index.getTimeAt(0));
+                end = Instant.ofEpochMilli(index.getTimeAt(index.getPointCount() - 1));
+            } else {
+                start = null;
+                end = null;
+            }
+        }
+    }
+
+    private final List<ByteBuffer> dataBuffers = new ArrayList<>();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private final Set<Integer> versions = new TreeSet<>();
+
+    private volatile boolean closed = false;
+
+    public MappedTimeSeriesStore(Path directory) {
+        Objects.requireNonNull(directory);
+        try {
+            int dataFileCount = readIndex(directory.resolve(MappedTimeSeriesStoreWriter.INDEX_FILE_NAME));
+            for (int file = 0; file < dataFileCount; file++) {
+                dataBuffers.add(map(directory.resolve(MappedTimeSeriesStoreWriter.getDataFileName(file))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Map a whole file in read only mode, the mapping remains valid once the channel is closed.
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new TimeSeriesException("File " + file + " is too big to be mapped");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private int readIndex(Path indexFile) throws IOException {
+        if (!Files.exists(indexFile)) {
+            throw new TimeSeriesException("Index file " + indexFile + " not found");
+        }
+        ByteBuffer buffer = map(indexFile);
+        if (buffer.remaining() < Integer.BYTES + 1 || buffer.getInt() != MappedTimeSeriesStoreWriter.MAGIC) {
+            throw new TimeSeriesException("Not a memory mapped time series store index: " + indexFile);
+        }
+        int version = buffer.get();
+        if (version != MappedTimeSeriesStoreWriter.VERSION) {
+            throw new TimeSeriesException("Unsupported memory mapped time series store version " + version);
+        }
+        int dataFileCount = buffer.getInt();
+        int timeSeriesCount = buffer.getInt();
+        for (int i = 0; i < timeSeriesCount; i++) {
+            byte[] metadataJson = new byte[buffer.getInt()];
+            buffer.get(metadataJson);
+            TimeSeriesMetadata metadata = JsonUtil.parseJson(new String(metadataJson, StandardCharsets.UTF_8), TimeSeriesMetadata::parseJson);
+            Entry entry = new Entry(metadata);
+            int columnCount = buffer.getInt();
+            for (int j = 0; j < columnCount; j++) {
+                MappedTimeSeriesStoreWriter.Column column = new MappedTimeSeriesStoreWriter.Column(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+                entry.columns.put(column.version, column);
+                versions.add(column.version);
+            }
+            entries.put(metadata.getName(), entry);
+        }
+        return dataFileCount;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new TimeSeriesException("Memory mapped time series store is closed");
+        }
+    }
+
+    private Entry getEntry(String timeSeriesName) {
+        Objects.requireNonNull(timeSeriesName);
+        checkOpen();
+        return entries.get(timeSeriesName);
+    }
+
+    /**
+     * Get the names of the time series of the store. The filter only selects whether the dependencies of calculated
+     * time series are included: the store only contains stored time series, which have no dependency, so that all
+     * the names are returned whatever the filter.
+     */
+    @Override
+    public Set<String> getTimeSeriesNames(TimeSeriesFilter filter) {
+        checkOpen();
+        return new LinkedHashSet<>(entries.keySet());
+    }
+
+    /**
+     * Get the names of the time series having at least one point in an interval.
+     */
+    public Set<String> getTimeSeriesNames(Interval interval) {
+        Objects.requireNonNull(interval);
+        checkOpen();
+        return entries.values().stream()
+                .filter(entry -> entry.start != null && entry.start.isBefore(interval.getEnd()) && !entry.end.isBefore(interval.getStart()))
+                .map(entry -> entry.metadata.getName())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public boolean timeSeriesExists(String timeSeriesName) {
+        return getEntry(timeSeriesName) != null;
+    }
+
+    @Override
+    public Optional<TimeSeriesMetadata> getTimeSeriesMetadata(String timeSeriesName) {
+        return Optional.ofNullable(getEntry(timeSeriesName)).map(entry -> entry.metadata);
+    }
+
+    @Override
+    public List<TimeSeriesMetadata> getTimeSeriesMetadata(Set<String> timeSeriesNames) {
+        Objects.requireNonNull(timeSeriesNames);
+        return timeSeriesNames.stream()
+                .map(this::getTimeSeriesMetadata)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Set<Integer> getTimeSeriesDataVersions() {
+        checkOpen();
+        return Collections.unmodifiableSet(versions);
+    }
+
+    @Override
+    public Set<Integer> getTimeSeriesDataVersions(String timeSeriesName) {
+        Entry entry = getEntry(timeSeriesName);
+        return entry != null ? Collections.unmodifiableSet(entry.columns.keySet()) : Collections.emptySet();
+    }
+
+    private Optional<DoubleTimeSeries> getDoubleTimeSeries(Entry entry, int version) {
+        MappedTimeSeriesStoreWriter.Column column = entry.columns.get(version);
+        if (column == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new MappedDoubleTimeSeries(entry.metadata, dataBuffers.get(column.file), column.position));
+    }
+
+    @Override
+    public Optional<DoubleTimeSeries> getDoubleTimeSeries(String timeSeriesName, int version) {
+        TimeSeriesVersions.check(version);
+        Entry entry = getEntry(timeSeriesName);
+        return entry != null ? getDoubleTimeSeries(entry, version) : Optional.empty();
+    }
+
+    @Override
+    public List<DoubleTimeSeries> getDoubleTimeSeries(Set<String> timeSeriesNames, int version) {
+        Objects.requireNonNull(timeSeriesNames);
+        return timeSeriesNames.stream()
+                .map(timeSeriesName -> getDoubleTimeSeries(timeSeriesName, version))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<DoubleTimeSeries> getDoubleTimeSeries(int version) {
+        TimeSeriesVersions.check(version);
+        checkOpen();
+        return entries.values().stream()
+                .map(entry -> getDoubleTimeSeries(entry, version))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The store only contains double time series: asking for one of them as a string time series is an error.
+     */
+    @Override
+    public Optional<StringTimeSeries> getStringTimeSeries(String timeSeriesName, int version) {
+        TimeSeriesVersions.check(version);
+        if (getEntry(timeSeriesName) != null) {
+            throw new TimeSeriesException("Time series '" + timeSeriesName + "' is not a string time series");
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<StringTimeSeries> getStringTimeSeries(Set<String> timeSeriesNames, int version) {
+        Objects.requireNonNull(timeSeriesNames);
+        timeSeriesNames.forEach(timeSeriesName -> getStringTimeSeries(timeSeriesName, version));
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void addListener(TimeSeriesStoreListener listener) {
+        // the store is never modified
+    }
+
+    @Override
+    public void removeListener(TimeSeriesStoreListener listener) {
+        // the store is never modified
+    }
+
+    /**
+     * Release the mapped data files. Files are unmapped once the store and its time series are garbage collected.
+     * The store cannot be used anymore once closed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        dataBuffers.clear();
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.mmap;
+
+import com.powsybl.commons.json.JsonUtil;
+import com.powsybl.timeseries.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writes double time series to a directory readable by {@link MappedTimeSeriesStore}.
+ *
+ * <p>Each version of each time series is written as a column of chunks in a data file. Chunks are compressed with
+ * the same run length encoding as {@link CompressedDoubleDataChunk} when it is smaller. Data files are limited in size
+ * so that they can be memory mapped, and an index file keeps the metadata of the time series and the location of
+ * their columns. The index is written when the writer is closed.
+ *
+ * @author agent <agent at local>
+ */
+public class MappedTimeSeriesStoreWriter implements Closeable {
+
+    static final int MAGIC = 0x5054534D; // PTSM
+
+    static final int VERSION = 1;
+
+    static final String INDEX_FILE_NAME = "index.bin";
+
+    static final byte UNCOMPRESSED_CHUNK = 0;
+
+    static final byte COMPRESSED_CHUNK = 1;
+
+    public static final int DEFAULT_MAX_DATA_FILE_SIZE = 1 << 30;
+
+    static String getDataFileName(int file) {
+        return "data-" + file + ".bin";
+    }
+
+    static final class Column {
+
+        final int version;
+
+        final int file;
+
+        final int position;
+
+        final int length;
+
+        Column(int version, int file, int position, int length) {
+            this.version = version;
+            this.file = file;
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    private static final class Entry {
+
+        private final TimeSeriesMetadata metadata;
+
+        private final List<Column> columns = new ArrayList<>();
+
+        private Entry(TimeSeriesMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+
+    private final Path directory;
+
+    private final int maxDataFileSize;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private int dataFileCount = 0;
+
+    private DataOutputStream dataOutputStream;
+
+    private int dataFilePosition;
+
+    public MappedTimeSeriesStoreWriter(Path directory) {
+        this(directory, DEFAULT_MAX_DATA_FILE_SIZE);
+    }
+
+    /**
+     * @param directory directory of the store, created if it does not exist
+     * @param maxDataFileSize maximum size in bytes of a data file
+     */
+    public MappedTimeSeriesStoreWriter(Path directory, int maxDataFileSize) {
+        this.directory = Objects.requireNonNull(directory);
+        if (maxDataFileSize <= 0) {
+            throw new IllegalArgumentException("Invalid max data file size: " + maxDataFileSize);
+        }
+        this.maxDataFileSize = maxDataFileSize;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write all the double time series of all the versions of a store. Stores containing string time series are
+     * rejected, as they cannot be written.
+     */
+    public static void write(ReadOnlyTimeSeriesStore store, Path directory) {
+        Objects.requireNonNull(store);
+        for (TimeSeriesMetadata metadata : store.getTimeSeriesMetadata(store.getTimeSeriesNames(new TimeSeriesFilter()))) {
+            if (metadata.getDataType() != TimeSeriesDataType.DOUBLE) {
+                throw new TimeSeriesException("String time series '" + metadata.getName() + "' cannot be written to a memory mapped time series store");
+            }
+        }
+        try (MappedTimeSeriesStoreWriter writer = new MappedTimeSeriesStoreWriter(directory)) {
+            for (int version : store.getTimeSeriesDataVersions()) {
+                for (DoubleTimeSeries timeSeries : store.getDoubleTimeSeries(version)) {
+                    writer.write(timeSeries, version);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public MappedTimeSeriesStoreWriter write(DoubleTimeSeries timeSeries, int version) {
+        Objects.requireNonNull(timeSeries);
+        TimeSeriesVersions.check(version);
+        TimeSeriesMetadata metadata = timeSeries.getMetadata();
+        Entry entry = entries.computeIfAbsent(metadata.getName(), name -> new Entry(metadata));
+        if (!entry.metadata.equals(metadata)) {
+            throw new TimeSeriesException("Time series '" + metadata.getName() + "' has different metadata depending on version");
+        }
+        if (entry.columns.stream().anyMatch(column -> column.version == version)) {
+            throw new TimeSeriesException("Version " + version + " of time series '" + metadata.getName() + "' already written");
+        }
+
+        byte[] data = encode(timeSeries);
+        if (data.length > maxDataFileSize) {
+            throw new TimeSeriesException("Time series '" + metadata.getName() + "' is too big for a data file");
+        }
+        try {
+            if (dataOutputStream == null || dataFilePosition + data.length > maxDataFileSize) {
+                openNextDataFile();
+            }
+            dataOutputStream.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entry.columns.add(new Column(version, dataFileCount - 1, dataFilePosition, data.length));
+        dataFilePosition += data.length;
+        return this;
+    }
+
+    private void openNextDataFile() throws IOException {
+        if (dataOutputStream != null) {
+            dataOutputStream.close();
+        }
+        dataOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(getDataFileName(dataFileCount)))));
+        dataFileCount++;
+        dataFilePosition = 0;
+    }
+
+    private static DoubleDataChunk compress(DoubleDataChunk chunk) {
+        DoubleDataChunk compressedChunk = chunk.tryToCompress();
+        if (compressedChunk instanceof XorCompressedDoubleDataChunk) {
+            // values of XOR compressed chunks cannot be read in place
+            return ((XorCompressedDoubleDataChunk) compressedChunk).uncompress();
+        }
+        return compressedChunk;
+    }
+
+    private static List<DoubleDataChunk> getChunks(DoubleTimeSeries timeSeries) {
+        List<DoubleDataChunk> chunks = new ArrayList<>();
+        if (timeSeries instanceof StoredDoubleTimeSeries) {
+            for (DoubleDataChunk chunk : ((StoredDoubleTimeSeries) timeSeries).getChunks()) {
+                chunks.add(compress(chunk));
+            }
+            chunks.sort(Comparator.comparingInt(DoubleDataChunk::getOffset));
+        } else {
+            chunks.add(compress(new UncompressedDoubleDataChunk(0, timeSeries.toArray())));
+        }
+        return chunks;
+    }
+
+    private static byte[] encode(DoubleTimeSeries timeSeries) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            List<DoubleDataChunk> chunks = getChunks(timeSeries);
+            dos.writeInt(chunks.size());
+            for (DoubleDataChunk chunk : chunks) {
+                if (chunk instanceof CompressedDoubleDataChunk) {
+                    CompressedDoubleDataChunk compressedChunk = (CompressedDoubleDataChunk) chunk;
+                    dos.writeByte(COMPRESSED_CHUNK);
+                    dos.writeInt(compressedChunk.getOffset());
+                    dos.writeInt(compressedChunk.getUncompressedLength());
+                    dos.writeInt(compressedChunk.getStepValues().length);
+                    for (double value : compressedChunk.getStepValues()) {
+                        dos.writeDouble(value);
+                    }
+                    for (int length : compressedChunk.getStepLengths()) {
+                        dos.writeInt(length);
+                    }
+                } else if (chunk instanceof UncompressedDoubleDataChunk) {
+                    UncompressedDoubleDataChunk uncompressedChunk = (UncompressedDoubleDataChunk) chunk;
+                    dos.writeByte(UNCOMPRESSED_CHUNK);
+                    dos.writeInt(uncompressedChunk.getOffset());
+                    dos.writeInt(uncompressedChunk.getLength());
+                    for (double value : uncompressedChunk.getValues()) {
+                        dos.writeDouble(value);
+                    }
+                } else {
+                    throw new AssertionError("Unexpected chunk type: " + chunk.getClass());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    private void writeIndex() throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(INDEX_FILE_NAME))))) {
+            dos.writeInt(MAGIC);
+            dos.writeByte(VERSION);
+            dos.writeInt(dataFileCount);
+            dos.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                byte[] metadataJson = JsonUtil.toJson(entry.metadata::writeJson).getBytes(StandardCharsets.UTF_8);
+                dos.writeInt(metadataJson.length);
+                dos.write(metadataJson);
+                dos.writeInt(entry.columns.size());
+                for (Column column : entry.columns) {
+                    dos.writeInt(column.version);
+                    dos.writeInt(column.file);
+                    dos.writeInt(column.position);
+                    dos.writeInt(column.length);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (dataOutputStream != null) {
+            dataOutputStream.close();
+        }
+        writeIndex();
+    }
+}
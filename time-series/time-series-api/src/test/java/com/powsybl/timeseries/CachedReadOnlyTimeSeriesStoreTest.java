@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.threeten.extra.Interval;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class CachedReadOnlyTimeSeriesStoreTest {
+
+    /**
+     * In memory store counting the loads of time series, which can be slowed down and can notify updates.
+     */
+    private static class TestStore extends ReadOnlyTimeSeriesStoreCache {
+
+        private final AtomicInteger loadCount = new AtomicInteger();
+
+        private final List<TimeSeriesStoreListener> listeners = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch loadLatch;
+
+        private volatile Runnable loadAction;
+
+        TestStore(DoubleTimeSeries... timeSeries) {
+            super(timeSeries);
+        }
+
+        private void load() {
+            loadCount.incrementAndGet();
+            if (loadAction != null) {
+                loadAction.run();
+            }
+            if (loadLatch != null) {
+                try {
+                    loadLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public Optional<DoubleTimeSeries> getDoubleTimeSeries(String timeSeriesName, int version) {
+            load();
+            return super.getDoubleTimeSeries(timeSeriesName, version);
+        }
+
+        @Override
+        public List<DoubleTimeSeries> getDoubleTimeSeries(Set<String> timeSeriesNames, int version) {
+            load();
+            // not through the single time series getter, so that a bulk load is counted once
+            List<DoubleTimeSeries> timeSeriesList = new ArrayList<>();
+            for (String timeSeriesName : timeSeriesNames) {
+                super.getDoubleTimeSeries(timeSeriesName, version).ifPresent(timeSeriesList::add);
+            }
+            return timeSeriesList;
+        }
+
+        @Override
+        public List<DoubleTimeSeries> getDoubleTimeSeries(int version) {
+            load();
+            return super.getDoubleTimeSeries(version);
+        }
+
+        void update() {
+            listeners.forEach(TimeSeriesStoreListener::timeSeriesUpdated);
+        }
+
+        @Override
+        public void addListener(TimeSeriesStoreListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(TimeSeriesStoreListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    private DoubleTimeSeries ts1;
+
+    private DoubleTimeSeries ts2;
+
+    private TestStore store;
+
+    @Before
+    public void setUp() {
+        TimeSeriesIndex index = new RegularTimeSeriesIndex(0, 99, 1);
+        ts1 = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index), new UncompressedDoubleDataChunk(0, new double[100]));
+        ts2 = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, index), new UncompressedDoubleDataChunk(0, new double[100]));
+        store = new TestStore(ts1, ts2);
+    }
+
+    @Test
+    public void test() {
+        CachedReadOnlyTimeSeriesStore cachedStore = new CachedReadOnlyTimeSeriesStore(store);
+        assertEquals(Sets.newHashSet("ts1", "ts2"), cachedStore.getTimeSeriesNames(null));
+        assertTrue(cachedStore.timeSeriesExists("ts1"));
+        assertEquals(ts1.getMetadata(), cachedStore.getTimeSeriesMetadata("ts1").orElseThrow(AssertionError::new));
+
+        assertSame(ts1, cachedStore.getDoubleTimeSeries("ts1", 1).orElseThrow(AssertionError::new));
+        assertSame(ts1, cachedStore.getDoubleTimeSeries("ts1", 1).orElseThrow(AssertionError::new));
+        assertEquals(1, store.loadCount.get());
+        // versions are cached separately
+        assertSame(ts1, cachedStore.getDoubleTimeSeries("ts1", 2).orElseThrow(AssertionError::new));
+        assertEquals(2, store.loadCount.get());
+        // absent time series are cached too
+        assertFalse(cachedStore.getDoubleTimeSeries("ts3", 1).isPresent());
+        assertFalse(cachedStore.getDoubleTimeSeries("ts3", 1).isPresent());
+        assertEquals(3, store.loadCount.get());
+        assertFalse(cachedStore.getStringTimeSeries("ts1", 1).isPresent());
+
+        // only ts2 is loaded, in a single call
+        assertEquals(Sets.newHashSet(ts1, ts2), new HashSet<>(cachedStore.getDoubleTimeSeries(Sets.newHashSet("ts1", "ts2", "ts3"), 1)));
+        assertEquals(4, store.loadCount.get());
+        assertSame(ts2, cachedStore.getDoubleTimeSeries("ts2", 1).orElseThrow(AssertionError::new));
+        assertEquals(4, store.loadCount.get());
+
+        // slices are computed from cached time series
+        assertEquals(10, cachedStore.getDoubleTimeSeries("ts1", 1, 0, 10).orElseThrow(AssertionError::new).getMetadata().getIndex().getPointCount());
+        assertEquals(4, store.loadCount.get());
+
+        CacheStats stats = cachedStore.getStats();
+        assertEquals(6, stats.hitCount());
+        assertEquals(5, stats.missCount());
+
+        // invalidation on update
+        store.update();
+        assertSame(ts1, cachedStore.getDoubleTimeSeries("ts1", 1).orElseThrow(AssertionError::new));
+        assertEquals(5, store.loadCount.get());
+        assertEquals(6, cachedStore.getStats().missCount());
+
+        // no more invalidation
+        cachedStore.dispose();
+        store.update();
+        assertSame(ts1, cachedStore.getDoubleTimeSeries("ts1", 1).orElseThrow(AssertionError::new));
+        assertEquals(5, store.loadCount.get());
+    }
+
+    @Test
+    public void updateDuringLoadTest() {
+        CachedReadOnlyTimeSeriesStore cachedStore = new CachedReadOnlyTimeSeriesStore(store);
+        store.loadAction = store::update;
+        assertEquals(2, cachedStore.getDoubleTimeSeries(1).size());
+        assertEquals(1, store.loadCount.get());
+        store.loadAction = null;
+
+        // time series loaded before the update are not cached
+        assertSame(ts1, cachedStore.getDoubleTimeSeries("ts1", 1).orElseThrow(AssertionError::new));
+        assertEquals(2, store.loadCount.get());
+
+        // time series loaded after the update are cached
+        assertEquals(2, cachedStore.getDoubleTimeSeries(1).size());
+        assertEquals(3, store.loadCount.get());
+        assertSame(ts2, cachedStore.getDoubleTimeSeries("ts2", 1).orElseThrow(AssertionError::new));
+        assertEquals(3, store.loadCount.get());
+    }
+
+    @Test
+    public void intervalTest() {
+        // time series without point in the interval are not loaded
+        Interval after = Interval.of(Instant.ofEpochMilli(1000), Duration.ofMillis(10));
+        assertFalse(store.getDoubleTimeSeries("ts1", 1, after).isPresent());
+        assertTrue(store.getDoubleTimeSeries(Sets.newHashSet("ts1", "ts2"), 1, after).isEmpty());
+        assertEquals(0, store.loadCount.get());
+
+        Interval first = Interval.of(Instant.ofEpochMilli(0), Duration.ofMillis(10));
+        assertEquals(10, store.getDoubleTimeSeries("ts1", 1, first).orElseThrow(AssertionError::new).getMetadata().getIndex().getPointCount());
+        assertEquals(1, store.loadCount.get());
+        assertEquals(2, store.getDoubleTimeSeries(Sets.newHashSet("ts1", "ts2", "ts3"), 1, first).size());
+        assertEquals(2, store.loadCount.get());
+    }
+
+    @Test
+    public void evictionTest() {
+        // room for only one of the time series
+        int size = CachedReadOnlyTimeSeriesStore.getEstimatedSize(ts1);
+        CachedReadOnlyTimeSeriesStore cachedStore = new CachedReadOnlyTimeSeriesStore(store, size + size / 2);
+        cachedStore.getDoubleTimeSeries("ts1", 1);
+        cachedStore.getDoubleTimeSeries("ts2", 1);
+        assertEquals(2, store.loadCount.get());
+        assertEquals(1, cachedStore.getStats().evictionCount());
+        cachedStore.getDoubleTimeSeries("ts2", 1);
+        assertEquals(2, store.loadCount.get());
+        cachedStore.getDoubleTimeSeries("ts1", 1);
+        assertEquals(3, store.loadCount.get());
+    }
+
+    @Test
+    public void concurrentLoadTest() throws Exception {
+        CachedReadOnlyTimeSeriesStore cachedStore = new CachedReadOnlyTimeSeriesStore(store);
+        store.loadLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<DoubleTimeSeries>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> cachedStore.getDoubleTimeSeries("ts1", 1)));
+            }
+            // wait for the first load to start, the other requests are waiting for it
+            while (store.loadCount.get() == 0) {
+                Thread.sleep(1);
+            }
+            store.loadLatch.countDown();
+            for (Future<Optional<DoubleTimeSeries>> future : futures) {
+                assertSame(ts1, future.get().orElseThrow(AssertionError::new));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, store.loadCount.get());
+    }
+}
@@ -204,6 +204,32 @@ public class CalculatedTimeSeriesTest {
         evaluate("timeSeries['foo'].time() < time('2014-01-01T00:00:00Z')", 0);
     }
 
+    @Test
+    public void windowTest() {
+        TimeSeriesIndex index = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T05:00:00Z"), Duration.ofHours(1));
+        ReadOnlyTimeSeriesStore store = new ReadOnlyTimeSeriesStoreCache(TimeSeries.createDouble("foo", index, 1d, 2d, 3d, 4d, 5d, 6d));
+        String script = String.join(System.lineSeparator(),
+                "timeSeries['mean'] = timeSeries['foo'].rollingMean(2)",
+                "timeSeries['growth'] = timeSeries['foo'] - timeSeries['foo'].shift(1)",
+                "timeSeries['daily'] = timeSeries['foo'].resampleSum('PT3H')",
+                "timeSeries['total'] = timeSeries['foo'].cumsum()");
+        Map<String, NodeCalc> nodes = new CalculatedTimeSeriesDslLoader(script).load(store);
+        NodeCalc foo = new TimeSeriesNameNodeCalc("foo");
+        assertEquals(RollingNodeCalc.mean(foo, 2), nodes.get("mean"));
+        assertEquals(BinaryOperation.minus(foo, new ShiftNodeCalc(foo, 1)), nodes.get("growth"));
+        assertEquals(new ResampleNodeCalc(foo, WindowAggregation.SUM, Duration.ofHours(3)), nodes.get("daily"));
+        assertEquals(new CumulativeSumNodeCalc(foo), nodes.get("total"));
+
+        TimeSeriesNameResolver resolver = new FromStoreTimeSeriesNameResolver(store, 1);
+        assertArrayEquals(new double[] {1d, 1.5d, 2.5d, 3.5d, 4.5d, 5.5d}, new CalculatedTimeSeries("mean", nodes.get("mean"), resolver).toArray(), 0d);
+        assertArrayEquals(new double[] {Double.NaN, 1d, 1d, 1d, 1d, 1d}, new CalculatedTimeSeries("growth", nodes.get("growth"), resolver).toArray(), 0d);
+        CalculatedTimeSeries daily = new CalculatedTimeSeries("daily", nodes.get("daily"), resolver);
+        assertEquals(RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T03:00:00Z"), Duration.ofHours(3)),
+                     daily.getMetadata().getIndex());
+        assertArrayEquals(new double[] {6d, 15d}, daily.toArray(), 0d);
+        assertArrayEquals(new double[] {1d, 3d, 6d, 10d, 15d, 21d}, new CalculatedTimeSeries("total", nodes.get("total"), resolver).toArray(), 0d);
+    }
+
     @Test
     public void errorTest() {
         exceptions.expect(TimeSeriesException.class);
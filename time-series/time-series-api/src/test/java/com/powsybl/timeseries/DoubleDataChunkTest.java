@@ -20,7 +20,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
@@ -215,4 +217,137 @@ public class DoubleDataChunkTest {
         assertTrue(doubleChunks.get(0) instanceof UncompressedDoubleDataChunk);
         assertArrayEquals(new double[] {1d, Double.NaN, Double.NaN}, ((UncompressedDoubleDataChunk) doubleChunks.get(0)).getValues(), 0d);
     }
+
+    @Test
+    public void sliceTest() {
+        UncompressedDoubleDataChunk chunk = new UncompressedDoubleDataChunk(2, new double[] {1d, 2d, 3d, 4d});
+        assertTrue(chunk.overlaps(0, 3));
+        assertFalse(chunk.overlaps(6, 8));
+        assertEquals(new UncompressedDoubleDataChunk(1, new double[] {1d, 2d}), chunk.slice(1, 4));
+        assertEquals(new UncompressedDoubleDataChunk(0, new double[] {3d, 4d}), chunk.slice(4, 10));
+
+        CompressedDoubleDataChunk compressedChunk = new CompressedDoubleDataChunk(2, 8, new double[] {1d, 2d, 3d}, new int[] {2, 4, 2});
+        assertEquals(new CompressedDoubleDataChunk(0, 3, new double[] {1d, 2d}, new int[] {1, 2}), compressedChunk.slice(3, 6));
+        assertEquals(new CompressedDoubleDataChunk(0, 3, new double[] {2d}, new int[] {3}), compressedChunk.slice(4, 7));
+        assertEquals(new CompressedDoubleDataChunk(0, 3, new double[] {2d, 3d}, new int[] {1, 2}), compressedChunk.slice(7, 12));
+        assertEquals(compressedChunk, compressedChunk.slice(0, 12));
+        try {
+            compressedChunk.slice(10, 12);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void xorCompressTest() {
+        // slowly varying values, without enough repeated values to be run length encoded
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 200 + (i % 7) * 0.5;
+        }
+        UncompressedDoubleDataChunk chunk = new UncompressedDoubleDataChunk(1, values);
+        DoubleDataChunk maybeCompressedChunk = chunk.tryToCompress();
+        assertTrue(maybeCompressedChunk instanceof XorCompressedDoubleDataChunk);
+        XorCompressedDoubleDataChunk compressedChunk = (XorCompressedDoubleDataChunk) maybeCompressedChunk;
+        assertEquals(1, compressedChunk.getOffset());
+        assertEquals(100, compressedChunk.getLength());
+        assertTrue(compressedChunk.isCompressed());
+        assertTrue(compressedChunk.getCompressionFactor() < 0.3);
+        assertEquals(compressedChunk.getEstimatedSize() / 800d, compressedChunk.getCompressionFactor(), 0d);
+        assertSame(compressedChunk, compressedChunk.tryToCompress());
+        assertEquals(chunk, compressedChunk.uncompress());
+        DoubleBuffer buffer = DoubleBuffer.allocate(101);
+        compressedChunk.fillBuffer(buffer, 0);
+        assertArrayEquals(values, Arrays.copyOfRange(buffer.array(), 1, 101), 0d);
+        TimeSeriesIndex index = new RegularTimeSeriesIndex(0, 100, 1);
+        assertEquals(chunk.stream(index).collect(Collectors.toList()), compressedChunk.stream(index).collect(Collectors.toList()));
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts", TimeSeriesDataType.DOUBLE, index);
+        assertEquals(1d, new StoredDoubleTimeSeries(metadata, chunk).getCompressionFactor(), 0d);
+        assertEquals(compressedChunk.getCompressionFactor(), new StoredDoubleTimeSeries(metadata, compressedChunk).getCompressionFactor(), 0d);
+
+        // too small to be XOR compressed
+        UncompressedDoubleDataChunk smallChunk = new UncompressedDoubleDataChunk(0, Arrays.copyOf(values, 8));
+        assertSame(smallChunk, smallChunk.tryToCompress());
+    }
+
+    @Test
+    public void xorCompressedJsonTest() throws IOException {
+        double[] values = new double[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 + 3 * Math.sin(i);
+        }
+        values[5] = Double.NaN;
+        XorCompressedDoubleDataChunk chunk = XorCompressedDoubleDataChunk.compress(3, values);
+
+        // the encoded form is kept
+        String json = JsonUtil.toJson(chunk::writeJson);
+        assertTrue(json.contains("\"xorWords\""));
+        List<DoubleDataChunk> doubleChunks = new ArrayList<>();
+        List<StringDataChunk> stringChunks = new ArrayList<>();
+        JsonUtil.parseJson(json, parser -> {
+            DataChunk.parseJson(parser, doubleChunks, stringChunks);
+            return null;
+        });
+        assertEquals(Collections.singletonList(chunk), doubleChunks);
+        assertTrue(stringChunks.isEmpty());
+
+        // with other chunks, with object mapper
+        ObjectMapper objectMapper = JsonUtil.createObjectMapper()
+                .registerModule(new TimeSeriesJsonModule());
+        List<DoubleDataChunk> chunks = Arrays.asList(new CompressedDoubleDataChunk(0, 3, new double[] {1d}, new int[] {3}), chunk,
+                                                     new UncompressedDoubleDataChunk(23, new double[] {1d, 2d}));
+        assertEquals(chunks, objectMapper.readValue(objectMapper.writeValueAsString(chunks),
+                                                    TypeFactory.defaultInstance().constructCollectionType(List.class, DoubleDataChunk.class)));
+
+        // in a time series
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts", TimeSeriesDataType.DOUBLE, new RegularTimeSeriesIndex(0, 24, 1));
+        StoredDoubleTimeSeries timeSeries = new StoredDoubleTimeSeries(metadata, chunks);
+        List<TimeSeries> parsedTimeSeries = TimeSeries.parseJson(timeSeries.toJson());
+        assertEquals(1, parsedTimeSeries.size());
+        assertEquals(timeSeries, parsedTimeSeries.get(0));
+        assertArrayEquals(timeSeries.toArray(), ((DoubleTimeSeries) parsedTimeSeries.get(0)).toArray(), 0d);
+    }
+
+    @Test
+    public void xorCompressRandomTest() {
+        Random random = new Random(0);
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    values[i] = Double.NaN;
+                    break;
+                case 1:
+                    values[i] = i > 0 ? values[i - 1] : 0;
+                    break;
+                case 2:
+                    values[i] = random.nextInt(10);
+                    break;
+                default:
+                    values[i] = random.nextDouble() * 1e6;
+                    break;
+            }
+        }
+        UncompressedDoubleDataChunk chunk = new UncompressedDoubleDataChunk(0, values);
+        assertEquals(chunk, XorCompressedDoubleDataChunk.compress(0, values).uncompress());
+    }
+
+    @Test
+    public void xorCompressedSplitAndSliceTest() {
+        double[] values = new double[40];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 10 + i * 0.25;
+        }
+        XorCompressedDoubleDataChunk chunk = XorCompressedDoubleDataChunk.compress(2, values);
+        DataChunk.Split<DoublePoint, DoubleDataChunk> split = chunk.splitAt(22);
+        assertEquals(new UncompressedDoubleDataChunk(2, Arrays.copyOfRange(values, 0, 20)).tryToCompress(), split.getChunk1());
+        assertEquals(new UncompressedDoubleDataChunk(22, Arrays.copyOfRange(values, 20, 40)).tryToCompress(), split.getChunk2());
+        assertEquals(new UncompressedDoubleDataChunk(1, new double[] {10d, 10.25d, 10.5d}), chunk.slice(1, 5));
+        assertEquals(new UncompressedDoubleDataChunk(0, Arrays.copyOfRange(values, 10, 40)).tryToCompress(), chunk.slice(12, 50));
+        try {
+            chunk.splitAt(2);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
 }
@@ -67,4 +67,15 @@ public class IrregularTimeSeriesIndexTest {
     public void testContructorError() {
         IrregularTimeSeriesIndex.create();
     }
+
+    @Test
+    public void testSlice() {
+        IrregularTimeSeriesIndex index = new IrregularTimeSeriesIndex(new long[] {0, 10, 30, 70});
+        assertEquals(0, index.getPointAtOrAfter(-5));
+        assertEquals(2, index.getPointAtOrAfter(30));
+        assertEquals(3, index.getPointAtOrAfter(31));
+        assertEquals(4, index.getPointAtOrAfter(71));
+        assertEquals(new IrregularTimeSeriesIndex(new long[] {10, 30}), index.slice(1, 3));
+        assertEquals(new IrregularTimeSeriesIndex(new long[] {1, 2}), new TestTimeSeriesIndex(0, 3).slice(1, 3));
+    }
 }
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.powsybl.timeseries.ast.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class NodeCalcBulkEvaluatorTest {
+
+    private final TimeSeriesIndex index = new RegularTimeSeriesIndex(0, 9, 1);
+
+    private TimeSeriesNameResolver resolver;
+
+    @Before
+    public void setUp() {
+        TimeSeriesMetadata metadataA = new TimeSeriesMetadata("a", TimeSeriesDataType.DOUBLE, index);
+        TimeSeriesMetadata metadataB = new TimeSeriesMetadata("b", TimeSeriesDataType.DOUBLE, index);
+        TimeSeriesMetadata metadataC = new TimeSeriesMetadata("c", TimeSeriesDataType.DOUBLE, index);
+        TimeSeriesMetadata metadataD = new TimeSeriesMetadata("d", TimeSeriesDataType.DOUBLE, index);
+        // a: compressed chunks, with a gap at the end
+        DoubleTimeSeries a = new StoredDoubleTimeSeries(metadataA,
+                new CompressedDoubleDataChunk(0, 4, new double[] {1d, 2d}, new int[] {3, 1}),
+                new CompressedDoubleDataChunk(4, 4, new double[] {-3d}, new int[] {4}));
+        // b: compressed chunk with steps not aligned with a
+        DoubleTimeSeries b = new StoredDoubleTimeSeries(metadataB,
+                new CompressedDoubleDataChunk(0, 10, new double[] {5d, 6d, 7d}, new int[] {2, 5, 3}));
+        // c: same steps as b
+        DoubleTimeSeries c = new StoredDoubleTimeSeries(metadataC,
+                new CompressedDoubleDataChunk(0, 10, new double[] {0d, 6d, -1d}, new int[] {2, 5, 3}));
+        // d: uncompressed chunk and a compressed one
+        DoubleTimeSeries d = new StoredDoubleTimeSeries(metadataD,
+                new UncompressedDoubleDataChunk(0, new double[] {1d, 2d, 3d, 4d, 5d}),
+                new CompressedDoubleDataChunk(5, 5, new double[] {10d}, new int[] {5}));
+        // e: XOR compressed chunk
+        TimeSeriesMetadata metadataE = new TimeSeriesMetadata("e", TimeSeriesDataType.DOUBLE, index);
+        DoubleTimeSeries e = new StoredDoubleTimeSeries(metadataE,
+                XorCompressedDoubleDataChunk.compress(0, new double[] {1d, 1.5d, 2d, 2d, 2.5d, 3d, 3.5d, 3d, 2.5d, 2d}));
+        ReadOnlyTimeSeriesStore store = new ReadOnlyTimeSeriesStoreCache(a, b, c, d, e);
+        resolver = new FromStoreTimeSeriesNameResolver(store, 1);
+    }
+
+    private CalculatedTimeSeries createCalculatedTimeSeries(NodeCalc nodeCalc) {
+        return new CalculatedTimeSeries("test", nodeCalc, resolver);
+    }
+
+    private static double[] evaluatePointByPoint(CalculatedTimeSeries timeSeries) {
+        double[] values = new double[timeSeries.getMetadata().getIndex().getPointCount()];
+        Iterator<DoublePoint> it = timeSeries.iterator();
+        DoublePoint point = it.next();
+        while (point != null) {
+            DoublePoint nextPoint = it.hasNext() ? it.next() : null;
+            int end = nextPoint != null ? nextPoint.getIndex() : values.length;
+            for (int i = point.getIndex(); i < end; i++) {
+                values[i] = point.getValue();
+            }
+            point = nextPoint;
+        }
+        return values;
+    }
+
+    private void assertSameAsPointByPoint(NodeCalc nodeCalc) {
+        CalculatedTimeSeries timeSeries = createCalculatedTimeSeries(nodeCalc);
+        double[] expected = evaluatePointByPoint(timeSeries);
+        assertArrayEquals(expected, timeSeries.toArray(), 0d);
+
+        DoubleBuffer buffer = DoubleBuffer.allocate(index.getPointCount() + 2);
+        timeSeries.fillBuffer(buffer, 2);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], buffer.get(i + 2), 0d);
+        }
+
+        BigDoubleBuffer bigBuffer = new BigDoubleBuffer(ByteBuffer::allocate, index.getPointCount());
+        timeSeries.fillBuffer(bigBuffer, 0);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], bigBuffer.get(i), 0d);
+        }
+    }
+
+    private static NodeCalc ts(String name) {
+        return new TimeSeriesNameNodeCalc(name);
+    }
+
+    @Test
+    public void compressedTest() {
+        NodeCalc nodeCalc = BinaryOperation.plus(ts("a"), ts("b"));
+        assertArrayEquals(new double[] {6d, 6d, 7d, 8d, 3d, 3d, 3d, 4d, Double.NaN, Double.NaN},
+                          createCalculatedTimeSeries(nodeCalc).toArray(), 0d);
+        assertSameAsPointByPoint(nodeCalc);
+        assertSameAsPointByPoint(BinaryOperation.multiply(ts("b"), ts("c")));
+        assertSameAsPointByPoint(BinaryOperation.greaterThan(ts("b"), new DoubleNodeCalc(5.5d)));
+        assertSameAsPointByPoint(new MinNodeCalc(UnaryOperation.abs(ts("a")), 2.5d));
+        assertSameAsPointByPoint(new MaxNodeCalc(UnaryOperation.negative(ts("b")), -6.5d));
+        assertSameAsPointByPoint(ts("a"));
+    }
+
+    @Test
+    public void uncompressedTest() {
+        NodeCalc nodeCalc = BinaryOperation.minus(ts("d"), ts("b"));
+        assertArrayEquals(new double[] {-4d, -3d, -3d, -2d, -1d, 4d, 4d, 3d, 3d, 3d},
+                          createCalculatedTimeSeries(nodeCalc).toArray(), 0d);
+        assertSameAsPointByPoint(nodeCalc);
+        assertSameAsPointByPoint(BinaryOperation.div(new IntegerNodeCalc(10), BinaryOperation.plus(ts("d"), ts("d"))));
+        assertSameAsPointByPoint(BinaryOperation.equals(ts("d"), ts("a")));
+    }
+
+    @Test
+    public void xorCompressedTest() {
+        NodeCalc nodeCalc = BinaryOperation.minus(ts("e"), ts("b"));
+        assertArrayEquals(new double[] {-4d, -3.5d, -4d, -4d, -3.5d, -3d, -2.5d, -4d, -4.5d, -5d},
+                          createCalculatedTimeSeries(nodeCalc).toArray(), 0d);
+        assertSameAsPointByPoint(nodeCalc);
+        assertSameAsPointByPoint(BinaryOperation.multiply(ts("e"), ts("d")));
+    }
+
+    @Test
+    public void timeTest() {
+        assertSameAsPointByPoint(new TimeNodeCalc(ts("b")));
+        assertSameAsPointByPoint(BinaryOperation.plus(new TimeNodeCalc(ts("a")), ts("c")));
+        assertSameAsPointByPoint(BinaryOperation.lessThan(new TimeNodeCalc(ts("d")), new IntegerNodeCalc(4)));
+    }
+
+    @Test
+    public void calculatedTest() {
+        CalculatedTimeSeries sum = new CalculatedTimeSeries("sum", BinaryOperation.plus(ts("a"), ts("c")), resolver);
+        TimeSeriesNameResolver calculatedResolver = new TimeSeriesNameResolver() {
+            @Override
+            public List<TimeSeriesMetadata> getTimeSeriesMetadata(Set<String> timeSeriesNames) {
+                return Collections.singletonList(sum.getMetadata());
+            }
+
+            @Override
+            public Set<Integer> getTimeSeriesDataVersions(String timeSeriesName) {
+                return Collections.singleton(1);
+            }
+
+            @Override
+            public List<DoubleTimeSeries> getDoubleTimeSeries(Set<String> timeSeriesNames) {
+                return Collections.singletonList(sum);
+            }
+        };
+        CalculatedTimeSeries timeSeries = new CalculatedTimeSeries("test", BinaryOperation.multiply(ts("sum"), ts("sum")), calculatedResolver);
+        assertArrayEquals(evaluatePointByPoint(timeSeries), timeSeries.toArray(), 0d);
+    }
+
+    @Test
+    public void constantTest() {
+        CalculatedTimeSeries timeSeries = new CalculatedTimeSeries("test", BinaryOperation.plus(new IntegerNodeCalc(1), new DoubleNodeCalc(0.5d)));
+        timeSeries.synchronize(index);
+        double[] expected = new double[index.getPointCount()];
+        Arrays.fill(expected, 1.5d);
+        assertArrayEquals(expected, timeSeries.toArray(), 0d);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.powsybl.timeseries.ast.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class NodeCalcCompilerTest {
+
+    private static DoubleMultiPoint createMultiPoint(double... values) {
+        return new DoubleMultiPoint() {
+            @Override
+            public int getIndex() {
+                return 0;
+            }
+
+            @Override
+            public long getTime() {
+                return 1000;
+            }
+
+            @Override
+            public double getValue(int timeSeriesNum) {
+                return values[timeSeriesNum];
+            }
+        };
+    }
+
+    private static void assertSameAsEvaluator(NodeCalc nodeCalc, DoubleMultiPoint multiPoint) {
+        assertEquals(NodeCalcEvaluator.eval(nodeCalc, multiPoint), NodeCalcCompiler.compile(nodeCalc).eval(multiPoint), 0d);
+    }
+
+    @Test
+    public void testOperators() {
+        NodeCalc ts0 = new TimeSeriesNumNodeCalc(0);
+        NodeCalc ts1 = new TimeSeriesNumNodeCalc(1);
+        NodeCalc constant = new DoubleNodeCalc(2d);
+        DoubleMultiPoint[] multiPoints = {createMultiPoint(2d, 3d), createMultiPoint(-1d, -1d), createMultiPoint(Double.NaN, 0d)};
+        List<BiFunction<NodeCalc, NodeCalc, NodeCalc>> operations = Arrays.asList(BinaryOperation::plus, BinaryOperation::minus,
+                BinaryOperation::multiply, BinaryOperation::div, BinaryOperation::lessThan, BinaryOperation::lessThanOrEqualsTo,
+                BinaryOperation::greaterThan, BinaryOperation::greaterThanOrEqualsTo, BinaryOperation::equals, BinaryOperation::notEquals);
+        for (BiFunction<NodeCalc, NodeCalc, NodeCalc> operation : operations) {
+            for (DoubleMultiPoint multiPoint : multiPoints) {
+                assertSameAsEvaluator(operation.apply(ts0, ts1), multiPoint);
+                assertSameAsEvaluator(operation.apply(ts0, constant), multiPoint);
+                assertSameAsEvaluator(operation.apply(constant, ts1), multiPoint);
+            }
+        }
+        for (DoubleMultiPoint multiPoint : multiPoints) {
+            assertSameAsEvaluator(UnaryOperation.abs(ts0), multiPoint);
+            assertSameAsEvaluator(UnaryOperation.negative(ts0), multiPoint);
+            assertSameAsEvaluator(UnaryOperation.positive(ts0), multiPoint);
+            assertSameAsEvaluator(new MinNodeCalc(ts1, 0d), multiPoint);
+            assertSameAsEvaluator(new MaxNodeCalc(ts1, 0d), multiPoint);
+            assertSameAsEvaluator(BinaryOperation.plus(new TimeNodeCalc(ts0), ts1), multiPoint);
+        }
+    }
+
+    @Test
+    public void testConstant() {
+        NodeCalc nodeCalc = new MaxNodeCalc(UnaryOperation.negative(BinaryOperation.multiply(new IntegerNodeCalc(2), new FloatNodeCalc(3f))), -10);
+        assertEquals(-6d, NodeCalcCompiler.compile(nodeCalc).eval(null), 0d);
+    }
+
+    @Test
+    public void testCache() {
+        NodeCalc nodeCalc = BinaryOperation.plus(new TimeSeriesNumNodeCalc(0), new IntegerNodeCalc(1));
+        NodeCalc sameNodeCalc = BinaryOperation.plus(new TimeSeriesNumNodeCalc(0), new IntegerNodeCalc(1));
+        CompiledNodeCalc compiledNodeCalc = NodeCalcCompiler.compile(nodeCalc);
+        assertSame(compiledNodeCalc, NodeCalcCompiler.compile(sameNodeCalc));
+        assertNotSame(compiledNodeCalc, NodeCalcCompiler.compile(BinaryOperation.minus(new TimeSeriesNumNodeCalc(0), new IntegerNodeCalc(1))));
+    }
+
+    @Test
+    public void testDeepTree() {
+        NodeCalc nodeCalc = new TimeSeriesNumNodeCalc(0);
+        for (int i = 0; i < NodeCalcVisitors.RECURSION_THRESHOLD * 2; i++) {
+            nodeCalc = BinaryOperation.plus(nodeCalc, new IntegerNodeCalc(1));
+        }
+        assertEquals(NodeCalcVisitors.RECURSION_THRESHOLD * 2 + 1d, NodeCalcCompiler.compile(nodeCalc).eval(createMultiPoint(1d)), 0d);
+    }
+}
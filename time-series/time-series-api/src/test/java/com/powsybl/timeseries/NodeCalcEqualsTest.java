@@ -108,4 +108,16 @@ public class NodeCalcEqualsTest {
                 .addEqualityGroup(new MaxNodeCalc(new IntegerNodeCalc(2), 5),  new MaxNodeCalc(new IntegerNodeCalc(2), 5))
                 .testEquals();
     }
+
+    @Test
+    public void windowOperationTest() {
+        new EqualsTester()
+                .addEqualityGroup(RollingNodeCalc.mean(new IntegerNodeCalc(1), 3), RollingNodeCalc.mean(new IntegerNodeCalc(1), 3))
+                .addEqualityGroup(RollingNodeCalc.sum(new IntegerNodeCalc(1), 3), RollingNodeCalc.sum(new IntegerNodeCalc(1), 3))
+                .addEqualityGroup(RollingNodeCalc.mean(new IntegerNodeCalc(1), 4), RollingNodeCalc.mean(new IntegerNodeCalc(1), 4))
+                .addEqualityGroup(new ShiftNodeCalc(new IntegerNodeCalc(1), 3), new ShiftNodeCalc(new IntegerNodeCalc(1), 3))
+                .addEqualityGroup(new ResampleNodeCalc(new IntegerNodeCalc(1), WindowAggregation.MIN, 3), new ResampleNodeCalc(new IntegerNodeCalc(1), WindowAggregation.MIN, 3))
+                .addEqualityGroup(new CumulativeSumNodeCalc(new IntegerNodeCalc(1)), new CumulativeSumNodeCalc(new IntegerNodeCalc(1)))
+                .testEquals();
+    }
 }
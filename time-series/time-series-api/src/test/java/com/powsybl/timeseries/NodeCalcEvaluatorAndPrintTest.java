@@ -10,6 +10,7 @@ import com.powsybl.timeseries.ast.*;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 import static org.junit.Assert.assertEquals;
 
@@ -126,4 +127,22 @@ public class NodeCalcEvaluatorAndPrintTest {
         NodeCalc node = new MaxNodeCalc(new TimeSeriesNameNodeCalc("foo"), 2);
         assertEquals("timeSeries['foo'].max(2.0)", NodeCalcPrinter.print(node));
     }
+
+    @Test
+    public void testWindow() {
+        NodeCalc foo = new TimeSeriesNameNodeCalc("foo");
+        assertEquals("(timeSeries['foo']).rollingMean(3)", NodeCalcPrinter.print(RollingNodeCalc.mean(foo, 3)));
+        assertEquals("(timeSeries['foo']).shift(-2)", NodeCalcPrinter.print(new ShiftNodeCalc(foo, -2)));
+        assertEquals("(timeSeries['foo']).resampleMax('PT1H')", NodeCalcPrinter.print(new ResampleNodeCalc(foo, WindowAggregation.MAX, Duration.ofHours(1))));
+        assertEquals("(timeSeries['foo']).cumsum()", NodeCalcPrinter.print(new CumulativeSumNodeCalc(foo)));
+
+        // evaluated as on a time series with a single point
+        assertEquals(1d, NodeCalcEvaluator.eval(new CumulativeSumNodeCalc(new IntegerNodeCalc(1)), null), 0d);
+        assertEquals(2d, NodeCalcEvaluator.eval(RollingNodeCalc.mean(new IntegerNodeCalc(2), 3), null), 0d);
+        assertEquals(3d, NodeCalcEvaluator.eval(new ResampleNodeCalc(new IntegerNodeCalc(3), WindowAggregation.SUM, 10), null), 0d);
+        assertEquals(4d, NodeCalcEvaluator.eval(new ShiftNodeCalc(new IntegerNodeCalc(4), 0), null), 0d);
+        assertEquals(Double.NaN, NodeCalcEvaluator.eval(new ShiftNodeCalc(new IntegerNodeCalc(4), -1), null), 0d);
+        assertEquals(5d, NodeCalcCompiler.compile(new CumulativeSumNodeCalc(new IntegerNodeCalc(5))).eval(null), 0d);
+        assertEquals(Double.NaN, NodeCalcCompiler.compile(new ShiftNodeCalc(new IntegerNodeCalc(5), 1)).eval(null), 0d);
+    }
 }
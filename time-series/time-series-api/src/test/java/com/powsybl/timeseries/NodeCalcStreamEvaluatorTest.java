@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import com.powsybl.timeseries.ast.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class NodeCalcStreamEvaluatorTest {
+
+    private static final double NAN = Double.NaN;
+
+    private final TimeSeriesIndex index = new RegularTimeSeriesIndex(0, 9, 1);
+
+    private TimeSeriesNameResolver resolver;
+
+    @Before
+    public void setUp() {
+        // a: compressed chunks, with a gap at the end
+        DoubleTimeSeries a = new StoredDoubleTimeSeries(new TimeSeriesMetadata("a", TimeSeriesDataType.DOUBLE, index),
+                new CompressedDoubleDataChunk(0, 4, new double[] {1d, 2d}, new int[] {3, 1}),
+                new CompressedDoubleDataChunk(4, 4, new double[] {-3d}, new int[] {4}));
+        DoubleTimeSeries b = new StoredDoubleTimeSeries(new TimeSeriesMetadata("b", TimeSeriesDataType.DOUBLE, index),
+                new CompressedDoubleDataChunk(0, 10, new double[] {5d, 6d, 7d}, new int[] {2, 5, 3}));
+        DoubleTimeSeries c = new StoredDoubleTimeSeries(new TimeSeriesMetadata("c", TimeSeriesDataType.DOUBLE, index),
+                new CompressedDoubleDataChunk(0, 10, new double[] {0d, 6d, -1d}, new int[] {2, 5, 3}));
+        // d: uncompressed chunk and a compressed one
+        DoubleTimeSeries d = new StoredDoubleTimeSeries(new TimeSeriesMetadata("d", TimeSeriesDataType.DOUBLE, index),
+                new UncompressedDoubleDataChunk(0, new double[] {1d, 2d, 3d, 4d, 5d}),
+                new CompressedDoubleDataChunk(5, 5, new double[] {10d}, new int[] {5}));
+        resolver = new FromStoreTimeSeriesNameResolver(new ReadOnlyTimeSeriesStoreCache(a, b, c, d), 1);
+    }
+
+    private CalculatedTimeSeries createCalculatedTimeSeries(NodeCalc nodeCalc) {
+        return new CalculatedTimeSeries("test", nodeCalc, resolver);
+    }
+
+    private static NodeCalc ts(String name) {
+        return new TimeSeriesNameNodeCalc(name);
+    }
+
+    private static void assertSameValues(double[] expected, CalculatedTimeSeries timeSeries) {
+        assertArrayEquals(expected, timeSeries.toArray(), 1e-15);
+
+        // a point for each point of the index
+        List<DoublePoint> points = timeSeries.stream().collect(Collectors.toList());
+        assertEquals(expected.length, points.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i, points.get(i).getIndex());
+            assertEquals(timeSeries.getMetadata().getIndex().getTimeAt(i), points.get(i).getTime());
+            assertEquals(expected[i], points.get(i).getValue(), 1e-15);
+        }
+
+        DoubleBuffer buffer = DoubleBuffer.allocate(expected.length + 2);
+        timeSeries.fillBuffer(buffer, 2);
+        BigDoubleBuffer bigBuffer = new BigDoubleBuffer(ByteBuffer::allocate, expected.length);
+        timeSeries.fillBuffer(bigBuffer, 0);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], buffer.get(i + 2), 1e-15);
+            assertEquals(expected[i], bigBuffer.get(i), 1e-15);
+        }
+    }
+
+    private void assertSameValues(double[] expected, NodeCalc nodeCalc) {
+        CalculatedTimeSeries timeSeries = createCalculatedTimeSeries(nodeCalc);
+        assertEquals(index, timeSeries.getMetadata().getIndex());
+        assertSameValues(expected, timeSeries);
+    }
+
+    @Test
+    public void rollingTest() {
+        assertSameValues(new double[] {1d, 1.5d, 2d, 3d, 4d, 19d / 3, 25d / 3, 10d, 10d, 10d}, RollingNodeCalc.mean(ts("d"), 3));
+        assertSameValues(new double[] {5d, 10d, 11d, 12d, 12d, 12d, 12d, 13d, 14d, 14d}, RollingNodeCalc.sum(ts("b"), 2));
+        assertSameValues(new double[] {1d, 1d, 1d, 1d, -3d, -3d, -3d, -3d, -3d, -3d}, RollingNodeCalc.min(ts("a"), 3));
+        assertSameValues(new double[] {1d, 1d, 1d, 2d, 2d, -3d, -3d, -3d, -3d, NAN}, RollingNodeCalc.max(ts("a"), 2));
+
+        // window longer than the index
+        assertSameValues(new double[] {1d, 3d, 6d, 10d, 15d, 25d, 35d, 45d, 55d, 65d}, RollingNodeCalc.sum(ts("d"), 20));
+        assertSameValues(new double[] {1d, 2d, 3d, 4d, 5d, 10d, 10d, 10d, 10d, 10d}, RollingNodeCalc.max(ts("d"), 20));
+
+        // results may change at points where no time series has a point
+        assertSameValues(new double[] {0d, 0d, 0d, 0.75d, -3.25d, -2.25d, -1.25d, 0d, NAN, NAN},
+                         BinaryOperation.minus(ts("a"), RollingNodeCalc.mean(ts("a"), 4)));
+    }
+
+    @Test
+    public void shiftTest() {
+        assertSameValues(new double[] {NAN, NAN, 5d, 5d, 6d, 6d, 6d, 6d, 6d, 7d}, new ShiftNodeCalc(ts("b"), 2));
+        assertSameValues(new double[] {6d, 6d, 6d, 6d, 7d, 7d, 7d, NAN, NAN, NAN}, new ShiftNodeCalc(ts("b"), -3));
+        assertSameValues(new double[] {NAN, 1d, 2d, 3d, 4d, 5d, 10d, 10d, 10d, 10d}, new ShiftNodeCalc(ts("d"), 1));
+        assertSameValues(new double[] {0d, 0d, 6d, 6d, 6d, 6d, 6d, -1d, -1d, -1d}, new ShiftNodeCalc(ts("c"), 0));
+
+        // shifted out of the index
+        double[] nans = new double[index.getPointCount()];
+        Arrays.fill(nans, NAN);
+        assertSameValues(nans, new ShiftNodeCalc(ts("b"), 10));
+        assertSameValues(nans, new ShiftNodeCalc(ts("b"), -20));
+
+        assertSameValues(new double[] {NAN, NAN, NAN, NAN, NAN, NAN, NAN, 7d, 8d, 15d},
+                         BinaryOperation.plus(new ShiftNodeCalc(ts("c"), 7), new TimeNodeCalc(ts("c"))));
+    }
+
+    @Test
+    public void resampleTest() {
+        CalculatedTimeSeries timeSeries = createCalculatedTimeSeries(new ResampleNodeCalc(ts("d"), WindowAggregation.MEAN, 4));
+        assertEquals(new RegularTimeSeriesIndex(0, 8, 4), timeSeries.getMetadata().getIndex());
+        assertSameValues(new double[] {2.5d, 8.75d, 10d}, timeSeries);
+
+        timeSeries = createCalculatedTimeSeries(new ResampleNodeCalc(ts("a"), WindowAggregation.MAX, 5));
+        assertEquals(new RegularTimeSeriesIndex(0, 5, 5), timeSeries.getMetadata().getIndex());
+        assertSameValues(new double[] {2d, -3d}, timeSeries);
+
+        // resampling of a resampled time series
+        timeSeries = createCalculatedTimeSeries(new ResampleNodeCalc(new ResampleNodeCalc(ts("d"), WindowAggregation.SUM, 2), WindowAggregation.MAX, 4));
+        assertEquals(new RegularTimeSeriesIndex(0, 8, 4), timeSeries.getMetadata().getIndex());
+        assertSameValues(new double[] {7d, 20d, 20d}, timeSeries);
+
+        // a single period
+        timeSeries = createCalculatedTimeSeries(new ResampleNodeCalc(ts("d"), WindowAggregation.SUM, 100));
+        assertEquals(new IrregularTimeSeriesIndex(new long[] {0}), timeSeries.getMetadata().getIndex());
+        assertSameValues(new double[] {65d}, timeSeries);
+
+        // not at the root, the value of the period is given at each point
+        assertSameValues(new double[] {-1.5d, -0.5d, 0.5d, 1.5d, -3.75d, 1.25d, 1.25d, 1.25d, 0d, 0d},
+                         BinaryOperation.minus(ts("d"), new ResampleNodeCalc(ts("d"), WindowAggregation.MEAN, 4)));
+    }
+
+    @Test
+    public void cumulativeSumTest() {
+        assertSameValues(new double[] {1d, 2d, 3d, 5d, 2d, -1d, -4d, -7d, NAN, NAN}, new CumulativeSumNodeCalc(ts("a")));
+        assertSameValues(new double[] {10d, 20d, 30d, 40d, 50d, NAN, NAN, NAN, NAN, NAN},
+                         new CumulativeSumNodeCalc(new ShiftNodeCalc(ts("d"), -5)));
+    }
+
+    @Test
+    public void constantTest() {
+        // evaluated on a single point until synchronized
+        CalculatedTimeSeries timeSeries = new CalculatedTimeSeries("test", new CumulativeSumNodeCalc(new IntegerNodeCalc(1)));
+        List<DoublePoint> points = timeSeries.stream().collect(Collectors.toList());
+        assertEquals(1, points.size());
+        assertEquals(1d, points.get(0).getValue(), 0d);
+
+        timeSeries.synchronize(index);
+        assertSameValues(new double[] {1d, 2d, 3d, 4d, 5d, 6d, 7d, 8d, 9d, 10d}, timeSeries);
+
+        timeSeries = new CalculatedTimeSeries("test", new ResampleNodeCalc(new TimeNodeCalc(new IntegerNodeCalc(0)), WindowAggregation.MAX, 4));
+        timeSeries.synchronize(index);
+        assertSameValues(new double[] {3d, 3d, 3d, 3d, 7d, 7d, 7d, 7d, 9d, 9d}, timeSeries);
+    }
+}
@@ -35,4 +35,14 @@ public class NodeCalcToJsonTest {
         NodeCalc node2 = NodeCalc.parseJson(json);
         assertEquals(node, node2);
     }
+
+    @Test
+    public void windowTest() {
+        NodeCalc node = new CumulativeSumNodeCalc(new ShiftNodeCalc(plus(RollingNodeCalc.min(new TimeSeriesNameNodeCalc("ts"), 4),
+                                                                         new ResampleNodeCalc(new TimeSeriesNameNodeCalc("ts"), WindowAggregation.SUM, 3600000)),
+                                                                    -3));
+        String json = NodeCalc.toJson(node);
+        NodeCalc node2 = NodeCalc.parseJson(json);
+        assertEquals(node, node2);
+    }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class ParallelTimeSeriesCsvParserTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String csv) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void assertSameAsSequentialParser(String csv) throws IOException {
+        Path file = write(csv);
+        Map<Integer, List<TimeSeries>> expected = TimeSeries.parseCsv(csv, ';');
+        for (int rangeCount : new int[] {1, 2, 3, 7, 50, 1000}) {
+            assertEquals(expected, ParallelTimeSeriesCsvParser.parse(file, ';', rangeCount));
+        }
+        assertEquals(expected, ParallelTimeSeriesCsvParser.parse(file));
+    }
+
+    @Test
+    public void test() throws IOException {
+        String csv = String.join("\n",
+                "Time;Version;ts1;ts2",
+                "1970-01-01T01:00:00.000+01:00;1;1.0;",
+                "1970-01-01T02:00:00.000+01:00;1;;a",
+                "1970-01-01T03:00:00.000+01:00;1;3.0;b",
+                "1970-01-01T01:00:00.000+01:00;2;4.0;c",
+                "1970-01-01T02:00:00.000+01:00;2;5.0;",
+                "1970-01-01T03:00:00.000+01:00;2;6.0;d") + "\n";
+        assertSameAsSequentialParser(csv);
+
+        String csvWithQuotes = String.join("\r\n",
+                "\"Time\";\"Version\";\"ts1\";\"ts2\"",
+                "\"1970-01-01T01:00:00.000+01:00\";\"1\";\"1.0\";",
+                "\"1970-01-01T02:00:00.000+01:00\";\"1\";;\"a;\"\"b\"\"\"",
+                "\"1970-01-01T03:00:00.000+01:00\";\"1\";\" 3.0 \";\"b\"",
+                "",
+                "\"1970-01-01T01:00:00.000+01:00\";\"2\";\"4.0\";\"c\"",
+                "\"1970-01-01T02:00:00.000+01:00\";\"2\";\"5.0\";",
+                "\"1970-01-01T03:00:00.000+01:00\";\"2\";\"6.0\";\"d\"");
+        assertSameAsSequentialParser(csvWithQuotes);
+    }
+
+    @Test
+    public void testManyLines() throws IOException {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder("Time;Version;constant;steps;random;text\n");
+        ZonedDateTime start = ZonedDateTime.parse("2015-01-01T00:00:00Z");
+        for (int version = 3; version >= 1; version--) {
+            for (int i = 0; i < 1000; i++) {
+                csv.append(start.plusMinutes(15L * i)).append(';')
+                        .append(version).append(';')
+                        .append("1.5").append(';')
+                        .append(i % 100 == 0 ? "" : Integer.toString(i / 200)).append(';')
+                        .append(random.nextGaussian() * 1000).append(';')
+                        .append(i % 3 == 0 ? "" : "t" + i % 7)
+                        .append('\n');
+            }
+        }
+        assertSameAsSequentialParser(csv.toString());
+    }
+
+    @Test
+    public void testParseDouble() {
+        Random random = new Random(7);
+        List<String> tokens = new ArrayList<>(Arrays.asList("0", "-0", "+1", "0.1", ".5", "5.", "1e10", "1E-5", "-2.5e+3",
+                "123456789012345678901234", "0.000000000000000000000000001", "1e400", "4.9e-324", "NaN", "-Infinity",
+                "0x1p3", "1d", "9007199254740993", "179769313486231570000000000000000000000000000000000000000000000000000000"));
+        for (int i = 0; i < 10000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value)) {
+                tokens.add(Double.toString(value));
+            }
+            tokens.add(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10)));
+            tokens.add(String.format(Locale.US, "%.4f", random.nextGaussian() * 100));
+        }
+        for (String token : tokens) {
+            ByteBuffer buffer = ByteBuffer.wrap(token.getBytes(StandardCharsets.US_ASCII));
+            assertEquals(token, Double.doubleToLongBits(Double.parseDouble(token)),
+                    Double.doubleToLongBits(ParallelTimeSeriesCsvParser.parseDouble(buffer, 0, buffer.limit())));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap("1.2.3".getBytes(StandardCharsets.US_ASCII));
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parseDouble(buffer, 0, buffer.limit())).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write(""))).hasMessage("CSV header is missing").isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write("Time;ts1\n"))).hasMessage("Bad CSV header, should be \nTime;Version;...").isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write("Time;Version;ts1\n"))).hasMessage("At least 2 rows are expected").isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write(String.join("\n",
+                "Time;Version;ts1",
+                "1970-01-01T01:00:00.000+01:00;1;1.0",
+                "1970-01-01T02:00:00.000+01:00;1;2.0;3.0"))))
+                .hasMessage("Columns of line starting at byte 53 are inconsistent with header").isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write(String.join("\n",
+                "Time;Version;ts1",
+                "1970-01-01T01:00:00.000+01:00;1;1.0",
+                "1970-01-01T02:00:00.000+01:00;1;2.0",
+                "1970-01-01T04:00:00.000+01:00;1;3.0"))))
+                .hasMessage("Time spacing has to be regular").isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write(String.join("\n",
+                "Time;Version;ts1",
+                "1970-01-01T01:00:00.000+01:00;1;1.0",
+                "1970-01-01T02:00:00.000+01:00;1;2.0",
+                "1970-01-01T01:00:00.000+01:00;2;1.0",
+                "1970-01-01T03:00:00.000+01:00;2;2.0"))))
+                .hasMessageStartingWith("All version of the data must have the same index").isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write(String.join("\n",
+                "Time;Version;ts1",
+                "1970-01-01T01:00:00.000+01:00;1;\"1.0",
+                "\"")))).isInstanceOf(TimeSeriesException.class);
+        assertThatCode(() -> ParallelTimeSeriesCsvParser.parse(write("Time;Version;ts1\n"), '"')).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -120,4 +120,21 @@ public class RegularTimeSeriesIndexTest {
         assertEquals(30 * 365 * 24 * 120 + 2, new RegularTimeSeriesIndex(0, 30L * 365 * 24 * 60 * 60 * 1000 + 1 * 30 * 1000, 30 * 1000).getPointCount());
         assertEquals(30 * 365 * 24 * 120 + 3, new RegularTimeSeriesIndex(0, 30L * 365 * 24 * 60 * 60 * 1000 + 2 * 30 * 1000, 30 * 1000).getPointCount());
     }
+
+    @Test
+    public void testSlice() {
+        RegularTimeSeriesIndex index = new RegularTimeSeriesIndex(1000, 10000, 1000);
+        assertEquals(0, index.getPointAtOrAfter(0));
+        assertEquals(0, index.getPointAtOrAfter(1000));
+        assertEquals(2, index.getPointAtOrAfter(2500));
+        assertEquals(2, index.getPointAtOrAfter(3000));
+        assertEquals(10, index.getPointAtOrAfter(20000));
+        assertEquals(new RegularTimeSeriesIndex(3000, 5000, 1000), index.slice(2, 5));
+        assertEquals(new IrregularTimeSeriesIndex(new long[] {10000}), index.slice(9, 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSliceError() {
+        new RegularTimeSeriesIndex(1000, 10000, 1000).slice(5, 11);
+    }
 }
@@ -151,4 +151,23 @@ public class StoredDoubleTimeSeriesTest {
         exception.expectMessage("Bad number of values 2, expected 3");
         TimeSeries.createDouble("ts1", new TestTimeSeriesIndex(0L, 3), 0d, 1d);
     }
+
+    @Test
+    public void sliceTest() {
+        RegularTimeSeriesIndex index = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T09:00:00Z"), Duration.ofHours(1));
+        StoredDoubleTimeSeries timeSeries = new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index),
+                new UncompressedDoubleDataChunk(0, new double[] {1d, 2d, 3d}),
+                new CompressedDoubleDataChunk(5, 5, new double[] {4d, 5d}, new int[] {2, 3}));
+        DoubleTimeSeries slice = timeSeries.slice(Interval.parse("2015-01-01T01:30:00Z/2015-01-01T07:00:00Z"));
+        assertEquals(RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T02:00:00Z/2015-01-01T06:00:00Z"), Duration.ofHours(1)),
+                     slice.getMetadata().getIndex());
+        assertArrayEquals(new double[] {3d, Double.NaN, Double.NaN, 4d, 4d}, slice.toArray(), 0d);
+        assertArrayEquals(Arrays.copyOfRange(timeSeries.toArray(), 2, 7), slice.toArray(), 0d);
+        // only overlapping chunks are kept
+        assertEquals(2, ((StoredDoubleTimeSeries) slice).getChunks().size());
+        assertEquals(1, ((StoredDoubleTimeSeries) timeSeries.slice(6, 8)).getChunks().size());
+
+        exception.expect(IllegalArgumentException.class);
+        timeSeries.slice(Interval.parse("2015-01-01T01:10:00Z/2015-01-01T01:50:00Z"));
+    }
 }
@@ -15,10 +15,12 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
@@ -85,6 +87,47 @@ public class TimeSeriesTableTest {
         assertEquals("Time;Version" + System.lineSeparator(), emptyCsv);
     }
 
+    @Test
+    public void testPpmccMatrix() {
+        // more time series than a block and more points than a tile
+        int timeSeriesCount = 70;
+        int pointCount = 3000;
+        TimeSeriesIndex index = new RegularTimeSeriesIndex(0, pointCount - 1, 1);
+        Random random = new Random(1);
+        List<DoubleTimeSeries> timeSeriesList = new ArrayList<>();
+        for (int i = 0; i < timeSeriesCount; i++) {
+            double[] values = new double[pointCount];
+            for (int j = 0; j < pointCount; j++) {
+                if (i % 10 == 3) {
+                    values[j] = 4; // constant
+                } else if (i % 10 == 7) {
+                    values[j] = 2 * timeSeriesList.get(i - 1).toArray()[j] + 1; // correlated to previous one
+                } else {
+                    values[j] = random.nextGaussian() * i;
+                }
+            }
+            TimeSeriesMetadata metadata = new TimeSeriesMetadata(String.format("ts%02d", i), TimeSeriesDataType.DOUBLE, index);
+            timeSeriesList.add(new StoredDoubleTimeSeries(metadata, new UncompressedDoubleDataChunk(0, values)));
+        }
+        TimeSeriesTable table = new TimeSeriesTable(1, 1, index);
+        table.load(1, timeSeriesList);
+
+        double[][] ppmcc = table.computePpmccMatrix(1);
+        double[][] covariance = table.computeCovarianceMatrix(1);
+        assertEquals(timeSeriesCount, ppmcc.length);
+        for (int i = 0; i < timeSeriesCount; i++) {
+            assertArrayEquals(table.computePpmcc(String.format("ts%02d", i), 1), ppmcc[i], 1e-12);
+            double stdDev = table.getStdDev(1, i);
+            assertEquals(stdDev * stdDev, covariance[i][i], 1e-9 * (1 + covariance[i][i]));
+            for (int j = 0; j < timeSeriesCount; j++) {
+                assertEquals(covariance[i][j], covariance[j][i], 0);
+            }
+        }
+        assertEquals(1, ppmcc[3][13], 0);
+        assertEquals(0, ppmcc[3][4], 0);
+        assertEquals(1, ppmcc[6][7], 1e-12);
+    }
+
     @Test
     public void testConcurrent() throws Exception {
         int threadCount = 16;
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.binary;
+
+import com.google.common.collect.ImmutableMap;
+import com.powsybl.timeseries.*;
+import com.powsybl.timeseries.ast.BinaryOperation;
+import com.powsybl.timeseries.ast.DoubleNodeCalc;
+import com.powsybl.timeseries.ast.RollingNodeCalc;
+import com.powsybl.timeseries.ast.TimeSeriesNameNodeCalc;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.threeten.extra.Interval;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class TimeSeriesBinaryTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<TimeSeries> timeSeriesList = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        TimeSeriesIndex regularIndex = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T09:00:00Z"), Duration.ofHours(1));
+        TimeSeriesIndex irregularIndex = IrregularTimeSeriesIndex.create(Instant.parse("2015-01-01T00:00:00Z"),
+                                                                         Instant.parse("2015-01-01T01:00:00Z"),
+                                                                         Instant.parse("2015-01-01T03:00:00Z"));
+        timeSeriesList.add(new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, ImmutableMap.of("tag1", "a", "tag2", "é"), regularIndex),
+                new UncompressedDoubleDataChunk(0, new double[] {1d, Double.NaN, -3.5d}),
+                new CompressedDoubleDataChunk(5, 5, new double[] {2d, 4d}, new int[] {2, 3})));
+        timeSeriesList.add(new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, irregularIndex),
+                new UncompressedDoubleDataChunk(0, new double[] {7d, 8d, 9d})));
+        timeSeriesList.add(new StringTimeSeries(new TimeSeriesMetadata("ts3", TimeSeriesDataType.STRING, regularIndex),
+                new UncompressedStringDataChunk(0, new String[] {"a", null, "b", "a"}),
+                new CompressedStringDataChunk(4, 6, new String[] {"c", null, "a"}, new int[] {2, 1, 3})));
+        timeSeriesList.add(new StringTimeSeries(new TimeSeriesMetadata("ts4", TimeSeriesDataType.STRING, InfiniteTimeSeriesIndex.INSTANCE)));
+        timeSeriesList.add(new CalculatedTimeSeries("ts5", RollingNodeCalc.mean(BinaryOperation.plus(new TimeSeriesNameNodeCalc("ts1"), new DoubleNodeCalc(1)), 2)));
+    }
+
+    @Test
+    public void roundTripTest() {
+        List<TimeSeries> timeSeriesList2 = TimeSeriesBinaryReader.read(TimeSeriesBinaryWriter.toBytes(timeSeriesList));
+        assertEquals(timeSeriesList, timeSeriesList2);
+        assertEquals(TimeSeries.toJson(timeSeriesList), TimeSeries.toJson(timeSeriesList2));
+    }
+
+    @Test
+    public void jsonCompatibilityTest() {
+        String json = TimeSeries.toJson(timeSeriesList);
+        List<TimeSeries> timeSeriesList2 = TimeSeriesBinaryReader.read(TimeSeriesBinaryWriter.toBytes(TimeSeries.parseJson(json)));
+        assertEquals(json, TimeSeries.toJson(timeSeriesList2));
+    }
+
+    @Test
+    public void fileTest() {
+        Path file = folder.getRoot().toPath().resolve("ts.bin");
+        TimeSeriesBinaryWriter.write(file, timeSeriesList);
+        assertEquals(timeSeriesList, TimeSeriesBinaryReader.read(file));
+    }
+
+    @Test
+    public void streamingTest() {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (TimeSeriesBinaryWriter writer = new TimeSeriesBinaryWriter(bos)) {
+            timeSeriesList.forEach(writer::write);
+        }
+        try (TimeSeriesBinaryReader reader = new TimeSeriesBinaryReader(new ByteArrayInputStream(bos.toByteArray()))) {
+            for (TimeSeries timeSeries : timeSeriesList) {
+                assertEquals(timeSeries, reader.read());
+            }
+            assertNull(reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    public void chunkTest() throws IOException {
+        List<DataChunk> chunks = Arrays.asList(new UncompressedDoubleDataChunk(3, new double[] {1d, 2d}),
+                                               new CompressedDoubleDataChunk(0, 4, new double[] {1d}, new int[] {4}),
+                                               XorCompressedDoubleDataChunk.compress(1, new double[] {1d, 1.5d, 2d, Double.NaN}),
+                                               new UncompressedStringDataChunk(1, new String[] {null, "x", "x"}),
+                                               new CompressedStringDataChunk(2, 3, new String[] {"y", "z"}, new int[] {1, 2}));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            for (DataChunk chunk : chunks) {
+                TimeSeriesBinaryWriter.writeChunk(dos, chunk);
+            }
+        }
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            for (DataChunk chunk : chunks) {
+                assertEquals(chunk, TimeSeriesBinaryReader.readChunk(dis));
+            }
+        }
+    }
+
+    @Test
+    public void compactnessTest() {
+        String[] values = new String[1000];
+        double[] doubles = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value" + (i % 3);
+            doubles[i] = i;
+        }
+        TimeSeriesIndex index = new RegularTimeSeriesIndex(0, 999, 1);
+        List<TimeSeries> list = Arrays.asList(new StringTimeSeries(new TimeSeriesMetadata("s", TimeSeriesDataType.STRING, index), new UncompressedStringDataChunk(0, values)),
+                                              new StoredDoubleTimeSeries(new TimeSeriesMetadata("d", TimeSeriesDataType.DOUBLE, index), new UncompressedDoubleDataChunk(0, doubles)));
+        // 1 byte per string value thanks to the dictionary, 8 bytes per double value
+        assertTrue(TimeSeriesBinaryWriter.toBytes(list).length < 9200);
+    }
+
+    @Test
+    public void invalidStreamTest() {
+        try {
+            TimeSeriesBinaryReader.read(new byte[] {0, 1, 2, 3, 0, 0, 0, 1});
+            fail();
+        } catch (TimeSeriesException ignored) {
+        }
+    }
+}
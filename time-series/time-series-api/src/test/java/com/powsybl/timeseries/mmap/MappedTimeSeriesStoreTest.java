@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2019, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.powsybl.timeseries.mmap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.powsybl.timeseries.*;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.threeten.extra.Interval;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent <agent at local>
+ */
+public class MappedTimeSeriesStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    private final TimeSeriesIndex index = RegularTimeSeriesIndex.create(Interval.parse("2015-01-01T00:00:00Z/2015-01-01T09:00:00Z"), Duration.ofHours(1));
+
+    private final TimeSeriesIndex otherIndex = RegularTimeSeriesIndex.create(Interval.parse("2016-01-01T00:00:00Z/2016-01-01T02:00:00Z"), Duration.ofHours(1));
+
+    private final List<DoubleTimeSeries> version1 = new ArrayList<>();
+
+    private final List<DoubleTimeSeries> version2 = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder().toPath().resolve("store");
+        TimeSeriesMetadata metadata1 = new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, index);
+        TimeSeriesMetadata metadata2 = new TimeSeriesMetadata("ts2", TimeSeriesDataType.DOUBLE, Collections.singletonMap("tag", "value"), index);
+        TimeSeriesMetadata metadata3 = new TimeSeriesMetadata("ts3", TimeSeriesDataType.DOUBLE, otherIndex);
+        // uncompressed, compressible and with a gap
+        version1.add(new StoredDoubleTimeSeries(metadata1,
+                new UncompressedDoubleDataChunk(0, new double[] {1d, 2d, 3d, 4d}),
+                new UncompressedDoubleDataChunk(6, new double[] {5d, 5d, 5d, 5d})));
+        version1.add(new StoredDoubleTimeSeries(metadata2,
+                new CompressedDoubleDataChunk(0, 10, new double[] {0d, -1d}, new int[] {4, 6})));
+        version1.add(new StoredDoubleTimeSeries(metadata3,
+                new UncompressedDoubleDataChunk(0, new double[] {7d, 8d, 9d})));
+        version2.add(new StoredDoubleTimeSeries(metadata1,
+                new UncompressedDoubleDataChunk(0, new double[] {10d, 20d, 30d, 40d, 50d, 60d, 70d, 80d, 90d, 100d})));
+        version2.add(new StoredDoubleTimeSeries(metadata2,
+                new CompressedDoubleDataChunk(2, 5, new double[] {3d}, new int[] {5})));
+
+        // small data files to write several of them
+        try (MappedTimeSeriesStoreWriter writer = new MappedTimeSeriesStoreWriter(directory, 100)) {
+            version1.forEach(timeSeries -> writer.write(timeSeries, 1));
+            version2.forEach(timeSeries -> writer.write(timeSeries, 2));
+        }
+    }
+
+    @Test
+    public void testMetadata() {
+        assertTrue(Files.exists(directory.resolve("data-1.bin")));
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            assertEquals(ImmutableSet.of("ts1", "ts2", "ts3"), store.getTimeSeriesNames(new TimeSeriesFilter()));
+            assertTrue(store.timeSeriesExists("ts1"));
+            assertFalse(store.timeSeriesExists("ts4"));
+            assertEquals(version1.get(1).getMetadata(), store.getTimeSeriesMetadata("ts2").orElseThrow(AssertionError::new));
+            assertEquals(2, store.getTimeSeriesMetadata(ImmutableSet.of("ts1", "ts3", "ts4")).size());
+            assertEquals(ImmutableSet.of(1, 2), store.getTimeSeriesDataVersions());
+            assertEquals(ImmutableSet.of(1), store.getTimeSeriesDataVersions("ts3"));
+            assertTrue(store.getTimeSeriesDataVersions("ts4").isEmpty());
+            assertFalse(store.getDoubleTimeSeries("ts3", 2).isPresent());
+            assertFalse(store.getStringTimeSeries("ts4", 1).isPresent());
+            try {
+                store.getStringTimeSeries("ts1", 1);
+                fail();
+            } catch (TimeSeriesException e) {
+                assertEquals("Time series 'ts1' is not a string time series", e.getMessage());
+            }
+
+            // time range lookup
+            assertEquals(ImmutableSet.of("ts1", "ts2"), store.getTimeSeriesNames(Interval.parse("2015-01-01T08:00:00Z/2015-06-01T00:00:00Z")));
+            assertEquals(ImmutableSet.of("ts3"), store.getTimeSeriesNames(Interval.of(Instant.parse("2015-06-01T00:00:00Z"), Duration.ofDays(365))));
+            assertTrue(store.getTimeSeriesNames(Interval.parse("2014-01-01T00:00:00Z/2015-01-01T00:00:00Z")).isEmpty());
+        }
+    }
+
+    private static List<DoublePoint> toPoints(DoubleTimeSeries timeSeries) {
+        List<DoubleDataChunk> chunks = ((StoredDoubleTimeSeries) timeSeries).getChunks().stream()
+                .map(DoubleDataChunk::tryToCompress)
+                .collect(Collectors.toList());
+        return new StoredDoubleTimeSeries(timeSeries.getMetadata(), chunks).stream().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testData() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            List<DoubleTimeSeries> expectedList = new ArrayList<>(version1);
+            expectedList.addAll(version2);
+            List<DoubleTimeSeries> actualList = new ArrayList<>(store.getDoubleTimeSeries(1));
+            actualList.addAll(store.getDoubleTimeSeries(2));
+            assertEquals(expectedList.size(), actualList.size());
+            for (int i = 0; i < expectedList.size(); i++) {
+                DoubleTimeSeries expected = expectedList.get(i);
+                DoubleTimeSeries actual = actualList.get(i);
+                assertEquals(expected.getMetadata(), actual.getMetadata());
+                assertArrayEquals(expected.toArray(), actual.toArray(), 0d);
+                // chunks may have been compressed, so points are compared with the same compression
+                assertEquals(toPoints(expected), actual.stream().collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    public void testTable() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            TimeSeriesTable table = new TimeSeriesTable(1, 2, index);
+            table.load(1, ImmutableList.copyOf(store.getDoubleTimeSeries(ImmutableSet.of("ts1", "ts2"), 1)));
+            table.load(2, ImmutableList.copyOf(store.getDoubleTimeSeries(ImmutableSet.of("ts1", "ts2"), 2)));
+            int ts1 = table.getDoubleTimeSeriesIndex("ts1");
+            int ts2 = table.getDoubleTimeSeriesIndex("ts2");
+            assertEquals(4d, table.getDoubleValue(1, ts1, 3), 0d);
+            assertTrue(Double.isNaN(table.getDoubleValue(1, ts1, 4)));
+            assertEquals(5d, table.getDoubleValue(1, ts1, 9), 0d);
+            assertEquals(-1d, table.getDoubleValue(1, ts2, 5), 0d);
+            assertEquals(100d, table.getDoubleValue(2, ts1, 9), 0d);
+            assertTrue(Double.isNaN(table.getDoubleValue(2, ts2, 1)));
+            assertEquals(3d, table.getDoubleValue(2, ts2, 6), 0d);
+        }
+    }
+
+    @Test
+    public void testSlice() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            Interval interval = Interval.parse("2015-01-01T02:30:00Z/2015-01-01T08:00:00Z");
+            List<DoubleTimeSeries> slices = store.getDoubleTimeSeries(ImmutableSet.of("ts1", "ts2", "ts3"), 1, interval);
+            assertEquals(2, slices.size());
+            for (int i = 0; i < slices.size(); i++) {
+                DoubleTimeSeries expected = version1.get(i).slice(interval);
+                DoubleTimeSeries actual = slices.get(i);
+                assertEquals(expected.getMetadata(), actual.getMetadata());
+                assertArrayEquals(expected.toArray(), actual.toArray(), 0d);
+                assertEquals(toPoints(expected), actual.stream().collect(Collectors.toList()));
+            }
+            // slice of a slice
+            DoubleTimeSeries slice = store.getDoubleTimeSeries("ts2", 1, 2, 9).orElseThrow(AssertionError::new).slice(1, 5);
+            assertArrayEquals(new double[] {0d, -1d, -1d, -1d}, slice.toArray(), 0d);
+            assertFalse(store.getDoubleTimeSeries("ts3", 1, interval).isPresent());
+        }
+    }
+
+    @Test
+    public void testWriteStore() throws IOException {
+        Path otherDirectory = folder.newFolder().toPath();
+        MappedTimeSeriesStoreWriter.write(new ReadOnlyTimeSeriesStoreCache(version1) {
+            @Override
+            public Set<Integer> getTimeSeriesDataVersions() {
+                return Collections.singleton(1);
+            }
+        }, otherDirectory);
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(otherDirectory)) {
+            assertEquals(3, store.getDoubleTimeSeries(1).size());
+            assertArrayEquals(new double[] {7d, 8d, 9d}, store.getDoubleTimeSeries("ts3", 1).orElseThrow(AssertionError::new).toArray(), 0d);
+        }
+    }
+
+    @Test
+    public void testWriteStringStore() throws IOException {
+        TimeSeriesMetadata metadata = new TimeSeriesMetadata("ts4", TimeSeriesDataType.STRING, index);
+        ReadOnlyTimeSeriesStore stringStore = new ReadOnlyTimeSeriesStoreCache(version1) {
+            @Override
+            public List<TimeSeriesMetadata> getTimeSeriesMetadata(Set<String> timeSeriesNames) {
+                return Collections.singletonList(metadata);
+            }
+        };
+        try {
+            MappedTimeSeriesStoreWriter.write(stringStore, folder.newFolder().toPath());
+            fail();
+        } catch (TimeSeriesException e) {
+            assertEquals("String time series 'ts4' cannot be written to a memory mapped time series store", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSynchronize() {
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            DoubleTimeSeries timeSeries = store.getDoubleTimeSeries("ts1", 1).orElseThrow(AssertionError::new);
+            timeSeries.synchronize(index);
+            try {
+                timeSeries.synchronize(otherIndex);
+                fail();
+            } catch (TimeSeriesException e) {
+                assertEquals("Memory mapped time series 'ts1' cannot be synchronized to another index", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testClosed() {
+        DoubleTimeSeries timeSeries;
+        MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory);
+        try {
+            timeSeries = store.getDoubleTimeSeries("ts1", 2).orElseThrow(AssertionError::new);
+        } finally {
+            store.close();
+        }
+        try {
+            store.getDoubleTimeSeries("ts1", 1);
+            fail();
+        } catch (TimeSeriesException e) {
+            assertEquals("Memory mapped time series store is closed", e.getMessage());
+        }
+        try {
+            store.getTimeSeriesNames(new TimeSeriesFilter());
+            fail();
+        } catch (TimeSeriesException e) {
+            assertEquals("Memory mapped time series store is closed", e.getMessage());
+        }
+
+        // time series obtained before closing the store remain valid
+        assertArrayEquals(version2.get(0).toArray(), timeSeries.toArray(), 0d);
+    }
+
+    @Test
+    public void testWriteErrors() throws IOException {
+        try (MappedTimeSeriesStoreWriter writer = new MappedTimeSeriesStoreWriter(folder.newFolder().toPath())) {
+            writer.write(version1.get(0), 1);
+            try {
+                writer.write(version1.get(0), 1);
+                fail();
+            } catch (TimeSeriesException e) {
+                assertEquals("Version 1 of time series 'ts1' already written", e.getMessage());
+            }
+            try {
+                writer.write(new StoredDoubleTimeSeries(new TimeSeriesMetadata("ts1", TimeSeriesDataType.DOUBLE, otherIndex)), 2);
+                fail();
+            } catch (TimeSeriesException e) {
+                assertEquals("Time series 'ts1' has different metadata depending on version", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testReadOnlyFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> assertTrue(file.toFile().setWritable(false)));
+        }
+        try (MappedTimeSeriesStore store = new MappedTimeSeriesStore(directory)) {
+            assertArrayEquals(version2.get(0).toArray(), store.getDoubleTimeSeries("ts1", 2).orElseThrow(AssertionError::new).toArray(), 0d);
+        }
+    }
+
+    @Test(expected = TimeSeriesException.class)
+    public void testMissingIndex() throws IOException {
+        new MappedTimeSeriesStore(folder.newFolder().toPath());
+    }
+}